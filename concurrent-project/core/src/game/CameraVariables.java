@@ -19,6 +19,7 @@ public class CameraVariables {
   public static double yratio = 1;
   public static int zoom = 1;
   public static int sres = 1;
+  public static boolean cullStats = false;
 
   public static int[] zoomConfig = new int[] { 2, 1, 1, 1 };
 
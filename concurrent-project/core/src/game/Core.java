@@ -8,11 +8,17 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 import error.GlobalErrors;
 import game.entities.structures.buildings.StructLoader;
+import game.renderer.AssetRegistry;
+import game.renderer.StaticLayerCache;
+import game.renderer.StructureMesh;
 import game.renderer.TextFieldListRenderer;
 import game.renderer.TextRenderer;
 import game.screens.GameScreenManager;
 import game.screens.menus.MainMenuScreen;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 /**
  * The core class is where most of the application variables are determined and
  * points to the first screen to be loaded when the application is started.
@@ -32,6 +38,12 @@ public class Core extends ApplicationAdapter {
 
   public static final String TITLE = "Shooter";
 
+  public static int renderCalls;
+
+  private static final String[] SPRITESHEETS = new String[] { "character_sheet.png",
+      "enemy_sheet.png", "bullets.png", "vegetation.png", "health.png", "temp_walls.png",
+      "font_white.png", "font_black.png", "blank.png" };
+
   private static GameScreenManager gsm;
   private SpriteBatch sb;
 
@@ -47,6 +59,9 @@ public class Core extends ApplicationAdapter {
   public void create() {
     sb = new SpriteBatch();
     gsm = new GameScreenManager();
+    ArrayList<String> sheets = new ArrayList<String>(Arrays.asList(SPRITESHEETS));
+    sheets.addAll(StructLoader.getTextureNames());
+    AssetRegistry.packAtlas(sheets);
     TextRenderer.load();
     TextFieldListRenderer.load();
     gsm.push(new MainMenuScreen(gsm));
@@ -65,7 +80,10 @@ public class Core extends ApplicationAdapter {
       deltaTime = time - lastRenderTime;
       lastRenderTime = time;
       gsm.update();
+      int lastRenderCalls = sb.totalRenderCalls + StaticLayerCache.getTotalRenderCalls();
       gsm.render(sb);
+      renderCalls = sb.totalRenderCalls + StaticLayerCache.getTotalRenderCalls()
+          - lastRenderCalls;
       observeErrors();
     } catch (Exception e) {
       e.printStackTrace();
@@ -77,6 +95,8 @@ public class Core extends ApplicationAdapter {
   @Override
   public void dispose() {
     sb.dispose();
+    StructureMesh.disposeAll();
+    AssetRegistry.disposeAll();
   }
 
   public static void displayError(String error) {
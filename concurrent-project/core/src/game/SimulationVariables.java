@@ -0,0 +1,33 @@
+package game;
+
+/**
+ * A class that holds the variables controlling how often the game models are
+ * updated.
+ * 
+ * <p>
+ * Entities move a fixed distance each tick, so when the tick time is raised the
+ * distance moved each tick is scaled by the same amount to keep the game
+ * running at the same speed. Renderers interpolate between ticks, so a longer
+ * tick only costs responsiveness and not smoothness.
+ * 
+ * @author Brandon Hua
+ */
+
+public class SimulationVariables {
+
+  public final static int BASETICKTIME = 10; // milliseconds
+
+  public static int tickTime = BASETICKTIME;
+
+  /**
+   * A method to get how far entities move each tick relative to the base tick
+   * time.
+   * 
+   * @return The scale applied to movement.
+   */
+
+  public static float tickScale() {
+    return (float) tickTime / BASETICKTIME;
+  }
+
+}
@@ -1,5 +1,11 @@
 package game.entities;
 
+import game.model.TimerWheel;
+import game.model.TimerWheel.Timer;
+import game.model.TimerWheel.TimerAction;
+
+import java.nio.ByteBuffer;
+
 /**
  * The bullet class is a type of entity with only rudamentary functions such as
  * move().
@@ -10,9 +16,10 @@ package game.entities;
 
 public class Bullet extends Entity {
 
-  private final int LIFETIME = 1500;
+  public final static int LIFETIME = 1500; // milliseconds
+  public final static int ACCEL = 100;
   
-  private int totalLife = 0;
+  private Timer life = new Timer(new Expire());
   private Boolean friendly;
 
   /**
@@ -33,9 +40,35 @@ public class Bullet extends Entity {
   public Bullet(int xpos, int ypos, int width, int height, 
       float xdir, float ydir, boolean friendly, int damage, float maxSpeed) {
     super(xpos, ypos, width, height);
+    setUp(xdir, ydir, friendly, damage, maxSpeed);
+  }
+
+  /**
+   * A method that sets up a bullet that has been removed from a game to be
+   * fired again, the same as a new bullet. Its lifetime timer must have been
+   * cancelled when it was removed.
+   * 
+   * @param xpos     The initial x position of the bullet.
+   * @param ypos     The initial y position of the bullet.
+   * @param width    The width of the bullet.
+   * @param height   The height of the bullet.
+   * @param xdir     The direction the bullet is facing on the x axis.
+   * @param ydir     The direction the bullet is facing on the Y axis.
+   * @param friendly A boolean for whether or not it is friendly.
+   * @param damage   The damage done by the bullet.
+   * @param maxSpeed The max travel speed of the bullet.
+   */
+
+  public void reset(int xpos, int ypos, int width, int height, float xdir, float ydir,
+      boolean friendly, int damage, float maxSpeed) {
+    reset(xpos, ypos, width, height, 1);
+    setUp(xdir, ydir, friendly, damage, maxSpeed);
+  }
+
+  private void setUp(float xdir, float ydir, boolean friendly, int damage, float maxSpeed) {
     this.setXDir(xdir);
     this.setYDir(ydir);
-    this.setAccel(100);
+    this.setAccel(ACCEL);
     this.setDecel(0);
     this.setMaxSpeed(maxSpeed);
     this.friendly = friendly;
@@ -43,24 +76,40 @@ public class Bullet extends Entity {
   }
 
   /**
-   * A method that accelerates the bullet if the total lived time
-   * is less that the maximum life-span of a bullet.
-   * Otherwise the bullet is marked as 'dead'.
+   * A method that accelerates the bullet.
    * 
    * @param deltaTime The difference in time from the last frame (in milliseconds).
    */
   
   public void moveBullet(long deltaTime) {
     accelDecel(deltaTime);
-    totalLife = (int) (totalLife + deltaTime);
-    if (totalLife > LIFETIME) {
-      this.die();
-    }
+  }
+
+  /**
+   * A method that starts the timer after which the bullet is marked as 'dead'.
+   * 
+   * @param timers The timers of the game the bullet is in.
+   */
+
+  public void startLifetime(TimerWheel timers) {
+    timers.schedule(life, LIFETIME);
+  }
+
+  /**
+   * A method to stop the timers of a bullet that is being removed.
+   */
+
+  public void cancelTimers() {
+    life.cancel();
   }
 
   public boolean isFriendly() {
     return friendly;
   }
+
+  public void setFriendly(boolean friendly) {
+    this.friendly = friendly;
+  }
   
   /**
    * The update method moves the bullet and scales it depending
@@ -72,4 +121,46 @@ public class Bullet extends Entity {
     this.move(gameSpeed);
   }
 
+  /**
+   * A method that writes the state of the bullet to a buffer, including its
+   * lifetime timer. Whether it is friendly is not written, as it is needed to
+   * make the bullet.
+   * 
+   * @param buffer The buffer to write to.
+   * @param timers The timers of the game the bullet is in.
+   */
+
+  public void writeState(ByteBuffer buffer, TimerWheel timers) {
+    writeState(buffer);
+    timers.writeTimer(buffer, life);
+  }
+
+  /**
+   * A method that reads the state of the bullet from a buffer written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   * @param timers The timers of the game the bullet is in.
+   */
+
+  public void readState(ByteBuffer buffer, TimerWheel timers) {
+    readState(buffer);
+    timers.readTimer(buffer, life);
+  }
+
+  /**
+   * The TimerAction run once a bullet has reached the end of its life.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class Expire implements TimerAction {
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      die();
+    }
+
+  }
+
 }
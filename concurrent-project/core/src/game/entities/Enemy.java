@@ -1,8 +1,15 @@
 package game.entities;
 
-import game.Core;
 import game.entities.EnemyTypeAction.EnemyAction;
 import game.entities.EnemyTypeAction.EnemyType;
+import game.entities.EnemyTypeAction.RolloutAction;
+import game.model.TimerWheel;
+import game.model.TimerWheel.Timer;
+import game.model.TimerWheel.TimerAction;
+import game.model.levels.FlowField;
+import game.model.levels.SightGrid;
+
+import java.nio.ByteBuffer;
 
 /**
  * The enemy class is an entity with simple UI that allows them to face an
@@ -14,15 +21,24 @@ import game.entities.EnemyTypeAction.EnemyType;
 
 public class Enemy extends Entity {
 
-  private final int RANGE = 128;
-  private final int KBFORCE = 16;
-  private final int FIRERATE = 10000; // milliseconds
-  private int lastFired = FIRERATE + 1;
-  private float bulletSpeed = 3;
-  private String type;
+  public final static int RANGE = 128;
+  public final static int KBFORCE = 16;
+  public final static int FIRERATE = 10000; // milliseconds
+  public final static int ACCEL = 30;
+  public final static int DECEL = 20;
+  public final static float BULLETSPEED = 3;
+  private boolean loaded = true;
+  private boolean inSight = true;
+  private Timer reload = new Timer(new Reload());
+  private float bulletSpeed = BULLETSPEED;
+  private int typeIndex;
+  private EnemyType type;
   private EnemyAction action;
-  private boolean shoots;
-  private int points;
+  private int aiTier;
+  private long aiTime;
+  private float planXDir;
+  private float planYDir;
+  private long planTime;
 
   /**
    * The constructor for an enemy object.
@@ -35,20 +51,30 @@ public class Enemy extends Entity {
    */
 
   public Enemy(int xpos, int ypos, int width, int height, String type) {
+    this(xpos, ypos, width, height, EnemyTypeAction.typeIndex(type));
+  }
+
+  /**
+   * The constructor for an enemy object of a type that has already been looked
+   * up, so no names are compared.
+   * 
+   * @param xpos      The initial x position of the enemy.
+   * @param ypos      The initial y position of the enemy.
+   * @param width     The width of the enemy.
+   * @param height    The height of the enemy.
+   * @param typeIndex The index of the type in EnemyTypeAction.getTypeList().
+   */
+
+  public Enemy(int xpos, int ypos, int width, int height, int typeIndex) {
     super(xpos, ypos, width, height);
-    this.setAccel(30);
-    this.setDecel(20);
-    this.type = type;
-    for (EnemyType t : EnemyTypeAction.getTypeList()) {
-      if (t.getType().equals(type)) {
-        this.action = t.typeAction();
-        this.shoots = t.canShoot();
-        this.setHealth(t.getHealth());
-        this.setDamage(t.getDamage());
-        this.setMaxSpeed(t.getSpeed());
-        this.points = t.getPoints();
-      }
-    }
+    this.setAccel(ACCEL);
+    this.setDecel(DECEL);
+    this.typeIndex = typeIndex;
+    this.type = EnemyTypeAction.getType(typeIndex);
+    this.action = EnemyTypeAction.getAction(typeIndex);
+    this.setHealth(type.getHealth());
+    this.setDamage(type.getDamage());
+    this.setMaxSpeed(type.getSpeed());
   }
 
   /**
@@ -90,6 +116,24 @@ public class Enemy extends Entity {
     this.setYDir(ydir);
   }
 
+  /**
+   * A method to change the direction of an enemy to follow a flow field around
+   * structures, facing straight towards the target when it is close or the
+   * field has no direction for the enemy.
+   * 
+   * @param target The target the enemy is moving towards.
+   * @param field  The flow field leading to the target.
+   */
+
+  public void navigateTowards(Entity target, FlowField field) {
+    if (field != null && field.hasDirection(this)) {
+      this.setXDir(field.getXDir(this));
+      this.setYDir(field.getYDir(this));
+    } else {
+      faceTowards(target);
+    }
+  }
+
   /**
    * The method to apply the movement.
    * 
@@ -98,11 +142,10 @@ public class Enemy extends Entity {
 
   public void update(float gameSpeed) {
     move(gameSpeed);
-    updateLastFired(gameSpeed);
   }
 
   public int getPoints() {
-    return this.points;
+    return type.getPoints();
   }
 
   /**
@@ -128,40 +171,42 @@ public class Enemy extends Entity {
     return FIRERATE;
   }
 
-  public void setLastFired(long deltaTime) {
-    lastFired = (int) deltaTime;
-  }
+  /**
+   * A method that starts the enemy reloading after it has fired.
+   * 
+   * @param timers The timers of the game the enemy is in.
+   */
 
-  public int getLastFired() {
-    return lastFired;
+  public void fired(TimerWheel timers) {
+    loaded = false;
+    timers.schedule(reload, FIRERATE);
   }
 
   /**
-   * A method that updates the time the enemy last fired at.
-   * 
-   * @param gameSpeed A modifier to speed up or slow down the rate of fire.
+   * A method to stop the timers of an enemy that is being removed.
    */
 
-  public void updateLastFired(float gameSpeed) {
-    long time = (long) (Core.deltaTime * gameSpeed);
-    long lastFired = getLastFired() + time;
-    setLastFired(lastFired);
+  public void cancelTimers() {
+    reload.cancel();
   }
 
   /**
    * A method to get a boolean value for whether or not an enemy can fire based on
-   * the last time fired.
+   * whether it has reloaded and could see its target when it last acted.
    * 
    * @return A boolean value representing if an enemy can fire.
    */
 
   public boolean canFire() {
-    if (shoots) {
-      if (lastFired > FIRERATE) {
-        return true;
-      }
-    }
-    return false;
+    return type.canShoot() && loaded && inSight;
+  }
+
+  public void setInSight(boolean inSight) {
+    this.inSight = inSight;
+  }
+
+  public boolean isInSight() {
+    return inSight;
   }
 
   public float getBulletSpeed() {
@@ -172,15 +217,184 @@ public class Enemy extends Entity {
    * A method that performs the action assigned to the enemy.
    * 
    * @param target    The target to follow/shoot at.
+   * @param field     The flow field leading to the target.
+   * @param sight     The grid used to check whether the target can be seen.
    * @param deltaTime The time since the last frame.
    */
 
-  public void performAction(Entity target, long deltaTime) {
-    action.action(this, target, deltaTime);
+  public void performAction(Entity target, FlowField field, SightGrid sight, long deltaTime) {
+    action.action(this, target, field, sight, deltaTime);
   }
 
   public String getType() {
-    return type;
+    return type.getType();
+  }
+
+  public EnemyAction getAction() {
+    return action;
+  }
+
+  public int getTypeIndex() {
+    return typeIndex;
+  }
+
+  /**
+   * A method that changes the type of the enemy, so that an enemy object can be
+   * reused for another enemy when a game is restored. The health and stats are
+   * not changed, as they are read with the rest of the state.
+   * 
+   * @param typeIndex The index of the type in EnemyTypeAction.getTypeList().
+   */
+
+  public void setTypeIndex(int typeIndex) {
+    if (this.typeIndex != typeIndex) {
+      this.typeIndex = typeIndex;
+      this.type = EnemyTypeAction.getType(typeIndex);
+      this.action = EnemyTypeAction.getAction(typeIndex);
+    }
+  }
+
+  public int getAiTier() {
+    return aiTier;
+  }
+
+  public void setAiTier(int tier) {
+    aiTier = tier;
+  }
+
+  /**
+   * A method that adds to the time the enemy has had since it last acted.
+   * 
+   * @param deltaTime The time since the last tick.
+   */
+
+  public void addAiTime(long deltaTime) {
+    aiTime += deltaTime;
+  }
+
+  public long getAiTime() {
+    return aiTime;
+  }
+
+  /**
+   * A method to get the time the enemy has had since it last acted and start
+   * counting again.
+   * 
+   * @return The time since the enemy last acted.
+   */
+
+  public long takeAiTime() {
+    long time = aiTime;
+    aiTime = 0;
+    return time;
+  }
+
+  /**
+   * A method that sets a move for the enemy to hold for a while, as chosen by a
+   * RolloutAction. A move with no direction holds the enemy to its usual
+   * behaviour without planning again.
+   * 
+   * @param xdir The direction to move in on the x axis.
+   * @param ydir The direction to move in on the y axis.
+   * @param time How long to hold the move for (in milliseconds of game time).
+   */
+
+  public void setPlan(float xdir, float ydir, long time) {
+    planXDir = xdir;
+    planYDir = ydir;
+    planTime = time;
+  }
+
+  public boolean hasPlan() {
+    return planTime > 0;
+  }
+
+  /**
+   * A method to check whether the enemy is holding a move that steers it, as
+   * opposed to no plan or one to carry on as usual.
+   * 
+   * @return True if the enemy should move in the direction of its plan.
+   */
+
+  public boolean isSteering() {
+    return planTime > 0 && (planXDir != 0 || planYDir != 0);
+  }
+
+  /**
+   * A method that turns the enemy in the direction of its plan and counts down
+   * the time left to hold it.
+   * 
+   * @param deltaTime The time since the enemy last acted.
+   */
+
+  public void followPlan(long deltaTime) {
+    if (planXDir != 0 || planYDir != 0) {
+      setXDir(planXDir);
+      setYDir(planYDir);
+    }
+    planTime -= deltaTime;
+  }
+
+  /**
+   * A method that writes the state of the enemy to a buffer, including its
+   * reload timer. The type is not written, as it is needed to make the enemy.
+   * The plan is only written for types that plan.
+   * 
+   * @param buffer The buffer to write to.
+   * @param timers The timers of the game the enemy is in.
+   */
+
+  public void writeState(ByteBuffer buffer, TimerWheel timers) {
+    writeState(buffer);
+    buffer.put((byte) ((loaded ? 1 : 0) | (inSight ? 2 : 0)));
+    buffer.putFloat(bulletSpeed);
+    buffer.put((byte) aiTier);
+    buffer.putLong(aiTime);
+    timers.writeTimer(buffer, reload);
+    if (action instanceof RolloutAction) {
+      buffer.putFloat(planXDir);
+      buffer.putFloat(planYDir);
+      buffer.putLong(planTime);
+    }
+  }
+
+  /**
+   * A method that reads the state of the enemy from a buffer written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   * @param timers The timers of the game the enemy is in.
+   */
+
+  public void readState(ByteBuffer buffer, TimerWheel timers) {
+    readState(buffer);
+    int flags = buffer.get();
+    loaded = (flags & 1) != 0;
+    inSight = (flags & 2) != 0;
+    bulletSpeed = buffer.getFloat();
+    aiTier = buffer.get();
+    aiTime = buffer.getLong();
+    timers.readTimer(buffer, reload);
+    if (action instanceof RolloutAction) {
+      planXDir = buffer.getFloat();
+      planYDir = buffer.getFloat();
+      planTime = buffer.getLong();
+    }
+  }
+
+  /**
+   * The TimerAction run once an enemy has reloaded.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class Reload implements TimerAction {
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      loaded = true;
+    }
+
   }
 
 }
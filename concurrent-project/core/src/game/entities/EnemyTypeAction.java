@@ -1,5 +1,14 @@
 package game.entities;
 
+import game.SimulationVariables;
+import game.model.RolloutPlan;
+import game.model.SessionFork;
+import game.model.ShooterGame;
+import game.model.levels.FlowField;
+import game.model.levels.SightGrid;
+
+import java.util.ArrayList;
+
 /**
  * The enemy type action class holds the behaviours for enemies as well as
  * providing the interfaces required to make them.
@@ -22,9 +31,66 @@ public class EnemyTypeAction {
      * 
      * @param enemy     The enemy to apply the action on to.
      * @param target    The target to move towards.
+     * @param field     The flow field leading to the target.
+     * @param sight     The grid used to check whether the target can be seen.
      * @param deltaTime The difference in time from the last rendered frame.
      */
-    public void action(Enemy enemy, Entity target, long deltaTime);
+    public void action(Enemy enemy, Entity target, FlowField field, SightGrid sight,
+        long deltaTime);
+  }
+
+  /**
+   * The RolloutAction is an action that looks ahead before it acts, by trying
+   * moves on forks of the session and playing each on for a few ticks. Planning
+   * is done on the thread of the game before any enemy acts, for the enemies
+   * near the player, while the action itself only follows the plan it made. A
+   * plan is made one move at a time, so the RolloutPlanner can spread the moves
+   * of a plan over more than one tick, and the action keeps what it needs
+   * between moves in the RolloutPlan rather than in itself.
+   * 
+   * @author Brandon Hua
+   */
+
+  public interface RolloutAction extends EnemyAction {
+    /**
+     * A method that checks whether an enemy needs a plan, before any fork is
+     * made, so an enemy with nothing to plan for costs no more than any other.
+     * 
+     * @param enemy The enemy that may plan.
+     * @param game  The game the enemy is in.
+     * @return True if the enemy should plan this tick.
+     */
+    public boolean wantsPlan(Enemy enemy, ShooterGame game);
+
+    /**
+     * A method that starts a plan for an enemy, working out anything the moves
+     * need from the game as it is now.
+     * 
+     * @param enemy The enemy to plan for.
+     * @param game  The game the enemy is in, which must not be changed.
+     * @param plan  The plan, already holding the enemy and its index.
+     * @return The number of moves to try, or 0 if there is nothing to plan.
+     */
+    public int startPlan(Enemy enemy, ShooterGame game, RolloutPlan plan);
+
+    /**
+     * A method that tries one move of a plan on a fork of the session.
+     * 
+     * @param plan The plan.
+     * @param move The move to try, from 0 up to the number of moves.
+     * @param root A fork of the session as it was when the plan was started.
+     * @return The score of the move, where a higher score is better.
+     */
+    public int tryMove(RolloutPlan plan, int move, SessionFork root);
+
+    /**
+     * A method that gives the enemy the best move once every move is tried.
+     * 
+     * @param enemy The enemy to plan for.
+     * @param plan  The plan.
+     * @param best  The move with the highest score.
+     */
+    public void finishPlan(Enemy enemy, RolloutPlan plan, int best);
   }
 
   /**
@@ -144,18 +210,68 @@ public class EnemyTypeAction {
 
   }
 
+  /**
+   * The DodgerEnemy type is a shooter that sees the bullets of the player coming
+   * and steps out of their way.
+   * 
+   * @author Brandon Hua
+   */
+
+  public static class DodgerEnemy implements EnemyType {
+
+    @Override
+    public String getType() {
+      return "dodge";
+    }
+
+    @Override
+    public int getHealth() {
+      return 2;
+    }
+
+    @Override
+    public int getDamage() {
+      return 1;
+    }
+
+    @Override
+    public float getSpeed() {
+      return 1.6f;
+    }
+
+    @Override
+    public boolean canShoot() {
+      return true;
+    }
+
+    @Override
+    public EnemyAction typeAction() {
+      return new DodgeBehaviour();
+    }
+
+    @Override
+    public int getPoints() {
+      return 150;
+    }
+
+  }
+
   /**
    * A simple AI method that moves towards a target and decelerates if it is in
-   * range of that target.
+   * range of that target. The enemy only stops and fires once it can see the
+   * target, otherwise it keeps moving around whatever is in the way.
    * 
    * @author Brandon Hua
    */
 
   public static class ShootBehaviour implements EnemyAction {
     @Override
-    public void action(Enemy enemy, Entity target, long deltaTime) {
-      enemy.faceTowards(target);
-      if (enemy.inRange(target)) {
+    public void action(Enemy enemy, Entity target, FlowField field, SightGrid sight,
+        long deltaTime) {
+      enemy.navigateTowards(target, field);
+      boolean inSight = sight == null || sight.canSee(enemy);
+      enemy.setInSight(inSight);
+      if (inSight && enemy.inRange(target)) {
         enemy.setXDir(0);
         enemy.setYDir(0);
       }
@@ -171,16 +287,178 @@ public class EnemyTypeAction {
 
   public static class ChaseBehaviour implements EnemyAction {
     @Override
-    public void action(Enemy enemy, Entity target, long deltaTime) {
-      enemy.faceTowards(target);
+    public void action(Enemy enemy, Entity target, FlowField field, SightGrid sight,
+        long deltaTime) {
+      enemy.navigateTowards(target, field);
       enemy.accelDecel(deltaTime);
     }
   }
 
-  private static EnemyType[] typeList = new EnemyType[] { new ShooterEnemy(), new ChaserEnemy() };
+  /**
+   * The dodge behaviour acts like the shoot behaviour until one of the bullets
+   * of the player is heading for the enemy. It then forks the session three
+   * times, carrying on as usual in one and stepping to either side of the path
+   * of the bullet in the others, plays each on for a short while and holds
+   * whichever move leaves the enemy with the most health, preferring to carry
+   * on when they are equal.
+   * 
+   * @author Brandon Hua
+   */
+
+  public static class DodgeBehaviour implements RolloutAction {
+
+    private final static int THREAT = 160;
+    private final static int MARGIN = 8;
+    private final static int LOOKAHEAD = 12; // ticks
+    private final static int STEER = 8; // ticks
+    private final static int CARRYON = 2; // ticks
+
+    @Override
+    public void action(Enemy enemy, Entity target, FlowField field, SightGrid sight,
+        long deltaTime) {
+      boolean steering = enemy.isSteering();
+      if (!steering) {
+        enemy.navigateTowards(target, field);
+      }
+      if (enemy.hasPlan()) {
+        enemy.followPlan(deltaTime);
+      }
+      boolean inSight = sight == null || sight.canSee(enemy);
+      enemy.setInSight(inSight);
+      if (!steering && inSight && enemy.inRange(target)) {
+        enemy.setXDir(0);
+        enemy.setYDir(0);
+      }
+      enemy.accelDecel(deltaTime);
+    }
+
+    @Override
+    public boolean wantsPlan(Enemy enemy, ShooterGame game) {
+      return !enemy.hasPlan() && threat(enemy, game.getBullets()) != null;
+    }
+
+    @Override
+    public int startPlan(Enemy enemy, ShooterGame game, RolloutPlan plan) {
+      Bullet bullet = threat(enemy, game.getBullets());
+      if (bullet == null) {
+        return 0;
+      }
+      float xdir = -bullet.getYDir();
+      float ydir = bullet.getXDir();
+      float length = Math.abs(xdir) + Math.abs(ydir);
+      if (length == 0) {
+        return 0;
+      }
+      plan.setDirection(xdir / length, ydir / length);
+      return 3;
+    }
+
+    @Override
+    public int tryMove(RolloutPlan plan, int move, SessionFork root) {
+      SessionFork fork = root.fork();
+      Enemy twin = fork.getGame().getEnemies().get(plan.getIndex());
+      float side = side(move);
+      twin.setPlan(plan.getXDir() * side, plan.getYDir() * side,
+          LOOKAHEAD * SimulationVariables.tickTime);
+      fork.step(LOOKAHEAD);
+      int health = twin.getHealth();
+      fork.discard();
+      return health;
+    }
+
+    @Override
+    public void finishPlan(Enemy enemy, RolloutPlan plan, int best) {
+      int tickTime = SimulationVariables.tickTime;
+      if (best == 0) {
+        enemy.setPlan(0, 0, CARRYON * tickTime);
+      } else {
+        float side = side(best);
+        enemy.setPlan(plan.getXDir() * side, plan.getYDir() * side, STEER * tickTime);
+      }
+    }
+
+    private float side(int move) {
+      return move == 0 ? 0 : (move == 1 ? 1 : -1);
+    }
+
+    /**
+     * A method to find the closest of the bullets of the player that is near an
+     * enemy and moving towards it.
+     * 
+     * @param enemy   The enemy to check.
+     * @param bullets The bullets of the game.
+     * @return The bullet, or null if none is a threat.
+     */
+
+    private Bullet threat(Enemy enemy, ArrayList<Bullet> bullets) {
+      Bullet closest = null;
+      int closestDist = Integer.MAX_VALUE;
+      for (int i = 0; i < bullets.size(); i++) {
+        Bullet bullet = bullets.get(i);
+        if (!bullet.isFriendly()) {
+          continue;
+        }
+        int xdiff = enemy.getXpos() - bullet.getXpos();
+        int ydiff = enemy.getYpos() - bullet.getYpos();
+        int dist = Math.abs(xdiff) + Math.abs(ydiff);
+        if (Math.abs(xdiff) >= THREAT || Math.abs(ydiff) >= THREAT || dist >= closestDist) {
+          continue;
+        }
+        float xdir = bullet.getXDir();
+        float ydir = bullet.getYDir();
+        float length = (float) Math.sqrt(xdir * xdir + ydir * ydir);
+        float miss = Math.abs(xdiff * ydir - ydiff * xdir) / length;
+        if (xdiff * xdir + ydiff * ydir > 0
+            && miss < (enemy.getWidth() + bullet.getWidth()) / 2 + MARGIN) {
+          closest = bullet;
+          closestDist = dist;
+        }
+      }
+      return closest;
+    }
+
+  }
+
+  private static EnemyType[] typeList = new EnemyType[] { new ShooterEnemy(), new ChaserEnemy(),
+      new DodgerEnemy() };
+
+  // The behaviours hold no state of their own, so every enemy of a type shares
+  // the one made here rather than making its own.
+  private static EnemyAction[] actionList = new EnemyAction[typeList.length];
+
+  static {
+    for (int i = 0; i < typeList.length; i++) {
+      actionList[i] = typeList[i].typeAction();
+    }
+  }
 
   public static EnemyType[] getTypeList() {
     return typeList;
   }
 
+  /**
+   * A method to get the index of an enemy type in the type list, so the type
+   * can be looked up by index from then on rather than by name.
+   * 
+   * @param typeName The name of the type.
+   * @return The index of the type, or -1 if there is no such type.
+   */
+
+  public static int typeIndex(String typeName) {
+    for (int i = 0; i < typeList.length; i++) {
+      if (typeList[i].getType().equals(typeName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public static EnemyType getType(int typeIndex) {
+    return typeList[typeIndex];
+  }
+
+  public static EnemyAction getAction(int typeIndex) {
+    return actionList[typeIndex];
+  }
+
 }
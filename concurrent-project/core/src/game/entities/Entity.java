@@ -1,7 +1,11 @@
 package game.entities;
 
+import game.SimulationVariables;
+import game.model.GameRandom;
 import game.model.ShooterGame;
 
+import java.nio.ByteBuffer;
+
 /**
  * The Entity class contains all the necessary fields for positional and size
  * information of any in-game object.
@@ -11,8 +15,12 @@ import game.model.ShooterGame;
 
 public class Entity implements Comparable<Entity> {
 
+  private final static int SNAPDISTANCE = 128;
+
   private int xpos;
   private int ypos;
+  private int prevx;
+  private int prevy;
   private int width;
   private int height;
   private String name;
@@ -27,7 +35,7 @@ public class Entity implements Comparable<Entity> {
   private float xdir = 0;
   private float ydir = 0;
 
-  private String facing;
+  private int facing;
   private boolean moving;
 
   private boolean decelX;
@@ -49,13 +57,15 @@ public class Entity implements Comparable<Entity> {
   public Entity(int xpos, int ypos, int width, int height) {
     this.xpos = xpos;
     this.ypos = ypos;
+    this.prevx = xpos;
+    this.prevy = ypos;
     this.height = height;
     this.width = width;
     this.xvel = 0;
     this.yvel = 0;
     this.xdir = 0;
     this.ydir = 0;
-    this.facing = "down";
+    this.facing = Facing.DOWN;
     this.moving = false;
     this.decelX = false;
     this.decelY = false;
@@ -76,18 +86,55 @@ public class Entity implements Comparable<Entity> {
   public Entity(int xpos, int ypos, int width, int height, int health) {
     this.xpos = xpos;
     this.ypos = ypos;
+    this.prevx = xpos;
+    this.prevy = ypos;
+    this.height = height;
+    this.width = width;
+    this.xvel = 0;
+    this.yvel = 0;
+    this.xdir = 0;
+    this.ydir = 0;
+    this.facing = Facing.DOWN;
+    this.moving = false;
+    this.decelX = false;
+    this.decelY = false;
+    this.dead = false;
+    this.health = health;
+  }
+
+  /**
+   * A method that puts the entity back into the state it is constructed in, so
+   * an entity that has been removed from a game can be used again rather than
+   * making a new one.
+   * 
+   * @param xpos   The initial x-position of the entity.
+   * @param ypos   The initial y-position of the entity.
+   * @param width  The width of the object.
+   * @param height The height of the object.
+   * @param health the initial health of the object.
+   */
+
+  protected void reset(int xpos, int ypos, int width, int height, int health) {
+    this.xpos = xpos;
+    this.ypos = ypos;
+    this.prevx = xpos;
+    this.prevy = ypos;
     this.height = height;
     this.width = width;
+    this.acceleration = 0;
+    this.decceleration = 0;
+    this.maxspeed = 0;
     this.xvel = 0;
     this.yvel = 0;
     this.xdir = 0;
     this.ydir = 0;
-    this.facing = "down";
+    this.facing = Facing.DOWN;
     this.moving = false;
     this.decelX = false;
     this.decelY = false;
     this.dead = false;
     this.health = health;
+    this.damage = 0;
   }
 
   public void subtractHealth(int remHealth) {
@@ -153,17 +200,54 @@ public class Entity implements Comparable<Entity> {
    */
 
   public void knockback(Entity entity, int force) {
+    knockback(entity.getXpos(), entity.getYpos(), force);
+  }
 
-    if (getXpos() != entity.getXpos()) {
-      xdir = (int) -(entity.getXpos() - getXpos()) / Math.abs(entity.getXpos() - getXpos());
-    }
+  /**
+   * A method that moves this entity in the opposite direction from a point.
+   * 
+   * @param x     The x position to move away from.
+   * @param y     The y position to move away from.
+   * @param force The force of the knock-back.
+   */
+
+  public void knockback(int x, int y, int force) {
+    xdir = knockbackDir(getXpos(), x, xdir);
+    ydir = knockbackDir(getYpos(), y, ydir);
+    xvel = knockbackVel(force, xdir);
+    yvel = knockbackVel(force, ydir);
+  }
+
+  /**
+   * A method that finds the direction an entity is knocked back in along one
+   * axis. The CollisionSystem of an EntityWorld uses the same method, so both
+   * kinds of game knock entities back the same way.
+   * 
+   * @param pos  The position of the entity on the axis.
+   * @param from The position on the axis being moved away from.
+   * @param dir  The current direction of the entity, which is kept when the
+   *             positions are the same.
+   * @return The direction to move in (1 or -1), or the current direction.
+   */
 
-    if (getYpos() != entity.getYpos()) {
-      ydir = (int) -(entity.getYpos() - getYpos()) / Math.abs(entity.getYpos() - getYpos());
+  public static float knockbackDir(int pos, int from, float dir) {
+    if (pos != from) {
+      return -Integer.signum(from - pos);
     }
+    return dir;
+  }
+
+  /**
+   * A method that finds the velocity an entity is knocked back with along one
+   * axis.
+   * 
+   * @param force The force of the knock-back.
+   * @param dir   The direction found by knockbackDir.
+   * @return The velocity on the axis.
+   */
 
-    this.setXVel(force);
-    this.setYVel(force);
+  public static float knockbackVel(int force, float dir) {
+    return force * dir;
   }
 
   public void setXPos(int x) {
@@ -182,6 +266,51 @@ public class Entity implements Comparable<Entity> {
     return ypos;
   }
 
+  /**
+   * A method that stores the current position as the position at the start of a
+   * simulation tick, so renderers can draw the entity in between ticks.
+   */
+
+  public void savePosition() {
+    prevx = xpos;
+    prevy = ypos;
+  }
+
+  /**
+   * A method to get the x position to draw the entity at, between where it was
+   * at the start and the end of the last tick. Entities that jumped further than
+   * they could have moved are drawn where they ended up.
+   * 
+   * @param alpha How far the renderer is through the current tick, from 0 to 1.
+   * @return The interpolated x position.
+   */
+
+  public float getDrawX(float alpha) {
+    int start = prevx;
+    int end = xpos;
+    if (Math.abs(end - start) > SNAPDISTANCE) {
+      return end;
+    }
+    return start + (end - start) * alpha;
+  }
+
+  /**
+   * A method to get the y position to draw the entity at, between where it was
+   * at the start and the end of the last tick.
+   * 
+   * @param alpha How far the renderer is through the current tick, from 0 to 1.
+   * @return The interpolated y position.
+   */
+
+  public float getDrawY(float alpha) {
+    int start = prevy;
+    int end = ypos;
+    if (Math.abs(end - start) > SNAPDISTANCE) {
+      return end;
+    }
+    return start + (end - start) * alpha;
+  }
+
   public void setWidth(int width) {
     this.width = width;
   }
@@ -242,7 +371,7 @@ public class Entity implements Comparable<Entity> {
     return this.maxspeed;
   }
 
-  public void setFacing(String facing) {
+  public void setFacing(int facing) {
     this.facing = facing;
   }
 
@@ -262,8 +391,23 @@ public class Entity implements Comparable<Entity> {
    */
 
   public boolean collidedWith(Entity entity) {
-    if (entity.minX() < maxX() && minX() < entity.maxX()) {
-      if (entity.minY() < maxY() && minY() < entity.maxY()) {
+    return collidedWith(entity.getXpos(), entity.getYpos(), entity.getWidth(),
+        entity.getHeight());
+  }
+
+  /**
+   * Detect whether or not an entity is in collision with a box.
+   * 
+   * @param x      The x position of the centre of the box.
+   * @param y      The y position of the centre of the box.
+   * @param width  The width of the box.
+   * @param height The height of the box.
+   * @return A boolean value for whether it has collided or not.
+   */
+
+  public boolean collidedWith(int x, int y, int width, int height) {
+    if (x - width / 2 < maxX() && minX() < x + width / 2) {
+      if (y - height / 2 < maxY() && minY() < y + height / 2) {
         return true;
       }
     }
@@ -317,18 +461,20 @@ public class Entity implements Comparable<Entity> {
 
   /**
    * The move class that takes current velocity and applies it to the entity's
-   * current position.
+   * current position. The distance moved is scaled by the tick time, so the
+   * speed of the entity does not depend on how often the game is updated.
    * 
    * @param gameSpeed The speed of the game.
    */
 
   public void move(float gameSpeed) {
-    this.setXPos((int) (this.getXpos() + (xvel * gameSpeed)));
-    this.setYPos((int) (this.getYpos() + (yvel * gameSpeed)));
+    float scale = gameSpeed * SimulationVariables.tickScale();
+    this.setXPos((int) (this.getXpos() + (xvel * scale)));
+    this.setYPos((int) (this.getYpos() + (yvel * scale)));
   }
 
   /**
-   * Change the values of the moving boolean and facing string to reflect the
+   * Change the values of the moving boolean and facing direction to reflect the
    * current state of the entity.
    */
 
@@ -343,27 +489,27 @@ public class Entity implements Comparable<Entity> {
     }
 
     if (ydir < 0) {
-      facing = "down";
+      facing = Facing.DOWN;
     }
     if (xdir > 0) {
-      facing = "right";
+      facing = Facing.RIGHT;
     }
 
     if (xdir < 0) {
-      facing = "left";
+      facing = Facing.LEFT;
     }
     if (ydir > 0) {
-      facing = "up";
+      facing = Facing.UP;
       if (xdir > 0) {
-        facing = "up_right";
+        facing = Facing.UP_RIGHT;
       }
       if (xdir < 0) {
-        facing = "up_left";
+        facing = Facing.UP_LEFT;
       }
     }
   }
 
-  public String getFacing() {
+  public int getFacing() {
     return facing;
   }
 
@@ -477,32 +623,44 @@ public class Entity implements Comparable<Entity> {
 
   /**
    * Code for preventing a entity character from passing through wall objects.
+   * The velocities are checked against the distance they move the entity in a
+   * tick, and the x movement is checked from where the y movement leaves the
+   * entity, so an entity heading for a corner cannot cut into it. An entity
+   * stuck exactly on the centre of the object is pushed out in a random
+   * direction.
    * 
    * @param entity The object the entity is being tested against.
+   * @param random The generator to pick the direction from.
    */
 
-  public void solidCollision(Entity entity) {
+  public void solidCollision(Entity entity, GameRandom random) {
+    float scale = SimulationVariables.tickScale();
     if (entity.minX() < maxX() && minX() < entity.maxX()) {
 
-      if ((minY() + yvel) < entity.maxY() && maxY() > entity.maxY() - (entity.getHeight() * 0.8)) {
+      if ((minY() + yvel * scale) < entity.maxY()
+          && maxY() > entity.maxY() - (entity.getHeight() * 0.8)) {
         // setYPos(getYPos() + 1);
         yvel = 0;
       }
 
-      if ((maxY() + yvel) > entity.minY() && minY() < entity.minY() + (entity.getHeight() * 0.2)) {
+      if ((maxY() + yvel * scale) > entity.minY()
+          && minY() < entity.minY() + (entity.getHeight() * 0.2)) {
         // setYPos(getYPos() - 1);
         yvel = 0;
       }
     }
 
-    if (entity.minY() < maxY() && minY() < entity.maxY()) {
+    float ystep = yvel * scale;
+    if (entity.minY() < maxY() + ystep && minY() + ystep < entity.maxY()) {
 
-      if ((minX() + xvel) < entity.maxX() && maxX() > entity.maxX() - (entity.getWidth() * 0.8)) {
+      if ((minX() + xvel * scale) < entity.maxX()
+          && maxX() > entity.maxX() - (entity.getWidth() * 0.8)) {
         // setXPos(getXPos() + 1);
         xvel = 0;
       }
 
-      if ((maxX() + xvel) > entity.minX() && minX() < entity.minX() + (entity.getWidth() * 0.2)) {
+      if ((maxX() + xvel * scale) > entity.minX()
+          && minX() < entity.minX() + (entity.getWidth() * 0.2)) {
         // setXPos(getXPos() - 1);
         xvel = 0;
       }
@@ -520,7 +678,7 @@ public class Entity implements Comparable<Entity> {
             / Math.abs((this.getYpos() - entity.getYpos()));
       }
       if (this.getXpos() == entity.getXpos() && this.getYpos() == entity.getYpos()) {
-        int rand = (int) Math.floor(((Math.random() * Math.floor(2)) * 2) - 1);
+        int rand = random.nextInt(4) - 1;
         xoffset = rand;
         yoffset = rand;
       }
@@ -552,6 +710,45 @@ public class Entity implements Comparable<Entity> {
     return false;
   }
 
+  /**
+   * A method that moves this entity out of another it is inside of, by the
+   * shortest distance along one axis. It is used against walls, which other
+   * entities may push this one into from the side.
+   * 
+   * @param entity The object to move out of.
+   */
+
+  public void pushOutOf(Entity entity) {
+    if (!isStuck(entity)) {
+      return;
+    }
+    int xshift = escape(minX(), maxX(), entity.minX(), entity.maxX());
+    int yshift = escape(minY(), maxY(), entity.minY(), entity.maxY());
+    if (Math.abs(xshift) <= Math.abs(yshift)) {
+      setXPos(getXpos() + xshift);
+    } else {
+      setYPos(getYpos() + yshift);
+    }
+  }
+
+  /**
+   * A method that finds the shortest move along one axis that takes a box out
+   * of another it overlaps. The CollisionSystem of an EntityWorld uses the same
+   * method, so both kinds of game push entities out of walls the same way.
+   * 
+   * @param min  The lowest edge of the box on the axis.
+   * @param max  The highest edge of the box on the axis.
+   * @param bmin The lowest edge of the box it overlaps.
+   * @param bmax The highest edge of the box it overlaps.
+   * @return The distance to move, negative to move towards the lower edge.
+   */
+
+  public static int escape(int min, int max, int bmin, int bmax) {
+    int back = max - bmin;
+    int forward = bmax - min;
+    return back < forward ? -back : forward;
+  }
+
   /**
    * A method to adjust the total speed of a character moving diagonally.
    * 
@@ -581,28 +778,29 @@ public class Entity implements Comparable<Entity> {
 
   public void keepInBound(ShooterGame game) {
     int[] bounds = game.getLevel().getBounds();
-    if (minX() + xvel < bounds[0]) {
+    float scale = SimulationVariables.tickScale();
+    if (minX() + xvel * scale < bounds[0]) {
       xvel = 0;
       if (minX() < bounds[0]) {
         setXPos(bounds[0] + getWidth() / 2);
       }
     }
 
-    if (maxX() + xvel > bounds[1]) {
+    if (maxX() + xvel * scale > bounds[1]) {
       xvel = 0;
       if (maxX() > bounds[1]) {
         setXPos(bounds[1] - getWidth() / 2);
       }
     }
 
-    if (minY() + yvel < bounds[2]) {
+    if (minY() + yvel * scale < bounds[2]) {
       yvel = 0;
       if (minY() < bounds[2]) {
         setYPos(bounds[2] + getHeight() / 2);
       }
     }
 
-    if (maxY() + yvel > bounds[3]) {
+    if (maxY() + yvel * scale > bounds[3]) {
       yvel = 0;
       if (maxY() > bounds[3]) {
         setYPos(bounds[3] - getHeight() / 2);
@@ -646,6 +844,64 @@ public class Entity implements Comparable<Entity> {
     centery = y;
   }
 
+  /**
+   * A method that writes everything about the entity that can change as the game
+   * is played to a buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(xpos);
+    buffer.putInt(ypos);
+    buffer.putInt(prevx);
+    buffer.putInt(prevy);
+    buffer.putInt(width);
+    buffer.putInt(height);
+    buffer.putInt(acceleration);
+    buffer.putInt(decceleration);
+    buffer.putFloat(maxspeed);
+    buffer.putFloat(xvel);
+    buffer.putFloat(yvel);
+    buffer.putFloat(xdir);
+    buffer.putFloat(ydir);
+    buffer.putInt(health);
+    buffer.putInt(damage);
+    buffer.put((byte) facing);
+    buffer.put((byte) ((moving ? 1 : 0) | (decelX ? 2 : 0) | (decelY ? 4 : 0) | (dead ? 8 : 0)));
+  }
+
+  /**
+   * A method that reads the state of the entity from a buffer written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    xpos = buffer.getInt();
+    ypos = buffer.getInt();
+    prevx = buffer.getInt();
+    prevy = buffer.getInt();
+    width = buffer.getInt();
+    height = buffer.getInt();
+    acceleration = buffer.getInt();
+    decceleration = buffer.getInt();
+    maxspeed = buffer.getFloat();
+    xvel = buffer.getFloat();
+    yvel = buffer.getFloat();
+    xdir = buffer.getFloat();
+    ydir = buffer.getFloat();
+    health = buffer.getInt();
+    damage = buffer.getInt();
+    facing = buffer.get();
+    int flags = buffer.get();
+    moving = (flags & 1) != 0;
+    decelX = (flags & 2) != 0;
+    decelY = (flags & 4) != 0;
+    dead = (flags & 8) != 0;
+  }
+
   /**
    * A method to stop the entity by setting the xvel and yvel to 0, as well as the
    * moving boolean.
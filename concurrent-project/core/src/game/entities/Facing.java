@@ -0,0 +1,69 @@
+package game.entities;
+
+/**
+ * The Facing class holds the directions an entity can face. A direction is
+ * stored as an int so it can be compared and used to index tables directly,
+ * and it is only turned into its name when it is sent to another client.
+ * 
+ * @author Brandon Hua
+ */
+
+public class Facing {
+
+  public final static int DOWN = 0;
+  public final static int RIGHT = 1;
+  public final static int LEFT = 2;
+  public final static int UP = 3;
+  public final static int UP_RIGHT = 4;
+  public final static int UP_LEFT = 5;
+  public final static int COUNT = 6;
+
+  private final static String[] NAMES = new String[] { "down", "right", "left", "up", "up_right",
+      "up_left" };
+  private final static float[] XDIR = new float[] { 0, 1, -1, 0, 1, -1 };
+  private final static float[] YDIR = new float[] { -1, 0, 0, 1, 1, 1 };
+
+  public static String getName(int facing) {
+    return NAMES[facing];
+  }
+
+  /**
+   * A method to get the direction a name stands for, such as one sent by
+   * another client.
+   * 
+   * @param name The name of the direction.
+   * @return The direction, or DOWN if there is no direction with that name.
+   */
+
+  public static int fromName(String name) {
+    for (int i = 0; i < COUNT; i++) {
+      if (NAMES[i].equals(name)) {
+        return i;
+      }
+    }
+    return DOWN;
+  }
+
+  /**
+   * A method to get which way along the x axis a direction points.
+   * 
+   * @param facing The direction.
+   * @return 1 for right, -1 for left and 0 otherwise.
+   */
+
+  public static float getXDir(int facing) {
+    return XDIR[facing];
+  }
+
+  /**
+   * A method to get which way along the y axis a direction points.
+   * 
+   * @param facing The direction.
+   * @return 1 for up, -1 for down and 0 otherwise.
+   */
+
+  public static float getYDir(int facing) {
+    return YDIR[facing];
+  }
+
+}
@@ -1,6 +1,10 @@
 package game.entities;
 
-import game.Core;
+import game.model.TimerWheel;
+import game.model.TimerWheel.Timer;
+import game.model.TimerWheel.TimerAction;
+
+import java.nio.ByteBuffer;
 
 /**
  * The player class that contains all the methods for movement and collisions.
@@ -17,10 +21,12 @@ public class PlayerCharacter extends Entity {
   private final int INVULNPERIOD = 1000;
   private static int initHealth = 6;
   private int fireRate = 500; // milliseconds
-  private int lastFired = fireRate + 1;
-  private int lastHit = INVULNPERIOD + 1;
-  private int deathCounter = 0;
+  private boolean loaded = true;
+  private boolean deathOver = false;
   private boolean invincible;
+  private Timer reload = new Timer(new Reload());
+  private Timer invulnerability = new Timer(new EndInvulnerability());
+  private Timer death = new Timer(new EndDeath());
   private boolean dying = false;
   private int startx;
   private int starty;
@@ -61,53 +67,38 @@ public class PlayerCharacter extends Entity {
 
   /**
    * The update method of the player character that moves the character and
-   * changes the states of the character accordingly.
+   * changes the states of the character accordingly. The death timer is
+   * started the first time the character is found to be dying.
    * 
    * @param gameSpeed The speed of the current game model.
+   * @param timers    The timers of the game the character is in.
    */
 
-  public void update(float gameSpeed) {
+  public void update(float gameSpeed, TimerWheel timers) {
     if (!isDying()) {
       move(gameSpeed);
-      updateLastHit(gameSpeed);
-      updateLastFired(gameSpeed);
       changeFacing();
-    } else {
-      incrDeathCounter(gameSpeed);
+    } else if (!deathOver && !death.isPending()) {
+      timers.schedule(death, DEATHTIME);
     }
   }
-  
-  /**
-   * A method to update the time between the last fired bullet.
-   * 
-   * @param gameSpeed The speed of the game.
-   */
-
-  public void updateLastFired(float gameSpeed) {
-    long time = (long) (Core.deltaTime * gameSpeed);
-    long lastFired = getLastFired() + time;
-    setLastFired(lastFired);
-  }
 
   /**
    * A method that resets certain values and places the player back
-   * at the initial position.
+   * at the initial position, invulnerable for a short time.
+   * 
+   * @param timers The timers of the game the character is in.
    */
   
-  public void respawn() {
+  public void respawn(TimerWheel timers) {
     setPos(startx, starty);
     setHealth(initHealth);
     setDeath(false);
-    deathCounter = 0;
+    death.cancel();
+    deathOver = false;
     dying = false;
-    deathCounter = 0;
-    invincible = false;
-    lastHit = 0;
     invincible = true;
-  }
-
-  public void incrDeathCounter(float gameSpeed) {
-    deathCounter += Core.deltaTime * gameSpeed;
+    timers.schedule(invulnerability, INVULNPERIOD);
   }
   
   /**
@@ -118,10 +109,7 @@ public class PlayerCharacter extends Entity {
    */
 
   public boolean deathTimeUp() {
-    if (deathCounter < DEATHTIME) {
-      return false;
-    }
-    return true;
+    return deathOver;
   }
 
   public void setFireRate(int fireRate) {
@@ -132,12 +120,15 @@ public class PlayerCharacter extends Entity {
     return fireRate;
   }
 
-  public void setLastFired(long deltaTime) {
-    lastFired = (int) deltaTime;
-  }
+  /**
+   * A method that starts the player reloading after they have fired.
+   * 
+   * @param timers The timers of the game the character is in.
+   */
 
-  public int getLastFired() {
-    return lastFired;
+  public void fired(TimerWheel timers) {
+    loaded = false;
+    timers.schedule(reload, fireRate);
   }
   
   /**
@@ -147,49 +138,46 @@ public class PlayerCharacter extends Entity {
    */
 
   public boolean canFire() {
-    if (lastFired > fireRate) {
-      return true;
-    }
-    return false;
+    return loaded;
   }
   
   /**
    * A method that damages the player based on the damage of an entity.
    * 
    * @param entity The entity to get the damage value from.
+   * @param timers The timers of the game the character is in.
    * @return A boolean value for whether the enemy has been damaged.
    */
 
-  public boolean damage(Entity entity) {
-    if (!invincible) {
-      if (collidedWith(entity)) {
-        this.knockback(entity, KBFORCE);
-        int damage = entity.getDamage();
-        this.subtractHealth(damage);
-        lastHit = 0;
-        invincible = true;
-        return true;
-      }
-    }
-    return false;
+  public boolean damage(Entity entity, TimerWheel timers) {
+    return damage(entity.getXpos(), entity.getYpos(), entity.getWidth(), entity.getHeight(),
+        entity.getDamage(), timers);
   }
-  
+
   /**
-   * A method that increases the last hit value and disables invincibility if the 
-   * invulnerable period has passed.
+   * A method that damages the player if they are in collision with a box, for
+   * things that are not stored as an Entity.
    * 
-   * @param gameSpeed The speed of the game.
+   * @param x      The x position of the centre of the box.
+   * @param y      The y position of the centre of the box.
+   * @param width  The width of the box.
+   * @param height The height of the box.
+   * @param damage The damage done by the box.
+   * @param timers The timers of the game the character is in.
+   * @return A boolean value for whether the player has been damaged.
    */
 
-  public void updateLastHit(float gameSpeed) {
-    if (gameSpeed > 0) {
-      if (invincible) {
-        lastHit = lastHit + (int) (Core.deltaTime * gameSpeed);
-        if (lastHit > INVULNPERIOD) {
-          invincible = false;
-        }
+  public boolean damage(int x, int y, int width, int height, int damage, TimerWheel timers) {
+    if (!invincible) {
+      if (collidedWith(x, y, width, height)) {
+        this.knockback(x, y, KBFORCE);
+        this.subtractHealth(damage);
+        invincible = true;
+        timers.schedule(invulnerability, INVULNPERIOD);
+        return true;
       }
     }
+    return false;
   }
 
   public boolean isInvincible() {
@@ -205,11 +193,100 @@ public class PlayerCharacter extends Entity {
   public boolean isDying() {
     dying = !checkLiving();
     if (dying) {
-      setFacing("down");
+      setFacing(Facing.DOWN);
       stop();
       invincible = false;
     }
     return dying;
   }
 
+  /**
+   * A method that writes the state of the player to a buffer, including the
+   * timers of their reload, invulnerability and death.
+   * 
+   * @param buffer The buffer to write to.
+   * @param timers The timers of the game the player is in.
+   */
+
+  public void writeState(ByteBuffer buffer, TimerWheel timers) {
+    writeState(buffer);
+    buffer.putInt(fireRate);
+    buffer.putInt(startx);
+    buffer.putInt(starty);
+    buffer.put((byte) ((loaded ? 1 : 0) | (deathOver ? 2 : 0) | (invincible ? 4 : 0)
+        | (dying ? 8 : 0)));
+    timers.writeTimer(buffer, reload);
+    timers.writeTimer(buffer, invulnerability);
+    timers.writeTimer(buffer, death);
+  }
+
+  /**
+   * A method that reads the state of the player from a buffer written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   * @param timers The timers of the game the player is in.
+   */
+
+  public void readState(ByteBuffer buffer, TimerWheel timers) {
+    readState(buffer);
+    fireRate = buffer.getInt();
+    startx = buffer.getInt();
+    starty = buffer.getInt();
+    int flags = buffer.get();
+    loaded = (flags & 1) != 0;
+    deathOver = (flags & 2) != 0;
+    invincible = (flags & 4) != 0;
+    dying = (flags & 8) != 0;
+    timers.readTimer(buffer, reload);
+    timers.readTimer(buffer, invulnerability);
+    timers.readTimer(buffer, death);
+  }
+
+  /**
+   * The TimerAction run once the player has reloaded.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class Reload implements TimerAction {
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      loaded = true;
+    }
+
+  }
+
+  /**
+   * The TimerAction run once the invulnerable period after a hit has passed.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class EndInvulnerability implements TimerAction {
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      invincible = false;
+    }
+
+  }
+
+  /**
+   * The TimerAction run once the player has been dead for long enough to
+   * respawn.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class EndDeath implements TimerAction {
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      deathOver = true;
+    }
+
+  }
+
 }
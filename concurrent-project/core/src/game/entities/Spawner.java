@@ -1,11 +1,11 @@
 package game.entities;
 
-import game.Core;
 import game.model.ShooterGame;
 
 /**
  * A The spawner object places enemies into a game model in pre-determined
- * intervals.
+ * intervals. Each game keeps its own spawn timer for every spawner, and every
+ * enemy is drawn from the types of its spawner.
  * 
  * @author Brandon hua
  *
@@ -14,7 +14,6 @@ import game.model.ShooterGame;
 public class Spawner {
 
   private int spawnInterval;
-  private long lastSpawn = Core.time;
   private int xpos;
   private int ypos;
 
@@ -27,45 +26,56 @@ public class Spawner {
    */
 
   public Spawner(int xpos, int ypos, int spawnInterval) {
-    this.xpos = xpos;
-    this.ypos = ypos;
-    this.spawnInterval = spawnInterval;
+    this(xpos, ypos, spawnInterval, DEFAULTTYPES);
   }
 
   /**
-   * The update method increases an interval based on the the difference between
-   * the last spawned time and the current time. When the interval is reached it
-   * uses the spawn() method to place an enemy in the game.
+   * The constructor for a spawner that places enemies of the given types.
    * 
-   * @param gameSpeed A modifier that speeds up or slows down the rate at which
-   *                  enemies are spawned.
-   * @param game      The game to spawn the enemies in.
+   * @param xpos          The x-position of the spawner.
+   * @param ypos          The x-position of the spawner.
+   * @param spawnInterval The time between each enemy spawn.
+   * @param typeNumber    The indices of the types of enemy to draw from.
    */
 
-  public void update(float gameSpeed, ShooterGame game) {
-    if (gameSpeed > 0) {
-      long curTime = Core.time;
-      if (lastSpawn + (long) spawnInterval < curTime) {
-        long spawnNumber = (curTime - lastSpawn) / spawnInterval;
-        for (int i = 0; i < spawnNumber; i++) {
-          spawn(game);
-        }
-        lastSpawn = Core.time;
-      }
-    }
+  public Spawner(int xpos, int ypos, int spawnInterval, int[] typeNumber) {
+    this.xpos = xpos;
+    this.ypos = ypos;
+    this.spawnInterval = spawnInterval;
+    this.typeNumber = typeNumber;
   }
 
   /**
-   * A method that places an enemy into a game.
+   * A method that places an enemy of a random type into a game, drawn from the
+   * generator of the game.
    * 
    * @param game The game for the enemy to be placed in.
    */
 
   public void spawn(ShooterGame game) {
-    int random = (int) Math.floor(Math.random() * Math.floor(2));
+    int random = game.getRandom().nextInt(typeNumber.length);
     game.addEnemy(xpos, ypos, 64, 64, typeNumber[random]);
   }
 
-  private String[] typeNumber = new String[] { "shoot", "chase" };
+  public int getXpos() {
+    return xpos;
+  }
+
+  public int getYpos() {
+    return ypos;
+  }
+
+  public int getSpawnInterval() {
+    return spawnInterval;
+  }
+
+  public int[] getTypeNumber() {
+    return typeNumber;
+  }
+
+  private final static int[] DEFAULTTYPES = new int[] { EnemyTypeAction.typeIndex("shoot"),
+      EnemyTypeAction.typeIndex("chase") };
+
+  private int[] typeNumber;
 
 }
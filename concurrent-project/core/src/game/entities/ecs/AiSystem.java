@@ -0,0 +1,112 @@
+package game.entities.ecs;
+
+import game.entities.Enemy;
+import game.entities.Entity;
+import game.model.levels.FlowField;
+import game.model.levels.SightGrid;
+
+/**
+ * The AiSystem runs the behaviour of every enemy in the world, in the same way
+ * as the ShootBehaviour and ChaseBehaviour do for Enemy objects. The behaviour
+ * of an enemy is picked by its type, so there is no action object per enemy.
+ * 
+ * @author Brandon Hua
+ */
+
+public class AiSystem {
+
+  private final static int BULLETSIZE = 16;
+
+  /**
+   * A method that steers every enemy towards the target, accelerates it and
+   * fires for every shooter that has reloaded and can see the target.
+   * 
+   * @param world     The world holding the enemies.
+   * @param target    The target the enemies move towards.
+   * @param field     The flow field leading to the target.
+   * @param sight     The grid used to check whether the target can be seen.
+   * @param deltaTime The time since the last tick.
+   */
+
+  public void update(EntityWorld world, Entity target, FlowField field, SightGrid sight,
+      long deltaTime) {
+    Archetype enemies = world.getEnemies();
+    MovementSystem movement = world.getMovement();
+    int count = enemies.getCount();
+    for (int row = 0; row < count; row++) {
+      navigateTowards(enemies, row, target, field);
+      if (EntityWorld.canShoot(enemies.type[row])) {
+        boolean inSight = sight == null || sight.canSee(enemies.x[row], enemies.y[row]);
+        enemies.inSight[row] = inSight;
+        if (inSight && inRange(enemies, row, target)) {
+          enemies.xdir[row] = 0;
+          enemies.ydir[row] = 0;
+        }
+      }
+      movement.accelerate(enemies, row, deltaTime);
+    }
+
+    for (int row = 0; row < count; row++) {
+      if (EntityWorld.canShoot(enemies.type[row]) && enemies.reload[row] <= 0
+          && enemies.inSight[row]) {
+        fire(world, enemies, row, target);
+      }
+    }
+  }
+
+  private void navigateTowards(Archetype enemies, int row, Entity target, FlowField field) {
+    int x = enemies.x[row];
+    int y = enemies.y[row];
+    if (field != null && field.hasDirection(x, y)) {
+      enemies.xdir[row] = field.getXDir(x, y);
+      enemies.ydir[row] = field.getYDir(x, y);
+      return;
+    }
+    float xdir = 0;
+    float ydir = 0;
+    int xdiff = target.getXpos() - x;
+    int ydiff = target.getYpos() - y;
+    if ((Math.abs(xdiff) + Math.abs(ydiff)) > 0) {
+      float ratio = (float) 1 / (float) (Math.abs(xdiff) + Math.abs(ydiff));
+      xdir = ratio * xdiff;
+      ydir = ratio * ydiff;
+    }
+    enemies.xdir[row] = xdir;
+    enemies.ydir[row] = ydir;
+  }
+
+  private boolean inRange(Archetype enemies, int row, Entity target) {
+    int x = enemies.x[row];
+    int y = enemies.y[row];
+    return x - Enemy.RANGE < target.getXpos() && target.getXpos() < x + Enemy.RANGE
+        && y - Enemy.RANGE < target.getYpos() && target.getYpos() < y + Enemy.RANGE;
+  }
+
+  /**
+   * A method that places an unfriendly bullet at an enemy, aimed at the target,
+   * and starts the enemy reloading.
+   * 
+   * @param world   The world to add the bullet to.
+   * @param enemies The enemies of the world.
+   * @param row     The row of the enemy firing.
+   * @param target  The target to aim at.
+   */
+
+  private void fire(EntityWorld world, Archetype enemies, int row, Entity target) {
+    float bulletXDir = 0;
+    float bulletYDir = 0;
+    int xdiff = target.getXpos() - enemies.x[row];
+    int ydiff = target.getYpos() - enemies.y[row];
+    if ((Math.abs(xdiff) + Math.abs(ydiff)) > 0) {
+      float ratio = (float) 1 / (float) (Math.abs(xdiff) + Math.abs(ydiff));
+      bulletXDir = ratio * xdiff;
+      bulletYDir = ratio * ydiff;
+    }
+    int xpos = (int) (enemies.x[row] + bulletXDir * (enemies.width[row] / 2));
+    int ypos = (int) (enemies.y[row] + bulletYDir * (enemies.height[row] / 2));
+    world.addBullet(xpos, ypos, BULLETSIZE, BULLETSIZE, bulletXDir, bulletYDir, false,
+        enemies.damage[row], enemies.bulletSpeed[row]);
+    enemies.reload[row] = Enemy.FIRERATE;
+  }
+
+}
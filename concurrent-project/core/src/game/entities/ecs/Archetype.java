@@ -0,0 +1,549 @@
+package game.entities.ecs;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An Archetype stores every entity made of the same set of components. Each
+ * field of each component is a column, an array holding that field for every
+ * entity, and the entities are packed into the first rows of the columns with
+ * no gaps. Systems walk the columns they need from the first row to the last,
+ * which reads memory in order rather than chasing one object per entity.
+ * 
+ * <p>
+ * Removing a single entity moves the last entity into its row, so the rows of
+ * the other entities can change. Entities keep the same id for their whole life,
+ * and anything that needs to follow an entity uses its id rather than its row.
+ * 
+ * @author Brandon Hua
+ */
+
+public class Archetype {
+
+  private final static int SNAPDISTANCE = 128;
+
+  private final int mask;
+  private int count;
+  private int capacity;
+
+  int[] ids;
+  int[] x;
+  int[] y;
+  int[] prevx;
+  int[] prevy;
+  int[] width;
+  int[] height;
+  float[] xvel;
+  float[] yvel;
+  float[] xdir;
+  float[] ydir;
+  int[] accel;
+  int[] decel;
+  float[] maxSpeed;
+  int[] health;
+  int[] damage;
+  int[] type;
+  long[] aiTime;
+  int[] reload;
+  float[] bulletSpeed;
+  boolean[] inSight;
+  int[] lifetime;
+  boolean[] friendly;
+
+  /**
+   * The Archetype makes the columns for the components in its mask.
+   * 
+   * @param mask     The components of the entities, from Components.
+   * @param capacity The number of entities to make room for at first.
+   */
+
+  public Archetype(int mask, int capacity) {
+    this.mask = mask;
+    resize(Math.max(16, capacity));
+  }
+
+  /**
+   * A method that moves every column into arrays of a new size.
+   * 
+   * @param newCapacity The number of rows the new columns hold.
+   */
+
+  private void resize(int newCapacity) {
+    capacity = newCapacity;
+    ids = copy(ids, newCapacity);
+    if (has(Components.POSITION)) {
+      x = copy(x, newCapacity);
+      y = copy(y, newCapacity);
+      prevx = copy(prevx, newCapacity);
+      prevy = copy(prevy, newCapacity);
+    }
+    if (has(Components.SIZE)) {
+      width = copy(width, newCapacity);
+      height = copy(height, newCapacity);
+    }
+    if (has(Components.VELOCITY)) {
+      xvel = copy(xvel, newCapacity);
+      yvel = copy(yvel, newCapacity);
+      xdir = copy(xdir, newCapacity);
+      ydir = copy(ydir, newCapacity);
+    }
+    if (has(Components.MOTION)) {
+      accel = copy(accel, newCapacity);
+      decel = copy(decel, newCapacity);
+      maxSpeed = copy(maxSpeed, newCapacity);
+    }
+    if (has(Components.HEALTH)) {
+      health = copy(health, newCapacity);
+    }
+    if (has(Components.DAMAGE)) {
+      damage = copy(damage, newCapacity);
+    }
+    if (has(Components.BEHAVIOUR)) {
+      type = copy(type, newCapacity);
+      aiTime = copy(aiTime, newCapacity);
+    }
+    if (has(Components.WEAPON)) {
+      reload = copy(reload, newCapacity);
+      bulletSpeed = copy(bulletSpeed, newCapacity);
+      inSight = copy(inSight, newCapacity);
+    }
+    if (has(Components.LIFETIME)) {
+      lifetime = copy(lifetime, newCapacity);
+    }
+    if (has(Components.FACTION)) {
+      friendly = copy(friendly, newCapacity);
+    }
+  }
+
+  private int[] copy(int[] column, int length) {
+    int[] newColumn = new int[length];
+    if (column != null) {
+      System.arraycopy(column, 0, newColumn, 0, count);
+    }
+    return newColumn;
+  }
+
+  private long[] copy(long[] column, int length) {
+    long[] newColumn = new long[length];
+    if (column != null) {
+      System.arraycopy(column, 0, newColumn, 0, count);
+    }
+    return newColumn;
+  }
+
+  private float[] copy(float[] column, int length) {
+    float[] newColumn = new float[length];
+    if (column != null) {
+      System.arraycopy(column, 0, newColumn, 0, count);
+    }
+    return newColumn;
+  }
+
+  private boolean[] copy(boolean[] column, int length) {
+    boolean[] newColumn = new boolean[length];
+    if (column != null) {
+      System.arraycopy(column, 0, newColumn, 0, count);
+    }
+    return newColumn;
+  }
+
+  /**
+   * A method that adds an entity to the end of the archetype. Every column of
+   * the new row is zero until it is set.
+   * 
+   * @param id The id of the entity.
+   * @return The row of the new entity.
+   */
+
+  public int add(int id) {
+    if (count == capacity) {
+      resize(capacity * 2);
+    }
+    int row = count;
+    clearRow(row);
+    ids[row] = id;
+    count++;
+    return row;
+  }
+
+  /**
+   * A method that removes an entity by moving the last entity into its row.
+   * 
+   * @param row The row of the entity to remove.
+   */
+
+  public void remove(int row) {
+    int last = count - 1;
+    if (row != last) {
+      moveRow(last, row);
+    }
+    count--;
+  }
+
+  /**
+   * A method that removes every entity not marked to be kept, moving the
+   * entities that are kept down to fill the gaps. Unlike remove(), the kept
+   * entities stay in the same order, so the world is updated in the same order
+   * as the lists of Enemy and Bullet objects would be.
+   * 
+   * @param keep Whether to keep the entity in each row.
+   * @return The number of entities removed.
+   */
+
+  public int retain(boolean[] keep) {
+    int kept = 0;
+    for (int row = 0; row < count; row++) {
+      if (keep[row]) {
+        if (row != kept) {
+          moveRow(row, kept);
+        }
+        kept++;
+      }
+    }
+    int removed = count - kept;
+    count = kept;
+    return removed;
+  }
+
+  private void moveRow(int from, int to) {
+    ids[to] = ids[from];
+    if (x != null) {
+      x[to] = x[from];
+      y[to] = y[from];
+      prevx[to] = prevx[from];
+      prevy[to] = prevy[from];
+    }
+    if (width != null) {
+      width[to] = width[from];
+      height[to] = height[from];
+    }
+    if (xvel != null) {
+      xvel[to] = xvel[from];
+      yvel[to] = yvel[from];
+      xdir[to] = xdir[from];
+      ydir[to] = ydir[from];
+    }
+    if (accel != null) {
+      accel[to] = accel[from];
+      decel[to] = decel[from];
+      maxSpeed[to] = maxSpeed[from];
+    }
+    if (health != null) {
+      health[to] = health[from];
+    }
+    if (damage != null) {
+      damage[to] = damage[from];
+    }
+    if (type != null) {
+      type[to] = type[from];
+      aiTime[to] = aiTime[from];
+    }
+    if (reload != null) {
+      reload[to] = reload[from];
+      bulletSpeed[to] = bulletSpeed[from];
+      inSight[to] = inSight[from];
+    }
+    if (lifetime != null) {
+      lifetime[to] = lifetime[from];
+    }
+    if (friendly != null) {
+      friendly[to] = friendly[from];
+    }
+  }
+
+  private void clearRow(int row) {
+    if (xvel != null) {
+      xvel[row] = 0;
+      yvel[row] = 0;
+      xdir[row] = 0;
+      ydir[row] = 0;
+    }
+    if (type != null) {
+      aiTime[row] = 0;
+    }
+    if (reload != null) {
+      reload[row] = 0;
+      inSight[row] = true;
+    }
+  }
+
+  public void clear() {
+    count = 0;
+  }
+
+  /**
+   * A method that writes the entities of the archetype to a buffer, as the
+   * number of entities followed by the rows of each column it has.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(count);
+    putInts(buffer, ids);
+    if (has(Components.POSITION)) {
+      putInts(buffer, x);
+      putInts(buffer, y);
+      putInts(buffer, prevx);
+      putInts(buffer, prevy);
+    }
+    if (has(Components.SIZE)) {
+      putInts(buffer, width);
+      putInts(buffer, height);
+    }
+    if (has(Components.VELOCITY)) {
+      putFloats(buffer, xvel);
+      putFloats(buffer, yvel);
+      putFloats(buffer, xdir);
+      putFloats(buffer, ydir);
+    }
+    if (has(Components.MOTION)) {
+      putInts(buffer, accel);
+      putInts(buffer, decel);
+      putFloats(buffer, maxSpeed);
+    }
+    if (has(Components.HEALTH)) {
+      putInts(buffer, health);
+    }
+    if (has(Components.DAMAGE)) {
+      putInts(buffer, damage);
+    }
+    if (has(Components.BEHAVIOUR)) {
+      putInts(buffer, type);
+      for (int row = 0; row < count; row++) {
+        buffer.putLong(aiTime[row]);
+      }
+    }
+    if (has(Components.WEAPON)) {
+      putInts(buffer, reload);
+      putFloats(buffer, bulletSpeed);
+      putBooleans(buffer, inSight);
+    }
+    if (has(Components.LIFETIME)) {
+      putInts(buffer, lifetime);
+    }
+    if (has(Components.FACTION)) {
+      putBooleans(buffer, friendly);
+    }
+  }
+
+  /**
+   * A method that replaces the entities of the archetype with ones written by
+   * writeState(), growing the columns if they are too small.
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    int newCount = buffer.getInt();
+    if (newCount > capacity) {
+      int newCapacity = capacity;
+      while (newCapacity < newCount) {
+        newCapacity *= 2;
+      }
+      resize(newCapacity);
+    }
+    count = newCount;
+    getInts(buffer, ids);
+    if (has(Components.POSITION)) {
+      getInts(buffer, x);
+      getInts(buffer, y);
+      getInts(buffer, prevx);
+      getInts(buffer, prevy);
+    }
+    if (has(Components.SIZE)) {
+      getInts(buffer, width);
+      getInts(buffer, height);
+    }
+    if (has(Components.VELOCITY)) {
+      getFloats(buffer, xvel);
+      getFloats(buffer, yvel);
+      getFloats(buffer, xdir);
+      getFloats(buffer, ydir);
+    }
+    if (has(Components.MOTION)) {
+      getInts(buffer, accel);
+      getInts(buffer, decel);
+      getFloats(buffer, maxSpeed);
+    }
+    if (has(Components.HEALTH)) {
+      getInts(buffer, health);
+    }
+    if (has(Components.DAMAGE)) {
+      getInts(buffer, damage);
+    }
+    if (has(Components.BEHAVIOUR)) {
+      getInts(buffer, type);
+      for (int row = 0; row < count; row++) {
+        aiTime[row] = buffer.getLong();
+      }
+    }
+    if (has(Components.WEAPON)) {
+      getInts(buffer, reload);
+      getFloats(buffer, bulletSpeed);
+      getBooleans(buffer, inSight);
+    }
+    if (has(Components.LIFETIME)) {
+      getInts(buffer, lifetime);
+    }
+    if (has(Components.FACTION)) {
+      getBooleans(buffer, friendly);
+    }
+  }
+
+  private void putInts(ByteBuffer buffer, int[] column) {
+    for (int row = 0; row < count; row++) {
+      buffer.putInt(column[row]);
+    }
+  }
+
+  private void putFloats(ByteBuffer buffer, float[] column) {
+    for (int row = 0; row < count; row++) {
+      buffer.putFloat(column[row]);
+    }
+  }
+
+  private void putBooleans(ByteBuffer buffer, boolean[] column) {
+    for (int row = 0; row < count; row++) {
+      buffer.put(column[row] ? (byte) 1 : (byte) 0);
+    }
+  }
+
+  private void getInts(ByteBuffer buffer, int[] column) {
+    for (int row = 0; row < count; row++) {
+      column[row] = buffer.getInt();
+    }
+  }
+
+  private void getFloats(ByteBuffer buffer, float[] column) {
+    for (int row = 0; row < count; row++) {
+      column[row] = buffer.getFloat();
+    }
+  }
+
+  private void getBooleans(ByteBuffer buffer, boolean[] column) {
+    for (int row = 0; row < count; row++) {
+      column[row] = buffer.get() != 0;
+    }
+  }
+
+  public boolean has(int component) {
+    return (mask & component) == component;
+  }
+
+  public int getMask() {
+    return mask;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * A method to get how much memory the columns of the archetype take up,
+   * including the rows that are allocated but not used yet.
+   * 
+   * @return The size of the columns (in bytes).
+   */
+
+  public long getColumnBytes() {
+    return (long) capacity * Components.bytesPerEntity(mask);
+  }
+
+  // Renderers read the columns directly. They must read the count before the
+  // columns, and stop at the length of the columns, as the game thread may
+  // grow them while a view is being drawn.
+
+  /**
+   * A method to get the x position to draw an entity at, between where it was
+   * at the start and the end of the last tick, the same as Entity.getDrawX.
+   * 
+   * @param row   The row of the entity.
+   * @param alpha How far the renderer is through the current tick, from 0 to 1.
+   * @return The interpolated x position.
+   */
+
+  public float getDrawX(int row, float alpha) {
+    return interpolate(prevx[row], x[row], alpha);
+  }
+
+  /**
+   * A method to get the y position to draw an entity at, between where it was
+   * at the start and the end of the last tick.
+   * 
+   * @param row   The row of the entity.
+   * @param alpha How far the renderer is through the current tick, from 0 to 1.
+   * @return The interpolated y position.
+   */
+
+  public float getDrawY(int row, float alpha) {
+    return interpolate(prevy[row], y[row], alpha);
+  }
+
+  private float interpolate(int start, int end, float alpha) {
+    if (Math.abs(end - start) > SNAPDISTANCE) {
+      return end;
+    }
+    return start + (end - start) * alpha;
+  }
+
+  public int[] getIds() {
+    return ids;
+  }
+
+  public int[] getX() {
+    return x;
+  }
+
+  public int[] getY() {
+    return y;
+  }
+
+  public int[] getPrevX() {
+    return prevx;
+  }
+
+  public int[] getPrevY() {
+    return prevy;
+  }
+
+  public int[] getWidth() {
+    return width;
+  }
+
+  public int[] getHeight() {
+    return height;
+  }
+
+  public float[] getXVel() {
+    return xvel;
+  }
+
+  public float[] getYVel() {
+    return yvel;
+  }
+
+  public float[] getXDir() {
+    return xdir;
+  }
+
+  public float[] getYDir() {
+    return ydir;
+  }
+
+  public int[] getHealth() {
+    return health;
+  }
+
+  public int[] getType() {
+    return type;
+  }
+
+  public boolean[] getFriendly() {
+    return friendly;
+  }
+
+}
@@ -0,0 +1,310 @@
+package game.entities.ecs;
+
+import game.SimulationVariables;
+import game.entities.Enemy;
+import game.entities.Entity;
+import game.entities.PlayerCharacter;
+import game.entities.structures.Structure;
+import game.model.ShooterGame;
+import game.model.TimerWheel;
+
+import java.util.ArrayList;
+
+/**
+ * The CollisionSystem checks the enemies and bullets of the world against the
+ * player, the walls and each other, following the same rules as ShooterRules
+ * does for Enemy and Bullet objects.
+ * 
+ * <p>
+ * Enemies stuck exactly on top of each other are pushed apart in a direction
+ * picked from their ids rather than at random, so a world always plays out the
+ * same from the same start.
+ * 
+ * @author Brandon Hua
+ */
+
+public class CollisionSystem {
+
+  /**
+   * A method that damages the player for every enemy touching them.
+   * 
+   * @param world The world holding the enemies.
+   * @param game  The game the world is in.
+   */
+
+  public void enemyCollisions(EntityWorld world, ShooterGame game) {
+    PlayerCharacter player = game.getPlayer();
+    TimerWheel timers = game.getTimers();
+    Archetype enemies = world.getEnemies();
+    for (int row = 0; row < enemies.getCount(); row++) {
+      player.damage(enemies.x[row], enemies.y[row], enemies.width[row], enemies.height[row],
+          enemies.damage[row], timers);
+    }
+  }
+
+  /**
+   * A method that damages every enemy hit by a friendly bullet and the player if
+   * they are hit by an unfriendly one, ending the life of each bullet that hit.
+   * 
+   * @param world The world holding the enemies and bullets.
+   * @param game  The game the world is in.
+   */
+
+  public void bulletCollisions(EntityWorld world, ShooterGame game) {
+    PlayerCharacter player = game.getPlayer();
+    TimerWheel timers = game.getTimers();
+    Archetype enemies = world.getEnemies();
+    Archetype bullets = world.getBullets();
+    for (int b = 0; b < bullets.getCount(); b++) {
+      if (!bullets.friendly[b]) {
+        continue;
+      }
+      for (int e = 0; e < enemies.getCount(); e++) {
+        if (overlaps(enemies, e, bullets, b)) {
+          knockback(enemies, e, bullets.x[b], bullets.y[b], Enemy.KBFORCE);
+          enemies.health[e] = Math.max(0, enemies.health[e] - bullets.damage[b]);
+          bullets.lifetime[b] = 0;
+        }
+      }
+    }
+
+    for (int b = 0; b < bullets.getCount(); b++) {
+      if (!bullets.friendly[b]) {
+        if (player.damage(bullets.x[b], bullets.y[b], bullets.width[b], bullets.height[b],
+            bullets.damage[b], timers)) {
+          bullets.lifetime[b] = 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * A method that checks the enemies against each other, and then the player,
+   * enemies and bullets against the walls, in the same order as the
+   * ShooterRules.
+   * 
+   * @param world The world holding the enemies and bullets.
+   * @param game  The game the world is in.
+   */
+
+  public void wallCollisions(EntityWorld world, ShooterGame game) {
+    ArrayList<Structure> walls = game.getLevel().getStructures();
+    PlayerCharacter player = game.getPlayer();
+    int[] bounds = game.getLevel().getBounds();
+    for (int w = 0; w < walls.size(); w++) {
+      player.solidCollision(walls.get(w), game.getRandom());
+    }
+
+    Archetype enemies = world.getEnemies();
+    for (int e = 0; e < enemies.getCount(); e++) {
+      for (int e2 = 0; e2 < enemies.getCount(); e2++) {
+        if (distance(enemies, e) != distance(enemies, e2)) {
+          int push = ((enemies.ids[e] ^ enemies.ids[e2]) & 1) == 0 ? 1 : -1;
+          solidCollision(enemies, e, enemies.x[e2], enemies.y[e2], enemies.width[e2],
+              enemies.height[e2], push);
+          keepInBound(enemies, e, bounds);
+        }
+      }
+    }
+
+    for (int row = 0; row < enemies.getCount(); row++) {
+      for (int w = 0; w < walls.size(); w++) {
+        Structure wall = walls.get(w);
+        if (wall.getEnemyCol()) {
+          solidCollision(enemies, row, wall.getXpos(), wall.getYpos(), wall.getWidth(),
+              wall.getHeight(), 1);
+          pushOut(enemies, row, wall.getXpos(), wall.getYpos(), wall.getWidth(),
+              wall.getHeight());
+        }
+      }
+    }
+
+    Archetype bullets = world.getBullets();
+    for (int row = 0; row < bullets.getCount(); row++) {
+      for (int w = 0; w < walls.size(); w++) {
+        Structure wall = walls.get(w);
+        if (overlaps(bullets, row, wall.getXpos(), wall.getYpos(), wall.getWidth(),
+            wall.getHeight())) {
+          bullets.lifetime[row] = 0;
+          break;
+        }
+      }
+    }
+
+    player.keepInBound(game);
+  }
+
+  /**
+   * A method that stops an entity moving into a box, and pushes it out by a
+   * step if it is already stuck inside, the same as Entity.solidCollision.
+   * 
+   * @param archetype The archetype the entity is in.
+   * @param row       The row of the entity.
+   * @param bx        The x position of the centre of the box.
+   * @param by        The y position of the centre of the box.
+   * @param bw        The width of the box.
+   * @param bh        The height of the box.
+   * @param push      The direction to push the entity in if it is exactly on
+   *                  the centre of the box.
+   */
+
+  private void solidCollision(Archetype archetype, int row, int bx, int by, int bw, int bh,
+      int push) {
+    int x = archetype.x[row];
+    int y = archetype.y[row];
+    int minX = x - archetype.width[row] / 2;
+    int maxX = x + archetype.width[row] / 2;
+    int minY = y - archetype.height[row] / 2;
+    int maxY = y + archetype.height[row] / 2;
+    int bminX = bx - bw / 2;
+    int bmaxX = bx + bw / 2;
+    int bminY = by - bh / 2;
+    int bmaxY = by + bh / 2;
+    float scale = SimulationVariables.tickScale();
+    float xvel = archetype.xvel[row] * scale;
+    float yvel = archetype.yvel[row] * scale;
+
+    if (bminX < maxX && minX < bmaxX) {
+      if ((minY + yvel) < bmaxY && maxY > bmaxY - (bh * 0.8)) {
+        archetype.yvel[row] = 0;
+      }
+      if ((maxY + yvel) > bminY && minY < bminY + (bh * 0.2)) {
+        archetype.yvel[row] = 0;
+      }
+    }
+
+    float ystep = archetype.yvel[row] * scale;
+    if (bminY < maxY + ystep && minY + ystep < bmaxY) {
+      if ((minX + xvel) < bmaxX && maxX > bmaxX - (bw * 0.8)) {
+        archetype.xvel[row] = 0;
+      }
+      if ((maxX + xvel) > bminX && minX < bminX + (bw * 0.2)) {
+        archetype.xvel[row] = 0;
+      }
+    }
+
+    if (bminX < maxX && minX < bmaxX && bminY < maxY && minY < bmaxY) {
+      int xoffset = Integer.signum(x - bx);
+      int yoffset = Integer.signum(y - by);
+      if (x == bx && y == by) {
+        xoffset = push;
+        yoffset = push;
+      }
+      archetype.x[row] = x + xoffset;
+      archetype.y[row] = y + yoffset;
+    }
+  }
+
+  /**
+   * A method that moves an entity out of a box it is inside of, the same as
+   * Entity.pushOutOf.
+   * 
+   * @param archetype The archetype the entity is in.
+   * @param row       The row of the entity.
+   * @param bx        The x position of the centre of the box.
+   * @param by        The y position of the centre of the box.
+   * @param bw        The width of the box.
+   * @param bh        The height of the box.
+   */
+
+  private void pushOut(Archetype archetype, int row, int bx, int by, int bw, int bh) {
+    int x = archetype.x[row];
+    int y = archetype.y[row];
+    int minX = x - archetype.width[row] / 2;
+    int maxX = x + archetype.width[row] / 2;
+    int minY = y - archetype.height[row] / 2;
+    int maxY = y + archetype.height[row] / 2;
+    int bminX = bx - bw / 2;
+    int bmaxX = bx + bw / 2;
+    int bminY = by - bh / 2;
+    int bmaxY = by + bh / 2;
+    if (!(bminX < maxX && minX < bmaxX && bminY < maxY && minY < bmaxY)) {
+      return;
+    }
+    int xshift = Entity.escape(minX, maxX, bminX, bmaxX);
+    int yshift = Entity.escape(minY, maxY, bminY, bmaxY);
+    if (Math.abs(xshift) <= Math.abs(yshift)) {
+      archetype.x[row] = x + xshift;
+    } else {
+      archetype.y[row] = y + yshift;
+    }
+  }
+
+  /**
+   * A method that stops an entity leaving the bounds of the level, the same as
+   * Entity.keepInBound.
+   * 
+   * @param archetype The archetype the entity is in.
+   * @param row       The row of the entity.
+   * @param bounds    The bounds of the level.
+   */
+
+  private void keepInBound(Archetype archetype, int row, int[] bounds) {
+    int halfWidth = archetype.width[row] / 2;
+    int halfHeight = archetype.height[row] / 2;
+    float scale = SimulationVariables.tickScale();
+    if (archetype.x[row] - halfWidth + archetype.xvel[row] * scale < bounds[0]) {
+      archetype.xvel[row] = 0;
+      if (archetype.x[row] - halfWidth < bounds[0]) {
+        archetype.x[row] = bounds[0] + halfWidth;
+      }
+    }
+    if (archetype.x[row] + halfWidth + archetype.xvel[row] * scale > bounds[1]) {
+      archetype.xvel[row] = 0;
+      if (archetype.x[row] + halfWidth > bounds[1]) {
+        archetype.x[row] = bounds[1] - halfWidth;
+      }
+    }
+    if (archetype.y[row] - halfHeight + archetype.yvel[row] * scale < bounds[2]) {
+      archetype.yvel[row] = 0;
+      if (archetype.y[row] - halfHeight < bounds[2]) {
+        archetype.y[row] = bounds[2] + halfHeight;
+      }
+    }
+    if (archetype.y[row] + halfHeight + archetype.yvel[row] * scale > bounds[3]) {
+      archetype.yvel[row] = 0;
+      if (archetype.y[row] + halfHeight > bounds[3]) {
+        archetype.y[row] = bounds[3] - halfHeight;
+      }
+    }
+  }
+
+  /**
+   * A method that moves an entity away from a point with the same directions and
+   * velocities as Entity.knockback.
+   * 
+   * @param archetype The archetype the entity is in.
+   * @param row       The row of the entity.
+   * @param x         The x position to move away from.
+   * @param y         The y position to move away from.
+   * @param force     The force of the knock-back.
+   */
+
+  private void knockback(Archetype archetype, int row, int x, int y, int force) {
+    archetype.xdir[row] = Entity.knockbackDir(archetype.x[row], x, archetype.xdir[row]);
+    archetype.ydir[row] = Entity.knockbackDir(archetype.y[row], y, archetype.ydir[row]);
+    archetype.xvel[row] = Entity.knockbackVel(force, archetype.xdir[row]);
+    archetype.yvel[row] = Entity.knockbackVel(force, archetype.ydir[row]);
+  }
+
+  private boolean overlaps(Archetype first, int row, Archetype second, int row2) {
+    return overlaps(first, row, second.x[row2], second.y[row2], second.width[row2],
+        second.height[row2]);
+  }
+
+  private boolean overlaps(Archetype archetype, int row, int x, int y, int width, int height) {
+    int ax = archetype.x[row];
+    int ay = archetype.y[row];
+    int halfWidth = archetype.width[row] / 2;
+    int halfHeight = archetype.height[row] / 2;
+    return x - width / 2 < ax + halfWidth && ax - halfWidth < x + width / 2
+        && y - height / 2 < ay + halfHeight && ay - halfHeight < y + height / 2;
+  }
+
+  private long distance(Archetype archetype, int row) {
+    long x = archetype.x[row];
+    long y = archetype.y[row];
+    return x * x + y * y;
+  }
+
+}
@@ -0,0 +1,67 @@
+package game.entities.ecs;
+
+/**
+ * The Components class holds the bit of every component an archetype can be
+ * made of. An archetype only has the columns of the components in its mask, so
+ * an entity only pays for the data it actually uses.
+ * 
+ * <p>
+ * The columns of each component are:
+ * <ul>
+ * <li>POSITION: x, y, prevx, prevy</li>
+ * <li>SIZE: width, height</li>
+ * <li>VELOCITY: xvel, yvel, xdir, ydir</li>
+ * <li>MOTION: accel, decel, maxSpeed</li>
+ * <li>HEALTH: health</li>
+ * <li>DAMAGE: damage</li>
+ * <li>BEHAVIOUR: type, aiTime</li>
+ * <li>WEAPON: reload, bulletSpeed, inSight</li>
+ * <li>LIFETIME: lifetime</li>
+ * <li>FACTION: friendly</li>
+ * </ul>
+ * 
+ * @author Brandon Hua
+ */
+
+public class Components {
+
+  public final static int POSITION = 1;
+  public final static int SIZE = 1 << 1;
+  public final static int VELOCITY = 1 << 2;
+  public final static int MOTION = 1 << 3;
+  public final static int HEALTH = 1 << 4;
+  public final static int DAMAGE = 1 << 5;
+  public final static int BEHAVIOUR = 1 << 6;
+  public final static int WEAPON = 1 << 7;
+  public final static int LIFETIME = 1 << 8;
+  public final static int FACTION = 1 << 9;
+
+  public final static int ENEMY = POSITION | SIZE | VELOCITY | MOTION | HEALTH | DAMAGE
+      | BEHAVIOUR | WEAPON;
+  public final static int BULLET = POSITION | SIZE | VELOCITY | MOTION | DAMAGE | LIFETIME
+      | FACTION;
+
+  /**
+   * A method to get how many bytes of column data an entity with the given
+   * components takes up, including the id every entity has.
+   * 
+   * @param mask The components of the entity.
+   * @return The number of bytes.
+   */
+
+  public static int bytesPerEntity(int mask) {
+    int bytes = 4;
+    bytes += (mask & POSITION) != 0 ? 16 : 0;
+    bytes += (mask & SIZE) != 0 ? 8 : 0;
+    bytes += (mask & VELOCITY) != 0 ? 16 : 0;
+    bytes += (mask & MOTION) != 0 ? 12 : 0;
+    bytes += (mask & HEALTH) != 0 ? 4 : 0;
+    bytes += (mask & DAMAGE) != 0 ? 4 : 0;
+    bytes += (mask & BEHAVIOUR) != 0 ? 12 : 0;
+    bytes += (mask & WEAPON) != 0 ? 9 : 0;
+    bytes += (mask & LIFETIME) != 0 ? 4 : 0;
+    bytes += (mask & FACTION) != 0 ? 1 : 0;
+    return bytes;
+  }
+
+}
@@ -0,0 +1,220 @@
+package game.entities.ecs;
+
+import game.entities.Bullet;
+import game.entities.Enemy;
+import game.entities.EnemyTypeAction;
+import game.entities.EnemyTypeAction.EnemyType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The EntityWorld holds the enemies and bullets of a game as archetypes of
+ * plain columns instead of as objects, along with the systems that update
+ * them. It follows the same rules as the Enemy and Bullet classes, so a game
+ * can be run on either.
+ * 
+ * <p>
+ * The player stays a PlayerCharacter, as there is only one of them and it is
+ * shared with the input handlers and the network code.
+ * 
+ * <p>
+ * Every enemy in the world acts on every tick, on the thread of the game. The
+ * AiScheduler, ParallelPhases and RolloutPlanner only work on Enemy and Bullet
+ * objects, so they are turned off when the world is enabled.
+ * 
+ * @author Brandon Hua
+ */
+
+public class EntityWorld {
+
+  private static boolean enabled = false;
+
+  private static boolean[] typeShoots;
+  private static int[] typePoints;
+
+  private Archetype enemies = new Archetype(Components.ENEMY, 64);
+  private Archetype bullets = new Archetype(Components.BULLET, 256);
+  private int nextId;
+
+  private MovementSystem movement = new MovementSystem();
+  private AiSystem ai = new AiSystem();
+  private CollisionSystem collisions = new CollisionSystem();
+  private LifetimeSystem lifetime = new LifetimeSystem();
+
+  static {
+    EnemyType[] types = EnemyTypeAction.getTypeList();
+    typeShoots = new boolean[types.length];
+    typePoints = new int[types.length];
+    for (int i = 0; i < types.length; i++) {
+      typeShoots[i] = types[i].canShoot();
+      typePoints[i] = types[i].getPoints();
+    }
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * A method that adds an enemy of a type, set up the same way as the Enemy
+   * constructor does.
+   * 
+   * @param xpos     The x position the enemy starts at.
+   * @param ypos     The y position the enemy starts at.
+   * @param width    The width of the enemy.
+   * @param height   The height of the enemy.
+   * @param typeName The name of the type of enemy.
+   * @return The id of the enemy, or -1 if there is no such type.
+   */
+
+  public int addEnemy(int xpos, int ypos, int width, int height, String typeName) {
+    int typeIndex = EnemyTypeAction.typeIndex(typeName);
+    if (typeIndex == -1) {
+      return -1;
+    }
+    return addEnemy(xpos, ypos, width, height, typeIndex);
+  }
+
+  /**
+   * A method that adds an enemy of a type that has already been looked up.
+   * 
+   * @param xpos      The x position the enemy starts at.
+   * @param ypos      The y position the enemy starts at.
+   * @param width     The width of the enemy.
+   * @param height    The height of the enemy.
+   * @param typeIndex The index of the type in EnemyTypeAction.getTypeList().
+   * @return The id of the enemy.
+   */
+
+  public int addEnemy(int xpos, int ypos, int width, int height, int typeIndex) {
+    EnemyType enemyType = EnemyTypeAction.getType(typeIndex);
+    int id = nextId++;
+    int row = enemies.add(id);
+    place(enemies, row, xpos, ypos, width, height);
+    enemies.accel[row] = Enemy.ACCEL;
+    enemies.decel[row] = Enemy.DECEL;
+    enemies.maxSpeed[row] = enemyType.getSpeed();
+    enemies.health[row] = enemyType.getHealth();
+    enemies.damage[row] = enemyType.getDamage();
+    enemies.type[row] = typeIndex;
+    enemies.bulletSpeed[row] = Enemy.BULLETSPEED;
+    return id;
+  }
+
+  /**
+   * A method that adds a bullet, set up the same way as the Bullet constructor
+   * does, with its lifetime already running.
+   * 
+   * @param xpos        The x position the bullet starts at.
+   * @param ypos        The y position the bullet starts at.
+   * @param width       The width of the bullet.
+   * @param height      The height of the bullet.
+   * @param xdir        The direction in the x axis the bullet will be moving in.
+   * @param ydir        The direction in the y axis the bullet will be moving in.
+   * @param friendly    A boolean for whether or not a bullet is friendly.
+   * @param damage      The damage value of the bullet.
+   * @param bulletSpeed The maximum speed of the bullet.
+   * @return The id of the bullet.
+   */
+
+  public int addBullet(int xpos, int ypos, int width, int height, float xdir, float ydir,
+      boolean friendly, int damage, float bulletSpeed) {
+    int id = nextId++;
+    int row = bullets.add(id);
+    place(bullets, row, xpos, ypos, width, height);
+    bullets.xdir[row] = xdir;
+    bullets.ydir[row] = ydir;
+    bullets.accel[row] = Bullet.ACCEL;
+    bullets.decel[row] = 0;
+    bullets.maxSpeed[row] = bulletSpeed;
+    bullets.damage[row] = damage;
+    bullets.lifetime[row] = Bullet.LIFETIME;
+    bullets.friendly[row] = friendly;
+    return id;
+  }
+
+  private void place(Archetype archetype, int row, int xpos, int ypos, int width, int height) {
+    archetype.x[row] = xpos;
+    archetype.y[row] = ypos;
+    archetype.prevx[row] = xpos;
+    archetype.prevy[row] = ypos;
+    archetype.width[row] = width;
+    archetype.height[row] = height;
+  }
+
+  /**
+   * A method that stores where every entity starts the tick, so renderers can
+   * interpolate between ticks.
+   */
+
+  public void savePositions() {
+    movement.savePositions(enemies);
+    movement.savePositions(bullets);
+  }
+
+  /**
+   * A method that writes every entity of the world to a buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(nextId);
+    enemies.writeState(buffer);
+    bullets.writeState(buffer);
+  }
+
+  /**
+   * A method that replaces every entity of the world with ones written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    nextId = buffer.getInt();
+    enemies.readState(buffer);
+    bullets.readState(buffer);
+  }
+
+  public void clearEnemies() {
+    enemies.clear();
+  }
+
+  public Archetype getEnemies() {
+    return enemies;
+  }
+
+  public Archetype getBullets() {
+    return bullets;
+  }
+
+  public MovementSystem getMovement() {
+    return movement;
+  }
+
+  public AiSystem getAi() {
+    return ai;
+  }
+
+  public CollisionSystem getCollisions() {
+    return collisions;
+  }
+
+  public LifetimeSystem getLifetime() {
+    return lifetime;
+  }
+
+  public static boolean canShoot(int typeIndex) {
+    return typeShoots[typeIndex];
+  }
+
+  public static int getPoints(int typeIndex) {
+    return typePoints[typeIndex];
+  }
+
+}
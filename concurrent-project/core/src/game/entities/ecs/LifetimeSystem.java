@@ -0,0 +1,89 @@
+package game.entities.ecs;
+
+/**
+ * The LifetimeSystem counts down the lifetime of every bullet and the reload
+ * time of every enemy, and removes the entities that have died.
+ * 
+ * <p>
+ * The Enemy and Bullet classes keep these times on the TimerWheel of the game.
+ * Here they are columns that are all counted down in one pass, which costs
+ * about the same as advancing the wheel and needs no timer object per entity.
+ * 
+ * @author Brandon Hua
+ */
+
+public class LifetimeSystem {
+
+  private int defeated;
+  private int points;
+  private boolean[] keep = new boolean[0];
+
+  /**
+   * A method that counts down the times of every entity of the world.
+   * 
+   * @param world     The world holding the entities.
+   * @param deltaTime The time since the last tick (in milliseconds).
+   */
+
+  public void countDown(EntityWorld world, int deltaTime) {
+    Archetype bullets = world.getBullets();
+    int[] lifetime = bullets.lifetime;
+    for (int row = 0; row < bullets.getCount(); row++) {
+      lifetime[row] -= deltaTime;
+    }
+    Archetype enemies = world.getEnemies();
+    int[] reload = enemies.reload;
+    for (int row = 0; row < enemies.getCount(); row++) {
+      if (reload[row] > 0) {
+        reload[row] -= deltaTime;
+      }
+    }
+  }
+
+  /**
+   * A method that removes every enemy with no health left and every bullet at
+   * the end of its life, keeping the order of the rest. The number of enemies
+   * defeated and the points they were worth are kept until the next call.
+   * 
+   * @param world The world holding the entities.
+   * @return The number of enemies defeated.
+   */
+
+  public int removeDead(EntityWorld world) {
+    defeated = 0;
+    points = 0;
+    Archetype enemies = world.getEnemies();
+    boolean[] keepEnemies = keep(enemies.getCount());
+    for (int row = 0; row < enemies.getCount(); row++) {
+      keepEnemies[row] = enemies.health[row] > 0;
+      if (!keepEnemies[row]) {
+        points += EntityWorld.getPoints(enemies.type[row]);
+      }
+    }
+    defeated = enemies.retain(keepEnemies);
+
+    Archetype bullets = world.getBullets();
+    boolean[] keepBullets = keep(bullets.getCount());
+    for (int row = 0; row < bullets.getCount(); row++) {
+      keepBullets[row] = bullets.lifetime[row] > 0;
+    }
+    bullets.retain(keepBullets);
+    return defeated;
+  }
+
+  private boolean[] keep(int count) {
+    if (keep.length < count) {
+      keep = new boolean[Math.max(count, keep.length * 2)];
+    }
+    return keep;
+  }
+
+  public int getDefeated() {
+    return defeated;
+  }
+
+  public int getPoints() {
+    return points;
+  }
+
+}
@@ -0,0 +1,104 @@
+package game.entities.ecs;
+
+import game.SimulationVariables;
+
+/**
+ * The MovementSystem accelerates and moves every entity of an archetype, in the
+ * same way as Entity.accelDecel and Entity.move.
+ * 
+ * @author Brandon Hua
+ */
+
+public class MovementSystem {
+
+  /**
+   * A method that accelerates every entity towards the direction it is facing,
+   * or slows it down on the axes it is not facing along.
+   * 
+   * @param archetype The entities to accelerate.
+   * @param deltaTime The time since the last tick (in milliseconds).
+   */
+
+  public void accelerate(Archetype archetype, long deltaTime) {
+    for (int row = 0; row < archetype.getCount(); row++) {
+      accelerate(archetype, row, deltaTime);
+    }
+  }
+
+  /**
+   * A method that accelerates or slows down a single entity.
+   * 
+   * @param archetype The archetype the entity is in.
+   * @param row       The row of the entity.
+   * @param deltaTime The time since the entity was last accelerated.
+   */
+
+  public void accelerate(Archetype archetype, int row, long deltaTime) {
+    float seconds = (float) deltaTime / 1000;
+    float max = archetype.maxSpeed[row];
+    archetype.xvel[row] = accelerateAxis(archetype.xvel[row], archetype.xdir[row], seconds,
+        archetype.accel[row], archetype.decel[row], max);
+    archetype.yvel[row] = accelerateAxis(archetype.yvel[row], archetype.ydir[row], seconds,
+        archetype.accel[row], archetype.decel[row], max);
+  }
+
+  private float accelerateAxis(float vel, float dir, float seconds, int accel, int decel,
+      float max) {
+    if (dir != 0) {
+      vel += seconds * accel * dir;
+      if (vel > max) {
+        vel = max;
+      }
+      if (vel < -max) {
+        vel = -max;
+      }
+      return vel;
+    }
+    if (vel > 0) {
+      vel -= seconds * decel;
+      if (vel < 0) {
+        vel = 0;
+      }
+    }
+    if (vel < 0) {
+      vel += seconds * decel;
+      if (vel > 0) {
+        vel = 0;
+      }
+    }
+    return vel;
+  }
+
+  /**
+   * A method that moves every entity by its velocity, scaled by the speed of
+   * the game and the tick time.
+   * 
+   * @param archetype The entities to move.
+   * @param gameSpeed The speed of the game.
+   */
+
+  public void integrate(Archetype archetype, float gameSpeed) {
+    float scale = gameSpeed * SimulationVariables.tickScale();
+    int[] x = archetype.x;
+    int[] y = archetype.y;
+    float[] xvel = archetype.xvel;
+    float[] yvel = archetype.yvel;
+    for (int row = 0; row < archetype.getCount(); row++) {
+      x[row] = (int) (x[row] + (xvel[row] * scale));
+      y[row] = (int) (y[row] + (yvel[row] * scale));
+    }
+  }
+
+  /**
+   * A method that stores the current position of every entity as its position
+   * at the start of the tick.
+   * 
+   * @param archetype The entities to store the positions of.
+   */
+
+  public void savePositions(Archetype archetype) {
+    System.arraycopy(archetype.x, 0, archetype.prevx, 0, archetype.getCount());
+    System.arraycopy(archetype.y, 0, archetype.prevy, 0, archetype.getCount());
+  }
+
+}
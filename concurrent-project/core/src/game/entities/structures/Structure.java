@@ -2,6 +2,8 @@ package game.entities.structures;
 
 import game.entities.Wall;
 
+import java.util.HashMap;
+
 /**
  * A Structure is intended to be a wall object with a type variable, allowing
  * walls to be represented differently in ui. The reason for not just placing
@@ -13,7 +15,10 @@ import game.entities.Wall;
 
 public class Structure extends Wall {
 
+  private static HashMap<String, Integer> typeIds = new HashMap<String, Integer>();
+
   private final String TYPE;
+  private final int TYPEID;
 
   /**
    * The Structure object initialises with it's position and size, along with the
@@ -30,6 +35,7 @@ public class Structure extends Wall {
   public Structure(int x, int y, int wallWidth, int wallHeight, String type, boolean enemyCol) {
     super(x, y, wallWidth, wallHeight);
     TYPE = type;
+    TYPEID = typeIdOf(type);
     setEnemyCol(enemyCol);
   }
 
@@ -37,4 +43,33 @@ public class Structure extends Wall {
     return TYPE;
   }
 
+  /**
+   * A method to get the id of the type of the structure. Every structure of the
+   * same type has the same id, so renderers can keep what they need for a type
+   * in an array rather than looking it up by name.
+   * 
+   * @return The id of the type.
+   */
+
+  public int getTypeId() {
+    return TYPEID;
+  }
+
+  /**
+   * A method to get the id of a type of structure, giving it the next id the
+   * first time the type is seen.
+   * 
+   * @param type The name of the type.
+   * @return The id of the type.
+   */
+
+  public static synchronized int typeIdOf(String type) {
+    Integer id = typeIds.get(type);
+    if (id == null) {
+      id = typeIds.size();
+      typeIds.put(type, id);
+    }
+    return id;
+  }
+
 }
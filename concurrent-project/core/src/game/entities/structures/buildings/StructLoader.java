@@ -1,9 +1,9 @@
 package game.entities.structures.buildings;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import error.GlobalErrors;
+import game.renderer.AssetRegistry;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -36,6 +36,30 @@ public class StructLoader {
     }
   }
 
+  /**
+   * A method that reads the names of the textures used by the structures in the
+   * structure_list file, so they can be packed before the structures load.
+   * 
+   * @return The names of the structure textures.
+   */
+
+  public static ArrayList<String> getTextureNames() {
+    ArrayList<String> names = new ArrayList<String>();
+    String workingDir = System.getProperty("user.dir") + "\\structures\\structure_list";
+    try (BufferedReader br = new BufferedReader(new FileReader(workingDir))) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        String[] splitLine = line.split("\t");
+        if (splitLine.length > 1) {
+          names.add(splitLine[1]);
+        }
+      }
+    } catch (Exception e) {
+      System.out.println("Cannot read structure textures to pack");
+    }
+    return names;
+  }
+
   /**
    * A method to add a structure into the ArrayLists.
    * 
@@ -72,9 +96,8 @@ public class StructLoader {
       int ytiles, int xtileCount, int ytileCount) {
 
     try {
-      Texture texture = new Texture(fileName);
-      TextureRegion[][] tmp = TextureRegion.split(texture,
-          texture.getWidth() / (xtileCount / xtiles), texture.getHeight() / (ytileCount / ytiles));
+      TextureRegion[][] tmp = AssetRegistry.split(fileName, xtileCount / xtiles,
+          ytileCount / ytiles);
       TextureRegion[] regions = new TextureRegion[layers];
 
       for (int i = 0; i < layers; i++) {
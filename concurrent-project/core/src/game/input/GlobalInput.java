@@ -1,7 +1,5 @@
 package game.input;
 
-import java.util.ArrayList;
-
 /**
  * A simple class that holds variables for general inputs that arent bound to
  * specific keys.
@@ -22,6 +20,8 @@ public class GlobalInput {
   public static boolean[] playerShoot = new boolean[PLAYERS];
 
   public static boolean paused;
+  public static boolean rewindBack;
+  public static boolean rewindForward;
 
   public static int mouseX = 0;
   public static int mouseY = 0;
@@ -39,25 +39,17 @@ public class GlobalInput {
    * @return Whether or not the inputs are pressed.
    */
   public static boolean allKeysUp() {
-    ArrayList<Boolean> everyInput = new ArrayList<Boolean>();
-
-    for (boolean b : numkeys) {
-      everyInput.add(b);
-    }
-    for (boolean b : letters) {
-      everyInput.add(b);
+    for (int i = 0; i < numkeys.length; i++) {
+      if (numkeys[i]) {
+        return true;
+      }
     }
-
-    everyInput.add(enter);
-    everyInput.add(backspace);
-    everyInput.add(period);
-
-    for (boolean b : everyInput) {
-      if (b) {
+    for (int i = 0; i < letters.length; i++) {
+      if (letters[i]) {
         return true;
       }
     }
-    return false;
+    return enter || backspace || period;
   }
 
 }
@@ -50,6 +50,14 @@ public class KeyboardInput implements InputProcessor {
       GlobalInput.paused = true;
     }
 
+    if (Keys.F5 == keycode) {
+      GlobalInput.rewindBack = true;
+    }
+
+    if (Keys.F6 == keycode) {
+      GlobalInput.rewindForward = true;
+    }
+
     if (Keys.PERIOD == keycode) {
       GlobalInput.period = true;
     }
@@ -118,6 +126,14 @@ public class KeyboardInput implements InputProcessor {
       GlobalInput.paused = false;
     }
 
+    if (Keys.F5 == keycode) {
+      GlobalInput.rewindBack = false;
+    }
+
+    if (Keys.F6 == keycode) {
+      GlobalInput.rewindForward = false;
+    }
+
     if (Keys.PERIOD == keycode) {
       GlobalInput.period = false;
     }
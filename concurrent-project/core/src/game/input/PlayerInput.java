@@ -0,0 +1,111 @@
+package game.input;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The PlayerInput class holds the inputs of one player for one tick. The input
+ * handler copies them from the GlobalInput once at the start of a tick, so a key
+ * pressed part way through a tick is not seen by only half of it, and the same
+ * inputs can be recorded and given back to the handler when a game is replayed.
+ * 
+ * @author Brandon Hua
+ */
+
+public class PlayerInput {
+
+  private float up;
+  private float down;
+  private float left;
+  private float right;
+  private boolean shoot;
+  private boolean paused;
+
+  /**
+   * A method that copies the current inputs of a player from the GlobalInput.
+   * 
+   * @param playerNum The index of the player in the GlobalInput arrays.
+   */
+
+  public void read(int playerNum) {
+    up = GlobalInput.playerUp[playerNum];
+    down = GlobalInput.playerDown[playerNum];
+    left = GlobalInput.playerLeft[playerNum];
+    right = GlobalInput.playerRight[playerNum];
+    shoot = GlobalInput.playerShoot[playerNum];
+    paused = GlobalInput.paused;
+  }
+
+  /**
+   * A method that copies the inputs of another PlayerInput.
+   * 
+   * @param other The inputs to copy.
+   */
+
+  public void set(PlayerInput other) {
+    up = other.up;
+    down = other.down;
+    left = other.left;
+    right = other.right;
+    shoot = other.shoot;
+    paused = other.paused;
+  }
+
+  /**
+   * A method to check whether another PlayerInput holds the same inputs.
+   * 
+   * @param other The inputs to compare with.
+   * @return A boolean for whether or not every input is the same.
+   */
+
+  public boolean matches(PlayerInput other) {
+    return up == other.up && down == other.down && left == other.left && right == other.right
+        && shoot == other.shoot && paused == other.paused;
+  }
+
+  /**
+   * A method that writes the inputs to a buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void write(ByteBuffer buffer) {
+    buffer.put((byte) ((shoot ? 1 : 0) | (paused ? 2 : 0)));
+    buffer.putFloat(up);
+    buffer.putFloat(down);
+    buffer.putFloat(left);
+    buffer.putFloat(right);
+  }
+
+  /**
+   * A method that reads inputs written by write().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void read(ByteBuffer buffer) {
+    int flags = buffer.get();
+    shoot = (flags & 1) != 0;
+    paused = (flags & 2) != 0;
+    up = buffer.getFloat();
+    down = buffer.getFloat();
+    left = buffer.getFloat();
+    right = buffer.getFloat();
+  }
+
+  public float getXDir() {
+    return right - left;
+  }
+
+  public float getYDir() {
+    return up - down;
+  }
+
+  public boolean isShooting() {
+    return shoot;
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+}
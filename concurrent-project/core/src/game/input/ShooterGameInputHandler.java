@@ -1,6 +1,5 @@
 package game.input;
 
-import game.Core;
 import game.model.GameVariables;
 import game.model.ShooterGame;
 
@@ -15,6 +14,7 @@ import game.model.ShooterGame;
 public class ShooterGameInputHandler {
 
   private ShooterGame game;
+  private PlayerInput input = new PlayerInput();
 
   /**
    * The constructor for the ShooterGameInputHandler.
@@ -27,31 +27,55 @@ public class ShooterGameInputHandler {
   }
 
   /**
-   * A method that runs all input methods.
+   * A method that reads the inputs of the player for this tick and runs all
+   * input methods with them.
    */
 
   public void handleInputs() {
-    playerInput();
-    pauseCheck();
+    input.read(game.getPlayer().getPlayerNum() - 1);
+    handleInputs(input);
+  }
+
+  /**
+   * A method that runs all input methods with inputs given to it, such as ones
+   * played back from a replay, rather than the current inputs of the player.
+   * 
+   * @param input The inputs of the player for this tick.
+   */
+
+  public void handleInputs(PlayerInput input) {
+    playerInput(input);
+    pauseCheck(input);
+  }
+
+  /**
+   * A method to get the inputs read on the last call to handleInputs().
+   * 
+   * @return The inputs of the player.
+   */
+
+  public PlayerInput getInput() {
+    return input;
   }
 
   /**
    * The playerInput() method checks the movement and shoot inputs. Moving the
    * player or adding elements to the game as necessary.
+   * 
+   * @param input The inputs of the player for this tick.
    */
 
-  public void playerInput() {
+  public void playerInput(PlayerInput input) {
     GameVariables vars = game.getVars();
     if (vars.getGameSpeed() > 0) {
-      int playerNum = game.getPlayer().getPlayerNum() - 1;
-      float xdir = GlobalInput.playerRight[playerNum] - GlobalInput.playerLeft[playerNum];
-      float ydir = GlobalInput.playerUp[playerNum] - GlobalInput.playerDown[playerNum];
+      float xdir = input.getXDir();
+      float ydir = input.getYDir();
 
-      if (GlobalInput.playerShoot[playerNum]) {
+      if (input.isShooting()) {
         game.spawnPlayerProjectile();
       }
 
-      long time = (long) (Core.deltaTime * vars.getGameSpeed());
+      long time = (long) (game.getTickDelta() * vars.getGameSpeed());
       game.getPlayer().setXDir(xdir);
       game.getPlayer().setYDir(ydir);
       game.getPlayer().accelDecel(time);
@@ -62,10 +86,12 @@ public class ShooterGameInputHandler {
   /**
    * A method that checks if the pause button has been pressed and pausing the
    * game if it is detected as down.
+   * 
+   * @param input The inputs of the player for this tick.
    */
 
-  public void pauseCheck() {
-    if (GlobalInput.paused) {
+  public void pauseCheck(PlayerInput input) {
+    if (input.isPaused()) {
       if (!game.isNetworked()) {
         game.pause();
       }
@@ -0,0 +1,331 @@
+package game.model;
+
+import game.Core;
+import game.entities.Enemy;
+import game.entities.PlayerCharacter;
+import game.model.ParallelPhases.Phase;
+import game.model.ParallelPhases.PhaseBuffer;
+import game.model.levels.FlowField;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The AiScheduler decides which enemies of a game think on each tick. Enemies
+ * close enough to the player to be seen think every tick, while enemies
+ * further away think less often, since the player cannot see them change
+ * direction and they only need to keep heading the right way.
+ * 
+ * <p>
+ * An enemy that is not updated keeps the time it missed and is given all of it
+ * when it next thinks, so it accelerates as far as it would have at full rate.
+ * The number of updates each tick is capped by the budget, near enemies
+ * included. Enemies are visited round robin from where the last tick stopped,
+ * so a crowd that all become due together are spread over the next few ticks
+ * instead of landing on one.
+ * 
+ * @author Brandon Hua
+ */
+
+public class AiScheduler {
+
+  public final static int NEAR = 0;
+  public final static int MID = 1;
+  public final static int FAR = 2;
+  public final static int TIERS = 3;
+
+  private final static int[] INTERVAL = { 0, 50, 200 }; // milliseconds of game time
+  private final static int MARGIN = 128;
+
+  private static boolean enabled = true;
+  private static int budget = 1024;
+
+  private final static int THINKCOST = 8;
+
+  private int cursor;
+  private int nearCursor;
+  private Enemy[] thinking = new Enemy[0];
+  private int thinkCount;
+  private ThinkPhase thinkPhase = new ThinkPhase();
+  private RolloutPlanner planner = new RolloutPlanner();
+
+  private int[] population = new int[TIERS];
+  private long[] updates = new long[TIERS];
+  private int lastUpdates;
+  private int lastDeferred;
+  private long deferred;
+  private long ticks;
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setBudget(int maxUpdates) {
+    budget = maxUpdates;
+  }
+
+  public static int getBudget() {
+    return budget;
+  }
+
+  /**
+   * A method that runs the actions of the enemies due to think this tick and
+   * lets them fire. Near enemies are updated first and the distant enemies
+   * that are due share whatever is left of the budget. When there are more
+   * near enemies than the budget allows, up to a quarter of the budget is kept
+   * for the distant enemies that are due, so a crowd around the player cannot
+   * leave the rest standing still forever, and the near enemies take turns for
+   * the rest.
+   * 
+   * <p>
+   * Which enemies think is decided first, then their actions are run as a
+   * phase that may be split across threads, as an action only changes the
+   * enemy taking it. The enemies that want to fire are collected as they go
+   * and fire afterwards in the order they thought. Enemies that look ahead
+   * plan before any enemy acts, on this thread, as they fork the session.
+   * 
+   * @param game  The game the enemies belong to.
+   * @param rules The rules the game is played with.
+   * @param time  The game time since the last tick (in milliseconds).
+   */
+
+  public void update(ShooterGame game, ShooterRules rules, long time) {
+    ArrayList<Enemy> enemies = game.getEnemies();
+    PlayerCharacter player = game.getPlayer();
+    int size = enemies.size();
+    ticks++;
+    for (int t = 0; t < TIERS; t++) {
+      population[t] = 0;
+    }
+    if (thinking.length < size) {
+      thinking = new Enemy[size];
+    }
+    thinkCount = 0;
+
+    int due = 0;
+    for (int i = 0; i < size; i++) {
+      Enemy enemy = enemies.get(i);
+      int tier = enabled ? tierOf(enemy, player) : NEAR;
+      enemy.setAiTier(tier);
+      enemy.addAiTime(time);
+      population[tier]++;
+      if (tier != NEAR && enemy.getAiTime() >= INTERVAL[tier]) {
+        due++;
+      }
+    }
+
+    int near = population[NEAR];
+    int nearLimit = enabled ? budget - Math.min(due, budget / 4) : near;
+    int work = 0;
+    if (near <= nearLimit) {
+      for (int i = 0; i < size; i++) {
+        Enemy enemy = enemies.get(i);
+        if (enemy.getAiTier() == NEAR) {
+          think(enemy);
+          work++;
+        }
+      }
+    } else {
+      for (int visited = 0; visited < size && work < nearLimit; visited++) {
+        if (nearCursor >= size) {
+          nearCursor = 0;
+        }
+        Enemy enemy = enemies.get(nearCursor);
+        nearCursor++;
+        if (enemy.getAiTier() == NEAR) {
+          think(enemy);
+          work++;
+        }
+      }
+    }
+
+    int remaining = budget - work;
+    int run = 0;
+    for (int visited = 0; visited < size && run < remaining && run < due; visited++) {
+      if (cursor >= size) {
+        cursor = 0;
+      }
+      Enemy enemy = enemies.get(cursor);
+      cursor++;
+      int tier = enemy.getAiTier();
+      if (tier != NEAR && enemy.getAiTime() >= INTERVAL[tier]) {
+        think(enemy);
+        run++;
+      }
+    }
+
+    lastUpdates = work + run;
+    lastDeferred = near - work + due - run;
+    deferred += lastDeferred;
+
+    if (planner != null) {
+      planner.plan(game, rules);
+    }
+
+    thinkPhase.player = player;
+    thinkPhase.navigator = game.getNavigator();
+    thinkPhase.sight = game.getSight();
+    ParallelPhases phases = game.getPhases();
+    int chunks = phases.run(thinkPhase, thinkCount, THINKCOST);
+    for (int c = 0; c < chunks; c++) {
+      PhaseBuffer firing = phases.getBuffer(c);
+      for (int i = 0; i < firing.size(); i++) {
+        game.spawnEnemyProjectile(thinking[firing.get(i)]);
+      }
+    }
+    for (int i = 0; i < thinkCount; i++) {
+      thinking[i] = null;
+    }
+  }
+
+  /**
+   * A method that queues an enemy to think this tick.
+   * 
+   * @param enemy The enemy to update.
+   */
+
+  private void think(Enemy enemy) {
+    updates[enemy.getAiTier()]++;
+    thinking[thinkCount] = enemy;
+    thinkCount++;
+  }
+
+  /**
+   * A method to get the tier of an enemy from how far it is from the player on
+   * either axis. Near covers the largest view a player can have, as the views
+   * are at least as zoomed in as the full window, plus a margin so enemies
+   * walking on screen are already at full rate.
+   * 
+   * @param enemy  The enemy to check.
+   * @param player The player the enemy is after.
+   * @return NEAR, MID or FAR.
+   */
+
+  private int tierOf(Enemy enemy, PlayerCharacter player) {
+    int xdist = Math.abs(enemy.getXpos() - player.getXpos());
+    int ydist = Math.abs(enemy.getYpos() - player.getYpos());
+    int halfWidth = Core.width / 2 + MARGIN;
+    int halfHeight = Core.height / 2 + MARGIN;
+    if (xdist <= halfWidth && ydist <= halfHeight) {
+      return NEAR;
+    }
+    if (xdist <= halfWidth * 2 && ydist <= halfHeight * 2) {
+      return MID;
+    }
+    return FAR;
+  }
+
+  /**
+   * A method to set the planner of the enemies that look ahead, which is
+   * removed in games that are themselves being looked ahead in.
+   * 
+   * @param planner The planner, or null for enemies not to plan.
+   */
+
+  public void setPlanner(RolloutPlanner planner) {
+    this.planner = planner;
+  }
+
+  public RolloutPlanner getPlanner() {
+    return planner;
+  }
+
+  /**
+   * A method that writes which enemies the scheduler will look at first on the
+   * next tick to a buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(cursor);
+    buffer.putInt(nearCursor);
+  }
+
+  /**
+   * A method that reads the position of the scheduler back from a snapshot. Any
+   * plan the planner has part way through is dropped, as it was being made for
+   * the session before it was restored.
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    cursor = buffer.getInt();
+    nearCursor = buffer.getInt();
+    if (planner != null) {
+      planner.drop();
+    }
+  }
+
+  /**
+   * A method to get how many enemies were in a tier on the last tick.
+   * 
+   * @param tier NEAR, MID or FAR.
+   * @return The number of enemies.
+   */
+
+  public int getPopulation(int tier) {
+    return population[tier];
+  }
+
+  /**
+   * A method to get how many times enemies of a tier have been updated.
+   * 
+   * @param tier NEAR, MID or FAR.
+   * @return The total number of updates.
+   */
+
+  public long getUpdates(int tier) {
+    return updates[tier];
+  }
+
+  public int getLastUpdates() {
+    return lastUpdates;
+  }
+
+  public int getLastDeferred() {
+    return lastDeferred;
+  }
+
+  public long getDeferred() {
+    return deferred;
+  }
+
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * The Phase that gives each thinking enemy all the time it has built up to
+   * act on, and notes the ones that could fire once they have acted.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class ThinkPhase implements Phase {
+
+    private PlayerCharacter player;
+    private FlowField navigator;
+    private SightGrid sight;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      for (int i = from; i < to; i++) {
+        Enemy enemy = thinking[i];
+        enemy.performAction(player, navigator, sight, enemy.takeAiTime());
+        if (enemy.canFire()) {
+          buffer.add(i);
+        }
+      }
+    }
+
+  }
+
+}
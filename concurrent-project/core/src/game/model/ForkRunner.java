@@ -0,0 +1,211 @@
+package game.model;
+
+import game.SimulationVariables;
+import game.model.rules.ShooterRules;
+
+import java.util.Arrays;
+
+/**
+ * The ForkRunner steps SessionForks of a game. It holds one scratch game and
+ * rules of the same level and mode as the game, which a fork is read into when
+ * it is stepped, so any number of forks can be stepped with no more than one
+ * extra game in memory.
+ * 
+ * <p>
+ * A fork is the state of a session written by a SessionSnapshot, which is
+ * never changed once written, so a fork that has not been stepped shares the
+ * array of its parent. The fork being stepped lives in the scratch game until
+ * another fork is stepped, and is only written out again then, or when it is
+ * forked, if it has been stepped since it was read in. Reading a fork in is a
+ * full restore of the scratch game and writing one out copies its whole state
+ * into a new array, so both cost time in line with the size of the session. A
+ * fork that is no longer needed can be discarded so it is not written out at
+ * all.
+ * 
+ * <p>
+ * The forks of a root are only valid until the next root is taken, as the
+ * root is kept in an array that is reused. A runner must only be used from one
+ * thread at a time.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ForkRunner {
+
+  private ShooterGame game;
+  private ShooterRules rules;
+  private SessionSnapshot snapshot = new SessionSnapshot();
+  private byte[] rootState = new byte[0];
+  private int generation;
+  private SessionFork resident;
+  private boolean dirty;
+
+  private long forks;
+  private long restores;
+  private long freezes;
+  private long ticks;
+
+  /**
+   * A constructor for a runner for the forks of a game. Networked games cannot
+   * be forked, as the second player is controlled by the other client.
+   * 
+   * @param source The game the forks will be taken from.
+   * @param rules  The rules the game is played with.
+   * @throws IllegalArgumentException If the game is networked.
+   */
+
+  public ForkRunner(ShooterGame source, ShooterRules rules) {
+    if (source.isNetworked()) {
+      throw new IllegalArgumentException("A networked game cannot be forked");
+    }
+    game = new ShooterGame(source.getLevel(), source.getGameNum(), false, source.getSeed());
+    game.getAiScheduler().setPlanner(null);
+    this.rules = new ShooterRules(game, rules.getMode(), null);
+  }
+
+  /**
+   * A method that takes a fork of a session as it is now, from which any
+   * number of forks can be made. Every fork of the last root can no longer be
+   * used. It must be called on the thread that runs the ticks of the game.
+   * 
+   * @param source The game to fork.
+   * @param rules  The rules the game is played with.
+   * @return The fork.
+   */
+
+  public SessionFork root(ShooterGame source, ShooterRules rules) {
+    snapshot.capture(source, rules);
+    int size = snapshot.size();
+    if (rootState.length < size) {
+      rootState = new byte[Math.max(size, rootState.length * 2)];
+    }
+    System.arraycopy(snapshot.array(), 0, rootState, 0, size);
+    generation++;
+    resident = null;
+    dirty = false;
+    return new SessionFork(this, generation, rootState, size, source.getTickClock(), 0);
+  }
+
+  /**
+   * A method that makes a fork of a fork. If the fork has been stepped since it
+   * was read into the scratch game it is written out first, so both share the
+   * state it is in now.
+   * 
+   * @param fork The fork to fork.
+   * @return The new fork.
+   */
+
+  SessionFork fork(SessionFork fork) {
+    check(fork);
+    if (resident == fork && dirty) {
+      freeze();
+    }
+    forks++;
+    return new SessionFork(this, generation, fork.state, fork.size, fork.clock, fork.ticks);
+  }
+
+  /**
+   * A method that runs a number of ticks of a fork, in the same order as the
+   * ShooterThread, with the player carrying on as they were.
+   * 
+   * @param fork  The fork to step.
+   * @param count The number of ticks to run.
+   */
+
+  void step(SessionFork fork, int count) {
+    checkout(fork);
+    int tickTime = SimulationVariables.tickTime;
+    long clock = fork.clock;
+    for (int i = 0; i < count; i++) {
+      clock += tickTime;
+      game.beginTick(clock, tickTime);
+      rules.setAndUpdate(game);
+      game.update();
+      game.endTick();
+    }
+    fork.clock = clock;
+    fork.ticks += count;
+    ticks += count;
+  }
+
+  /**
+   * A method that reads a fork into the scratch game, if it is not already
+   * there, so it can be looked at or changed. The fork is taken to have been
+   * changed from then on.
+   * 
+   * @param fork The fork to read in.
+   */
+
+  void checkout(SessionFork fork) {
+    check(fork);
+    if (resident != fork) {
+      if (resident != null && dirty) {
+        freeze();
+      }
+      snapshot.setSize(fork.size);
+      System.arraycopy(fork.state, 0, snapshot.array(), 0, fork.size);
+      snapshot.restore(game, rules);
+      resident = fork;
+      restores++;
+    }
+    dirty = true;
+  }
+
+  /**
+   * A method that drops a fork, so that it is not written out if it is in the
+   * scratch game.
+   * 
+   * @param fork The fork to drop.
+   */
+
+  void discard(SessionFork fork) {
+    if (resident == fork) {
+      resident = null;
+      dirty = false;
+    }
+  }
+
+  /**
+   * A method that writes the fork in the scratch game out to a new array of its
+   * own, as the array it was read from may be shared with other forks.
+   */
+
+  private void freeze() {
+    snapshot.capture(game, rules);
+    resident.state = Arrays.copyOf(snapshot.array(), snapshot.size());
+    resident.size = snapshot.size();
+    dirty = false;
+    freezes++;
+  }
+
+  private void check(SessionFork fork) {
+    if (fork.generation != generation) {
+      throw new IllegalStateException("The fork was made from an older root");
+    }
+  }
+
+  ShooterGame getGame() {
+    return game;
+  }
+
+  ShooterRules getRules() {
+    return rules;
+  }
+
+  public long getForks() {
+    return forks;
+  }
+
+  public long getRestores() {
+    return restores;
+  }
+
+  public long getFreezes() {
+    return freezes;
+  }
+
+  public long getTicks() {
+    return ticks;
+  }
+
+}
@@ -1,14 +1,22 @@
 package game.model;
 
 import game.Core;
+import game.SimulationVariables;
+import game.input.GlobalInput;
 import game.model.levels.Level;
 import game.model.rules.ShooterRules;
+import game.renderer.AssetRegistry;
 import game.renderer.GameRenderList;
+import game.renderer.GameRenderer;
+import game.renderer.StaticLayerCache;
+import game.replay.ReplayRecorder;
 import game.screens.GameScreenManager;
 import game.screens.menus.GameEndOverlay;
 import game.screens.threads.ClockScheduler;
+import game.screens.threads.LevelWatchThread;
 import game.screens.threads.ShooterThread;
 import game.screens.threads.ShooterThreadFactory;
+import game.screens.threads.ViewPrepareScheduler;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -27,10 +35,17 @@ public class GameModelViewController {
   private Level level;
   private ShooterGame[] games;
   private GameRenderList[] renderLists;
+  private StaticLayerCache staticLayer;
   private ShooterThread[] gameThreads;
   private ShooterThreadFactory factory;
   private ShooterRules rules;
   private ClockScheduler clock;
+  private LevelWatchThread levelWatcher;
+  private ViewPrepareScheduler viewPreparer;
+  private PerformanceGovernor governor;
+  private ReplayRecorder recorder;
+  private RewindBuffer rewind;
+  private long seed;
 
   private boolean gameFinished;
 
@@ -57,14 +72,18 @@ public class GameModelViewController {
   public void initGame(int players, String gameMode, Object data, String levelFileName)
       throws FileNotFoundException, IOException {
     level = new Level(levelFileName);
+    seed = GameRandom.sessionSeed();
+    System.out.println("Session seed: " + seed);
     games = new ShooterGame[players];
     renderLists = new GameRenderList[players];
     gameThreads = new ShooterThread[players];
+    staticLayer = new StaticLayerCache(level);
 
     for (int i = 0; i < players; i++) {
-      games[i] = new ShooterGame(level, i + 1, (gameMode.equals("network")));
-      renderLists[i] = new GameRenderList(games[i]);
+      games[i] = new ShooterGame(level, i + 1, (gameMode.equals("network")), seed);
+      renderLists[i] = new GameRenderList(games[i], staticLayer);
     }
+    AssetRegistry.report();
 
     rules = new ShooterRules(games[0], gameMode, data);
     clock = new ClockScheduler(rules);
@@ -73,6 +92,57 @@ public class GameModelViewController {
     for (int i = 0; i < players; i++) {
       gameThreads[i] = factory.getThread(games[i], String.valueOf(i));
     }
+
+    // The games of a local session with more than one player pass the rules
+    // between their threads by timing, so only single player sessions can be
+    // recorded or rewound.
+    if (players == 1) {
+      recorder = ReplayRecorder.create(games[0], rules, gameMode);
+      gameThreads[0].setRecorder(recorder);
+      rewind = RewindBuffer.create(games[0], rules);
+      gameThreads[0].setRewind(rewind);
+    } else if (ReplayRecorder.isEnabled() || RewindBuffer.isEnabled()) {
+      System.out.println("Replays and rewinding are only kept for single player sessions");
+    }
+
+    if (LevelWatchThread.isEnabled()) {
+      levelWatcher = new LevelWatchThread(level);
+    }
+
+    if (PerformanceGovernor.isEnabled()) {
+      governor = new PerformanceGovernor(games, level, staticLayer);
+    }
+
+    if (players > 1 && ViewPrepareScheduler.isEnabled()) {
+      viewPreparer = new ViewPrepareScheduler(games, renderLists);
+    }
+  }
+
+  /**
+   * A method to pass the time taken to render a frame to the governor.
+   * 
+   * @param nanos The time taken to render the frame (in nanoseconds).
+   */
+
+  public void recordFrame(long nanos) {
+    if (governor != null) {
+      governor.recordFrame(nanos);
+    }
+  }
+
+  /**
+   * A method that prepares the draw list of every view, in parallel when there
+   * is more than one view.
+   */
+
+  public void prepareViews() {
+    if (viewPreparer != null) {
+      viewPreparer.prepareAll();
+    } else {
+      for (int i = 0; i < games.length; i++) {
+        GameRenderer.prepare(games[i], renderLists[i]);
+      }
+    }
   }
 
   /**
@@ -116,14 +186,45 @@ public class GameModelViewController {
     return true;
   }
 
+  /**
+   * A method that scrubs the rewind buffer back or forward while the rewind
+   * keys are held, pausing the game first. The replay being recorded is stopped
+   * the first time, as the session no longer plays out from its inputs alone.
+   */
+
+  private void updateRewind() {
+    if (rewind == null || GlobalInput.rewindBack == GlobalInput.rewindForward) {
+      return;
+    }
+    if (!games[0].isPaused()) {
+      games[0].setPause(true);
+    }
+    if (recorder != null) {
+      gameThreads[0].setRecorder(null);
+      recorder.close();
+      recorder = null;
+      rewind.report();
+    }
+    int ticks = (int) Math.max(1, Core.deltaTime / SimulationVariables.tickTime);
+    rewind.scrub(GlobalInput.rewindBack ? -ticks : ticks);
+  }
+
   public ShooterGame[] getGames() {
     return games;
   }
 
+  public long getSeed() {
+    return seed;
+  }
+
   public ShooterRules getRules() {
     return rules;
   }
 
+  public RewindBuffer getRewind() {
+    return rewind;
+  }
+
   //
   // Classes below this point are GameStateUpdates.
   //
@@ -231,12 +332,45 @@ public class GameModelViewController {
 
     @Override
     public void stateUpdate() {
+      level.applyReload();
       clock.checkCycle(Core.deltaTime);
+      updateRewind();
       synchronisePause();
+      if (governor != null) {
+        governor.update();
+      }
     }
 
   }
 
+  /**
+   * A method to stop any threads that are not bound to the games themselves and
+   * release the textures held by the renderers of each view.
+   */
+
+  public void dispose() {
+    if (levelWatcher != null) {
+      levelWatcher.finish();
+    }
+    if (viewPreparer != null) {
+      viewPreparer.finish();
+    }
+    if (governor != null) {
+      governor.finish();
+    }
+    if (recorder != null) {
+      gameThreads[0].setRecorder(null);
+      recorder.close();
+    }
+    if (rewind != null) {
+      gameThreads[0].setRewind(null);
+    }
+    for (int i = 0; i < renderLists.length; i++) {
+      renderLists[i].dispose();
+    }
+    staticLayer.dispose();
+  }
+
   public GameEndOverlay getEndOverlay() {
     return endOverlay;
   }
@@ -0,0 +1,135 @@
+package game.model;
+
+/**
+ * The GameRandom class generates the random numbers of a game, so that a game
+ * started with the same seed plays out the same way every time.
+ * 
+ * <p>
+ * It uses the SplitMix64 generator, which keeps a single long of state and adds
+ * a fixed odd constant to it for each number, scrambling the result. Any seed
+ * and index can be mixed into a new seed with streamSeed(), which gives each
+ * game of a session its own stream. A phase split across threads reseeds the
+ * generator of each chunk for every entity from a seed drawn once a tick, so
+ * the numbers an entity gets do not depend on how the entities were split.
+ * 
+ * <p>
+ * A generator is only used by one thread at a time, so unlike Math.random()
+ * there is no shared state for the game threads to contend on.
+ * 
+ * @author Brandon Hua
+ */
+
+public class GameRandom {
+
+  private final static long GOLDEN = 0x9E3779B97F4A7C15L;
+
+  private static long seed = 0; // the seed of every session, 0 picks a new one each time
+
+  private long state;
+
+  public static void setSeed(long newSeed) {
+    seed = newSeed;
+  }
+
+  public static long getSeed() {
+    return seed;
+  }
+
+  /**
+   * The constructor of a generator.
+   * 
+   * @param seed The seed the numbers are generated from.
+   */
+
+  public GameRandom(long seed) {
+    state = seed;
+  }
+
+  /**
+   * A method to get the next random long, all values being equally likely.
+   * 
+   * @return The random long.
+   */
+
+  public long nextLong() {
+    state += GOLDEN;
+    return mix(state);
+  }
+
+  /**
+   * A method to get a random int from 0 up to but not including a bound.
+   * 
+   * @param bound The bound of the int, greater than 0.
+   * @return The random int.
+   */
+
+  public int nextInt(int bound) {
+    return (int) (((nextLong() >>> 32) * bound) >>> 32);
+  }
+
+  /**
+   * A method to get a random float from 0 up to but not including 1.
+   * 
+   * @return The random float.
+   */
+
+  public float nextFloat() {
+    return (nextLong() >>> 40) * 0x1.0p-24f;
+  }
+
+  /**
+   * A method that starts the generator again from a new seed, so a generator
+   * can be reused for another stream without allocating.
+   * 
+   * @param seed The new seed.
+   */
+
+  public void reseed(long seed) {
+    state = seed;
+  }
+
+  /**
+   * A method to get the state of the generator, which can be given to reseed()
+   * to continue the same numbers later.
+   * 
+   * @return The state.
+   */
+
+  public long getState() {
+    return state;
+  }
+
+  /**
+   * A method to get the seed of one of the streams of a seed, such as the
+   * stream of a game in a session or of an entity in a tick.
+   * 
+   * @param seed  The seed to split.
+   * @param index The index of the stream.
+   * @return The seed of the stream.
+   */
+
+  public static long streamSeed(long seed, long index) {
+    return mix(seed + (index + 1) * GOLDEN);
+  }
+
+  /**
+   * A method to get the seed of a new session, which is the configured seed or,
+   * if none was configured, one taken from the clock.
+   * 
+   * @return The seed.
+   */
+
+  public static long sessionSeed() {
+    if (seed != 0) {
+      return seed;
+    }
+    return mix(System.nanoTime());
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}
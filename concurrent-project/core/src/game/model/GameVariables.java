@@ -1,5 +1,7 @@
 package game.model;
 
+import java.nio.ByteBuffer;
+
 /**
  * The game variables class holds variables for a single game rule, separately
  * to the GameRulesVariables that stores the variables for the entire session.
@@ -106,4 +108,40 @@ public class GameVariables {
     return netScore;
   }
   
+  /**
+   * A method that writes the variables to a buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(score);
+    buffer.putFloat(gameSpeed);
+    buffer.putInt(defeated);
+    buffer.putLong(curTime);
+    buffer.putLong(timeLimit);
+    buffer.putInt(curEnemies);
+    buffer.putInt(maxEnemies);
+    buffer.putInt(lives);
+    buffer.putInt(netScore);
+  }
+
+  /**
+   * A method that reads the variables from a buffer written by writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    score = buffer.getInt();
+    gameSpeed = buffer.getFloat();
+    defeated = buffer.getInt();
+    curTime = buffer.getLong();
+    timeLimit = buffer.getLong();
+    curEnemies = buffer.getInt();
+    maxEnemies = buffer.getInt();
+    lives = buffer.getInt();
+    netScore = buffer.getInt();
+  }
+
 }
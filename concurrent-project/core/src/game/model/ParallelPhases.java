@@ -0,0 +1,275 @@
+package game.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParallelPhases class splits the per-entity work of a tick across a
+ * ForkJoinPool once there is enough of it to be worth sharing. A phase is run
+ * over a range of entities, and the range is cut into chunks that are each run
+ * by a worker of the pool.
+ * 
+ * <p>
+ * Phases may only change the entities in their own chunk. Anything that would
+ * change something shared, such as firing a bullet or damaging an enemy, is
+ * written into the buffer of the chunk instead, and the caller applies the
+ * buffers afterwards in chunk order. The chunks cover the entities in order,
+ * so the effects are applied in the same order as a single thread would have
+ * applied them and the game plays out the same either way.
+ * 
+ * <p>
+ * Every game has its own ParallelPhases, as the buffers are reused from tick
+ * to tick, but the pool is shared by every game.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ParallelPhases {
+
+  private static boolean enabled = false;
+  private static int threshold = 2048; // units of work, roughly entity checks
+  private static int workers = 0;
+  private static ForkJoinPool pool;
+
+  private final static int CHUNKSPERWORKER = 4;
+
+  private PhaseBuffer[] buffers = new PhaseBuffer[] { new PhaseBuffer() };
+  private ChunkTask[] tasks = new ChunkTask[0];
+  private SplitTask root = new SplitTask();
+  private long parallelRuns;
+  private long serialRuns;
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setThreshold(int work) {
+    threshold = work;
+  }
+
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * A method to set how many workers the pool has. It only has an effect
+   * before the pool is first used.
+   * 
+   * @param count The number of workers, or 0 for one per processor.
+   */
+
+  public static void setWorkers(int count) {
+    workers = count;
+  }
+
+  /**
+   * A method to get the pool shared by every game, making it the first time it
+   * is needed.
+   * 
+   * @return The pool.
+   */
+
+  public static synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      int parallelism = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+      pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+    return pool;
+  }
+
+  /**
+   * A method that runs a phase over every entity in a range, on the pool if
+   * the range holds enough work and on the calling thread otherwise.
+   * 
+   * @param phase The phase to run.
+   * @param count The number of entities, run from index 0 to count - 1.
+   * @param cost  A rough measure of the work each entity takes, such as the
+   *              number of other entities it is checked against.
+   * @return The number of buffers written to, to be read with getBuffer().
+   */
+
+  public int run(Phase phase, int count, int cost) {
+    if (!enabled || count < 2 || (long) count * cost < threshold) {
+      serialRuns++;
+      buffers[0].clear();
+      phase.run(0, count, buffers[0]);
+      return 1;
+    }
+    parallelRuns++;
+
+    ForkJoinPool workerPool = getPool();
+    int chunks = Math.min(count, workerPool.getParallelism() * CHUNKSPERWORKER);
+    ensureChunks(chunks);
+    for (int i = 0; i < chunks; i++) {
+      buffers[i].clear();
+      tasks[i].reinitialize();
+      tasks[i].phase = phase;
+      tasks[i].from = (int) ((long) count * i / chunks);
+      tasks[i].to = (int) ((long) count * (i + 1) / chunks);
+    }
+    root.reinitialize();
+    root.chunks = chunks;
+    workerPool.invoke(root);
+    for (int i = 0; i < chunks; i++) {
+      tasks[i].phase = null;
+    }
+    return chunks;
+  }
+
+  private void ensureChunks(int chunks) {
+    if (tasks.length >= chunks) {
+      return;
+    }
+    PhaseBuffer[] newBuffers = new PhaseBuffer[chunks];
+    ChunkTask[] newTasks = new ChunkTask[chunks];
+    for (int i = 0; i < chunks; i++) {
+      newBuffers[i] = i < buffers.length ? buffers[i] : new PhaseBuffer();
+      newTasks[i] = new ChunkTask(newBuffers[i]);
+    }
+    buffers = newBuffers;
+    tasks = newTasks;
+  }
+
+  /**
+   * A method to get the buffer written to by a chunk of the last phase run.
+   * 
+   * @param chunk The index of the chunk, in the order of the entities.
+   * @return The buffer of that chunk.
+   */
+
+  public PhaseBuffer getBuffer(int chunk) {
+    return buffers[chunk];
+  }
+
+  public long getParallelRuns() {
+    return parallelRuns;
+  }
+
+  public long getSerialRuns() {
+    return serialRuns;
+  }
+
+  /**
+   * A Phase is a piece of work done separately for each entity in a range.
+   * 
+   * @author Brandon Hua
+   */
+
+  public interface Phase {
+
+    /**
+     * A method that does the work for a chunk of entities.
+     * 
+     * @param from   The index of the first entity.
+     * @param to     The index after the last entity.
+     * @param buffer The buffer to write the effects of the chunk to.
+     */
+
+    public void run(int from, int to, PhaseBuffer buffer);
+  }
+
+  /**
+   * A PhaseBuffer is a growable list of ints that a chunk writes its effects
+   * to, usually the indices of the entities involved. It also holds a random
+   * number generator for the chunk, which a phase should reseed for each
+   * entity so the numbers do not depend on the chunk the entity is in.
+   * 
+   * @author Brandon Hua
+   */
+
+  public static class PhaseBuffer {
+
+    private int[] values = new int[64];
+    private int size;
+    private GameRandom random = new GameRandom(0);
+
+    /**
+     * A method that adds a value to the end of the buffer.
+     * 
+     * @param value The value to add.
+     */
+
+    public void add(int value) {
+      if (size == values.length) {
+        int[] newValues = new int[values.length * 2];
+        System.arraycopy(values, 0, newValues, 0, size);
+        values = newValues;
+      }
+      values[size] = value;
+      size++;
+    }
+
+    public int get(int index) {
+      return values[index];
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public void clear() {
+      size = 0;
+    }
+
+    public GameRandom getRandom() {
+      return random;
+    }
+
+  }
+
+  /**
+   * The task that runs a phase over one chunk.
+   * 
+   * @author Brandon Hua
+   */
+
+  private static class ChunkTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private PhaseBuffer buffer;
+    private Phase phase;
+    private int from;
+    private int to;
+
+    private ChunkTask(PhaseBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    protected void compute() {
+      phase.run(from, to, buffer);
+    }
+
+  }
+
+  /**
+   * The task that starts every chunk and waits for them to finish.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class SplitTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private int chunks;
+
+    @Override
+    protected void compute() {
+      for (int i = 1; i < chunks; i++) {
+        tasks[i].fork();
+      }
+      tasks[0].invoke();
+      for (int i = chunks - 1; i >= 1; i--) {
+        tasks[i].join();
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,381 @@
+package game.model;
+
+import game.CameraVariables;
+import game.Core;
+import game.SimulationVariables;
+import game.model.levels.Level;
+import game.renderer.StaticLayerCache;
+
+import java.util.ArrayList;
+
+/**
+ * The PerformanceGovernor keeps a game within a time budget by trading detail
+ * for speed. It measures how long each simulation tick and each rendered frame
+ * take and, when either is over budget for long enough, applies the next step
+ * that reduces the work done. Once both have been comfortably under budget for
+ * a while the most recent step is undone.
+ * 
+ * <p>
+ * Steps are applied one at a time and a budget must be exceeded over several
+ * checks before anything changes, so a single slow frame does not cause the
+ * detail to flicker up and down. Every decision is printed and kept in a log.
+ * 
+ * @author Brandon Hua
+ */
+
+public class PerformanceGovernor {
+
+  private static boolean enabled = true;
+  private static int frameBudget = 12; // milliseconds
+
+  private final static int CHECKTIME = 500; // milliseconds
+  private final static int OVERCHECKS = 2;
+  private final static int UNDERCHECKS = 6;
+  private final static float RECOVERFRACTION = 0.6f;
+  private final static float SMOOTHING = 0.1f;
+  private final static float TICKFRACTION = 0.5f;
+
+  private ShooterGame[] games;
+  private Level level;
+  private StaticLayerCache staticLayer;
+
+  private float frameAverage;
+  private float tickAverage;
+  private long lastCheck = Core.time;
+  private int overCount;
+  private int underCount;
+
+  private GovernorStep[] renderSteps;
+  private GovernorStep[] simulationSteps;
+  private ArrayList<GovernorStep> applied = new ArrayList<GovernorStep>();
+  private ArrayList<String> log = new ArrayList<String>();
+
+  /**
+   * The PerformanceGovernor records the settings of the games so every step can
+   * be undone.
+   * 
+   * @param games       The games being governed.
+   * @param level       The level shared by the games.
+   * @param staticLayer The cached scenery of the level.
+   */
+
+  public PerformanceGovernor(ShooterGame[] games, Level level, StaticLayerCache staticLayer) {
+    this.games = games;
+    this.level = level;
+    this.staticLayer = staticLayer;
+    int maxEnemies = games[0].getVars().getMaxEnemies();
+    renderSteps = new GovernorStep[] { new StillVegetation(),
+        new StructureResolution(CameraVariables.sres) };
+    simulationSteps = new GovernorStep[] { new SpawnRate(1.5f, maxEnemies * 3 / 4),
+        new SpawnRate(2f, maxEnemies / 2), new SpawnRate(3f, maxEnemies / 4) };
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setFrameBudget(int budget) {
+    frameBudget = budget;
+  }
+
+  public static int getFrameBudget() {
+    return frameBudget;
+  }
+
+  /**
+   * A method that adds the time taken to render a frame to the running average.
+   * 
+   * @param nanos The time taken to render the frame (in nanoseconds).
+   */
+
+  public void recordFrame(long nanos) {
+    frameAverage += (nanos / 1000000f - frameAverage) * SMOOTHING;
+  }
+
+  /**
+   * A method called once a frame that samples the tick times of the games and,
+   * every check, decides whether detail should be reduced or restored.
+   */
+
+  public void update() {
+    long slowestTick = 0;
+    for (ShooterGame game : games) {
+      slowestTick = Math.max(slowestTick, game.getTickDuration());
+    }
+    tickAverage += (slowestTick / 1000000f - tickAverage) * SMOOTHING;
+
+    if (Core.time - lastCheck < CHECKTIME) {
+      return;
+    }
+    lastCheck = Core.time;
+
+    float tickBudget = SimulationVariables.tickTime * TICKFRACTION;
+    boolean frameOver = frameAverage > frameBudget;
+    boolean tickOver = tickAverage > tickBudget;
+    boolean under = frameAverage < frameBudget * RECOVERFRACTION
+        && tickAverage < tickBudget * RECOVERFRACTION;
+
+    if (frameOver || tickOver) {
+      underCount = 0;
+      overCount++;
+      if (overCount >= OVERCHECKS) {
+        overCount = 0;
+        degrade(frameOver, tickOver);
+      }
+    } else if (under) {
+      overCount = 0;
+      underCount++;
+      if (underCount >= UNDERCHECKS) {
+        underCount = 0;
+        recover();
+      }
+    } else {
+      overCount = 0;
+      underCount = 0;
+    }
+  }
+
+  /**
+   * A method that applies the next step. A slow simulation can only be helped
+   * by fewer entities, while slow rendering first loses visual detail and then
+   * entities once there is no more detail to lose.
+   * 
+   * @param frameOver A boolean for whether frames are over budget.
+   * @param tickOver  A boolean for whether ticks are over budget.
+   */
+
+  private void degrade(boolean frameOver, boolean tickOver) {
+    GovernorStep step = null;
+    if (frameOver && !tickOver) {
+      step = nextStep(renderSteps);
+    }
+    if (step == null) {
+      step = nextStep(simulationSteps);
+    }
+    if (step == null) {
+      return;
+    }
+    step.apply();
+    applied.add(step);
+    record("reduced", step);
+  }
+
+  private GovernorStep nextStep(GovernorStep[] steps) {
+    for (GovernorStep step : steps) {
+      if (!applied.contains(step) && step.applicable()) {
+        return step;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A method that undoes the last step applied.
+   */
+
+  private void recover() {
+    if (applied.isEmpty()) {
+      return;
+    }
+    GovernorStep step = applied.remove(applied.size() - 1);
+    step.revert();
+    record("restored", step);
+  }
+
+  private void record(String action, GovernorStep step) {
+    String decision = String.format("Governor %s %s (frame %.1fms/%dms, tick %.1fms/%.1fms)",
+        action, step.describe(), frameAverage, frameBudget, tickAverage,
+        SimulationVariables.tickTime * TICKFRACTION);
+    System.out.println(decision);
+    log.add(decision);
+  }
+
+  /**
+   * A method to restore every setting changed by the governor.
+   */
+
+  public void finish() {
+    while (!applied.isEmpty()) {
+      applied.remove(applied.size() - 1).revert();
+    }
+  }
+
+  public ArrayList<String> getLog() {
+    return log;
+  }
+
+  public int getLevel() {
+    return applied.size();
+  }
+
+  public float getFrameAverage() {
+    return frameAverage;
+  }
+
+  public float getTickAverage() {
+    return tickAverage;
+  }
+
+  //
+  // Classes below this point are GovernorSteps.
+  //
+
+  /**
+   * A GovernorStep is a single change that reduces the work done by the game and
+   * can be undone.
+   * 
+   * @author Brandon Hua
+   */
+
+  public interface GovernorStep {
+
+    /**
+     * A method to check whether the step would change anything.
+     * 
+     * @return A boolean for whether the step can be applied.
+     */
+
+    public boolean applicable();
+
+    /**
+     * A method that reduces the work done by the game.
+     */
+
+    public void apply();
+
+    /**
+     * A method that puts back whatever apply changed.
+     */
+
+    public void revert();
+
+    /**
+     * A method to describe the step for the log.
+     * 
+     * @return A short description of what the step changes.
+     */
+
+    public String describe();
+  }
+
+  /**
+   * The StillVegetation step stops the vegetation from animating.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class StillVegetation implements GovernorStep {
+
+    @Override
+    public boolean applicable() {
+      return staticLayer.isAnimated();
+    }
+
+    @Override
+    public void apply() {
+      staticLayer.setAnimated(false);
+    }
+
+    @Override
+    public void revert() {
+      staticLayer.setAnimated(true);
+    }
+
+    @Override
+    public String describe() {
+      return "vegetation animation";
+    }
+
+  }
+
+  /**
+   * The StructureResolution step halves the number of layers drawn for each
+   * structure.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class StructureResolution implements GovernorStep {
+
+    private int resolution;
+
+    public StructureResolution(int resolution) {
+      this.resolution = resolution;
+    }
+
+    @Override
+    public boolean applicable() {
+      return resolution > 1;
+    }
+
+    @Override
+    public void apply() {
+      CameraVariables.sres = Math.max(1, resolution / 2);
+    }
+
+    @Override
+    public void revert() {
+      CameraVariables.sres = resolution;
+    }
+
+    @Override
+    public String describe() {
+      return "structure resolution to " + CameraVariables.sres;
+    }
+
+  }
+
+  /**
+   * The SpawnRate step spawns enemies less often and lowers the number of
+   * enemies that can be alive in each game.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class SpawnRate implements GovernorStep {
+
+    private float spawnScale;
+    private int maxEnemies;
+    private float previousScale;
+    private int[] previousMax = new int[games.length];
+
+    public SpawnRate(float spawnScale, int maxEnemies) {
+      this.spawnScale = spawnScale;
+      this.maxEnemies = Math.max(1, maxEnemies);
+    }
+
+    @Override
+    public boolean applicable() {
+      return true;
+    }
+
+    @Override
+    public void apply() {
+      previousScale = level.getSpawnScale();
+      level.setSpawnScale(spawnScale);
+      for (int i = 0; i < games.length; i++) {
+        previousMax[i] = games[i].getEnemyLimit();
+        games[i].setEnemyLimit(Math.min(previousMax[i], maxEnemies));
+      }
+    }
+
+    @Override
+    public void revert() {
+      level.setSpawnScale(previousScale);
+      for (int i = 0; i < games.length; i++) {
+        games[i].setEnemyLimit(previousMax[i]);
+      }
+    }
+
+    @Override
+    public String describe() {
+      return "spawn interval x" + spawnScale + " and max enemies " + maxEnemies;
+    }
+
+  }
+
+}
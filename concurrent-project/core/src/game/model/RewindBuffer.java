@@ -0,0 +1,541 @@
+package game.model;
+
+import game.SimulationVariables;
+import game.model.rules.ShooterRules;
+
+import java.util.Arrays;
+
+/**
+ * The RewindBuffer keeps the last few seconds of a single player session in
+ * memory, so that when something goes wrong, such as the player getting stuck
+ * in a wall, the game can be paused and scrubbed back through the ticks that
+ * led up to it. Sessions with more than one local player are not kept, for the
+ * same reason they are not recorded by the ReplayRecorder: their games share
+ * rules that are passed between threads by timing, so the game of one player
+ * cannot be put back without the others.
+ * 
+ * <p>
+ * After every tick that is not paused a SessionSnapshot of the game is taken.
+ * Every so often the whole snapshot is kept as a keyframe, and for the ticks
+ * in between only the bytes that differ from the last keyframe are kept. A
+ * delta is the size of the snapshot followed by pairs of a run of unchanged
+ * bytes to skip and a run of changed bytes, which are the bytes of the
+ * snapshot xored with the keyframe, so any tick can be put back from its
+ * keyframe and its own delta without reading the ticks between them. A tick
+ * whose delta would be more than half the size of a keyframe is kept as a
+ * keyframe instead.
+ * 
+ * <p>
+ * The records are kept one after another in a single array the size of the
+ * memory budget, which wraps around to the start when it is full, dropping
+ * the oldest records it runs over. A delta is no use without its keyframe, so
+ * the ticks after a dropped keyframe are dropped with it. No more ticks are
+ * kept than fit in the number of seconds asked for, so nothing is allocated
+ * once the buffer is made.
+ * 
+ * <p>
+ * The records are only read and written by the thread of the game between
+ * ticks. Other threads ask for a tick with scrub(), and it is put back after
+ * the next tick while the game is paused. Once the game is played on from a
+ * tick that was scrubbed back to, the ticks after it are dropped.
+ * 
+ * @author Brandon Hua
+ */
+
+public class RewindBuffer {
+
+  private final static int KEYFRAME_INTERVAL = 100; // ticks
+  private final static int SAME_RUN = 4; // unchanged bytes that end a changed run
+
+  private static boolean enabled = false;
+  private static int seconds = 10;
+  private static int budget = 16 << 20;
+
+  private ShooterGame game;
+  private ShooterRules rules;
+  private int levelVersion;
+
+  private byte[] ring;
+  private int writePos;
+  private int slots;
+  private int[] offsets;
+  private int[] lengths;
+  private int[] keyframeTicks;
+  private long[] clocks;
+  private int held;
+
+  private volatile int oldest = 0;
+  private volatile int newest = -1;
+  private volatile int position = -1;
+  private volatile int target = -1;
+
+  private SessionSnapshot current = new SessionSnapshot();
+  private SessionSnapshot keyframe = new SessionSnapshot();
+  private SessionSnapshot restored = new SessionSnapshot();
+  private int keyframeTick = -1;
+  private byte[] delta = new byte[1 << 15];
+  private int cursor;
+  private boolean overBudget;
+
+  /**
+   * A constructor for a RewindBuffer with the seconds and memory budget that
+   * are set in the config.
+   * 
+   * @param game  The game to keep the ticks of.
+   * @param rules The rules the game is played with.
+   */
+
+  public RewindBuffer(ShooterGame game, ShooterRules rules) {
+    this(game, rules, seconds, budget);
+  }
+
+  /**
+   * A constructor for a RewindBuffer that keeps a given number of seconds in a
+   * given amount of memory.
+   * 
+   * @param game    The game to keep the ticks of.
+   * @param rules   The rules the game is played with.
+   * @param seconds The most seconds of ticks to keep.
+   * @param budget  The size of the array the records are kept in (in bytes).
+   */
+
+  public RewindBuffer(ShooterGame game, ShooterRules rules, int seconds, int budget) {
+    this.game = game;
+    this.rules = rules;
+    levelVersion = game.getLevel().getVersion();
+    ring = new byte[budget];
+    slots = Math.max(1, seconds * 1000 / SimulationVariables.tickTime);
+    offsets = new int[slots];
+    lengths = new int[slots];
+    keyframeTicks = new int[slots];
+    clocks = new long[slots];
+  }
+
+  /**
+   * A method that makes a RewindBuffer for a game if rewinding is turned on and
+   * the game can be rewound, which networked games cannot.
+   * 
+   * @param game  The game to keep the ticks of.
+   * @param rules The rules the game is played with.
+   * @return The buffer, or null if the game is not being kept.
+   */
+
+  public static RewindBuffer create(ShooterGame game, ShooterRules rules) {
+    if (!enabled || game.isNetworked()) {
+      return null;
+    }
+    System.out.println("Keeping the last " + seconds + " seconds to rewind in "
+        + (budget >> 10) + " KB, hold F5 to scrub back and F6 to scrub forward");
+    return new RewindBuffer(game, rules);
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setSeconds(int keep) {
+    seconds = Math.max(1, keep);
+  }
+
+  public static int getSeconds() {
+    return seconds;
+  }
+
+  /**
+   * A method to set how much memory each buffer keeps its records in.
+   * 
+   * @param bytes The size of the array of records (in bytes).
+   */
+
+  public static void setBudget(int bytes) {
+    budget = Math.max(1 << 16, bytes);
+  }
+
+  public static int getBudget() {
+    return budget;
+  }
+
+  /**
+   * A method called by the thread of the game after each tick. A tick that was
+   * played is kept, and while the game is paused the tick asked for by scrub()
+   * is put back. Everything kept is dropped if the level has been reloaded.
+   */
+
+  public void afterTick() {
+    if (game.getLevel().getVersion() != levelVersion) {
+      levelVersion = game.getLevel().getVersion();
+      clear();
+    }
+    if (game.isPaused()) {
+      int want = target;
+      if (want != -1 && want != position && want >= oldest && want <= newest) {
+        restore(want);
+      }
+      return;
+    }
+    target = -1;
+    if (position != newest) {
+      truncate(position);
+    }
+    record();
+  }
+
+  /**
+   * A method that asks for the game to be moved a number of ticks from the tick
+   * it is at, or from the tick last asked for if it has not been put back yet.
+   * The tick is kept within the ticks that are held, and is only put back while
+   * the game is paused.
+   * 
+   * @param ticks The number of ticks to move, back if negative.
+   */
+
+  public void scrub(int ticks) {
+    int from = target != -1 ? target : position;
+    if (from == -1 || newest < oldest) {
+      return;
+    }
+    target = Math.max(oldest, Math.min(newest, from + ticks));
+  }
+
+  /**
+   * A method that takes a snapshot of the game and keeps it as a delta of the
+   * last keyframe, or as a keyframe if one is due or the delta is too big.
+   */
+
+  private void record() {
+    current.capture(game, rules);
+    int size = current.size();
+    long clock = game.getTickClock();
+    int tick = newest + 1;
+    if (keyframeTick != -1 && keyframeTick >= oldest
+        && tick - keyframeTick < KEYFRAME_INTERVAL) {
+      int length = encode(keyframe.array(), keyframe.size(), current.array(), size);
+      if (length != -1 && store(tick, delta, length, keyframeTick, clock)) {
+        return;
+      }
+    }
+    if (store(tick, current.array(), size, tick, clock)) {
+      keyframe.setSize(size);
+      System.arraycopy(current.array(), 0, keyframe.array(), 0, size);
+      keyframeTick = tick;
+    }
+  }
+
+  /**
+   * A method that copies a record into the array after the newest one, dropping
+   * the oldest records until there is room for it.
+   * 
+   * @param tick    The tick of the record.
+   * @param bytes   The bytes of the record.
+   * @param length  The length of the record (in bytes).
+   * @param keyTick The tick of the keyframe the record is a delta of, or the
+   *                tick itself if it is a keyframe.
+   * @param clock   The clock of the tick.
+   * @return A boolean for whether or not the record was kept. A delta is not
+   *         kept if its keyframe had to be dropped to make room for it.
+   */
+
+  private boolean store(int tick, byte[] bytes, int length, int keyTick, long clock) {
+    if (length > ring.length) {
+      if (!overBudget) {
+        System.out.println("Rewind cannot keep a tick of " + length + " bytes in a budget of "
+            + ring.length + " bytes");
+        overBudget = true;
+      }
+      clear();
+      return false;
+    }
+    if (newest - oldest + 1 == slots) {
+      dropOldest();
+    }
+    if (writePos + length > ring.length) {
+      writePos = 0;
+    }
+    while (newest >= oldest) {
+      int slot = oldest % slots;
+      if (offsets[slot] >= writePos + length || writePos >= offsets[slot] + lengths[slot]) {
+        break;
+      }
+      dropOldest();
+    }
+    if (keyTick != tick && keyTick < oldest) {
+      return false;
+    }
+
+    System.arraycopy(bytes, 0, ring, writePos, length);
+    int slot = tick % slots;
+    offsets[slot] = writePos;
+    lengths[slot] = length;
+    keyframeTicks[slot] = keyTick;
+    clocks[slot] = clock;
+    writePos += length;
+    held += length;
+    if (newest < oldest) {
+      oldest = tick;
+    }
+    newest = tick;
+    position = tick;
+    return true;
+  }
+
+  /**
+   * A method that drops the oldest record, along with any deltas of it if it is
+   * a keyframe.
+   */
+
+  private void dropOldest() {
+    do {
+      held -= lengths[oldest % slots];
+      oldest++;
+    } while (oldest <= newest && keyframeTicks[oldest % slots] != oldest);
+  }
+
+  /**
+   * A method that drops every record after a tick, so that the game can be
+   * played on from it.
+   * 
+   * @param tick The tick to keep up to.
+   */
+
+  private void truncate(int tick) {
+    if (tick < oldest || tick > newest) {
+      clear();
+      return;
+    }
+    while (newest > tick) {
+      held -= lengths[newest % slots];
+      newest--;
+    }
+    int slot = tick % slots;
+    writePos = offsets[slot] + lengths[slot];
+    if (keyframeTicks[slot] != keyframeTick) {
+      keyframeTick = keyframeTicks[slot];
+      int keySlot = keyframeTick % slots;
+      keyframe.setSize(lengths[keySlot]);
+      System.arraycopy(ring, offsets[keySlot], keyframe.array(), 0, lengths[keySlot]);
+    }
+  }
+
+  /**
+   * A method that drops every record. The ticks are still counted on from the
+   * last one kept.
+   */
+
+  private void clear() {
+    oldest = newest + 1;
+    position = newest;
+    target = -1;
+    writePos = 0;
+    held = 0;
+    keyframeTick = -1;
+  }
+
+  /**
+   * A method that puts the game back to a tick that is held and pauses it. The
+   * times the game keeps from the clock are moved to the current clock, so the
+   * game carries on from the tick as if it had been paused there.
+   * 
+   * @param tick The tick to put back.
+   */
+
+  private void restore(int tick) {
+    int slot = tick % slots;
+    int keySlot = keyframeTicks[slot] % slots;
+    if (keySlot == slot) {
+      restored.setSize(lengths[slot]);
+      System.arraycopy(ring, offsets[slot], restored.array(), 0, lengths[slot]);
+    } else {
+      decode(offsets[keySlot], lengths[keySlot], offsets[slot], lengths[slot]);
+    }
+    restored.resume(game, rules, game.getTickClock());
+    game.setPause(true);
+    position = tick;
+  }
+
+  /**
+   * A method that writes a snapshot as a delta of a keyframe.
+   * 
+   * @param base     The bytes of the keyframe.
+   * @param baseSize The size of the keyframe (in bytes).
+   * @param bytes    The bytes of the snapshot.
+   * @param size     The size of the snapshot (in bytes).
+   * @return The length of the delta, or -1 if it would be more than half the
+   *         size of the snapshot.
+   */
+
+  private int encode(byte[] base, int baseSize, byte[] bytes, int size) {
+    int limit = size / 2;
+    if (delta.length < limit + 10) {
+      delta = new byte[limit * 2 + 10];
+    }
+    int out = writeVarint(0, size);
+    int i = 0;
+    while (i < size) {
+      int start = i;
+      while (i < size && bytes[i] == (i < baseSize ? base[i] : 0)) {
+        i++;
+      }
+      if (i == size) {
+        break;
+      }
+      int changedStart = i;
+      int changedEnd = i;
+      int same = 0;
+      while (i < size && same < SAME_RUN) {
+        if (bytes[i] == (i < baseSize ? base[i] : 0)) {
+          same++;
+        } else {
+          same = 0;
+          changedEnd = i + 1;
+        }
+        i++;
+      }
+      if (out + 10 + changedEnd - changedStart > limit) {
+        return -1;
+      }
+      out = writeVarint(out, changedStart - start);
+      out = writeVarint(out, changedEnd - changedStart);
+      for (int j = changedStart; j < changedEnd; j++) {
+        delta[out++] = (byte) (bytes[j] ^ (j < baseSize ? base[j] : 0));
+      }
+      i = changedEnd;
+    }
+    return out;
+  }
+
+  /**
+   * A method that puts a snapshot back together from a keyframe and a delta of
+   * it, both held in the array of records.
+   * 
+   * @param baseStart   The offset of the keyframe.
+   * @param baseSize    The size of the keyframe (in bytes).
+   * @param deltaStart  The offset of the delta.
+   * @param deltaLength The length of the delta (in bytes).
+   */
+
+  private void decode(int baseStart, int baseSize, int deltaStart, int deltaLength) {
+    cursor = deltaStart;
+    int end = deltaStart + deltaLength;
+    int size = readVarint();
+    restored.setSize(size);
+    byte[] out = restored.array();
+    int copied = Math.min(size, baseSize);
+    System.arraycopy(ring, baseStart, out, 0, copied);
+    Arrays.fill(out, copied, size, (byte) 0);
+    int pos = 0;
+    while (cursor < end) {
+      pos += readVarint();
+      int changed = readVarint();
+      for (int i = 0; i < changed; i++) {
+        out[pos++] ^= ring[cursor++];
+      }
+    }
+  }
+
+  private int writeVarint(int out, int value) {
+    while ((value & ~0x7F) != 0) {
+      delta[out++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    delta[out++] = (byte) value;
+    return out;
+  }
+
+  private int readVarint() {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = ring[cursor++];
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  /**
+   * A method that prints how much is held and how much memory it takes up.
+   */
+
+  public void report() {
+    int keyframes = 0;
+    for (int tick = oldest; tick <= newest; tick++) {
+      if (keyframeTicks[tick % slots] == tick) {
+        keyframes++;
+      }
+    }
+    System.out.println("Rewind holds " + getHeldTicks() + " ticks (" + getHeldTime()
+        + " ms) as " + keyframes + " keyframes and " + (getHeldTicks() - keyframes)
+        + " deltas, using " + (held >> 10) + " KB of " + (ring.length >> 10) + " KB ("
+        + (getMemoryReserved() >> 10) + " KB reserved in all)");
+  }
+
+  public int getHeldTicks() {
+    return Math.max(0, newest - oldest + 1);
+  }
+
+  /**
+   * A method to get how much game time the held ticks cover.
+   * 
+   * @return The time between the oldest and newest ticks (in milliseconds).
+   */
+
+  public long getHeldTime() {
+    int first = oldest;
+    int last = newest;
+    return last >= first ? clocks[last % slots] - clocks[first % slots] : 0;
+  }
+
+  /**
+   * A method to get how far back from the newest tick the game has been
+   * scrubbed.
+   * 
+   * @return The time between the tick the game is at and the newest tick (in
+   *         milliseconds).
+   */
+
+  public long getTimeBack() {
+    int at = position;
+    int last = newest;
+    return at >= oldest && at <= last ? clocks[last % slots] - clocks[at % slots] : 0;
+  }
+
+  /**
+   * A method to get how much of the budget the held ticks take up.
+   * 
+   * @return The size of every record held (in bytes).
+   */
+
+  public int getMemoryUsed() {
+    return held;
+  }
+
+  /**
+   * A method to get all the memory the buffer keeps, which is the budget, the
+   * index of the records and the snapshots it works in.
+   * 
+   * @return The memory kept (in bytes).
+   */
+
+  public long getMemoryReserved() {
+    return (long) ring.length + slots * 20L + current.array().length + keyframe.array().length
+        + restored.array().length + delta.length;
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  public int getOldestTick() {
+    return oldest;
+  }
+
+  public int getNewestTick() {
+    return newest;
+  }
+
+}
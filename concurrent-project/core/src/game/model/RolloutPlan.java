@@ -0,0 +1,109 @@
+package game.model;
+
+import game.entities.Enemy;
+
+/**
+ * The RolloutPlan holds a plan an enemy is part way through making, so the
+ * RolloutPlanner can try some of its moves on one tick and the rest on later
+ * ticks. The planner keeps one and reuses it for every plan, so planning does
+ * not allocate a plan each time.
+ * 
+ * @author Brandon Hua
+ */
+
+public class RolloutPlan {
+
+  private Enemy enemy;
+  private int index;
+  private int moves;
+  private int nextMove;
+  private int best;
+  private int bestScore;
+  private float xdir;
+  private float ydir;
+
+  /**
+   * A method that starts a new plan, forgetting the last one.
+   * 
+   * @param enemy The enemy to plan for.
+   * @param index The index of the enemy in the enemies of the game, which is
+   *              the same in every fork.
+   */
+
+  void start(Enemy enemy, int index) {
+    this.enemy = enemy;
+    this.index = index;
+    moves = 0;
+    nextMove = 0;
+    best = 0;
+    bestScore = Integer.MIN_VALUE;
+    xdir = 0;
+    ydir = 0;
+  }
+
+  /**
+   * A method that notes the score of the next move, keeping it as the best if
+   * it scores higher than the moves before it, so an earlier move is preferred
+   * when they are equal.
+   * 
+   * @param score The score of the move.
+   */
+
+  void score(int score) {
+    if (score > bestScore) {
+      best = nextMove;
+      bestScore = score;
+    }
+    nextMove++;
+  }
+
+  void clear() {
+    enemy = null;
+  }
+
+  boolean isDone() {
+    return nextMove >= moves;
+  }
+
+  public Enemy getEnemy() {
+    return enemy;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getBest() {
+    return best;
+  }
+
+  int getNextMove() {
+    return nextMove;
+  }
+
+  void setMoves(int moves) {
+    this.moves = moves;
+  }
+
+  /**
+   * A method to set the direction the moves of the plan are made along, which
+   * the action works out once when the plan is started.
+   * 
+   * @param xdir The x direction.
+   * @param ydir The y direction.
+   */
+
+  public void setDirection(float xdir, float ydir) {
+    this.xdir = xdir;
+    this.ydir = ydir;
+  }
+
+  public float getXDir() {
+    return xdir;
+  }
+
+  public float getYDir() {
+    return ydir;
+  }
+
+}
@@ -0,0 +1,251 @@
+package game.model;
+
+import game.entities.Enemy;
+import game.entities.EnemyTypeAction.RolloutAction;
+import game.model.rules.ShooterRules;
+
+import java.util.ArrayList;
+
+/**
+ * The RolloutPlanner lets the enemies near the player whose action is a
+ * RolloutAction try each of their moves in a fork of the session before they
+ * act, within a number of plans and a time in microseconds each tick.
+ * 
+ * @author Brandon Hua
+ */
+
+public class RolloutPlanner {
+
+  private static boolean enabled = true;
+  private static int budget = 1;
+  private static int timeBudget = 1000; // microseconds
+
+  private ForkRunner runner;
+  private SessionFork root;
+  private RolloutPlan plan = new RolloutPlan();
+  private boolean timed = true;
+  private int lastPlans;
+  private int lastMoves;
+  private long plans;
+  private long moves;
+  private long carried;
+  private long planTime;
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setBudget(int maxPlans) {
+    budget = maxPlans;
+  }
+
+  public static int getBudget() {
+    return budget;
+  }
+
+  /**
+   * A method to set the time the planners can spend planning each tick.
+   * 
+   * @param micros The time (in microseconds).
+   */
+
+  public static void setTimeBudget(int micros) {
+    timeBudget = micros;
+  }
+
+  public static int getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * A method to set whether or not this planner stops planning once the time
+   * budget is used up, which is turned off for a game that must play the same
+   * way every time it is run.
+   * 
+   * @param timed Whether or not the time budget applies.
+   */
+
+  public void setTimed(boolean timed) {
+    this.timed = timed;
+  }
+
+  public boolean isTimed() {
+    return timed;
+  }
+
+  /**
+   * A method that carries on the plan left over from the last tick and then
+   * lets the enemies that want to plan this tick do so, up to the budgets. It
+   * is called by the AiScheduler once the tier of every enemy is known and
+   * before any of them act.
+   * 
+   * @param game  The game the enemies belong to.
+   * @param rules The rules the game is played with.
+   */
+
+  public void plan(ShooterGame game, ShooterRules rules) {
+    lastPlans = 0;
+    lastMoves = 0;
+    if (!enabled || rules == null || game.isNetworked()) {
+      drop();
+      return;
+    }
+    long start = System.nanoTime();
+    long deadline = start + timeBudget * 1000L;
+
+    if (plan.getEnemy() != null) {
+      carried++;
+      if (!tryMoves(deadline)) {
+        planTime += System.nanoTime() - start;
+        return;
+      }
+      finish(game);
+      // The root was taken on the tick the plan started, so the plans started
+      // this tick need a root of the session as it is now.
+      root.discard();
+      root = null;
+    }
+
+    ArrayList<Enemy> enemies = game.getEnemies();
+    for (int i = 0; i < enemies.size() && lastPlans < budget; i++) {
+      if (timed && lastMoves > 0 && System.nanoTime() >= deadline) {
+        break;
+      }
+      Enemy enemy = enemies.get(i);
+      if (enemy.getAiTier() != AiScheduler.NEAR || !(enemy.getAction() instanceof RolloutAction)) {
+        continue;
+      }
+      RolloutAction action = (RolloutAction) enemy.getAction();
+      if (!action.wantsPlan(enemy, game)) {
+        continue;
+      }
+      plan.start(enemy, i);
+      plan.setMoves(action.startPlan(enemy, game, plan));
+      if (plan.isDone()) {
+        plan.clear();
+        continue;
+      }
+      if (root == null) {
+        if (runner == null) {
+          runner = new ForkRunner(game, rules);
+        }
+        root = runner.root(game, rules);
+      }
+      lastPlans++;
+      if (!tryMoves(deadline)) {
+        break;
+      }
+      finish(game);
+    }
+
+    if (plan.getEnemy() == null && root != null) {
+      root.discard();
+      root = null;
+    }
+    plans += lastPlans;
+    if (lastMoves > 0) {
+      planTime += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * A method that tries the moves of the plan being made in turn, until every
+   * move is tried or the time is used up.
+   * 
+   * @param deadline The time planning must stop by (from System.nanoTime()).
+   * @return True if every move has been tried.
+   */
+
+  private boolean tryMoves(long deadline) {
+    RolloutAction action = (RolloutAction) plan.getEnemy().getAction();
+    while (!plan.isDone()) {
+      plan.score(action.tryMove(plan, plan.getNextMove(), root));
+      lastMoves++;
+      moves++;
+      if (timed && !plan.isDone() && System.nanoTime() >= deadline) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A method that gives the enemy the best move of the plan, if it is still in
+   * the game.
+   * 
+   * @param game The game the enemy belongs to.
+   */
+
+  private void finish(ShooterGame game) {
+    Enemy enemy = plan.getEnemy();
+    if (game.getEnemies().contains(enemy)) {
+      ((RolloutAction) enemy.getAction()).finishPlan(enemy, plan, plan.getBest());
+    }
+    plan.clear();
+  }
+
+  /**
+   * A method that drops the plan being made, if there is one, without giving it
+   * to the enemy.
+   */
+
+  public void drop() {
+    plan.clear();
+    if (root != null) {
+      root.discard();
+      root = null;
+    }
+  }
+
+  public int getLastPlans() {
+    return lastPlans;
+  }
+
+  public int getLastMoves() {
+    return lastMoves;
+  }
+
+  public long getPlans() {
+    return plans;
+  }
+
+  public long getMoves() {
+    return moves;
+  }
+
+  /**
+   * A method to get how many ticks carried on a plan started on an earlier
+   * tick.
+   * 
+   * @return The number of ticks.
+   */
+
+  public long getCarried() {
+    return carried;
+  }
+
+  /**
+   * A method to get the total time spent planning.
+   * 
+   * @return The time (in nanoseconds).
+   */
+
+  public long getPlanTime() {
+    return planTime;
+  }
+
+  /**
+   * A method to get the runner the forks are stepped in.
+   * 
+   * @return The runner, or null if no enemy has planned yet.
+   */
+
+  public ForkRunner getRunner() {
+    return runner;
+  }
+
+}
@@ -0,0 +1,115 @@
+package game.model;
+
+import game.model.rules.ShooterRules;
+
+/**
+ * The SessionFork is one possible future of a session, which can be forked
+ * again and stepped through the ShooterRules without changing the game it was
+ * taken from or any other fork. Forks are made from a root taken with
+ * ForkRunner.root(), and hold the whole state of the session as written by a
+ * SessionSnapshot. A fork shares the state of its parent until it is stepped
+ * or looked at, when the whole state is read into a game, so stepping a fork
+ * costs time in line with the size of the session.
+ * 
+ * @author Brandon Hua
+ */
+
+public class SessionFork {
+
+  private final ForkRunner runner;
+  final int generation;
+  byte[] state;
+  int size;
+  long clock;
+  int ticks;
+
+  SessionFork(ForkRunner runner, int generation, byte[] state, int size, long clock, int ticks) {
+    this.runner = runner;
+    this.generation = generation;
+    this.state = state;
+    this.size = size;
+    this.clock = clock;
+    this.ticks = ticks;
+  }
+
+  /**
+   * A method that makes a fork of this fork, which starts in the state this one
+   * is in now.
+   * 
+   * @return The new fork.
+   */
+
+  public SessionFork fork() {
+    return runner.fork(this);
+  }
+
+  /**
+   * A method that plays the fork on for a number of ticks.
+   * 
+   * @param count The number of ticks to play.
+   */
+
+  public void step(int count) {
+    runner.step(this, count);
+  }
+
+  /**
+   * A method to get the game of the fork, to look at or change before it is
+   * stepped. The game is shared by every fork of the runner, so it is only the
+   * game of this fork until another fork is stepped or looked at.
+   * 
+   * @return The game.
+   */
+
+  public ShooterGame getGame() {
+    runner.checkout(this);
+    return runner.getGame();
+  }
+
+  /**
+   * A method to get the rules of the fork, which are shared in the same way as
+   * the game.
+   * 
+   * @return The rules.
+   */
+
+  public ShooterRules getRules() {
+    runner.checkout(this);
+    return runner.getRules();
+  }
+
+  /**
+   * A method that drops the fork once it is no longer needed, which saves it
+   * being written out when the next fork is stepped.
+   */
+
+  public void discard() {
+    runner.discard(this);
+  }
+
+  /**
+   * A method to get the number of ticks the fork is ahead of its root.
+   * 
+   * @return The number of ticks.
+   */
+
+  public int getTicks() {
+    return ticks;
+  }
+
+  public long getClock() {
+    return clock;
+  }
+
+  /**
+   * A method to get the size of the state of the fork, which is read into a
+   * game whenever the fork is stepped.
+   * 
+   * @return The size (in bytes).
+   */
+
+  public int getSize() {
+    return size;
+  }
+
+}
@@ -0,0 +1,289 @@
+package game.model;
+
+import game.model.rules.ShooterRules;
+import game.replay.ReplayHeader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The SessionSnapshot holds the whole state of a session that is being played,
+ * the game and its rules, as one flat block of bytes. A snapshot can be taken
+ * of a game and put back into it, or into another game of the same level and
+ * mode, and the game then plays on exactly as it would have from that point.
+ * 
+ * <p>
+ * The bytes are kept in one buffer that is reused for every capture, and a
+ * restore reads into the entities the game already has, so a snapshot can be
+ * taken and restored every frame without making any garbage once the buffer
+ * has grown to fit the session. Snapshots can also be saved to a file and
+ * loaded in another run of the program, where resume() moves the times the
+ * game keeps from the clock to the clock of that run.
+ * 
+ * <p>
+ * The snapshot starts with a short header, which is checked on restore so a
+ * snapshot cannot be read into a game it does not fit:
+ * <ul>
+ * <li>the magic number and version of the format</li>
+ * <li>a hash of the level name and of the game mode</li>
+ * <li>whether the game uses the EntityWorld</li>
+ * <li>the clock of the last tick of the game</li>
+ * </ul>
+ * followed by the state written by ShooterGame.writeState() and
+ * ShooterRules.writeState().
+ * 
+ * @author Brandon Hua
+ */
+
+public class SessionSnapshot {
+
+  private final static int MAGIC = 0x534E4150; // "SNAP"
+  private final static int VERSION = 1;
+  private final static int FILE_MAGIC = 0x53415645; // "SAVE"
+  private final static int CLOCK = 17;
+  private final static int HEADER = 25;
+
+  private ByteBuffer buffer;
+
+  /**
+   * A constructor for an empty snapshot with a buffer big enough for a
+   * typical session.
+   */
+
+  public SessionSnapshot() {
+    this(1 << 16);
+  }
+
+  /**
+   * A constructor for an empty snapshot with a buffer of a given size, which is
+   * doubled whenever a session does not fit.
+   * 
+   * @param capacity The starting size of the buffer (in bytes).
+   */
+
+  public SessionSnapshot(int capacity) {
+    buffer = ByteBuffer.allocate(Math.max(HEADER, capacity));
+    buffer.limit(0);
+  }
+
+  /**
+   * A method that takes a snapshot of a session, replacing whatever the
+   * snapshot held before. It must be called between ticks on the thread that
+   * runs them.
+   * 
+   * @param game  The game to take a snapshot of.
+   * @param rules The rules the game is played with.
+   */
+
+  public void capture(ShooterGame game, ShooterRules rules) {
+    while (true) {
+      try {
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(game.getLevel().getFileName().hashCode());
+        buffer.putInt(rules.getMode().hashCode());
+        buffer.put(game.getWorld() != null ? (byte) 1 : (byte) 0);
+        buffer.putLong(game.getTickClock());
+        game.writeState(buffer);
+        rules.writeState(buffer);
+        buffer.flip();
+        return;
+      } catch (BufferOverflowException e) {
+        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+      }
+    }
+  }
+
+  /**
+   * A method that puts a session back to the state in the snapshot. It must be
+   * called between ticks on the thread that runs them.
+   * 
+   * @param game  The game to restore.
+   * @param rules The rules the game is played with.
+   * @throws IllegalStateException If the snapshot is empty, or was taken of a
+   *                               game of another level, mode or backend.
+   */
+
+  public void restore(ShooterGame game, ShooterRules rules) {
+    ByteBuffer state = body(game, rules);
+    game.readState(state);
+    rules.readState(state);
+  }
+
+  /**
+   * A method that puts a session back to the state in the snapshot, as if it
+   * had been paused from when the snapshot was taken until now. This is used
+   * for a snapshot loaded from a file, where the clock of the frames has moved
+   * on since it was taken.
+   * 
+   * @param game  The game to restore.
+   * @param rules The rules the game is played with.
+   * @param time  The time of the current frame (in milliseconds).
+   * @throws IllegalStateException If the snapshot is empty, or was taken of a
+   *                               game of another level, mode or backend.
+   */
+
+  public void resume(ShooterGame game, ShooterRules rules, long time) {
+    restore(game, rules);
+    long offset = time - getTickClock();
+    game.shiftClock(offset);
+    rules.shiftClock(offset);
+  }
+
+  /**
+   * A method that checks the header of the snapshot against a session and gets
+   * a view of the state after it.
+   * 
+   * @param game  The game the snapshot is being read into.
+   * @param rules The rules the game is played with.
+   * @return A buffer of the state of the game and rules.
+   */
+
+  private ByteBuffer body(ShooterGame game, ShooterRules rules) {
+    if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC) {
+      throw new IllegalStateException("The snapshot is empty");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalStateException("The snapshot is of an unsupported version");
+    }
+    if (buffer.getInt(8) != game.getLevel().getFileName().hashCode()) {
+      throw new IllegalStateException("The snapshot was taken of another level");
+    }
+    if (buffer.getInt(12) != rules.getMode().hashCode()) {
+      throw new IllegalStateException("The snapshot was taken of another game mode");
+    }
+    if ((buffer.get(16) != 0) != (game.getWorld() != null)) {
+      throw new IllegalStateException(buffer.get(16) != 0
+          ? "The snapshot was taken with the EntityWorld on"
+          : "The snapshot was taken with the EntityWorld off");
+    }
+    buffer.position(HEADER);
+    return buffer;
+  }
+
+  /**
+   * A method that checks whether another snapshot holds exactly the same state
+   * as this one.
+   * 
+   * @param other The snapshot to compare with.
+   * @return True if every byte of the two snapshots is the same, false
+   *         otherwise.
+   */
+
+  public boolean matches(SessionSnapshot other) {
+    buffer.position(0);
+    other.buffer.position(0);
+    return buffer.equals(other.buffer);
+  }
+
+  /**
+   * A method to get the clock of the last tick the game had run when the
+   * snapshot was taken.
+   * 
+   * @return The time of the tick (in milliseconds).
+   */
+
+  public long getTickClock() {
+    return buffer.getLong(CLOCK);
+  }
+
+  /**
+   * A method to get how big the snapshot is.
+   * 
+   * @return The size of the snapshot (in bytes), or 0 if it is empty.
+   */
+
+  public int size() {
+    return buffer.limit();
+  }
+
+  /**
+   * A method to get the array the bytes of the snapshot are kept in, which is
+   * replaced when a capture needs more room.
+   * 
+   * @return The array, of which the first size() bytes are the snapshot.
+   */
+
+  byte[] array() {
+    return buffer.array();
+  }
+
+  /**
+   * A method that sets the size of the snapshot before its bytes are written
+   * straight into array(), growing the buffer if it is too small.
+   * 
+   * @param size The size of the snapshot (in bytes).
+   */
+
+  void setSize(int size) {
+    if (size > buffer.capacity()) {
+      buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+    }
+    buffer.clear();
+    buffer.limit(size);
+  }
+
+  /**
+   * A method that saves the snapshot to a file along with the level it was
+   * taken in. The snapshot is written to a file next to it first and then moved
+   * over it, so a save cut off part way through never replaces a good one.
+   * 
+   * @param file      The file to save to.
+   * @param levelName The file name of the level of the game.
+   * @throws IOException If the file or the level cannot be read or written.
+   */
+
+  public void save(Path file, String levelName) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (OutputStream stream = Files.newOutputStream(temp)) {
+      DataOutputStream out = new DataOutputStream(stream);
+      out.writeInt(FILE_MAGIC);
+      out.writeUTF(levelName);
+      out.writeLong(ReplayHeader.levelHash(levelName));
+      out.writeInt(size());
+      out.write(buffer.array(), 0, size());
+      out.flush();
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * A method that loads a snapshot saved with save(). The level the snapshot
+   * was taken in must not have been changed since.
+   * 
+   * @param file The file to load.
+   * @return The snapshot.
+   * @throws IOException If the file cannot be read, is not a snapshot, or the
+   *                     level has changed since it was saved.
+   */
+
+  public static SessionSnapshot load(Path file) throws IOException {
+    try (InputStream stream = Files.newInputStream(file)) {
+      DataInputStream in = new DataInputStream(stream);
+      if (in.readInt() != FILE_MAGIC) {
+        throw new IOException("Not a saved session");
+      }
+      String levelName = in.readUTF();
+      if (in.readLong() != ReplayHeader.levelHash(levelName)) {
+        throw new IOException("The level " + levelName + " has changed since the session was"
+            + " saved");
+      }
+      int size = in.readInt();
+      SessionSnapshot snapshot = new SessionSnapshot(size);
+      in.readFully(snapshot.buffer.array(), 0, size);
+      snapshot.buffer.limit(size);
+      return snapshot;
+    }
+  }
+
+}
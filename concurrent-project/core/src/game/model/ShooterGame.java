@@ -1,14 +1,28 @@
 package game.model;
 
 import game.Core;
+import game.SimulationVariables;
 import game.entities.Bullet;
 import game.entities.Enemy;
+import game.entities.EnemyTypeAction;
+import game.entities.Facing;
 import game.entities.PlayerCharacter;
+import game.entities.Spawner;
+import game.entities.ecs.EntityWorld;
+import game.model.ParallelPhases.Phase;
+import game.model.ParallelPhases.PhaseBuffer;
+import game.model.TimerWheel.Timer;
+import game.model.TimerWheel.TimerAction;
+import game.model.levels.FlowField;
 import game.model.levels.Level;
+import game.model.levels.SightGrid;
 import game.renderer.Renderer;
 import game.screens.shooter.GameCamera;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 
 /**
  * The shooter game class houses the model for a shooter game, including all the
@@ -28,6 +42,11 @@ public class ShooterGame {
   private GameCamera cam;
 
   private Level level;
+  private FlowField navigator;
+  private SightGrid sight;
+  private AiScheduler aiScheduler = new AiScheduler();
+  private ParallelPhases phases = new ParallelPhases();
+  private MovePhase movePhase = new MovePhase();
 
   private ArrayList<Enemy> enemies = new ArrayList<Enemy>();
 
@@ -35,8 +54,19 @@ public class ShooterGame {
 
   private ArrayList<Bullet> bullets = new ArrayList<Bullet>();
 
+  private ArrayList<Enemy> spareEnemies = new ArrayList<Enemy>();
+  private ArrayList<Bullet> spareBullets = new ArrayList<Bullet>();
+
+  private EntityWorld world;
+
   private GameVariables vars;
 
+  private TimerWheel timers = new TimerWheel();
+  private GameRandom random;
+  private long seed;
+  private HashMap<Spawner, Timer> spawnTimers = new HashMap<Spawner, Timer>();
+  private int spawnerVersion = -1;
+
   private boolean finished = false;
 
   private boolean networked = false;
@@ -45,6 +75,15 @@ public class ShooterGame {
   private long pausedTime = 0;
   private boolean paused = false;
 
+  private volatile long lastTick = System.nanoTime();
+  private volatile long tickLength = SimulationVariables.tickTime * 1000000L;
+  private long tickStart;
+  private volatile long tickDuration;
+  private long tickClock = Core.time;
+  private long tickDelta = Core.deltaTime;
+  private float spawnScale;
+  private volatile int enemyLimit;
+
   /**
    * A constructor for the ShooterGame class made for a single screen.
    * 
@@ -56,9 +95,35 @@ public class ShooterGame {
    */
 
   public ShooterGame(Level level, int playerNum, boolean netGame) {
+    this(level, playerNum, netGame, GameRandom.getSeed());
+  }
+
+  /**
+   * A constructor for the ShooterGame class that plays out the same way every
+   * time it is given the same seed and inputs. Each game of a session is given
+   * the seed of the session, and draws from its own stream of it.
+   * 
+   * @param level     The level that will be contained in this instance of the
+   *                  game.
+   * @param playerNum The player number of the game.
+   * @param netGame   A boolean for whether or not it is a networked multiplayer
+   *                  game.
+   * @param seed      The seed of the session.
+   */
+
+  public ShooterGame(Level level, int playerNum, boolean netGame, long seed) {
     this.level = level;
+    this.seed = seed;
+    random = new GameRandom(GameRandom.streamSeed(seed, playerNum));
     vars = new GameVariables();
+    spawnScale = level.getSpawnScale();
+    enemyLimit = vars.getMaxEnemies();
     cam = new GameCamera(0, 0, this);
+    navigator = new FlowField(level);
+    sight = new SightGrid(level);
+    if (EntityWorld.isEnabled()) {
+      world = new EntityWorld();
+    }
 
     GAMENUM = playerNum;
     player = new PlayerCharacter(0, 0, 32, 64, GAMENUM);
@@ -87,6 +152,17 @@ public class ShooterGame {
     return GAMENUM;
   }
 
+  /**
+   * A method to get the world holding the enemies and bullets of the game when
+   * they are stored as components rather than objects.
+   * 
+   * @return The world, or null if the game uses Enemy and Bullet objects.
+   */
+
+  public EntityWorld getWorld() {
+    return world;
+  }
+
   /**
    * A method to place an enemy in a specified location and a set size.
    * 
@@ -98,11 +174,71 @@ public class ShooterGame {
    */
 
   public void addEnemy(int xpos, int ypos, int width, int height, String type) {
+    addEnemy(xpos, ypos, width, height, EnemyTypeAction.typeIndex(type));
+  }
+
+  /**
+   * A method to place an enemy of a type that has already been looked up, such
+   * as by a spawner when the level was loaded.
+   * 
+   * @param xpos      The x position the enemy starts at.
+   * @param ypos      The y position the enemy starts at.
+   * @param width     The width of the enemy.
+   * @param height    The height of the enemy.
+   * @param typeIndex The index of the type in EnemyTypeAction.getTypeList().
+   */
+
+  public void addEnemy(int xpos, int ypos, int width, int height, int typeIndex) {
+    if (typeIndex < 0) {
+      return;
+    }
     if (getVars().getCurrentEnemies() < getVars().getMaxEnemies()) {
-      enemies.add(new Enemy(xpos, ypos, width, height, type));
+      if (world != null) {
+        world.addEnemy(xpos, ypos, width, height, typeIndex);
+      } else {
+        enemies.add(new Enemy(xpos, ypos, width, height, typeIndex));
+      }
+    }
+  }
+
+  /**
+   * A method that removes an enemy from the game along with its timers.
+   * 
+   * @param index The index of the enemy to remove.
+   */
+
+  public void removeEnemy(int index) {
+    enemies.remove(index).cancelTimers();
+  }
+
+  /**
+   * A method that removes every enemy from the game along with their timers.
+   */
+
+  public void clearEnemies() {
+    for (int i = 0; i < enemies.size(); i++) {
+      enemies.get(i).cancelTimers();
+    }
+    enemies.clear();
+    if (world != null) {
+      world.clearEnemies();
     }
   }
 
+  /**
+   * A method that removes a bullet from the game along with its timers. The
+   * bullet is kept to be fired again, so firing does not make new bullets once
+   * the game has warmed up.
+   * 
+   * @param index The index of the bullet to remove.
+   */
+
+  public void removeBullet(int index) {
+    Bullet bullet = bullets.remove(index);
+    bullet.cancelTimers();
+    spareBullets.add(bullet);
+  }
+
   public Level getLevel() {
     return level;
   }
@@ -131,27 +267,226 @@ public class ShooterGame {
 
   public void addBullet(int xpos, int ypos, int width, int height, float xdir, float ydir,
       boolean friendly, int damage, float bulletSpeed) {
-    bullets.add(new Bullet(xpos, ypos, width, height, xdir, ydir, friendly, damage, bulletSpeed));
+    if (world != null) {
+      world.addBullet(xpos, ypos, width, height, xdir, ydir, friendly, damage, bulletSpeed);
+      return;
+    }
+    Bullet bullet;
+    if (!spareBullets.isEmpty()) {
+      bullet = spareBullets.remove(spareBullets.size() - 1);
+      bullet.reset(xpos, ypos, width, height, xdir, ydir, friendly, damage, bulletSpeed);
+    } else {
+      bullet = new Bullet(xpos, ypos, width, height, xdir, ydir, friendly, damage,
+          bulletSpeed);
+    }
+    bullet.startLifetime(timers);
+    bullets.add(bullet);
   }
 
   /**
-   * A method to apply the changes (calculated by delta time) to all the entities
-   * in a game.
+   * A method called before a tick changes the game, storing where every entity
+   * starts the tick so renderers can interpolate between ticks. The time of the
+   * frame is read once here and used for the whole tick, so the tick does not
+   * see the time change part way through if a frame is drawn while it runs.
+   * The spawn scale of the level and the enemy limit are taken here too, so
+   * the governor changing them from the render thread only takes effect from
+   * the next tick.
    */
 
-  public void update() {
-    float gameSpeed = vars.getGameSpeed();
-    player.update(gameSpeed);
+  public void beginTick() {
+    beginTick(Core.time, Core.deltaTime);
+  }
+
+  /**
+   * A method called before a tick that runs at a given time rather than the time
+   * of the current frame, such as a tick played back from a replay.
+   * 
+   * @param time  The time of the frame the tick runs in (in milliseconds).
+   * @param delta The time between the last two frames (in milliseconds).
+   */
+
+  public void beginTick(long time, long delta) {
+    tickStart = System.nanoTime();
+    tickClock = time;
+    tickDelta = delta;
+    spawnScale = level.getSpawnScale();
+    vars.setMaxEnemies(enemyLimit);
+    player.savePosition();
+    if (networked) {
+      netPlayer.savePosition();
+    }
     for (int i = 0; i < enemies.size(); i++) {
-      enemies.get(i).update(gameSpeed);
+      enemies.get(i).savePosition();
     }
     for (int i = 0; i < bullets.size(); i++) {
-      bullets.get(i).update(gameSpeed);
+      bullets.get(i).savePosition();
+    }
+    if (world != null) {
+      world.savePositions();
     }
-    level.spawnerUpdate(gameSpeed, this);
+  }
+
+  /**
+   * A method called once a tick has finished, recording when it ended, how long
+   * it took since the last one and how long the tick itself spent working.
+   */
+
+  public void endTick() {
+    long now = System.nanoTime();
+    tickDuration = now - tickStart;
+    tickLength = Math.max(1, now - lastTick);
+    lastTick = now;
+  }
+
+  /**
+   * A method to get how long the last tick spent updating the game, not
+   * including the time the thread slept.
+   * 
+   * @return The duration of the last tick (in nanoseconds).
+   */
+
+  public long getTickDuration() {
+    return tickDuration;
+  }
+
+  public long getTickClock() {
+    return tickClock;
+  }
+
+  public long getTickDelta() {
+    return tickDelta;
+  }
+
+  public float getSpawnScale() {
+    return spawnScale;
+  }
+
+  /**
+   * A method that sets the most enemies the game can hold, which is applied at
+   * the start of the next tick. This can be called from any thread.
+   * 
+   * @param limit The most enemies the game can hold.
+   */
+
+  public void setEnemyLimit(int limit) {
+    enemyLimit = limit;
+  }
+
+  public int getEnemyLimit() {
+    return enemyLimit;
+  }
 
-    int deltaTime = (int) (Core.deltaTime * gameSpeed);
+  /**
+   * A method to get how far through the current tick the game is, assuming it
+   * takes as long as the last one. Renderers use this to draw entities between
+   * their positions at the start and end of the last tick.
+   * 
+   * @param time The current time (in nanoseconds).
+   * @return A value from 0, at the end of the last tick, to 1.
+   */
+
+  public float getTickAlpha(long time) {
+    float alpha = (float) (time - lastTick) / tickLength;
+    return Math.max(0, Math.min(1, alpha));
+  }
+
+  /**
+   * A method to apply the changes (calculated by delta time) to all the entities
+   * in a game. Cooldowns, lifetimes and spawns are kept on the TimerWheel of the
+   * game, which moves forward by the same time and only does work for the
+   * timers that run out. Enemies and bullets only move themselves, so they are
+   * moved as a phase that may be split across threads. Games that keep their
+   * enemies and bullets in an EntityWorld move them and count down their times
+   * a column at a time instead.
+   */
+
+  public void update() {
+    float gameSpeed = vars.getGameSpeed();
+    player.update(gameSpeed, timers);
+    movePhase.gameSpeed = gameSpeed;
+    phases.run(movePhase, enemies.size() + bullets.size(), 1);
+    scheduleSpawners();
+
+    int deltaTime = (int) (tickDelta * gameSpeed);
+    if (world != null) {
+      world.getMovement().integrate(world.getEnemies(), gameSpeed);
+      world.getMovement().integrate(world.getBullets(), gameSpeed);
+      world.getLifetime().countDown(world, deltaTime);
+    }
     updateVariables(deltaTime);
+    timers.advance(deltaTime);
+  }
+
+  /**
+   * A method that starts a spawn timer for every spawner of the level, and
+   * stops the timers of spawners that have been removed. The spawners are only
+   * checked when the level has changed.
+   */
+
+  private void scheduleSpawners() {
+    if (spawnerVersion == level.getVersion()) {
+      return;
+    }
+    spawnerVersion = level.getVersion();
+    ArrayList<Spawner> spawners = level.getSpawners();
+
+    Iterator<Spawner> scheduled = spawnTimers.keySet().iterator();
+    while (scheduled.hasNext()) {
+      Spawner spawner = scheduled.next();
+      if (!spawners.contains(spawner)) {
+        spawnTimers.get(spawner).cancel();
+        scheduled.remove();
+      }
+    }
+
+    for (int i = 0; i < spawners.size(); i++) {
+      Spawner spawner = spawners.get(i);
+      if (!spawnTimers.containsKey(spawner)) {
+        SpawnEvent event = new SpawnEvent(spawner);
+        spawnTimers.put(spawner, event.timer);
+        timers.schedule(event.timer, spawnDelay(spawner));
+      }
+    }
+  }
+
+  /**
+   * A method to get the time until a spawner next spawns, stretched by the
+   * spawn scale of the level.
+   * 
+   * @param spawner The spawner to get the delay of.
+   * @return The delay (in milliseconds).
+   */
+
+  private long spawnDelay(Spawner spawner) {
+    return (long) (spawner.getSpawnInterval() * spawnScale);
+  }
+
+  public FlowField getNavigator() {
+    return navigator;
+  }
+
+  public SightGrid getSight() {
+    return sight;
+  }
+
+  public ParallelPhases getPhases() {
+    return phases;
+  }
+
+  public AiScheduler getAiScheduler() {
+    return aiScheduler;
+  }
+
+  public TimerWheel getTimers() {
+    return timers;
+  }
+
+  public GameRandom getRandom() {
+    return random;
+  }
+
+  public long getSeed() {
+    return seed;
   }
 
   /**
@@ -162,7 +497,11 @@ public class ShooterGame {
    */
 
   public void updateVariables(int deltaTime) {
-    vars.setCurEnemies(enemies.size());
+    int enemyCount = enemies.size();
+    if (world != null) {
+      enemyCount += world.getEnemies().getCount();
+    }
+    vars.setCurEnemies(enemyCount);
     vars.addToTime(deltaTime);
   }
 
@@ -182,25 +521,8 @@ public class ShooterGame {
   public void spawnPlayerProjectile() {
     if (getPlayer().canFire()) {
 
-      float bulletXDir = 0;
-      float bulletYDir = 0;
-
-      if (getPlayer().getFacing().equals("up") || getPlayer().getFacing().equals("up_right")
-          || getPlayer().getFacing().equals("up_left")) {
-        bulletYDir = 1;
-      }
-      if (getPlayer().getFacing().equals("down")) {
-        bulletYDir = -1;
-        ;
-      }
-      if (getPlayer().getFacing().equals("left") || getPlayer().getFacing().equals("up_left")) {
-        bulletXDir = -1;
-        ;
-      }
-      if (getPlayer().getFacing().equals("right") || getPlayer().getFacing().equals("up_right")) {
-        bulletXDir = 1;
-        ;
-      }
+      float bulletXDir = Facing.getXDir(getPlayer().getFacing());
+      float bulletYDir = Facing.getYDir(getPlayer().getFacing());
 
       int xpos = (int) (getPlayer().getXpos() + bulletXDir * (getPlayer().getWidth() / 2));
       int ypos = (int) (getPlayer().getYpos() + bulletYDir * (getPlayer().getHeight() / 2));
@@ -210,7 +532,7 @@ public class ShooterGame {
 
       addBullet(xpos, ypos, 16, 16, bulletXDir, bulletYDir, true, getPlayer().getDamage(),
           getPlayer().getBulletSpeed());
-      getPlayer().setLastFired(0);
+      getPlayer().fired(timers);
     }
   }
 
@@ -239,7 +561,7 @@ public class ShooterGame {
 
       addBullet(xpos, ypos, 16, 16, bulletXDir, bulletYDir, false, enemy.getDamage(),
           enemy.getBulletSpeed());
-      enemy.setLastFired(0);
+      enemy.fired(timers);
     }
   }
 
@@ -249,7 +571,7 @@ public class ShooterGame {
    */
 
   public void pause() {
-    if (Core.time - pausedTime >= pauseInterval) {
+    if (tickClock - pausedTime >= pauseInterval) {
       if (!paused) {
         setPause(true);
       } else {
@@ -268,11 +590,11 @@ public class ShooterGame {
   public void setPause(boolean paused) {
     if (paused) {
       vars.setGameSpeed(0);
-      pausedTime = Core.time;
+      pausedTime = tickClock;
       this.paused = true;
     } else {
       vars.setGameSpeed(1);
-      pausedTime = Core.time;
+      pausedTime = tickClock;
       this.paused = false;
     }
   }
@@ -301,4 +623,203 @@ public class ShooterGame {
     pauseInterval = interval;
   }
 
+  /**
+   * A method that writes everything about the game that changes as it is played
+   * to a buffer, so that a game of the same level can be put back to this point
+   * with readState() and play on the same way. The second player of a networked
+   * game is not written, as it is controlled by the other client.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.put((byte) ((finished ? 1 : 0) | (paused ? 2 : 0)));
+    buffer.putLong(pausedTime);
+    buffer.putLong(random.getState());
+    vars.writeState(buffer);
+    timers.writeState(buffer);
+    player.writeState(buffer, timers);
+
+    buffer.putInt(enemies.size());
+    for (int i = 0; i < enemies.size(); i++) {
+      Enemy enemy = enemies.get(i);
+      buffer.putInt(enemy.getTypeIndex());
+      enemy.writeState(buffer, timers);
+    }
+    buffer.putInt(bullets.size());
+    for (int i = 0; i < bullets.size(); i++) {
+      Bullet bullet = bullets.get(i);
+      buffer.put(bullet.isFriendly() ? (byte) 1 : (byte) 0);
+      bullet.writeState(buffer, timers);
+    }
+    if (world != null) {
+      world.writeState(buffer);
+    }
+
+    ArrayList<Spawner> spawners = level.getSpawners();
+    boolean scheduled = spawnerVersion == level.getVersion();
+    buffer.put(scheduled ? (byte) 1 : (byte) 0);
+    if (scheduled) {
+      buffer.putInt(spawners.size());
+      for (int i = 0; i < spawners.size(); i++) {
+        timers.writeTimer(buffer, spawnTimers.get(spawners.get(i)));
+      }
+    }
+
+    aiScheduler.writeState(buffer);
+    navigator.writeState(buffer);
+    sight.writeState(buffer);
+  }
+
+  /**
+   * A method that puts the game back to a state written by writeState(). Every
+   * enemy, bullet and timer of the game is replaced, so it must be called
+   * between ticks on the thread that runs them. The enemy and bullet objects
+   * already in the game are read into rather than made again, and any left over
+   * are kept for the next restore, so restoring a game every frame does not
+   * allocate once it has held as many entities as it is restored to.
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    int flags = buffer.get();
+    finished = (flags & 1) != 0;
+    paused = (flags & 2) != 0;
+    pausedTime = buffer.getLong();
+    random.reseed(buffer.getLong());
+    vars.readState(buffer);
+    enemyLimit = vars.getMaxEnemies();
+    timers.readState(buffer);
+    player.readState(buffer, timers);
+
+    int enemyCount = buffer.getInt();
+    while (enemies.size() > enemyCount) {
+      spareEnemies.add(enemies.remove(enemies.size() - 1));
+    }
+    for (int i = 0; i < enemyCount; i++) {
+      int typeIndex = buffer.getInt();
+      Enemy enemy;
+      if (i < enemies.size()) {
+        enemy = enemies.get(i);
+      } else if (!spareEnemies.isEmpty()) {
+        enemy = spareEnemies.remove(spareEnemies.size() - 1);
+        enemies.add(enemy);
+      } else {
+        enemy = new Enemy(0, 0, 0, 0, typeIndex);
+        enemies.add(enemy);
+      }
+      enemy.setTypeIndex(typeIndex);
+      enemy.readState(buffer, timers);
+    }
+    int bulletCount = buffer.getInt();
+    while (bullets.size() > bulletCount) {
+      spareBullets.add(bullets.remove(bullets.size() - 1));
+    }
+    for (int i = 0; i < bulletCount; i++) {
+      boolean friendly = buffer.get() != 0;
+      Bullet bullet;
+      if (i < bullets.size()) {
+        bullet = bullets.get(i);
+      } else if (!spareBullets.isEmpty()) {
+        bullet = spareBullets.remove(spareBullets.size() - 1);
+        bullets.add(bullet);
+      } else {
+        bullet = new Bullet(0, 0, 0, 0, 0, 0, friendly, 0, 0);
+        bullets.add(bullet);
+      }
+      bullet.setFriendly(friendly);
+      bullet.readState(buffer, timers);
+    }
+    if (world != null) {
+      world.readState(buffer);
+    }
+
+    if (buffer.get() != 0) {
+      ArrayList<Spawner> spawners = level.getSpawners();
+      int spawnerCount = buffer.getInt();
+      for (int i = 0; i < spawnerCount; i++) {
+        Spawner spawner = spawners.get(i);
+        Timer timer = spawnTimers.get(spawner);
+        if (timer == null) {
+          timer = new SpawnEvent(spawner).timer;
+          spawnTimers.put(spawner, timer);
+        }
+        timers.readTimer(buffer, timer);
+      }
+      spawnerVersion = level.getVersion();
+    } else {
+      spawnTimers.clear();
+      spawnerVersion = -1;
+    }
+
+    aiScheduler.readState(buffer);
+    navigator.readState(buffer);
+    sight.readState(buffer);
+  }
+
+  /**
+   * A method that moves every time the game keeps from the clock of the frames
+   * by an amount, so a game restored in another run of the program, where the
+   * clock is at a different time, carries on as if no time had passed. The
+   * timers are not moved, as they count the time they have been given rather
+   * than reading the clock.
+   * 
+   * @param offset The time to move the clock by (in milliseconds).
+   */
+
+  public void shiftClock(long offset) {
+    tickClock += offset;
+    pausedTime += offset;
+  }
+
+  /**
+   * The TimerAction that spawns an enemy from a spawner and starts the timer
+   * for the next spawn.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class SpawnEvent implements TimerAction {
+
+    private Spawner spawner;
+    private Timer timer;
+
+    private SpawnEvent(Spawner spawner) {
+      this.spawner = spawner;
+      timer = new Timer(this);
+    }
+
+    @Override
+    public void fire(TimerWheel wheel) {
+      spawner.spawn(ShooterGame.this);
+      wheel.schedule(timer, spawnDelay(spawner));
+    }
+
+  }
+
+  /**
+   * The Phase that moves every enemy and then every bullet by its velocity.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class MovePhase implements Phase {
+
+    private float gameSpeed;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      int enemyCount = enemies.size();
+      for (int i = from; i < to; i++) {
+        if (i < enemyCount) {
+          enemies.get(i).update(gameSpeed);
+        } else {
+          bullets.get(i - enemyCount).update(gameSpeed);
+        }
+      }
+    }
+
+  }
+
 }
@@ -0,0 +1,349 @@
+package game.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The TimerWheel schedules the cooldowns, lifetimes and spawns of a game so
+ * that a tick only does work for the timers that actually run out, rather than
+ * counting down every timer of every entity.
+ * 
+ * <p>
+ * Timers are kept in a hierarchy of wheels. The first wheel has a slot for
+ * each of the next 64 milliseconds, and each wheel above it has slots 64 times
+ * as long as the one below. As time reaches a slot of an upper wheel its
+ * timers are moved down into the finer wheels, so each timer is only handled a
+ * few times however long it waits. Timers further away than the top wheel can
+ * hold wait in an overflow list.
+ * 
+ * <p>
+ * Timers are linked into their slots directly, so scheduling, cancelling and
+ * rescheduling a timer never allocates. A wheel belongs to one game and is only
+ * used by the thread updating that game.
+ * 
+ * <p>
+ * Each slot is kept in the order its timers were started, so the timers that
+ * run out on the same millisecond are taken from the front of their slot in
+ * that order, and a wheel restored from a saved state runs its timers in the
+ * same order as the wheel that was saved. A timer is linked in from the back of
+ * its slot, which is where a timer that has just been started belongs.
+ * 
+ * @author Brandon Hua
+ */
+
+public class TimerWheel {
+
+  private final static int LEVELS = 4;
+  private final static int SLOTBITS = 6;
+  private final static int SLOTS = 1 << SLOTBITS;
+  private final static int SLOTMASK = SLOTS - 1;
+  private final static int OVERFLOW = LEVELS;
+
+  // The overflow list is kept as the only slot of one more level.
+  private Timer[][] heads = new Timer[LEVELS + 1][SLOTS];
+  private Timer[][] tails = new Timer[LEVELS + 1][SLOTS];
+  private long time;
+  private int size;
+  private long fired;
+  private long started;
+
+  /**
+   * A method that starts a timer, replacing its deadline if it is already
+   * running.
+   * 
+   * @param timer The timer to start.
+   * @param delay The time until the timer runs out (in milliseconds), at least
+   *              1.
+   */
+
+  public void schedule(Timer timer, long delay) {
+    if (timer.wheel != null) {
+      timer.wheel.unlink(timer);
+    }
+    timer.deadline = time + Math.max(1, delay);
+    timer.sequence = started++;
+    link(timer);
+  }
+
+  /**
+   * A method that moves time forward, running every timer that runs out on the
+   * way in the order of their deadlines.
+   * 
+   * @param elapsed The time to move forward (in milliseconds).
+   */
+
+  public void advance(long elapsed) {
+    long target = time + elapsed;
+    while (time < target) {
+      if (size == 0) {
+        time = target;
+        return;
+      }
+      time++;
+      cascade();
+      // The slot is read again after every timer, as a timer that fires may
+      // cancel or restart the others in it.
+      int index = (int) (time & SLOTMASK);
+      Timer timer = heads[0][index];
+      while (timer != null) {
+        unlink(timer);
+        if (timer.deadline <= time) {
+          fired++;
+          timer.action.fire(this);
+        } else {
+          link(timer);
+        }
+        timer = heads[0][index];
+      }
+    }
+  }
+
+  /**
+   * A method that moves the timers of every upper wheel that has just reached
+   * a new slot down into the finer wheels. Higher wheels are emptied first so
+   * their timers can land in the slots of the wheels below before those are
+   * emptied too.
+   */
+
+  private void cascade() {
+    int highest = 0;
+    for (int level = 1; level <= LEVELS; level++) {
+      long span = 1L << (SLOTBITS * level);
+      if ((time & (span - 1)) != 0) {
+        break;
+      }
+      highest = level;
+    }
+    if (highest == LEVELS) {
+      relink(OVERFLOW, 0);
+      highest--;
+    }
+    for (int level = highest; level >= 1; level--) {
+      relink(level, (int) ((time >>> (SLOTBITS * level)) & SLOTMASK));
+    }
+  }
+
+  private void relink(int level, int slot) {
+    Timer timer = heads[level][slot];
+    heads[level][slot] = null;
+    tails[level][slot] = null;
+    while (timer != null) {
+      Timer next = timer.next;
+      size--;
+      timer.wheel = null;
+      link(timer);
+      timer = next;
+    }
+  }
+
+  /**
+   * A method that places a timer into the slot of the finest wheel that can
+   * hold its deadline, behind the timers of the slot that were started before
+   * it. A timer that has just been started goes straight to the back, only a
+   * timer moved down from an upper wheel or restored from a saved state can
+   * have timers started after it in the slot already.
+   * 
+   * @param timer The timer to place.
+   */
+
+  private void link(Timer timer) {
+    long delta = timer.deadline - time;
+    int level = 0;
+    while (level < LEVELS && delta >= 1L << (SLOTBITS * (level + 1))) {
+      level++;
+    }
+
+    timer.wheel = this;
+    timer.level = level;
+    timer.slot = level < LEVELS ? (int) ((timer.deadline >>> (SLOTBITS * level)) & SLOTMASK) : 0;
+    Timer before = tails[level][timer.slot];
+    while (before != null && before.sequence > timer.sequence) {
+      before = before.prev;
+    }
+    timer.prev = before;
+    if (before != null) {
+      timer.next = before.next;
+      before.next = timer;
+    } else {
+      timer.next = heads[level][timer.slot];
+      heads[level][timer.slot] = timer;
+    }
+    if (timer.next != null) {
+      timer.next.prev = timer;
+    } else {
+      tails[level][timer.slot] = timer;
+    }
+    size++;
+  }
+
+  private void unlink(Timer timer) {
+    if (timer.prev != null) {
+      timer.prev.next = timer.next;
+    } else {
+      heads[timer.level][timer.slot] = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.prev = timer.prev;
+    } else {
+      tails[timer.level][timer.slot] = timer.prev;
+    }
+    timer.prev = null;
+    timer.next = null;
+    timer.wheel = null;
+    size--;
+  }
+
+  /**
+   * A method that stops every timer on the wheel.
+   */
+
+  public void clear() {
+    for (int level = 0; level <= OVERFLOW; level++) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        while (heads[level][slot] != null) {
+          unlink(heads[level][slot]);
+        }
+      }
+    }
+  }
+
+  /**
+   * A method that writes the time of the wheel to a buffer. The timers are
+   * written by whatever owns them, with writeTimer().
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putLong(time);
+    buffer.putLong(started);
+    buffer.putLong(fired);
+  }
+
+  /**
+   * A method that stops every timer and reads the time of the wheel from a
+   * buffer written by writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    clear();
+    time = buffer.getLong();
+    started = buffer.getLong();
+    fired = buffer.getLong();
+  }
+
+  /**
+   * A method that writes whether a timer is running on this wheel to a buffer,
+   * and if it is, when it runs out and when it was started.
+   * 
+   * @param buffer The buffer to write to.
+   * @param timer  The timer to write.
+   */
+
+  public void writeTimer(ByteBuffer buffer, Timer timer) {
+    if (timer.wheel != this) {
+      buffer.put((byte) 0);
+      return;
+    }
+    buffer.put((byte) 1);
+    buffer.putLong(timer.deadline);
+    buffer.putLong(timer.sequence);
+  }
+
+  /**
+   * A method that reads a timer written by writeTimer(), starting it on this
+   * wheel again if it was running.
+   * 
+   * @param buffer The buffer to read from.
+   * @param timer  The timer to read into.
+   */
+
+  public void readTimer(ByteBuffer buffer, Timer timer) {
+    timer.cancel();
+    if (buffer.get() == 0) {
+      return;
+    }
+    timer.deadline = buffer.getLong();
+    timer.sequence = buffer.getLong();
+    link(timer);
+  }
+
+  /**
+   * A method to get how much time the wheel has moved through.
+   * 
+   * @return The current time of the wheel (in milliseconds).
+   */
+
+  public long getTime() {
+    return time;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getFired() {
+    return fired;
+  }
+
+  /**
+   * A TimerAction is what happens when a timer runs out.
+   * 
+   * @author Brandon Hua
+   */
+
+  public interface TimerAction {
+
+    /**
+     * A method called when the timer runs out.
+     * 
+     * @param wheel The wheel the timer ran out on, to start more timers with.
+     */
+
+    public void fire(TimerWheel wheel);
+  }
+
+  /**
+   * A Timer is a single deadline that can be started on a wheel, cancelled and
+   * started again as often as needed.
+   * 
+   * @author Brandon Hua
+   */
+
+  public static class Timer {
+
+    private TimerAction action;
+    private TimerWheel wheel;
+    private Timer prev;
+    private Timer next;
+    private long deadline;
+    private long sequence;
+    private int level;
+    private int slot;
+
+    public Timer(TimerAction action) {
+      this.action = action;
+    }
+
+    /**
+     * A method that stops the timer if it is running.
+     */
+
+    public void cancel() {
+      if (wheel != null) {
+        wheel.unlink(this);
+      }
+    }
+
+    public boolean isPending() {
+      return wheel != null;
+    }
+
+    public long getDeadline() {
+      return deadline;
+    }
+
+  }
+
+}
@@ -0,0 +1,397 @@
+package game.model.levels;
+
+import game.entities.Entity;
+import game.entities.structures.Structure;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The FlowField splits a level into a grid and stores, for every cell, the
+ * direction to move in to reach a target by the shortest route around the
+ * structures enemies collide with. Every enemy chasing the same target reads
+ * its direction from the same field, so the cost of finding a path is shared
+ * by the whole crowd and each enemy only looks up the cell it is standing in.
+ * 
+ * <p>
+ * The field is only recalculated when the target moves into a different cell
+ * or the level changes. A recalculation is spread over several ticks, with a
+ * limit on the cells searched each tick, while enemies keep following the last
+ * complete field.
+ * 
+ * @author Brandon Hua
+ */
+
+public class FlowField {
+
+  public final static int CELLSIZE = 32;
+  private final static int CLEARANCE = 16; // half of the narrowest enemy, less some slack
+  private final static int CELLSPERTICK = 4096;
+  private final static int UNREACHED = Integer.MAX_VALUE;
+
+  // The eight directions, orthogonal first, and their L1 normalised vectors.
+  private final static int[] DX = { 1, -1, 0, 0, 1, -1, 1, -1 };
+  private final static int[] DY = { 0, 0, 1, -1, 1, 1, -1, -1 };
+  private final static float[] XDIR = { 1, -1, 0, 0, 0.5f, -0.5f, 0.5f, -0.5f, 0 };
+  private final static float[] YDIR = { 0, 0, 1, -1, 0.5f, 0.5f, -0.5f, -0.5f, 0 };
+  private final static byte NONE = 8;
+
+  private Level level;
+  private int builtVersion = -1;
+
+  private int originx;
+  private int originy;
+  private int cols;
+  private int rows;
+  private boolean[] blocked;
+
+  // The field enemies read from, and the one being searched.
+  private int[] distance;
+  private byte[] direction;
+  private int[] searchDistance;
+  private byte[] searchDirection;
+  private int[] queue;
+  private int queueHead;
+  private int queueTail;
+  private boolean searching;
+
+  private int targetCell = -1;
+  private int searchCell = -1;
+  private long cellsSearched;
+  private int recalculations;
+
+  /**
+   * The FlowField builds the grid of the level straight away, but has no
+   * directions until it is first updated with a target.
+   * 
+   * @param level The level to find paths through.
+   */
+
+  public FlowField(Level level) {
+    this.level = level;
+    build();
+  }
+
+  /**
+   * A method that marks every cell a structure covers as blocked, including
+   * enough space around it for an enemy to pass without catching the corner.
+   */
+
+  private void build() {
+    int[] bounds = level.getBounds();
+    originx = bounds[0];
+    originy = bounds[2];
+    cols = Math.max(1, (bounds[1] - bounds[0] + CELLSIZE - 1) / CELLSIZE);
+    rows = Math.max(1, (bounds[3] - bounds[2] + CELLSIZE - 1) / CELLSIZE);
+    int cells = cols * rows;
+
+    blocked = new boolean[cells];
+    ArrayList<Structure> structures = level.getStructures();
+    for (int i = 0; i < structures.size(); i++) {
+      Structure s = structures.get(i);
+      if (!s.getEnemyCol()) {
+        continue;
+      }
+      int left = Math.max(0, (s.minX() - CLEARANCE - originx) / CELLSIZE);
+      int right = Math.min(cols - 1, (s.maxX() + CLEARANCE - originx - 1) / CELLSIZE);
+      int bottom = Math.max(0, (s.minY() - CLEARANCE - originy) / CELLSIZE);
+      int top = Math.min(rows - 1, (s.maxY() + CLEARANCE - originy - 1) / CELLSIZE);
+      for (int row = bottom; row <= top; row++) {
+        for (int col = left; col <= right; col++) {
+          blocked[row * cols + col] = true;
+        }
+      }
+    }
+
+    distance = new int[cells];
+    direction = new byte[cells];
+    searchDistance = new int[cells];
+    searchDirection = new byte[cells];
+    queue = new int[cells];
+    for (int i = 0; i < cells; i++) {
+      distance[i] = UNREACHED;
+      direction[i] = NONE;
+    }
+    targetCell = -1;
+    searching = false;
+    builtVersion = level.getVersion();
+  }
+
+  /**
+   * A method called once a tick that starts a new search when the target has
+   * changed cell and continues any search in progress. The first search is
+   * finished straight away so the field can be used as soon as it is made.
+   * 
+   * @param target The entity the enemies are moving towards.
+   */
+
+  public void update(Entity target) {
+    boolean rebuilt = false;
+    if (builtVersion != level.getVersion()) {
+      build();
+      rebuilt = true;
+    }
+    int cell = cellOf(target.getXpos(), target.getYpos());
+    if (cell != searchCell || rebuilt) {
+      startSearch(cell);
+    }
+    if (searching) {
+      search(targetCell == -1 ? Integer.MAX_VALUE : CELLSPERTICK);
+    }
+  }
+
+  private void startSearch(int cell) {
+    searchCell = cell;
+    for (int i = 0; i < searchDistance.length; i++) {
+      searchDistance[i] = UNREACHED;
+      searchDirection[i] = NONE;
+    }
+    queueHead = 0;
+    queueTail = 0;
+    searchDistance[cell] = 0;
+    queue[queueTail++] = cell;
+    searching = true;
+  }
+
+  /**
+   * A method that continues a breadth first search outwards from the target,
+   * swapping the finished field in for the enemies once every reachable cell
+   * has a distance.
+   * 
+   * @param budget The most cells to take from the queue.
+   */
+
+  private void search(int budget) {
+    while (queueHead < queueTail && budget > 0) {
+      int cell = queue[queueHead++];
+      budget--;
+      cellsSearched++;
+      int col = cell % cols;
+      int row = cell / cols;
+      int next = searchDistance[cell] + 1;
+      for (int d = 0; d < 4; d++) {
+        int ncol = col + DX[d];
+        int nrow = row + DY[d];
+        if (ncol < 0 || nrow < 0 || ncol >= cols || nrow >= rows) {
+          continue;
+        }
+        int neighbour = nrow * cols + ncol;
+        if (!blocked[neighbour] && searchDistance[neighbour] == UNREACHED) {
+          searchDistance[neighbour] = next;
+          queue[queueTail++] = neighbour;
+        }
+      }
+    }
+    if (queueHead < queueTail) {
+      return;
+    }
+
+    for (int cell = 0; cell < searchDistance.length; cell++) {
+      searchDirection[cell] = bestDirection(cell);
+    }
+
+    int[] swapDistance = distance;
+    distance = searchDistance;
+    searchDistance = swapDistance;
+    byte[] swapDirection = direction;
+    direction = searchDirection;
+    searchDirection = swapDirection;
+    targetCell = searchCell;
+    searching = false;
+    recalculations++;
+  }
+
+  /**
+   * A method that picks the neighbour of a cell closest to the target. A
+   * diagonal is only taken when both cells beside it are open, so enemies do
+   * not cut the corners of structures. Blocked cells point to their closest
+   * open neighbour, so an enemy pushed into one finds its way back out.
+   * 
+   * @param cell The cell to find the direction of.
+   * @return The index of the direction, or NONE if no neighbour is closer.
+   */
+
+  private byte bestDirection(int cell) {
+    int col = cell % cols;
+    int row = cell / cols;
+    int best = blocked[cell] ? UNREACHED : searchDistance[cell];
+    byte bestDirection = NONE;
+    for (int d = 0; d < 8; d++) {
+      int ncol = col + DX[d];
+      int nrow = row + DY[d];
+      if (ncol < 0 || nrow < 0 || ncol >= cols || nrow >= rows) {
+        continue;
+      }
+      if (d >= 4 && (blocked[row * cols + ncol] || blocked[nrow * cols + col])) {
+        continue;
+      }
+      int neighbour = nrow * cols + ncol;
+      if (!blocked[neighbour] && searchDistance[neighbour] < best) {
+        best = searchDistance[neighbour];
+        bestDirection = (byte) d;
+      }
+    }
+    return bestDirection;
+  }
+
+  /**
+   * A method to get the cell a position is in, clamped to the grid.
+   * 
+   * @param x The x position.
+   * @param y The y position.
+   * @return The index of the cell.
+   */
+
+  public int cellOf(int x, int y) {
+    int col = Math.min(cols - 1, Math.max(0, (x - originx) / CELLSIZE));
+    int row = Math.min(rows - 1, Math.max(0, (y - originy) / CELLSIZE));
+    return row * cols + col;
+  }
+
+  /**
+   * A method to check whether an entity should follow the field. Entities in
+   * the same cell as the target, or next to it, or that cannot reach it, should
+   * move straight towards the target instead.
+   * 
+   * @param entity The entity to check.
+   * @return A boolean for whether the field has a direction for the entity.
+   */
+
+  public boolean hasDirection(Entity entity) {
+    return hasDirection(entity.getXpos(), entity.getYpos());
+  }
+
+  /**
+   * A method to check whether something at a position should follow the field.
+   * 
+   * @param x The x position.
+   * @param y The y position.
+   * @return A boolean for whether the field has a direction at the position.
+   */
+
+  public boolean hasDirection(int x, int y) {
+    if (targetCell == -1) {
+      return false;
+    }
+    int cell = cellOf(x, y);
+    return cell != targetCell && direction[cell] != NONE
+        && (blocked[cell] || distance[cell] > 1);
+  }
+
+  /**
+   * A method to get the x direction an entity should move in, normalised the
+   * same way as Enemy.faceTowards.
+   * 
+   * @param entity The entity to get the direction of.
+   * @return The x direction, from -1 to 1.
+   */
+
+  public float getXDir(Entity entity) {
+    return getXDir(entity.getXpos(), entity.getYpos());
+  }
+
+  public float getXDir(int x, int y) {
+    return XDIR[direction[cellOf(x, y)]];
+  }
+
+  /**
+   * A method to get the y direction an entity should move in.
+   * 
+   * @param entity The entity to get the direction of.
+   * @return The y direction, from -1 to 1.
+   */
+
+  public float getYDir(Entity entity) {
+    return getYDir(entity.getXpos(), entity.getYpos());
+  }
+
+  public float getYDir(int x, int y) {
+    return YDIR[direction[cellOf(x, y)]];
+  }
+
+  /**
+   * A method to get the number of cells between a position and the target.
+   * 
+   * @param x The x position.
+   * @param y The y position.
+   * @return The distance in cells, or Integer.MAX_VALUE if it cannot be reached.
+   */
+
+  public int getDistance(int x, int y) {
+    if (targetCell == -1) {
+      return UNREACHED;
+    }
+    return distance[cellOf(x, y)];
+  }
+
+  /**
+   * A method that writes where the field points and how far its search has got
+   * to a buffer. The directions are not written, as they can be found again
+   * from the target.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(targetCell);
+    buffer.putInt(searchCell);
+    buffer.put(searching ? (byte) 1 : (byte) 0);
+    buffer.putInt(queueHead);
+  }
+
+  /**
+   * A method that puts the field back to a state written by writeState(). The
+   * field for the target is searched again in full, then any search that was in
+   * progress is started again and run to the same point, which leaves the same
+   * cells in the queue as before.
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    int newTarget = buffer.getInt();
+    int newSearch = buffer.getInt();
+    boolean newSearching = buffer.get() != 0;
+    int newHead = buffer.getInt();
+    if (builtVersion == level.getVersion() && newTarget == targetCell
+        && newSearch == searchCell && newSearching == searching && newHead == queueHead) {
+      return;
+    }
+
+    long searched = cellsSearched;
+    int recalculated = recalculations;
+    build();
+    if (newTarget != -1) {
+      startSearch(newTarget);
+      search(Integer.MAX_VALUE);
+    }
+    searchCell = newSearch;
+    if (newSearching) {
+      startSearch(newSearch);
+      search(newHead);
+    }
+    cellsSearched = searched;
+    recalculations = recalculated;
+  }
+
+  public boolean isSearching() {
+    return searching;
+  }
+
+  public int getRecalculations() {
+    return recalculations;
+  }
+
+  public long getCellsSearched() {
+    return cellsSearched;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+}
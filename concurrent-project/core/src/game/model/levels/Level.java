@@ -1,15 +1,18 @@
 package game.model.levels;
 
+import game.entities.EnemyTypeAction;
 import game.entities.Spawner;
 import game.entities.Wall;
 import game.entities.structures.Structure;
 import game.entities.tiles.VegetationTile;
-import game.model.ShooterGame;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -22,11 +25,24 @@ import java.util.Arrays;
 
 public class Level {
 
+  // The lists are only added to while the file is parsed, the level is then
+  // read through its contents.
   private ArrayList<Wall> walls;
   private ArrayList<VegetationTile> vtiles;
   private ArrayList<Structure> strcts;
   private ArrayList<Spawner> spawners;
+  private volatile float spawnScale = 1;
   private String bgFileName;
+  private String fileName;
+
+  private volatile LevelDiff pendingReload;
+  private volatile Contents contents;
+
+  private static final int GRIDCELL = 128;
+  private SpatialGrid wallGrid;
+  private SpatialGrid structGrid;
+  private SpatialGrid vegGrid;
+  private int gridVersion = -1;
 
   private int height;
   private int width;
@@ -47,16 +63,18 @@ public class Level {
     vtiles = new ArrayList<VegetationTile>();
     strcts = new ArrayList<Structure>();
     spawners = new ArrayList<Spawner>();
+    this.fileName = fileName;
 
-    String workingDir = System.getProperty("user.dir") + "\\levels\\" + fileName;
+    File levelFile = getLevelDirectory().resolve(fileName).toFile();
 
-    try (BufferedReader br = new BufferedReader(new FileReader(workingDir))) {
+    try (BufferedReader br = new BufferedReader(new FileReader(levelFile))) {
       String line;
       while ((line = br.readLine()) != null) {
         String[] splitLine = line.split("\\s");
         stringParser(splitLine);
       }
     }
+    contents = new Contents(walls, vtiles, strcts, spawners, xcenter, ycenter, width, height, 0);
   }
 
   // ===============================================================================================
@@ -219,7 +237,9 @@ public class Level {
   }
 
   /**
-   * The StringRule for a Spawner object.
+   * The StringRule for a Spawner object. The interval may be followed by the
+   * names of the enemy types it spawns, otherwise it spawns shooters and
+   * chasers.
    * 
    * @author Brandon Hua
    */
@@ -236,7 +256,20 @@ public class Level {
       int xpos = Integer.valueOf(data[1]);
       int ypos = Integer.valueOf(data[2]);
       int interval = Integer.valueOf(data[3]);
-      spawners.add(new Spawner(xpos, ypos, interval));
+      int[] types = new int[Math.max(0, data.length - 4)];
+      int count = 0;
+      for (int i = 4; i < data.length; i++) {
+        int type = EnemyTypeAction.typeIndex(data[i]);
+        if (type != -1) {
+          types[count] = type;
+          count++;
+        }
+      }
+      if (count == 0) {
+        spawners.add(new Spawner(xpos, ypos, interval));
+      } else {
+        spawners.add(new Spawner(xpos, ypos, interval, Arrays.copyOf(types, count)));
+      }
     }
   }
 
@@ -262,6 +295,20 @@ public class Level {
     }
   }
 
+  /**
+   * A method to get the directory that level files are loaded from.
+   * 
+   * @return The path of the levels folder in the working directory.
+   */
+
+  public static Path getLevelDirectory() {
+    return Paths.get(System.getProperty("user.dir"), "levels");
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
   /**
    * Get the name of the background file.
    * 
@@ -273,65 +320,251 @@ public class Level {
   }
 
   /**
-   * Get the walls that are contained in the level.
+   * Get the walls that are contained in the level. The lists of a level are
+   * replaced rather than changed when it is reloaded, so a list that has been
+   * got can be read on any thread, but it must not be changed once the level is
+   * being played.
    * 
    * @return The walls of the level.
    */
 
   public ArrayList<Wall> getWalls() {
-    return walls;
+    return contents.walls;
   }
 
   public ArrayList<VegetationTile> getVtiles() {
-    return vtiles;
+    return contents.vtiles;
   }
 
   public ArrayList<Structure> getStructures() {
-    return strcts;
+    return contents.strcts;
+  }
+
+  public ArrayList<Spawner> getSpawners() {
+    return contents.spawners;
+  }
+
+  /**
+   * A method to stretch the time between enemy spawns for every spawner in the
+   * level.
+   * 
+   * @param scale The multiplier applied to every spawn interval.
+   */
+
+  public void setSpawnScale(float scale) {
+    spawnScale = scale;
+  }
+
+  public float getSpawnScale() {
+    return spawnScale;
+  }
+
+  /**
+   * A method to get a SpatialGrid of the walls, rebuilt if the level has changed.
+   * 
+   * @return The SpatialGrid of the walls.
+   */
+
+  public synchronized SpatialGrid getWallGrid() {
+    updateGrids();
+    return wallGrid;
+  }
+
+  /**
+   * A method to get a SpatialGrid of the structures, rebuilt if the level has
+   * changed.
+   * 
+   * @return The SpatialGrid of the structures.
+   */
+
+  public synchronized SpatialGrid getStructureGrid() {
+    updateGrids();
+    return structGrid;
+  }
+
+  /**
+   * A method to get a SpatialGrid of the VegetationTiles, rebuilt if the level
+   * has changed.
+   * 
+   * @return The SpatialGrid of the VegetationTiles.
+   */
+
+  public synchronized SpatialGrid getVegetationGrid() {
+    updateGrids();
+    return vegGrid;
+  }
+
+  private void updateGrids() {
+    Contents current = contents;
+    if (gridVersion != current.version) {
+      wallGrid = new SpatialGrid(current.walls, GRIDCELL);
+      structGrid = new SpatialGrid(current.strcts, GRIDCELL);
+      vegGrid = new SpatialGrid(current.vtiles, GRIDCELL);
+      gridVersion = current.version;
+    }
   }
 
   public int getXPos() {
-    return xcenter;
+    return contents.xcenter;
   }
 
   public int getYPos() {
-    return ycenter;
+    return contents.ycenter;
   }
 
   public int getHeight() {
-    return height;
+    return contents.height;
   }
 
   public int getWidth() {
-    return width;
+    return contents.width;
   }
 
   /**
-   * A method to get the edges of a level.
+   * A method to get the edges of a level. The same array is returned every time
+   * until the level is reloaded, so it must not be modified.
    * 
    * @return The bounds in order of left, right, bottom, top.
    */
 
   public int[] getBounds() {
-    int[] bounds = new int[4];
-    bounds[0] = (int) (xcenter - (width / 2));
-    bounds[1] = (int) (xcenter + (width / 2));
-    bounds[2] = (int) (ycenter - (height / 2));
-    bounds[3] = (int) (ycenter + (height / 2));
-    return bounds;
+    return contents.bounds;
+  }
+
+  /**
+   * A method to get the number of times the level has been modified since it was
+   * loaded, allowing anything derived from the level data to be rebuilt.
+   * 
+   * @return The current version of the level.
+   */
+
+  public int getVersion() {
+    return contents.version;
+  }
+
+  /**
+   * A method to get the objects and bounds of the level at its current version,
+   * all from the one version.
+   * 
+   * @return The contents.
+   */
+
+  Contents getContents() {
+    return contents;
+  }
+
+  /**
+   * A method that stores the changes of a re-parsed level file so they can be
+   * applied on the render thread, rather than on the thread that watches the
+   * level files.
+   * 
+   * @param diff The differences between this level and the re-parsed level.
+   */
+
+  public void queueReload(LevelDiff diff) {
+    pendingReload = diff;
   }
 
   /**
-   * A method that updates the spawner objects.
+   * A method that applies any queued changes to the level data. The changed
+   * lists are copies, published together with one write, so the game threads
+   * and views reading the old lists can carry on until they next get them.
    * 
-   * @param gameSpeed The speed of the game.
-   * @param game      The game that the spawners effect.
+   * @return A boolean for whether or not any changes were applied.
    */
 
-  public void spawnerUpdate(float gameSpeed, ShooterGame game) {
-    for (Spawner s : spawners) {
-      s.update(gameSpeed, game);
+  public boolean applyReload() {
+    LevelDiff diff = pendingReload;
+    if (diff == null) {
+      return false;
     }
+    pendingReload = null;
+
+    Contents current = contents;
+    if (diff.getBaseVersion() != current.version) {
+      // The diff was made while an earlier one was being applied, so it is made
+      // again against the current contents rather than adding its objects twice.
+      diff = new LevelDiff(this, diff.getReloaded(), diff.getDetectedTime());
+      if (!diff.hasChanges()) {
+        return false;
+      }
+    }
+    Level reloaded = diff.getReloaded();
+    contents = new Contents(
+        apply(current.walls, diff.getRemovedWalls(), diff.getAddedWalls()),
+        apply(current.vtiles, diff.getRemovedVtiles(), diff.getAddedVtiles()),
+        apply(current.strcts, diff.getRemovedStructures(), diff.getAddedStructures()),
+        apply(current.spawners, diff.getRemovedSpawners(), diff.getAddedSpawners()),
+        reloaded.getXPos(), reloaded.getYPos(), reloaded.getWidth(), reloaded.getHeight(),
+        current.version + 1);
+    if (reloaded.getBgFileName() != null && !reloaded.getBgFileName().equals(bgFileName)) {
+      System.out.println("Background changed to " + reloaded.getBgFileName()
+          + ", restart the game to load the new texture.");
+    }
+
+    diff.applied();
+    return true;
+  }
+
+  /**
+   * A method that makes a copy of a list with objects removed and added.
+   * 
+   * @param list    The list to copy.
+   * @param removed The objects to remove.
+   * @param added   The objects to add.
+   * @return The new list.
+   */
+
+  private static <T> ArrayList<T> apply(ArrayList<T> list, ArrayList<T> removed,
+      ArrayList<T> added) {
+    if (removed.isEmpty() && added.isEmpty()) {
+      return list;
+    }
+    ArrayList<T> copy = new ArrayList<T>(list);
+    copy.removeAll(removed);
+    copy.addAll(added);
+    return copy;
+  }
+
+  /**
+   * The Contents of a level are its objects and bounds at one version. They are
+   * never changed once made, so every thread sees the whole of one version.
+   * 
+   * @author Brandon Hua
+   */
+
+  static class Contents {
+
+    final ArrayList<Wall> walls;
+    final ArrayList<VegetationTile> vtiles;
+    final ArrayList<Structure> strcts;
+    final ArrayList<Spawner> spawners;
+    final int xcenter;
+    final int ycenter;
+    final int width;
+    final int height;
+    final int[] bounds;
+    final int version;
+
+    private Contents(ArrayList<Wall> walls, ArrayList<VegetationTile> vtiles,
+        ArrayList<Structure> strcts, ArrayList<Spawner> spawners, int xcenter, int ycenter,
+        int width, int height, int version) {
+      this.walls = walls;
+      this.vtiles = vtiles;
+      this.strcts = strcts;
+      this.spawners = spawners;
+      this.xcenter = xcenter;
+      this.ycenter = ycenter;
+      this.width = width;
+      this.height = height;
+      this.version = version;
+      bounds = new int[4];
+      bounds[0] = (int) (xcenter - (width / 2));
+      bounds[1] = (int) (xcenter + (width / 2));
+      bounds[2] = (int) (ycenter - (height / 2));
+      bounds[3] = (int) (ycenter + (height / 2));
+    }
+
   }
 
 }
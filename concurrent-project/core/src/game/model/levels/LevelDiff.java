@@ -0,0 +1,233 @@
+package game.model.levels;
+
+import game.entities.Spawner;
+import game.entities.Wall;
+import game.entities.structures.Structure;
+import game.entities.tiles.VegetationTile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The LevelDiff class holds the differences between a level being played and a
+ * freshly parsed copy of the same level file, so that only the objects that
+ * were edited need to be added or removed.
+ * 
+ * <p>
+ * Objects are matched by their file data (position, size and type), an object
+ * that has not been edited keeps its current instance and state. A diff notes
+ * the version of the level it was made against, as it only holds for that
+ * version.
+ * 
+ * @author Brandon Hua
+ */
+
+public class LevelDiff {
+
+  private Level reloaded;
+
+  private ArrayList<Wall> addedWalls = new ArrayList<Wall>();
+  private ArrayList<Wall> removedWalls = new ArrayList<Wall>();
+  private ArrayList<Structure> addedStructures = new ArrayList<Structure>();
+  private ArrayList<Structure> removedStructures = new ArrayList<Structure>();
+  private ArrayList<VegetationTile> addedVtiles = new ArrayList<VegetationTile>();
+  private ArrayList<VegetationTile> removedVtiles = new ArrayList<VegetationTile>();
+  private ArrayList<Spawner> addedSpawners = new ArrayList<Spawner>();
+  private ArrayList<Spawner> removedSpawners = new ArrayList<Spawner>();
+
+  private boolean boundsChanged;
+  private int baseVersion;
+
+  private long detectedTime;
+  private long parsedTime;
+
+  /**
+   * The LevelDiff compares every category of object between two levels.
+   * 
+   * @param live         The level currently being played.
+   * @param reloaded     The level parsed from the edited file.
+   * @param detectedTime The time the file change was detected (in nanoseconds).
+   */
+
+  public LevelDiff(Level live, Level reloaded, long detectedTime) {
+    this.reloaded = reloaded;
+    this.detectedTime = detectedTime;
+
+    Level.Contents base = live.getContents();
+    baseVersion = base.version;
+    diffList(base.walls, reloaded.getWalls(), addedWalls, removedWalls);
+    diffList(base.strcts, reloaded.getStructures(), addedStructures, removedStructures);
+    diffList(base.vtiles, reloaded.getVtiles(), addedVtiles, removedVtiles);
+    diffList(base.spawners, reloaded.getSpawners(), addedSpawners, removedSpawners);
+    boundsChanged = base.xcenter != reloaded.getXPos() || base.ycenter != reloaded.getYPos()
+        || base.width != reloaded.getWidth() || base.height != reloaded.getHeight();
+
+    parsedTime = System.nanoTime();
+  }
+
+  /**
+   * A method that finds the objects that only exist in one of two lists.
+   * Duplicated objects are counted so that removing one of two identical lines
+   * only removes one object.
+   * 
+   * @param live     The objects of the level being played.
+   * @param reloaded The objects of the re-parsed level.
+   * @param added    The list to place objects that only exist in the new level.
+   * @param removed  The list to place objects that only exist in the old level.
+   */
+
+  private static <T> void diffList(ArrayList<T> live, ArrayList<T> reloaded, ArrayList<T> added,
+      ArrayList<T> removed) {
+    HashMap<String, ArrayList<T>> liveKeys = new HashMap<String, ArrayList<T>>();
+    for (T t : live) {
+      String key = key(t);
+      if (!liveKeys.containsKey(key)) {
+        liveKeys.put(key, new ArrayList<T>());
+      }
+      liveKeys.get(key).add(t);
+    }
+
+    for (T t : reloaded) {
+      ArrayList<T> matches = liveKeys.get(key(t));
+      if (matches != null && matches.size() > 0) {
+        matches.remove(matches.size() - 1);
+      } else {
+        added.add(t);
+      }
+    }
+
+    for (ArrayList<T> unmatched : liveKeys.values()) {
+      removed.addAll(unmatched);
+    }
+  }
+
+  /**
+   * A method that creates a string from the data that a level file holds for an
+   * object.
+   * 
+   * @param object The object to create a key of.
+   * @return The key of the object.
+   */
+
+  private static String key(Object object) {
+    if (object instanceof Structure) {
+      Structure s = (Structure) object;
+      return s.getXpos() + " " + s.getYpos() + " " + s.getWidth() + " " + s.getHeight() + " "
+          + s.getType() + " " + s.getEnemyCol();
+    }
+    if (object instanceof Wall) {
+      Wall w = (Wall) object;
+      return w.getXpos() + " " + w.getYpos() + " " + w.getWidth() + " " + w.getHeight();
+    }
+    if (object instanceof VegetationTile) {
+      VegetationTile v = (VegetationTile) object;
+      return v.getXpos() + " " + v.getYpos() + " " + v.getWidth() + " " + v.getHeight() + " "
+          + v.getType();
+    }
+    Spawner s = (Spawner) object;
+    String key = s.getXpos() + " " + s.getYpos() + " " + s.getSpawnInterval();
+    int[] types = s.getTypeNumber();
+    for (int i = 0; i < types.length; i++) {
+      key += " " + types[i];
+    }
+    return key;
+  }
+
+  /**
+   * A method to check if any objects were changed.
+   * 
+   * @return A boolean for whether or not the levels are different.
+   */
+
+  public boolean hasChanges() {
+    return boundsChanged || getChangeCount() > 0;
+  }
+
+  /**
+   * A method to get the total number of added and removed objects.
+   * 
+   * @return The number of changes.
+   */
+
+  public int getChangeCount() {
+    return addedWalls.size() + removedWalls.size() + addedStructures.size()
+        + removedStructures.size() + addedVtiles.size() + removedVtiles.size()
+        + addedSpawners.size() + removedSpawners.size();
+  }
+
+  /**
+   * A method that reports the reload latency once the changes have been applied
+   * to the level.
+   */
+
+  public void applied() {
+    long appliedTime = System.nanoTime();
+    System.out.println("Reloaded " + reloaded.getFileName() + ": "
+        + changeString("walls", addedWalls, removedWalls) + ", "
+        + changeString("structures", addedStructures, removedStructures) + ", "
+        + changeString("vegetation", addedVtiles, removedVtiles) + ", "
+        + changeString("spawners", addedSpawners, removedSpawners) + " in "
+        + toMillis(appliedTime - detectedTime) + "ms (parse "
+        + toMillis(parsedTime - detectedTime) + "ms, apply "
+        + toMillis(appliedTime - parsedTime) + "ms)");
+  }
+
+  private static String changeString(String name, ArrayList<?> added, ArrayList<?> removed) {
+    return name + " +" + added.size() + "/-" + removed.size();
+  }
+
+  private static String toMillis(long nanos) {
+    return String.valueOf(nanos / 1000000.0);
+  }
+
+  /**
+   * A method to get the version of the live level the diff was made against.
+   * 
+   * @return The version.
+   */
+
+  public int getBaseVersion() {
+    return baseVersion;
+  }
+
+  public long getDetectedTime() {
+    return detectedTime;
+  }
+
+  public Level getReloaded() {
+    return reloaded;
+  }
+
+  public ArrayList<Wall> getAddedWalls() {
+    return addedWalls;
+  }
+
+  public ArrayList<Wall> getRemovedWalls() {
+    return removedWalls;
+  }
+
+  public ArrayList<Structure> getAddedStructures() {
+    return addedStructures;
+  }
+
+  public ArrayList<Structure> getRemovedStructures() {
+    return removedStructures;
+  }
+
+  public ArrayList<VegetationTile> getAddedVtiles() {
+    return addedVtiles;
+  }
+
+  public ArrayList<VegetationTile> getRemovedVtiles() {
+    return removedVtiles;
+  }
+
+  public ArrayList<Spawner> getAddedSpawners() {
+    return addedSpawners;
+  }
+
+  public ArrayList<Spawner> getRemovedSpawners() {
+    return removedSpawners;
+  }
+
+}
@@ -0,0 +1,262 @@
+package game.model.levels;
+
+import game.entities.Entity;
+import game.entities.structures.Structure;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The SightGrid answers whether an enemy can see the player without a
+ * structure in the way. The structures of the level are baked into a bitmap
+ * with one bit per cell, and a line of sight is found by stepping a ray from
+ * cell to cell until it reaches the target or a blocked cell.
+ * 
+ * <p>
+ * Rays are cast between the centres of cells rather than the exact positions
+ * of the entities, so every enemy in a cell shares one answer. Answers are
+ * cached for each cell until the target moves to another cell or the level
+ * changes, which means a crowd of enemies around the same spot only casts a
+ * single ray between them.
+ * 
+ * <p>
+ * Enemies may check their sight from several threads at once. Each cached
+ * answer is stored in a single int along with the generation it belongs to,
+ * so a thread either sees a whole answer or none at all, and two threads
+ * casting the same ray always get the same answer.
+ * 
+ * @author Brandon Hua
+ */
+
+public class SightGrid {
+
+  public final static int CELLSIZE = 16;
+
+  private static boolean enabled = true;
+
+  private Level level;
+  private int builtVersion = -1;
+
+  private int originx;
+  private int originy;
+  private int cols;
+  private int rows;
+  private long[] occupied;
+
+  private int targetCell = -1;
+  private int generation;
+  private int[] sight; // the generation shifted left once, plus 1 if clear
+
+  /**
+   * The SightGrid bakes the structures of the level straight away.
+   * 
+   * @param level The level to check sight through.
+   */
+
+  public SightGrid(Level level) {
+    this.level = level;
+    build();
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * A method that sets the bit of every cell whose centre lies inside a
+   * structure. Every structure stops bullets, so every structure blocks sight.
+   */
+
+  private void build() {
+    int[] bounds = level.getBounds();
+    originx = bounds[0];
+    originy = bounds[2];
+    cols = Math.max(1, (bounds[1] - bounds[0] + CELLSIZE - 1) / CELLSIZE);
+    rows = Math.max(1, (bounds[3] - bounds[2] + CELLSIZE - 1) / CELLSIZE);
+    int cells = cols * rows;
+
+    occupied = new long[(cells + 63) / 64];
+    ArrayList<Structure> structures = level.getStructures();
+    for (int i = 0; i < structures.size(); i++) {
+      Structure s = structures.get(i);
+      int left = Math.max(0, ceilCell(s.minX() - originx));
+      int right = Math.min(cols - 1, ceilCell(s.maxX() - originx) - 1);
+      int bottom = Math.max(0, ceilCell(s.minY() - originy));
+      int top = Math.min(rows - 1, ceilCell(s.maxY() - originy) - 1);
+      for (int row = bottom; row <= top; row++) {
+        for (int col = left; col <= right; col++) {
+          int cell = row * cols + col;
+          occupied[cell >>> 6] |= 1L << cell;
+        }
+      }
+    }
+
+    sight = new int[cells];
+    generation++;
+    targetCell = -1;
+    builtVersion = level.getVersion();
+  }
+
+  /**
+   * A method to get the first cell whose centre is at or past a distance from
+   * the origin.
+   * 
+   * @param offset The distance from the origin.
+   * @return The index of the cell along that axis.
+   */
+
+  private int ceilCell(int offset) {
+    return (int) Math.ceil((offset - CELLSIZE / 2.0) / CELLSIZE);
+  }
+
+  /**
+   * A method called once a tick that rebakes the grid if the level has changed
+   * and forgets the cached answers once the target is in a different cell.
+   * 
+   * @param target The entity enemies are looking for.
+   */
+
+  public void update(Entity target) {
+    if (builtVersion != level.getVersion()) {
+      build();
+    }
+    int cell = cellOf(target.getXpos(), target.getYpos());
+    if (cell != targetCell) {
+      targetCell = cell;
+      generation++;
+    }
+  }
+
+  /**
+   * A method to check whether an entity can see the target given to the last
+   * update. The answer for the entity's cell is cast once and then reused.
+   * 
+   * @param entity The entity looking.
+   * @return A boolean for whether nothing is in the way.
+   */
+
+  public boolean canSee(Entity entity) {
+    return canSee(entity.getXpos(), entity.getYpos());
+  }
+
+  /**
+   * A method to check whether the target can be seen from a position.
+   * 
+   * @param x The x position looking.
+   * @param y The y position looking.
+   * @return A boolean for whether nothing is in the way.
+   */
+
+  public boolean canSee(int x, int y) {
+    if (!enabled || targetCell == -1) {
+      return true;
+    }
+    int cell = cellOf(x, y);
+    int cached = sight[cell];
+    if (cached >>> 1 != generation) {
+      cached = (generation << 1) | (raycast(cell, targetCell) ? 1 : 0);
+      sight[cell] = cached;
+    }
+    return (cached & 1) == 1;
+  }
+
+  /**
+   * A method that steps a ray from the centre of one cell to the centre of
+   * another, visiting every cell the line passes through in order. The cells
+   * at either end are not checked, as an entity standing against a structure
+   * can share a cell with it.
+   * 
+   * @param from The cell the ray starts in.
+   * @param to   The cell the ray ends in.
+   * @return A boolean for whether the ray reached the end without passing
+   *         through a blocked cell.
+   */
+
+  private boolean raycast(int from, int to) {
+    int col = from % cols;
+    int row = from / cols;
+    int endCol = to % cols;
+    int endRow = to / cols;
+    int dx = endCol - col;
+    int dy = endRow - row;
+    int stepx = dx > 0 ? 1 : -1;
+    int stepy = dy > 0 ? 1 : -1;
+    // Both ends are cell centres, so the first boundary on each axis is half a
+    // cell away and the rest are a whole cell apart.
+    float deltax = dx == 0 ? Float.MAX_VALUE : 1f / Math.abs(dx);
+    float deltay = dy == 0 ? Float.MAX_VALUE : 1f / Math.abs(dy);
+    float nextx = deltax / 2;
+    float nexty = deltay / 2;
+
+    for (int steps = Math.abs(dx) + Math.abs(dy); steps > 1; steps--) {
+      if (nextx < nexty) {
+        nextx += deltax;
+        col += stepx;
+      } else {
+        nexty += deltay;
+        row += stepy;
+      }
+      if (isOccupied(row * cols + col)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A method to get the cell a position is in, clamped to the grid.
+   * 
+   * @param x The x position.
+   * @param y The y position.
+   * @return The index of the cell.
+   */
+
+  public int cellOf(int x, int y) {
+    int col = Math.min(cols - 1, Math.max(0, (x - originx) / CELLSIZE));
+    int row = Math.min(rows - 1, Math.max(0, (y - originy) / CELLSIZE));
+    return row * cols + col;
+  }
+
+  public boolean isOccupied(int cell) {
+    return (occupied[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  /**
+   * A method that writes the cell of the target to a buffer. The cached answers
+   * are not written, as they are cast again when next asked for.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(targetCell);
+  }
+
+  /**
+   * A method that puts back the cell of the target written by writeState() and
+   * forgets every cached answer.
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    if (builtVersion != level.getVersion()) {
+      build();
+    }
+    targetCell = buffer.getInt();
+    generation++;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+}
@@ -0,0 +1,176 @@
+package game.model.levels;
+
+import game.entities.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The SpatialGrid splits the area covered by a list of static entities into
+ * square cells so that the entities within a rectangle can be found without
+ * checking every entity in the list.
+ * 
+ * <p>
+ * The grid stores the indices of the entities rather than the entities
+ * themselves and queries do not modify the grid, so multiple views can query
+ * the same grid at once.
+ * 
+ * @author Brandon Hua
+ */
+
+public class SpatialGrid {
+
+  private final int cellSize;
+
+  private int originx;
+  private int originy;
+  private int cols;
+  private int rows;
+
+  private int[][] cells;
+
+  private int[] minx;
+  private int[] miny;
+  private int[] maxx;
+  private int[] maxy;
+
+  private int size;
+
+  /**
+   * The SpatialGrid places the index of every entity into each cell it
+   * overlaps.
+   * 
+   * @param entities The entities to be placed in the grid.
+   * @param cellSize The width and height of a cell.
+   */
+
+  public SpatialGrid(ArrayList<? extends Entity> entities, int cellSize) {
+    this.cellSize = cellSize;
+    size = entities.size();
+    minx = new int[size];
+    miny = new int[size];
+    maxx = new int[size];
+    maxy = new int[size];
+
+    int left = Integer.MAX_VALUE;
+    int bottom = Integer.MAX_VALUE;
+    int right = Integer.MIN_VALUE;
+    int top = Integer.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      Entity e = entities.get(i);
+      minx[i] = e.minX();
+      miny[i] = e.minY();
+      maxx[i] = e.maxX();
+      maxy[i] = e.maxY();
+      left = Math.min(left, minx[i]);
+      bottom = Math.min(bottom, miny[i]);
+      right = Math.max(right, maxx[i]);
+      top = Math.max(top, maxy[i]);
+    }
+
+    if (size == 0) {
+      left = 0;
+      bottom = 0;
+      right = 0;
+      top = 0;
+    }
+
+    originx = left;
+    originy = bottom;
+    cols = (right - left) / cellSize + 1;
+    rows = (top - bottom) / cellSize + 1;
+
+    int[] counts = new int[cols * rows];
+    for (int i = 0; i < size; i++) {
+      for (int cy = cellY(miny[i]); cy <= cellY(maxy[i]); cy++) {
+        for (int cx = cellX(minx[i]); cx <= cellX(maxx[i]); cx++) {
+          counts[cy * cols + cx]++;
+        }
+      }
+    }
+
+    cells = new int[cols * rows][];
+    for (int c = 0; c < cells.length; c++) {
+      cells[c] = new int[counts[c]];
+    }
+
+    Arrays.fill(counts, 0);
+    for (int i = 0; i < size; i++) {
+      for (int cy = cellY(miny[i]); cy <= cellY(maxy[i]); cy++) {
+        for (int cx = cellX(minx[i]); cx <= cellX(maxx[i]); cx++) {
+          int cell = cy * cols + cx;
+          cells[cell][counts[cell]] = i;
+          counts[cell]++;
+        }
+      }
+    }
+  }
+
+  private int cellX(int xpos) {
+    return clamp((xpos - originx) / cellSize, cols);
+  }
+
+  private int cellY(int ypos) {
+    return clamp((ypos - originy) / cellSize, rows);
+  }
+
+  private static int clamp(int cell, int max) {
+    if (cell < 0) {
+      return 0;
+    }
+    if (cell >= max) {
+      return max - 1;
+    }
+    return cell;
+  }
+
+  /**
+   * A method that finds every entity overlapping a rectangle. An entity that
+   * covers several cells is only reported by the first of its cells inside the
+   * rectangle, so no entity is reported twice.
+   * 
+   * @param left   The left edge of the rectangle.
+   * @param bottom The bottom edge of the rectangle.
+   * @param right  The right edge of the rectangle.
+   * @param top    The top edge of the rectangle.
+   * @param result The array to place the indices into, which must be at least
+   *               the size of the grid.
+   * @return The number of indices placed into the result, in ascending order.
+   */
+
+  public int query(int left, int bottom, int right, int top, int[] result) {
+    if (size == 0 || right < originx || top < originy
+        || left > originx + cols * cellSize || bottom > originy + rows * cellSize) {
+      return 0;
+    }
+
+    int startx = cellX(left);
+    int starty = cellY(bottom);
+    int endx = cellX(right);
+    int endy = cellY(top);
+
+    int count = 0;
+    for (int cy = starty; cy <= endy; cy++) {
+      for (int cx = startx; cx <= endx; cx++) {
+        int[] cell = cells[cy * cols + cx];
+        for (int k = 0; k < cell.length; k++) {
+          int i = cell[k];
+          if (Math.max(cellX(minx[i]), startx) == cx && Math.max(cellY(miny[i]), starty) == cy) {
+            if (minx[i] < right && left < maxx[i] && miny[i] < top && bottom < maxy[i]) {
+              result[count] = i;
+              count++;
+            }
+          }
+        }
+      }
+    }
+
+    Arrays.sort(result, 0, count);
+    return count;
+  }
+
+  public int size() {
+    return size;
+  }
+
+}
@@ -1,5 +1,7 @@
 package game.model.rules;
 
+import java.nio.ByteBuffer;
+
 /**
  * The ShooterRulesVariables class holds all the variables required for the game
  * rule set.
@@ -95,4 +97,37 @@ public class ShooterRuleVars {
     return timeLimit;
   }
   
+  /**
+   * A method that writes the variables that change during a session to a
+   * buffer.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    buffer.putLong(timeLimit);
+    buffer.putLong(timePassed);
+    buffer.putInt(globalLives);
+    buffer.put((byte) (gameOver ? 1 : 0));
+    buffer.putLong(totalScore);
+    buffer.putInt(defeated);
+    buffer.putInt(defeatQuota);
+  }
+
+  /**
+   * A method that reads the variables from a buffer written by writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    timeLimit = buffer.getLong();
+    timePassed = buffer.getLong();
+    globalLives = buffer.getInt();
+    gameOver = buffer.get() == 1;
+    totalScore = buffer.getLong();
+    defeated = buffer.getInt();
+    defeatQuota = buffer.getInt();
+  }
+
 }
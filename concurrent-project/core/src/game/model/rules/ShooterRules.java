@@ -4,9 +4,15 @@ import game.Core;
 import game.entities.Bullet;
 import game.entities.Enemy;
 import game.entities.PlayerCharacter;
+import game.entities.ecs.EntityWorld;
 import game.entities.structures.Structure;
+import game.model.GameRandom;
+import game.model.ParallelPhases;
+import game.model.ParallelPhases.Phase;
+import game.model.ParallelPhases.PhaseBuffer;
 import game.model.ShooterGame;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -25,6 +31,12 @@ public class ShooterRules {
   private boolean gameWon;
   private boolean gameOver;
   private int[] defeatCounter;
+  private long timeLastUpdated = Core.time;
+
+  private ProjectilePhase projectilePhase = new ProjectilePhase();
+  private BulletHitPhase bulletHitPhase = new BulletHitPhase();
+  private EnemyWallPhase enemyWallPhase = new EnemyWallPhase();
+  private BulletWallPhase bulletWallPhase = new BulletWallPhase();
 
   /**
    * A constructor that sets the initial game held in the rules object.
@@ -70,7 +82,7 @@ public class ShooterRules {
    */
 
   public void updateGame() {
-    long curTime = (long) (Core.deltaTime * game.getVars().getGameSpeed());
+    long curTime = (long) (game.getTickDelta() * game.getVars().getGameSpeed());
     updateAi(curTime);
     updateProjectiles(curTime);
     enforceCollisions();
@@ -91,6 +103,13 @@ public class ShooterRules {
    */
 
   private void enforceCollisions() {
+    EntityWorld world = game.getWorld();
+    if (world != null) {
+      world.getCollisions().enemyCollisions(world, game);
+      world.getCollisions().bulletCollisions(world, game);
+      world.getCollisions().wallCollisions(world, game);
+      return;
+    }
     ArrayList<Structure> strcts = game.getLevel().getStructures();
     PlayerCharacter player = game.getPlayer();
     ArrayList<Enemy> enemies = game.getEnemies();
@@ -101,7 +120,12 @@ public class ShooterRules {
   }
 
   /**
-   * A method that checks the wall collisions between every solid object.
+   * A method that checks the wall collisions between every solid object. Each
+   * enemy and bullet against the walls only changes itself, so those checks are
+   * run as phases that may be split across threads. Enemies pushing each other
+   * apart move enemies that the others then check against, so that is left on
+   * one thread, and is done first so an enemy pushed into a wall is pushed back
+   * out of it.
    * 
    * @param walls   The walls to be checked with.
    * @param player  The player controlled character.
@@ -111,35 +135,37 @@ public class ShooterRules {
   private void wallCollisions(ArrayList<Structure> walls, PlayerCharacter player, 
       ArrayList<Enemy> enemies, ArrayList<Bullet> bullets) {
     for (int i = 0; i < walls.size(); i++) {
-      player.solidCollision(walls.get(i));
-
-      if (walls.get(i).getEnemyCol()) {
-        for (int j = 0; j < enemies.size(); j++) {
-          enemies.get(j).solidCollision(walls.get(i));
-        }
-      }
-
-      for (int k = 0; k < bullets.size(); k++) {
-        if (bullets.get(k).collidedWith(walls.get(i))) {
-          bullets.get(k).die();
-        }
-      }
+      player.solidCollision(walls.get(i), game.getRandom());
     }
 
-    for (Enemy e : enemies) {
-      for (Enemy e2 : enemies) {
+    for (int i = 0; i < enemies.size(); i++) {
+      Enemy e = enemies.get(i);
+      for (int j = 0; j < enemies.size(); j++) {
+        Enemy e2 = enemies.get(j);
         if (e.compareTo(e2) != 0) {
-          e.solidCollision(e2);
+          e.solidCollision(e2, game.getRandom());
           e.keepInBound(game);
         }
       }
     }
 
+    ParallelPhases phases = game.getPhases();
+    enemyWallPhase.walls = walls;
+    enemyWallPhase.enemies = enemies;
+    enemyWallPhase.seed = game.getRandom().nextLong();
+    phases.run(enemyWallPhase, enemies.size(), walls.size());
+    bulletWallPhase.walls = walls;
+    bulletWallPhase.bullets = bullets;
+    phases.run(bulletWallPhase, bullets.size(), walls.size());
+
     player.keepInBound(game);
   }
 
   /**
-   * A method that checks collisions between entities and bullets.
+   * A method that checks collisions between entities and bullets. Finding which
+   * friendly bullets hit which enemies is a phase that may be split across
+   * threads, the hits are then applied in order of bullet and then enemy, the
+   * same order they would be found in on one thread.
    * 
    * @param bullets The list of bullets to be checked.
    * @param enemies The enemies of a level.
@@ -147,16 +173,23 @@ public class ShooterRules {
 
   private void bulletCollisions(ArrayList<Bullet> bullets, ArrayList<Enemy> enemies, 
       PlayerCharacter player) {
-    for (int i = 0; i < bullets.size(); i++) {
-      for (int j = 0; j < enemies.size(); j++) {
-        if (bullets.get(i).isFriendly()) {
-          if (enemies.get(j).damage(bullets.get(i))) {
-            bullets.get(i).die();
-          }
+    ParallelPhases phases = game.getPhases();
+    bulletHitPhase.bullets = bullets;
+    bulletHitPhase.enemies = enemies;
+    int chunks = phases.run(bulletHitPhase, bullets.size(), enemies.size());
+    for (int c = 0; c < chunks; c++) {
+      PhaseBuffer hits = phases.getBuffer(c);
+      for (int h = 0; h < hits.size(); h += 2) {
+        Bullet bullet = bullets.get(hits.get(h));
+        if (enemies.get(hits.get(h + 1)).damage(bullet)) {
+          bullet.die();
         }
       }
+    }
+
+    for (int i = 0; i < bullets.size(); i++) {
       if (!bullets.get(i).isFriendly()) {
-        if (player.damage(bullets.get(i))) {
+        if (player.damage(bullets.get(i), game.getTimers())) {
           bullets.get(i).die();
         }
       }
@@ -165,23 +198,33 @@ public class ShooterRules {
 
   private void enemyCollisions(PlayerCharacter player, ArrayList<Enemy> enemies) {
     for (int i = 0; i < enemies.size(); i++) {
-      player.damage(enemies.get(i));
+      player.damage(enemies.get(i), game.getTimers());
     }
   }
 
   /**
    * updateAI() increments through a list of enemies found in the game and applies
-   * a basic AI method.
+   * a basic AI method. The flow field of the game is updated once for every
+   * enemy to follow, as is the grid enemies check their line of sight with.
+   * The AiScheduler of the game then picks which enemies act this tick
+   * depending on how far they are from the player. Enemies kept in an
+   * EntityWorld all act every tick, as a pass over their columns on this
+   * thread, so the tiers and budget of the AiScheduler, the parallel phases and
+   * the RolloutPlanner do not apply to them. The ConfigLoader turns those
+   * options off when the EntityWorld is enabled.
    * 
    * @param time The time difference between the last updated frame
    */
 
   private void updateAi(long time) {
-    ArrayList<Enemy> enemies = game.getEnemies();
-    for (int i = 0; i < enemies.size(); i++) {
-      enemies.get(i).performAction(game.getPlayer(), time);
-      game.spawnEnemyProjectile(enemies.get(i));
+    game.getNavigator().update(game.getPlayer());
+    game.getSight().update(game.getPlayer());
+    EntityWorld world = game.getWorld();
+    if (world != null) {
+      world.getAi().update(world, game.getPlayer(), game.getNavigator(), game.getSight(), time);
+      return;
     }
+    game.getAiScheduler().update(game, this, time);
   }
 
   /**
@@ -199,7 +242,7 @@ public class ShooterRules {
       if (!enemies.get(enemyCounter).checkLiving()) {
         game.getVars().addScore(enemies.get(enemyCounter).getPoints());
         game.getVars().incrDefeatCount();
-        game.getEnemies().remove(enemyCounter);
+        game.removeEnemy(enemyCounter);
         vars.incrDefeated();
         enemyCounter = enemyCounter - 1;
       }
@@ -209,19 +252,29 @@ public class ShooterRules {
     int bulletCounter = 0;
     while (bulletCounter < bullets.size()) {
       if (!bullets.get(bulletCounter).checkLiving()) {
-        game.getBullets().remove(bulletCounter);
+        game.removeBullet(bulletCounter);
         bulletCounter = bulletCounter - 1;
       }
       bulletCounter++;
     }
 
+    EntityWorld world = game.getWorld();
+    if (world != null) {
+      int defeated = world.getLifetime().removeDead(world);
+      game.getVars().addScore(world.getLifetime().getPoints());
+      for (int i = 0; i < defeated; i++) {
+        game.getVars().incrDefeatCount();
+        vars.incrDefeated();
+      }
+    }
+
     if (game.getPlayer().deathTimeUp()) {
       game.getVars().decrementLives();
       int score = (game.getVars().getScore() / 2);
       game.getVars().setScore(score);
       vars.subtractLives();
-      game.getPlayer().respawn();
-      game.getEnemies().clear();
+      game.getPlayer().respawn(game.getTimers());
+      game.clearEnemies();
     }
 
   }
@@ -233,14 +286,14 @@ public class ShooterRules {
    */
 
   private void updateProjectiles(long time) {
-    ArrayList<Bullet> bullets = game.getBullets();
-    for (int i = 0; i < bullets.size(); i++) {
-      try {
-        bullets.get(i).moveBullet(time);
-      } catch (IndexOutOfBoundsException e) {
-        bullets = game.getBullets();
-      }
+    EntityWorld world = game.getWorld();
+    if (world != null) {
+      world.getMovement().accelerate(world.getBullets(), time);
+      return;
     }
+    projectilePhase.bullets = game.getBullets();
+    projectilePhase.time = time;
+    game.getPhases().run(projectilePhase, projectilePhase.bullets.size(), 1);
   }
 
   public boolean isGameWon() {
@@ -255,6 +308,165 @@ public class ShooterRules {
     return mode.modeName();
   }
 
+  /**
+   * A method that writes the state of the rules that changes as a session is
+   * played to a buffer, which is the variables of the session and of the game
+   * mode.
+   * 
+   * @param buffer The buffer to write to.
+   */
+
+  public void writeState(ByteBuffer buffer) {
+    vars.writeState(buffer);
+    buffer.putLong(timeLastUpdated);
+    for (int i = 0; i < defeatCounter.length; i++) {
+      buffer.putInt(defeatCounter[i]);
+    }
+    buffer.put((byte) ((gameWon ? 1 : 0) | (gameOver ? 2 : 0)));
+  }
+
+  /**
+   * A method that reads the state of the rules from a buffer written by
+   * writeState().
+   * 
+   * @param buffer The buffer to read from.
+   */
+
+  public void readState(ByteBuffer buffer) {
+    vars.readState(buffer);
+    timeLastUpdated = buffer.getLong();
+    for (int i = 0; i < defeatCounter.length; i++) {
+      defeatCounter[i] = buffer.getInt();
+    }
+    int flags = buffer.get();
+    gameWon = (flags & 1) != 0;
+    gameOver = (flags & 2) != 0;
+  }
+
+  /**
+   * A method that moves the time the rules were last updated by an amount, for
+   * when a session is restored at a different time of the clock than it was
+   * saved at.
+   * 
+   * @param offset The time to move the clock by (in milliseconds).
+   */
+
+  public void shiftClock(long offset) {
+    timeLastUpdated += offset;
+  }
+
+  // =======================================================================================
+  // Classes below this point are the phases of a tick that may be split across threads.
+  // =======================================================================================
+
+  /**
+   * The Phase that accelerates every bullet.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class ProjectilePhase implements Phase {
+
+    private ArrayList<Bullet> bullets;
+    private long time;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      for (int i = from; i < to; i++) {
+        bullets.get(i).moveBullet(time);
+      }
+    }
+
+  }
+
+  /**
+   * The Phase that finds every enemy each friendly bullet has hit, writing the
+   * index of the bullet and then the enemy for each hit.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class BulletHitPhase implements Phase {
+
+    private ArrayList<Bullet> bullets;
+    private ArrayList<Enemy> enemies;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      for (int i = from; i < to; i++) {
+        Bullet bullet = bullets.get(i);
+        if (!bullet.isFriendly()) {
+          continue;
+        }
+        for (int j = 0; j < enemies.size(); j++) {
+          if (enemies.get(j).collidedWith(bullet)) {
+            buffer.add(i);
+            buffer.add(j);
+          }
+        }
+      }
+    }
+
+  }
+
+  /**
+   * The Phase that stops every enemy walking into the walls it collides with,
+   * and moves any enemy already inside one out of it.
+   * Each enemy draws from its own stream of the seed of the tick, so the result
+   * is the same however the enemies are split across threads.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class EnemyWallPhase implements Phase {
+
+    private ArrayList<Structure> walls;
+    private ArrayList<Enemy> enemies;
+    private long seed;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      GameRandom random = buffer.getRandom();
+      for (int i = from; i < to; i++) {
+        Enemy enemy = enemies.get(i);
+        random.reseed(GameRandom.streamSeed(seed, i));
+        for (int w = 0; w < walls.size(); w++) {
+          if (walls.get(w).getEnemyCol()) {
+            enemy.solidCollision(walls.get(w), random);
+            enemy.pushOutOf(walls.get(w));
+          }
+        }
+      }
+    }
+
+  }
+
+  /**
+   * The Phase that marks every bullet that has hit a wall as dead.
+   * 
+   * @author Brandon Hua
+   */
+
+  private class BulletWallPhase implements Phase {
+
+    private ArrayList<Structure> walls;
+    private ArrayList<Bullet> bullets;
+
+    @Override
+    public void run(int from, int to, PhaseBuffer buffer) {
+      for (int i = from; i < to; i++) {
+        Bullet bullet = bullets.get(i);
+        for (int w = 0; w < walls.size(); w++) {
+          if (bullet.collidedWith(walls.get(w))) {
+            bullet.die();
+            break;
+          }
+        }
+      }
+    }
+
+  }
+
   // =======================================================================================
   // Classes below this point are GameMode objects.
   // =======================================================================================
@@ -321,8 +533,6 @@ public class ShooterRules {
 
   public class TimedMode implements GameMode {
 
-    private long timeLastUpdated = Core.time;
-
     @Override
     public String modeName() {
       return "timed";
@@ -338,9 +548,9 @@ public class ShooterRules {
 
     @Override
     public void updateMode(Object data) {
-      long dtime = Core.time - timeLastUpdated;
+      long dtime = game.getTickClock() - timeLastUpdated;
       vars.addTime((long) (dtime * game.getVars().getGameSpeed()));
-      timeLastUpdated = Core.time;
+      timeLastUpdated = game.getTickClock();
     }
 
     @Override
@@ -377,8 +587,6 @@ public class ShooterRules {
 
   public class NetworkMode implements GameMode {
 
-    private long timeLastUpdated = Core.time;
-
     @Override
     public String modeName() {
       return "network";
@@ -394,9 +602,9 @@ public class ShooterRules {
 
     @Override
     public void updateMode(Object data) {
-      long dtime = Core.time - timeLastUpdated;
+      long dtime = game.getTickClock() - timeLastUpdated;
       vars.addTime((long) (dtime * game.getVars().getGameSpeed()));
-      timeLastUpdated = Core.time;
+      timeLastUpdated = game.getTickClock();
     }
 
     @Override
@@ -434,8 +642,6 @@ public class ShooterRules {
 
   public class StockMode implements GameMode {
 
-    private long timeLastUpdated = Core.time;
-
     @Override
     public String modeName() {
       return "stock";
@@ -461,9 +667,9 @@ public class ShooterRules {
 
     @Override
     public void updateMode(Object data) {
-      long dtime = Core.time - timeLastUpdated;
+      long dtime = game.getTickClock() - timeLastUpdated;
       vars.addTime(dtime);
-      timeLastUpdated = Core.time;
+      timeLastUpdated = game.getTickClock();
     }
 
     @Override
@@ -0,0 +1,322 @@
+package game.renderer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The AssetRegistry shares Textures and the TextureRegions split from them
+ * between every renderer, so that a sheet used by several views is only
+ * uploaded once.
+ * 
+ * <p>
+ * Every acquire must be matched by a release. A Texture is disposed as soon as
+ * the last renderer using it releases it, so the textures of a game are freed
+ * when its screen is disposed. Regions returned by split are shared and must be
+ * copied before they are modified, for example by flipping.
+ * 
+ * <p>
+ * The sprite sheets can also be packed into a texture atlas when the
+ * application starts. Sheets in the atlas share a few page textures, so the
+ * SpriteBatch does not have to flush every time a different renderer draws.
+ * Packed sheets are held for the life of the application, so releasing a
+ * region or split of one does nothing. A packed sheet that is acquired as a
+ * Texture is loaded separately and counted like any other.
+ * 
+ * @author Brandon Hua
+ */
+
+public class AssetRegistry {
+
+  private final static int BYTESPERPIXEL = 4; // RGBA8888
+  private final static int PAGESIZE = 2048;
+  private final static int PADDING = 2;
+
+  private static boolean atlasEnabled = true;
+  private static boolean placeholders = false;
+
+  private static HashMap<String, Asset> assets = new HashMap<String, Asset>();
+
+  private static TextureAtlas atlas;
+  private static HashMap<String, TextureRegion> packed = new HashMap<String, TextureRegion>();
+  private static HashMap<String, TextureRegion[][]> packedSplits =
+      new HashMap<String, TextureRegion[][]>();
+
+  public static void setAtlasEnabled(boolean enable) {
+    atlasEnabled = enable;
+  }
+
+  public static boolean isAtlasEnabled() {
+    return atlasEnabled;
+  }
+
+  /**
+   * A method that makes the registry hand out empty regions instead of loading
+   * any textures, so renderers that only record their regions can be made and
+   * run where there is no graphics context. Releasing does nothing while it is
+   * set.
+   * 
+   * @param enable Whether or not to hand out empty regions.
+   */
+
+  public static synchronized void setPlaceholders(boolean enable) {
+    placeholders = enable;
+  }
+
+  /**
+   * A method that packs sprite sheets into the pages of a texture atlas. Sheets
+   * that cannot be read are left out and loaded as separate textures instead.
+   * 
+   * @param fileNames The names of the texture files to pack.
+   */
+
+  public static synchronized void packAtlas(ArrayList<String> fileNames) {
+    if (!atlasEnabled || atlas != null) {
+      return;
+    }
+    PixmapPacker packer = new PixmapPacker(PAGESIZE, PAGESIZE, Pixmap.Format.RGBA8888, PADDING,
+        false);
+    ArrayList<String> packedNames = new ArrayList<String>();
+    for (String fileName : fileNames) {
+      if (packedNames.contains(fileName)) {
+        continue;
+      }
+      try {
+        Pixmap pixmap = new Pixmap(Gdx.files.internal(fileName));
+        packer.pack(fileName, pixmap);
+        pixmap.dispose();
+        packedNames.add(fileName);
+      } catch (RuntimeException e) {
+        System.out.println("Could not pack " + fileName + ": " + e.getMessage());
+      }
+    }
+    atlas = packer.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest, false);
+    packer.dispose();
+
+    for (String fileName : packedNames) {
+      TextureRegion region = atlas.findRegion(fileName);
+      if (region != null) {
+        packed.put(fileName, region);
+      }
+    }
+    System.out.println("Packed " + packed.size() + " sheets into " + atlas.getTextures().size
+        + " atlas pages");
+  }
+
+  /**
+   * A method that gets the whole of a texture as a region, from the atlas if it
+   * was packed. The texture must be released like any other acquire.
+   * 
+   * @param fileName The name of the texture file.
+   * @return The region covering the texture.
+   */
+
+  public static synchronized TextureRegion region(String fileName) {
+    if (placeholders) {
+      return new TextureRegion();
+    }
+    TextureRegion region = packed.get(fileName);
+    if (region != null) {
+      return region;
+    }
+    return new TextureRegion(acquire(fileName));
+  }
+
+  /**
+   * A method that gets a Texture, loading it if no renderer currently holds it.
+   * 
+   * @param fileName The name of the texture file.
+   * @return The shared Texture.
+   */
+
+  public static synchronized Texture acquire(String fileName) {
+    Asset asset = assets.get(fileName);
+    if (asset == null) {
+      asset = new Asset(new Texture(fileName));
+      assets.put(fileName, asset);
+    }
+    asset.references++;
+    return asset.texture;
+  }
+
+  /**
+   * A method that gets a Texture split into a grid of regions. The split is
+   * cached, so every holder of the same grid gets the same regions.
+   * 
+   * @param fileName The name of the texture file.
+   * @param cols     The number of columns the texture is split into.
+   * @param rows     The number of rows the texture is split into.
+   * @return The shared regions, indexed by row and then column.
+   */
+
+  public static synchronized TextureRegion[][] split(String fileName, int cols, int rows) {
+    if (placeholders) {
+      TextureRegion[][] regions = new TextureRegion[rows][cols];
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) {
+          regions[i][j] = new TextureRegion();
+        }
+      }
+      return regions;
+    }
+    TextureRegion region = packed.get(fileName);
+    if (region != null) {
+      String key = fileName + " " + cols + "x" + rows;
+      TextureRegion[][] regions = packedSplits.get(key);
+      if (regions == null) {
+        regions = region.split(region.getRegionWidth() / cols, region.getRegionHeight() / rows);
+        packedSplits.put(key, regions);
+      }
+      return regions;
+    }
+
+    Texture texture = acquire(fileName);
+    Asset asset = assets.get(fileName);
+    String key = cols + "x" + rows;
+    TextureRegion[][] regions = asset.splits.get(key);
+    if (regions == null) {
+      regions = TextureRegion.split(texture, texture.getWidth() / cols,
+          texture.getHeight() / rows);
+      asset.splits.put(key, regions);
+    }
+    return regions;
+  }
+
+  /**
+   * A method that releases a Texture previously acquired or split, disposing it
+   * if it is no longer used.
+   * 
+   * @param fileName The name of the texture file.
+   */
+
+  public static synchronized void release(String fileName) {
+    if (placeholders) {
+      return;
+    }
+    Asset asset = assets.get(fileName);
+    if (asset == null) {
+      if (!packed.containsKey(fileName)) {
+        System.out.println("Released unloaded texture " + fileName);
+      }
+      return;
+    }
+    asset.references--;
+    if (asset.references <= 0) {
+      asset.texture.dispose();
+      assets.remove(fileName);
+    }
+  }
+
+  /**
+   * A method that disposes every Texture still held. Fonts and structures are
+   * held for the life of the application, so this is used when it exits.
+   */
+
+  public static synchronized void disposeAll() {
+    for (Asset asset : assets.values()) {
+      asset.texture.dispose();
+    }
+    assets.clear();
+    if (atlas != null) {
+      atlas.dispose();
+      atlas = null;
+      packed.clear();
+      packedSplits.clear();
+    }
+  }
+
+  /**
+   * A method to get the video memory used by a Texture, assuming it is stored
+   * uncompressed.
+   * 
+   * @param fileName The name of the texture file.
+   * @return The size of the Texture in bytes, 0 if it is not loaded.
+   */
+
+  public static synchronized long getVram(String fileName) {
+    Asset asset = assets.get(fileName);
+    if (asset == null) {
+      return 0;
+    }
+    return asset.getVram();
+  }
+
+  /**
+   * A method to get the video memory used by every loaded Texture.
+   * 
+   * @return The total size of the loaded Textures in bytes.
+   */
+
+  public static synchronized long getTotalVram() {
+    long total = getAtlasVram();
+    for (Asset asset : assets.values()) {
+      total += asset.getVram();
+    }
+    return total;
+  }
+
+  /**
+   * A method to get the video memory used by the pages of the atlas.
+   * 
+   * @return The total size of the atlas pages in bytes.
+   */
+
+  public static synchronized long getAtlasVram() {
+    long total = 0;
+    if (atlas != null) {
+      for (Texture page : atlas.getTextures()) {
+        total += (long) page.getWidth() * page.getHeight() * BYTESPERPIXEL;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * A method that prints the size and reference count of every loaded Texture.
+   */
+
+  public static synchronized void report() {
+    if (atlas != null) {
+      System.out.println("Atlas: " + packed.size() + " sheets, " + atlas.getTextures().size
+          + " pages, " + getAtlasVram() / 1024 + "KB");
+    }
+    for (String fileName : assets.keySet()) {
+      Asset asset = assets.get(fileName);
+      System.out.println(fileName + ": " + asset.texture.getWidth() + "x"
+          + asset.texture.getHeight() + ", " + asset.getVram() / 1024 + "KB, "
+          + asset.references + " references");
+    }
+    System.out.println("Total texture memory: " + getTotalVram() / 1024 + "KB");
+  }
+
+  /**
+   * The Asset class holds a loaded Texture along with its splits and the number
+   * of renderers using it.
+   * 
+   * @author Brandon Hua
+   */
+
+  private static class Asset {
+
+    private Texture texture;
+    private HashMap<String, TextureRegion[][]> splits = new HashMap<String, TextureRegion[][]>();
+    private int references = 0;
+
+    private Asset(Texture texture) {
+      this.texture = texture;
+    }
+
+    private long getVram() {
+      return (long) texture.getWidth() * texture.getHeight() * BYTESPERPIXEL;
+    }
+
+  }
+
+}
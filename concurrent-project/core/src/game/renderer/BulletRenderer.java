@@ -1,12 +1,13 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import game.CameraVariables;
 import game.Core;
 import game.entities.Bullet;
+import game.entities.ecs.Archetype;
+import game.entities.ecs.EntityWorld;
 
 import java.util.ArrayList;
 
@@ -17,7 +18,7 @@ import java.util.ArrayList;
  *
  */
 
-public class BulletRenderer implements Renderer {
+public class BulletRenderer implements CommandRenderer {
 
   private final int SHEETCOLS = 8;
   private final int SHEETROWS = 8;
@@ -25,8 +26,10 @@ public class BulletRenderer implements Renderer {
   private final int ANIMRATE = 100;
 
   private ArrayList<Bullet> bullets;
+  private EntityWorld world;
+  private ViewFrustum frustum;
 
-  private Texture bulletSheet;
+  private final String SHEETFILE = "bullets.png";
 
   private TextureRegion curFrame;
 
@@ -38,15 +41,17 @@ public class BulletRenderer implements Renderer {
    * sheet to represent the bullets.
    * 
    * @param bullets An array list of all the bullets in a game.
+   * @param world   The world holding the bullets of the game as components, or
+   *                null if it has none.
+   * @param frustum The visible area of the view being rendered.
    */
 
-  public BulletRenderer(ArrayList<Bullet> bullets) {
+  public BulletRenderer(ArrayList<Bullet> bullets, EntityWorld world, ViewFrustum frustum) {
     this.bullets = bullets;
+    this.world = world;
+    this.frustum = frustum;
 
-    bulletSheet = new Texture("bullets.png");
-
-    TextureRegion[][] tmp = TextureRegion.split(bulletSheet, bulletSheet.getWidth() / SHEETCOLS,
-        bulletSheet.getHeight() / SHEETROWS);
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
 
     friendlyBulletFrames = new TextureRegion[FRAMECOUNT];
     enemyBulletFrames = new TextureRegion[FRAMECOUNT];
@@ -71,19 +76,32 @@ public class BulletRenderer implements Renderer {
     }
   }
 
+  @Override
+  public void render(SpriteBatch sb, int focusx, int focusy) {
+    RenderCommandBuffer.drawNow(sb, this, focusx, focusy);
+  }
+
   /**
-   * The render method for a bullet that changes the image based on whether a
+   * The record method for a bullet that changes the image based on whether a
    * bullet is friendly or not.
    */
 
-  public void render(SpriteBatch sb, int playerx, int playery) {
+  @Override
+  public void record(RenderCommandBuffer commands, int playerx, int playery) {
     double xratioInverse = 1 / CameraVariables.xratio;
     double yratioInverse = 1 / CameraVariables.yratio;
     int zoom = CameraVariables.zoom;
+    float alpha = frustum.getAlpha();
     changeCurFrame();
 
+    int drawn = 0;
+    int total = bullets.size();
     for (int i = 0; i < bullets.size(); i++) {
       Bullet curBullet = bullets.get(i);
+      if (!frustum.contains(curBullet, 0)) {
+        continue;
+      }
+      drawn++;
       if (curBullet.isFriendly()) {
         curFrame = friendlyBulletFrames[counter];
       } else {
@@ -91,22 +109,56 @@ public class BulletRenderer implements Renderer {
       }
 
       int drawx = (int) (Core.width / 2 - (playerx * zoom * xratioInverse)
-          + (curBullet.getXpos() * zoom * xratioInverse) 
+          + (curBullet.getDrawX(alpha) * zoom * xratioInverse) 
           - ((curBullet.getWidth()) / 2) * zoom * xratioInverse);
       int drawy = (int) (Core.height / 2 - (playery * zoom * yratioInverse)
-          + (curBullet.getYpos() * zoom * yratioInverse) 
+          + (curBullet.getDrawY(alpha) * zoom * yratioInverse) 
           - ((curBullet.getHeight()) / 2) * zoom * yratioInverse);
       int width = (int) (curBullet.getWidth() * zoom * xratioInverse);
       int height = (int) (curBullet.getHeight() * zoom * yratioInverse);
 
-      sb.draw(curFrame, drawx, drawy, width, height);
+      commands.add(curFrame, drawx, drawy, width, height, i);
+    }
+
+    if (world != null) {
+      Archetype worldBullets = world.getBullets();
+      int count = worldBullets.getCount();
+      int[] xs = worldBullets.getX();
+      int[] ys = worldBullets.getY();
+      int[] widths = worldBullets.getWidth();
+      int[] heights = worldBullets.getHeight();
+      boolean[] friendly = worldBullets.getFriendly();
+      count = Math.min(count, Math.min(xs.length, friendly.length));
+      total += count;
+      for (int row = 0; row < count; row++) {
+        if (!frustum.contains(xs[row], ys[row], widths[row], heights[row], 0)) {
+          continue;
+        }
+        drawn++;
+        if (friendly[row]) {
+          curFrame = friendlyBulletFrames[counter];
+        } else {
+          curFrame = enemyBulletFrames[counter];
+        }
+
+        int drawx = (int) (Core.width / 2 - (playerx * zoom * xratioInverse)
+            + (worldBullets.getDrawX(row, alpha) * zoom * xratioInverse) 
+            - ((widths[row]) / 2) * zoom * xratioInverse);
+        int drawy = (int) (Core.height / 2 - (playery * zoom * yratioInverse)
+            + (worldBullets.getDrawY(row, alpha) * zoom * yratioInverse) 
+            - ((heights[row]) / 2) * zoom * yratioInverse);
+        int width = (int) (widths[row] * zoom * xratioInverse);
+        int height = (int) (heights[row] * zoom * yratioInverse);
+
+        commands.add(curFrame, drawx, drawy, width, height, bullets.size() + row);
+      }
     }
+    frustum.count(drawn, total);
   }
 
   @Override
   public void dispose() {
-    // TODO Auto-generated method stub
-    
+    AssetRegistry.release(SHEETFILE);
   }
 
 }
@@ -0,0 +1,23 @@
+package game.renderer;
+
+/**
+ * An interface for Renderers that record their sprites into a
+ * RenderCommandBuffer rather than drawing them straight away, allowing the
+ * sprites of several renderers to be sorted by texture before they are drawn.
+ * 
+ * @author Brandon Hua
+ */
+
+public interface CommandRenderer extends Renderer {
+
+  /**
+   * A method that adds the draw commands of the renderer to a buffer.
+   * 
+   * @param commands The buffer of the view being rendered.
+   * @param focusx   The x position the view is centered on.
+   * @param focusy   The y position the view is centered on.
+   */
+
+  public void record(RenderCommandBuffer commands, int focusx, int focusy);
+
+}
@@ -0,0 +1,71 @@
+package game.renderer;
+
+import game.entities.Entity;
+
+import java.util.ArrayList;
+
+/**
+ * The DepthOrder holds the drawing order of a list of entities for a single
+ * view, from the entity furthest from the focus point to the closest.
+ * 
+ * <p>
+ * The order is kept between frames and corrected with an insertion sort, as the
+ * focus point only moves a small amount each frame the order is usually
+ * already sorted and the sort runs in close to linear time. The entities
+ * themselves are never modified, so level data shared between views and the
+ * game threads is left alone.
+ * 
+ * @author Brandon Hua
+ */
+
+public class DepthOrder {
+
+  private int[] order = new int[0];
+  private long[] distances = new long[0];
+
+  /**
+   * A method that updates the draw order for a new focus point.
+   * 
+   * @param entities The entities to be ordered.
+   * @param centerx  The x position of the focus point.
+   * @param centery  The y position of the focus point.
+   * @return The indices of the entities in the order they should be drawn, the
+   *         array is at least the size of the list of entities.
+   */
+
+  public int[] sort(ArrayList<? extends Entity> entities, int centerx, int centery) {
+    int size = entities.size();
+    if (order.length != size) {
+      order = new int[size];
+      distances = new long[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      Entity e = entities.get(i);
+      long distx = e.getXpos() - centerx;
+      long disty = e.getYpos() - centery;
+      distances[i] = distx * distx + disty * disty;
+    }
+
+    for (int i = 1; i < size; i++) {
+      int index = order[i];
+      long dist = distances[index];
+      int j = i - 1;
+      while (j >= 0 && distances[order[j]] < dist) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = index;
+    }
+
+    return order;
+  }
+
+  public int size() {
+    return order.length;
+  }
+
+}
@@ -1,12 +1,15 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import game.CameraVariables;
 import game.Core;
 import game.entities.Enemy;
+import game.entities.EnemyTypeAction;
+import game.entities.EnemyTypeAction.EnemyType;
+import game.entities.ecs.Archetype;
+import game.entities.ecs.EntityWorld;
 
 import java.util.ArrayList;
 
@@ -17,7 +20,7 @@ import java.util.ArrayList;
  *
  */
 
-public class EnemyRenderer implements Renderer {
+public class EnemyRenderer implements CommandRenderer {
 
   private static final int SHEETCOLS = 16;
   private static final int SHEETROWS = 16;
@@ -26,28 +29,33 @@ public class EnemyRenderer implements Renderer {
   private static final int ANIMRATE = 200;
 
   private ArrayList<Enemy> enemies;
+  private EntityWorld world;
+  private ViewFrustum frustum;
 
-  private Texture enemySheet;
+  private static final String SHEETFILE = "enemy_sheet.png";
 
   private TextureRegion curFrame;
 
   private TextureRegion[] shooterAnimation;
   private TextureRegion[] chaserAnimation;
+  private TextureRegion[][] typeFrames;
 
   /**
    * A constructor for the renderer class that initialises the sprites for an
    * enemy.
    * 
    * @param enemies An array list of enemies found in the game.
+   * @param world   The world holding the enemies of the game as components, or
+   *                null if it has none.
+   * @param frustum The visible area of the view being rendered.
    */
 
-  public EnemyRenderer(ArrayList<Enemy> enemies) {
+  public EnemyRenderer(ArrayList<Enemy> enemies, EntityWorld world, ViewFrustum frustum) {
     this.enemies = enemies;
+    this.world = world;
+    this.frustum = frustum;
 
-    enemySheet = new Texture("enemy_sheet.png");
-
-    TextureRegion[][] tmp = TextureRegion.split(enemySheet, enemySheet.getWidth() / SHEETCOLS,
-        enemySheet.getHeight() / SHEETROWS);
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
 
     shooterAnimation = new TextureRegion[FRAMES];
     chaserAnimation = new TextureRegion[FRAMES];
@@ -55,6 +63,19 @@ public class EnemyRenderer implements Renderer {
       shooterAnimation[i] = tmp[0][i];
       chaserAnimation[i] = tmp[1][i];
     }
+
+    // The frames of each enemy type are found once, indexed the same as the
+    // type list, so drawing an enemy does not compare any names.
+    EnemyType[] types = EnemyTypeAction.getTypeList();
+    typeFrames = new TextureRegion[types.length][];
+    for (int i = 0; i < types.length; i++) {
+      typeFrames[i] = shooterAnimation;
+      for (EnemyTypeSheet t : typeSheets) {
+        if (t.getType().equals(types[i].getType())) {
+          typeFrames[i] = t.getFrames();
+        }
+      }
+    }
   }
 
   private int runtime = 0;
@@ -72,44 +93,84 @@ public class EnemyRenderer implements Renderer {
     }
   }
 
+  @Override
+  public void render(SpriteBatch sb, int focusx, int focusy) {
+    RenderCommandBuffer.drawNow(sb, this, focusx, focusy);
+  }
+
   /**
-   * The render method for an enemy.
+   * The record method for an enemy.
    */
 
-  public void render(SpriteBatch sb, int focusx, int focusy) {
+  @Override
+  public void record(RenderCommandBuffer commands, int focusx, int focusy) {
     double xratioInverse = 1 / CameraVariables.xratio;
     double yratioInverse = 1 / CameraVariables.yratio;
     int zoom = CameraVariables.zoom;
+    float alpha = frustum.getAlpha();
 
     changeCurFrame();
 
+    int drawn = 0;
+    int total = enemies.size();
     for (int i = 0; i < enemies.size(); i++) {
 
       Enemy curEnemy = enemies.get(i);
-
-      for (EnemyTypeSheet t : typeSheets) {
-        if (t.getType().equals(curEnemy.getType())) {
-          curFrame = t.getFrames()[counter];
-        }
+      if (!frustum.contains(curEnemy, 0)) {
+        continue;
       }
+      drawn++;
+
+      curFrame = typeFrames[curEnemy.getTypeIndex()][counter];
 
       int drawx = (int) (Core.width / 2 - (focusx * zoom * xratioInverse) 
-          + (curEnemy.getXpos() * zoom * xratioInverse)
+          + (curEnemy.getDrawX(alpha) * zoom * xratioInverse)
           - ((curEnemy.getWidth()) / 2) * zoom * xratioInverse);
       int drawy = (int) (Core.height / 2 - (focusy * zoom * yratioInverse) 
-          + (curEnemy.getYpos() * zoom * yratioInverse)
+          + (curEnemy.getDrawY(alpha) * zoom * yratioInverse)
           - ((curEnemy.getHeight()) / 2) * zoom * yratioInverse);
       int width = (int) (curEnemy.getWidth() * zoom * xratioInverse);
       int height = (int) (curEnemy.getHeight() * zoom * yratioInverse);
 
-      sb.draw(curFrame, drawx, drawy, width, height);
+      commands.add(curFrame, drawx, drawy, width, height, i);
     }
+
+    if (world != null) {
+      Archetype worldEnemies = world.getEnemies();
+      int count = worldEnemies.getCount();
+      int[] xs = worldEnemies.getX();
+      int[] ys = worldEnemies.getY();
+      int[] widths = worldEnemies.getWidth();
+      int[] heights = worldEnemies.getHeight();
+      int[] types = worldEnemies.getType();
+      count = Math.min(count, Math.min(xs.length, types.length));
+      total += count;
+      for (int row = 0; row < count; row++) {
+        if (!frustum.contains(xs[row], ys[row], widths[row], heights[row], 0)) {
+          continue;
+        }
+        drawn++;
+        curFrame = typeFrames[types[row]][counter];
+
+        int drawx = (int) (Core.width / 2 - (focusx * zoom * xratioInverse) 
+            + (worldEnemies.getDrawX(row, alpha) * zoom * xratioInverse)
+            - ((widths[row]) / 2) * zoom * xratioInverse);
+        int drawy = (int) (Core.height / 2 - (focusy * zoom * yratioInverse) 
+            + (worldEnemies.getDrawY(row, alpha) * zoom * yratioInverse)
+            - ((heights[row]) / 2) * zoom * yratioInverse);
+        int width = (int) (widths[row] * zoom * xratioInverse);
+        int height = (int) (heights[row] * zoom * yratioInverse);
+
+        commands.add(curFrame, drawx, drawy, width, height, enemies.size() + row);
+      }
+    }
+    frustum.count(drawn, total);
   }
 
+
   @Override
   public void dispose() {
-    // TODO Auto-generated method stub
-
+    AssetRegistry.release(SHEETFILE);
   }
 
   private EnemyTypeSheet[] typeSheets = new EnemyTypeSheet[] { 
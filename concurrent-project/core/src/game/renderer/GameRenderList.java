@@ -13,37 +13,103 @@ import java.util.ArrayList;
 public class GameRenderList {
 
   private ArrayList<Renderer> renderArray;
+  private ViewFrustum frustum;
+  private RenderCommandBuffer commands;
+  private int focusx;
+  private int focusy;
 
   /**
    * The GameRenderList creates Renderers for each entity.
    * 
-   * @param game The game to make renderers of
+   * @param game        The game to make renderers of
+   * @param staticLayer The cached scenery of the level, shared between views.
    */
   
-  public GameRenderList(ShooterGame game) {
+  public GameRenderList(ShooterGame game, StaticLayerCache staticLayer) {
     renderArray = new ArrayList<Renderer>();
-    LevelRenderer levelRend = new LevelRenderer(game.getLevel());
-    renderArray.add(levelRend);
-    VegetationRenderer vegRend = new VegetationRenderer(game.getLevel().getVtiles());
-    renderArray.add(vegRend);
+    frustum = new ViewFrustum();
+    commands = new RenderCommandBuffer();
+    StaticLayerRenderer staticRend = new StaticLayerRenderer(staticLayer, frustum);
+    renderArray.add(staticRend);
     if (game.isNetworked()) {
-      PlayerRenderer netPlayerRend = new PlayerRenderer(game.getNetPlayer());
+      PlayerRenderer netPlayerRend = new PlayerRenderer(game.getNetPlayer(), frustum);
       renderArray.add(netPlayerRend);
     }
-    PlayerRenderer playerRend = new PlayerRenderer(game.getPlayer());
+    PlayerRenderer playerRend = new PlayerRenderer(game.getPlayer(), frustum);
     renderArray.add(playerRend);
-    EnemyRenderer enemRend = new EnemyRenderer(game.getEnemies());
+    EnemyRenderer enemRend = new EnemyRenderer(game.getEnemies(), game.getWorld(),
+        frustum);
     renderArray.add(enemRend);
-    BulletRenderer bullRend = new BulletRenderer(game.getBullets());
+    BulletRenderer bullRend = new BulletRenderer(game.getBullets(), game.getWorld(),
+        frustum);
     renderArray.add(bullRend);
-    StructureRenderer strucRend = new StructureRenderer(game.getLevel().getStructures());
+    StructureRenderer strucRend = new StructureRenderer(game.getLevel(), frustum);
     renderArray.add(strucRend);
     HealthRenderer healthRend = new HealthRenderer(game.getPlayer());
     renderArray.add(healthRend);
   }
 
+  /**
+   * The GameRenderList creates Renderers for the enemies, bullets and
+   * structures of a game only. The scenery, the players and their health copy
+   * or draw into their textures, so they need a graphics context, while these
+   * renderers can be made and prepared with placeholder regions from the
+   * AssetRegistry, for example to check preparing a view without a window.
+   * 
+   * @param game The game to make renderers of.
+   */
+
+  public GameRenderList(ShooterGame game) {
+    renderArray = new ArrayList<Renderer>();
+    frustum = new ViewFrustum();
+    commands = new RenderCommandBuffer();
+    renderArray.add(new EnemyRenderer(game.getEnemies(), game.getWorld(), frustum));
+    renderArray.add(new BulletRenderer(game.getBullets(), game.getWorld(), frustum));
+    renderArray.add(new StructureRenderer(game.getLevel(), frustum));
+  }
+
+  /**
+   * A method that disposes every renderer in the list, releasing the textures
+   * they hold.
+   */
+
+  public void dispose() {
+    for (Renderer r : renderArray) {
+      r.dispose();
+    }
+  }
+
   public ArrayList<Renderer> getRenderArray() {
     return renderArray;
   }
 
+  public ViewFrustum getFrustum() {
+    return frustum;
+  }
+
+  public RenderCommandBuffer getCommands() {
+    return commands;
+  }
+
+  /**
+   * A method to store the point the view was prepared around, so it can be
+   * submitted around the same point.
+   * 
+   * @param x The x position the view is centered on.
+   * @param y The y position the view is centered on.
+   */
+
+  public void setFocus(int x, int y) {
+    focusx = x;
+    focusy = y;
+  }
+
+  public int getFocusX() {
+    return focusx;
+  }
+
+  public int getFocusY() {
+    return focusy;
+  }
+
 }
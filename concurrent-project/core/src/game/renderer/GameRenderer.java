@@ -16,25 +16,89 @@ import java.util.ArrayList;
 
 public class GameRenderer {
 
+  private static HudValue[] scores = new HudValue[] { new HudValue(), new HudValue(),
+      new HudValue(), new HudValue() };
+
   /**
-   * The render method draws the game to screen.
+   * The render method draws the game to screen, preparing the view and then
+   * submitting it straight away.
    * 
-   * @param sb       The SpriteBatch used to draw the game.
-   * @param gameMode The game mode to draw different UI.
-   * @param view     The view of the game to change UI locations.
-   * @param renderArray  The renderArray to represent the game.
-   * @param game The game to be rendered.
+   * @param sb         The SpriteBatch used to draw the game.
+   * @param game       The game to be rendered.
+   * @param renderList The GameRenderList to represent the game.
+   * @param gameMode   The game mode to draw different UI.
+   * @param view       The view of the game to change UI locations.
    */
 
-  public static void render(SpriteBatch sb, ShooterGame game, ArrayList<Renderer> renderArray, 
+  public static void render(SpriteBatch sb, ShooterGame game, GameRenderList renderList,
       String gameMode, int view) {
-    game.getCam().basicFollow(game.getPlayer(), Core.deltaTime);
+    prepare(game, renderList);
+    submit(sb, game, renderList, gameMode, view);
+  }
+
+  /**
+   * The prepare method does all the work of drawing a view that does not need
+   * the graphics context: moving the camera, culling, working out the screen
+   * position of every sprite and sorting. Entities are drawn between their
+   * positions at the start and end of the last simulation tick. Views can be prepared at the same
+   * time on different threads.
+   * 
+   * @param game       The game to be rendered.
+   * @param renderList The GameRenderList to represent the game.
+   */
+
+  public static void prepare(ShooterGame game, GameRenderList renderList) {
+    float alpha = game.getTickAlpha(System.nanoTime());
+    game.getCam().interpolatedFollow(game.getPlayer(), alpha);
     int camx = game.getCam().getXpos();
     int camy = game.getCam().getYpos();
+    renderList.setFocus(camx, camy);
+
+    ArrayList<Renderer> renderArray = renderList.getRenderArray();
+    RenderCommandBuffer commands = renderList.getCommands();
+    renderList.getFrustum().update(camx, camy);
+    renderList.getFrustum().setAlpha(alpha);
+    commands.clear();
+    for (int i = 0; i < renderArray.size(); i++) {
+      Renderer renderer = renderArray.get(i);
+      if (renderer instanceof CommandRenderer) {
+        commands.setLayer(i);
+        ((CommandRenderer) renderer).record(commands, camx, camy);
+      } else if (renderer instanceof PreparedRenderer) {
+        ((PreparedRenderer) renderer).prepare(camx, camy);
+      }
+    }
+    commands.sort();
+  }
+
+  /**
+   * The submit method draws a prepared view to screen and must be called on the
+   * render thread.
+   * 
+   * @param sb         The SpriteBatch used to draw the game.
+   * @param game       The game to be rendered.
+   * @param renderList The GameRenderList to represent the game.
+   * @param gameMode   The game mode to draw different UI.
+   * @param view       The view of the game to change UI locations.
+   */
+
+  public static void submit(SpriteBatch sb, ShooterGame game, GameRenderList renderList,
+      String gameMode, int view) {
+    int camx = renderList.getFocusX();
+    int camy = renderList.getFocusY();
+    ArrayList<Renderer> renderArray = renderList.getRenderArray();
+    RenderCommandBuffer commands = renderList.getCommands();
     sb.begin();
     for (int i = 0; i < renderArray.size(); i++) {
-      renderArray.get(i).render(sb, camx, camy);
+      Renderer renderer = renderArray.get(i);
+      if (!(renderer instanceof CommandRenderer)) {
+        // Renderers that draw by themselves must not be drawn over by commands
+        // recorded before them.
+        commands.submitBelow(sb, i);
+        renderer.render(sb, camx, camy);
+      }
     }
+    commands.submit(sb);
     sb.end();
 
     if (!game.isPaused()) {
@@ -45,6 +109,26 @@ public class GameRenderer {
       }
     }
 
+    if (CameraVariables.cullStats) {
+      renderCullStats(sb, renderList.getFrustum());
+    }
+
+  }
+
+  /**
+   * A method that renders the number of entities drawn against the total number
+   * of entities in the view, along with the draw calls of the last frame.
+   * 
+   * @param sb      The SpriteBatch used to draw the text.
+   * @param frustum The frustum of the view.
+   */
+
+  public static void renderCullStats(SpriteBatch sb, ViewFrustum frustum) {
+    String stats = "DRAWN " + frustum.getDrawn() + " OF " + frustum.getTotal() + " CALLS "
+        + Core.renderCalls;
+    int height = (int) ((Core.height / 32) / CameraVariables.yratio);
+    int width = (int) ((height * stats.length()) / CameraVariables.xratio);
+    TextRenderer.print(sb, stats, "white_back", Core.width / 2, Core.height / 32, width, height);
   }
 
   /**
@@ -71,7 +155,7 @@ public class GameRenderer {
 
       TextRenderer.print(sb, message, "white_back", messagex, messagey, messagew, messageh);
 
-      String score = Integer.toString(game.getVars().getScore());
+      HudValue score = scores[view].set(game.getVars().getScore());
 
       int scoreHeight = (int) ((Core.height / 24) * (1 / CameraVariables.yratio));
       int scoreWidth = (int) ((Core.height / 24) * score.length() * (1 / CameraVariables.xratio));
@@ -1,6 +1,5 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
@@ -15,13 +14,13 @@ import game.entities.PlayerCharacter;
  *
  */
 
-public class HealthRenderer implements Renderer {
+public class HealthRenderer implements CommandRenderer {
 
-  private Texture healthSheet;
   private TextureRegion[][] healthRegions;
   private TextureRegion curFrame;
   private PlayerCharacter player;
 
+  private final String SHEETFILE = "health.png";
   private final int SHEETCOLS = 3;
   private final int SHEETROWS = 6;
 
@@ -36,10 +35,7 @@ public class HealthRenderer implements Renderer {
 
   public HealthRenderer(PlayerCharacter player) {
     this.player = player;
-    healthSheet = new Texture("health.png");
-
-    TextureRegion[][] tmp = TextureRegion.split(healthSheet, healthSheet.getWidth() / SHEETCOLS,
-        healthSheet.getHeight() / SHEETROWS);
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
 
     healthRegions = new TextureRegion[6][4];
 
@@ -76,6 +72,11 @@ public class HealthRenderer implements Renderer {
 
   @Override
   public void render(SpriteBatch sb, int focusx, int focusy) {
+    RenderCommandBuffer.drawNow(sb, this, focusx, focusy);
+  }
+
+  @Override
+  public void record(RenderCommandBuffer commands, int focusx, int focusy) {
 
     int view = player.getPlayerNum() - 1;
 
@@ -90,12 +91,12 @@ public class HealthRenderer implements Renderer {
     int ypos = Core.height / 10 - height / 2;
 
     changeCurFrame();
-    sb.draw(curFrame, xpos, ypos, width, height);
+    commands.add(curFrame, xpos, ypos, width, height, 0);
   }
 
   @Override
   public void dispose() {
-    healthSheet.dispose();
+    AssetRegistry.release(SHEETFILE);
   }
 
 }
@@ -0,0 +1,72 @@
+package game.renderer;
+
+/**
+ * The HudValue holds the font codes of a number shown on screen. The digits are
+ * written into an array the HudValue keeps, so a number that changes every
+ * frame is printed without creating a String.
+ * 
+ * @author Brandon Hua
+ */
+
+public class HudValue {
+
+  private final static int MAXLENGTH = 11; // "-2147483648"
+
+  private int value;
+  private boolean set;
+  private int[] codes = new int[MAXLENGTH];
+  private int length;
+
+  /**
+   * A method to set the value shown, only writing the codes again when the value
+   * changes.
+   * 
+   * @param newValue The current value.
+   * @return The HudValue, so it can be passed straight to the TextRenderer.
+   */
+
+  public HudValue set(int newValue) {
+    if (!set || newValue != value) {
+      value = newValue;
+      set = true;
+      writeCodes(newValue);
+    }
+    return this;
+  }
+
+  /**
+   * A method that writes the digits of a value from the end of the array
+   * backwards, then moves them to the front.
+   * 
+   * @param number The value to write.
+   */
+
+  private void writeCodes(int number) {
+    long remaining = Math.abs((long) number);
+    int start = MAXLENGTH;
+    do {
+      codes[--start] = TextRenderer.glyph((int) ('0' + remaining % 10));
+      remaining /= 10;
+    } while (remaining > 0);
+    if (number < 0) {
+      codes[--start] = TextRenderer.glyph('-');
+    }
+    length = MAXLENGTH - start;
+    System.arraycopy(codes, start, codes, 0, length);
+  }
+
+  /**
+   * A method to get the font codes of the value, which must not be modified.
+   * 
+   * @return The codes, of which only the first length() are used.
+   */
+
+  public int[] getCodes() {
+    return codes;
+  }
+
+  public int length() {
+    return length;
+  }
+
+}
@@ -1,16 +1,14 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+import error.GlobalErrors;
 import game.CameraVariables;
 import game.Core;
+import game.entities.Facing;
 import game.entities.PlayerCharacter;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 /**
  * A renderer for the player character.
  * 
@@ -18,7 +16,7 @@ import java.util.Arrays;
  *
  */
 
-public class PlayerRenderer implements Renderer {
+public class PlayerRenderer implements CommandRenderer {
 
   private final int SHEETCOLS = 16;
   private final int SHEETROWS = 16;
@@ -27,8 +25,9 @@ public class PlayerRenderer implements Renderer {
   private final int FLASHRATE = 50;
 
   private PlayerCharacter character;
+  private ViewFrustum frustum;
 
-  private Texture charSheet;
+  private final String SHEETFILE = "character_sheet.png";
 
   private TextureRegion curFrame;
   private TextureRegion invincible;
@@ -46,15 +45,15 @@ public class PlayerRenderer implements Renderer {
    * A constructor for the player renderer.
    * 
    * @param character The character to be rendered
+   * @param frustum   The visible area of the view.
    */
 
-  public PlayerRenderer(PlayerCharacter character) {
+  public PlayerRenderer(PlayerCharacter character, ViewFrustum frustum) {
     this.character = character;
-    charSheet = new Texture("character_sheet.png");
+    this.frustum = frustum;
     int playerNum = (character.getPlayerNum() - 1) * 4;
 
-    TextureRegion[][] tmp = TextureRegion.split(charSheet, charSheet.getWidth() / SHEETCOLS,
-        charSheet.getHeight() / SHEETROWS);
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
 
     invincible = tmp[SHEETCOLS - 1][SHEETROWS - 1];
     charUpFrames = new TextureRegion[4];
@@ -62,11 +61,13 @@ public class PlayerRenderer implements Renderer {
     charRightFrames = new TextureRegion[4];
     charUpRightFrames = new TextureRegion[4];
     charDeathFrames = new TextureRegion[4];
+    // The right facing frames are flipped in place, so they are copied rather
+    // than modifying the regions shared through the AssetRegistry.
     for (int i = 0; i < 4; i++) {
       charDownFrames[i] = tmp[0][i + playerNum];
       charUpFrames[i] = tmp[1][i + playerNum];
-      charRightFrames[i] = tmp[2][i + playerNum];
-      charUpRightFrames[i] = tmp[3][i + playerNum];
+      charRightFrames[i] = new TextureRegion(tmp[2][i + playerNum]);
+      charUpRightFrames[i] = new TextureRegion(tmp[3][i + playerNum]);
       charDeathFrames[i] = tmp[4][i + playerNum];
     }
   }
@@ -93,12 +94,14 @@ public class PlayerRenderer implements Renderer {
       counter = 0;
     }
 
-    TextureRegion cframe = new TextureRegion();
+    TextureRegion cframe = curFrame;
 
-    for (FrameCondition f : frameConditions) {
-      if (f.condition()) {
-        cframe = f.changeFrame();
-      }
+    FrameCondition facingFrames = facingConditions[character.getFacing()];
+    if (facingFrames.condition()) {
+      cframe = facingFrames.changeFrame();
+    }
+    if (deathFrames.condition()) {
+      cframe = deathFrames.changeFrame();
     }
 
     if (character.isInvincible()) {
@@ -142,7 +145,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("up");
+      return character.getFacing() == Facing.UP;
     }
 
     @Override
@@ -162,7 +165,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("down");
+      return character.getFacing() == Facing.DOWN;
     }
 
     @Override
@@ -182,7 +185,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("left");
+      return character.getFacing() == Facing.LEFT;
     }
 
     @Override
@@ -206,7 +209,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("right");
+      return character.getFacing() == Facing.RIGHT;
     }
 
     @Override
@@ -230,7 +233,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("up_left");
+      return character.getFacing() == Facing.UP_LEFT;
     }
 
     @Override
@@ -254,7 +257,7 @@ public class PlayerRenderer implements Renderer {
 
     @Override
     public boolean condition() {
-      return character.getFacing().equals("up_right");
+      return character.getFacing() == Facing.UP_RIGHT;
     }
 
     @Override
@@ -299,9 +302,12 @@ public class PlayerRenderer implements Renderer {
     }
   }
 
-  private ArrayList<FrameCondition> frameConditions = new ArrayList<FrameCondition>(
-      Arrays.asList(new UpFrames(), new DownFrames(), new LeftFrames(), 
-          new RightFrames(), new UpLeftFrames(), new UpRightFrames(), new DeathFrames()));
+  // The FrameCondition of each direction, indexed by the Facing of the character
+  // so the frames are found without checking every condition.
+  private FrameCondition[] facingConditions = new FrameCondition[] { new DownFrames(),
+      new RightFrames(), new LeftFrames(), new UpFrames(), new UpRightFrames(),
+      new UpLeftFrames() };
+  private FrameCondition deathFrames = new DeathFrames();
 
   /**
    * A method to flip a texture.
@@ -317,30 +323,37 @@ public class PlayerRenderer implements Renderer {
 
   @Override
   public void render(SpriteBatch sb, int focusx, int focusy) {
+    RenderCommandBuffer.drawNow(sb, this, focusx, focusy);
+  }
+
+  @Override
+  public void record(RenderCommandBuffer commands, int focusx, int focusy) {
     double xratioInverse = 1 / CameraVariables.xratio;
     double yratioInverse = 1 / CameraVariables.yratio;
     int zoom = CameraVariables.zoom;
+    float alpha = frustum.getAlpha();
 
     int drawx = (int) (Core.width / 2 - (focusx * zoom * xratioInverse) 
-        + (character.getXpos() * zoom * xratioInverse)
+        + (character.getDrawX(alpha) * zoom * xratioInverse)
         - ((character.getWidth()) / 1) * zoom * xratioInverse);
     int drawy = (int) (Core.height / 2 - (focusy * zoom * yratioInverse) 
-        + (character.getYpos() * zoom * yratioInverse)
+        + (character.getDrawY(alpha) * zoom * yratioInverse)
         - ((character.getHeight()) / 2) * zoom * yratioInverse);
     int width = (int) (character.getWidth() * zoom * xratioInverse) * 2;
     int height = (int) (character.getHeight() * zoom * yratioInverse);
 
     curFrame = charDownFrames[0];
     changeCurFrame();
-    try {
-      sb.draw(curFrame, drawx, drawy, width, height);
-    } catch (NullPointerException e) {
-      Core.displayError("Tried to draw frame: " + counter + ". But it apparently does not exist.");
+    if (curFrame == null) {
+      GlobalErrors.setError("Tried to draw frame: " + counter
+          + ". But it apparently does not exist.");
+      return;
     }
+    commands.add(curFrame, drawx, drawy, width, height, 0);
   }
 
   public void dispose() {
-    charSheet.dispose();
+    AssetRegistry.release(SHEETFILE);
   }
 
 }
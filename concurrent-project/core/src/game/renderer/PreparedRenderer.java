@@ -0,0 +1,22 @@
+package game.renderer;
+
+/**
+ * An interface for Renderers that draw by themselves but can do the work that
+ * does not need the graphics context, such as culling and sorting, ahead of
+ * drawing and away from the render thread.
+ * 
+ * @author Brandon Hua
+ */
+
+public interface PreparedRenderer extends Renderer {
+
+  /**
+   * A method that prepares the next call to render.
+   * 
+   * @param focusx The x position the view is centered on.
+   * @param focusy The y position the view is centered on.
+   */
+
+  public void prepare(int focusx, int focusy);
+
+}
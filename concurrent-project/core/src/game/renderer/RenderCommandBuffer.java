@@ -0,0 +1,326 @@
+package game.renderer;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.IdentityHashMap;
+
+/**
+ * The RenderCommandBuffer collects the sprites of a view as draw commands held
+ * in primitive arrays, so they can be sorted before any of them are sent to
+ * the SpriteBatch.
+ * 
+ * <p>
+ * Commands are sorted by layer, then texture, then depth with a radix sort, so
+ * sprites sharing a texture within a layer are submitted together and the
+ * SpriteBatch flushes as little as possible. The buffer does not touch the
+ * graphics context until it is submitted, so it can be filled, sorted and
+ * inspected on any thread or without a graphics context at all.
+ * 
+ * @author Brandon Hua
+ */
+
+public class RenderCommandBuffer {
+
+  public final static int WHITE = 0xFFFFFFFF;
+
+  private final static int RADIXBITS = 8;
+  private final static int RADIXSIZE = 1 << RADIXBITS;
+  private final static int KEYBITS = 52; // 8 layer bits, 12 texture bits, 32 depth bits
+
+  private static RenderCommandBuffer immediate = new RenderCommandBuffer();
+
+  private int size;
+  private TextureRegion[] regions = new TextureRegion[0];
+  private float[] xpos = new float[0];
+  private float[] ypos = new float[0];
+  private float[] widths = new float[0];
+  private float[] heights = new float[0];
+  private int[] colors = new int[0];
+  private long[] keys = new long[0];
+
+  private int[] order = new int[0];
+  private int[] scratch = new int[0];
+  private int[] counts = new int[RADIXSIZE];
+
+  private int layer;
+  private boolean sorted;
+  private int cursor;
+  private IdentityHashMap<Texture, Integer> textureIds = new IdentityHashMap<Texture, Integer>();
+
+  /**
+   * A method that sets the layer given to the commands added after it.
+   * 
+   * @param layer The layer, from 0 to 255, with higher layers drawn on top.
+   */
+
+  public void setLayer(int layer) {
+    this.layer = layer;
+  }
+
+  /**
+   * A method that adds a command to draw a region.
+   * 
+   * @param region The region to be drawn.
+   * @param x      The x position of the bottom left corner on screen.
+   * @param y      The y position of the bottom left corner on screen.
+   * @param width  The width on screen.
+   * @param height The height on screen.
+   * @param color  The tint of the region, packed as RGBA8888.
+   * @param depth  The order within the layer and texture, with higher depths drawn
+   *               on top.
+   */
+
+  public void add(TextureRegion region, float x, float y, float width, float height, int color,
+      int depth) {
+    if (size == regions.length) {
+      grow();
+    }
+    regions[size] = region;
+    xpos[size] = x;
+    ypos[size] = y;
+    widths[size] = width;
+    heights[size] = height;
+    colors[size] = color;
+    keys[size] = ((long) (layer & 0xFF) << 44) | ((long) (textureId(region) & 0xFFF) << 32)
+        | ((depth ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    size++;
+    sorted = false;
+  }
+
+  /**
+   * A method that adds an untinted command to draw a region.
+   * 
+   * @param region The region to be drawn.
+   * @param x      The x position of the bottom left corner on screen.
+   * @param y      The y position of the bottom left corner on screen.
+   * @param width  The width on screen.
+   * @param height The height on screen.
+   * @param depth  The order within the layer and texture.
+   */
+
+  public void add(TextureRegion region, float x, float y, float width, float height, int depth) {
+    add(region, x, y, width, height, WHITE, depth);
+  }
+
+  private int textureId(TextureRegion region) {
+    Texture texture = region.getTexture();
+    Integer id = textureIds.get(texture);
+    if (id == null) {
+      id = textureIds.size();
+      textureIds.put(texture, id);
+    }
+    return id;
+  }
+
+  private void grow() {
+    int capacity = Math.max(64, regions.length * 2);
+    TextureRegion[] newRegions = new TextureRegion[capacity];
+    System.arraycopy(regions, 0, newRegions, 0, size);
+    regions = newRegions;
+    xpos = copyOf(xpos, capacity);
+    ypos = copyOf(ypos, capacity);
+    widths = copyOf(widths, capacity);
+    heights = copyOf(heights, capacity);
+    int[] newColors = new int[capacity];
+    System.arraycopy(colors, 0, newColors, 0, size);
+    colors = newColors;
+    long[] newKeys = new long[capacity];
+    System.arraycopy(keys, 0, newKeys, 0, size);
+    keys = newKeys;
+    order = new int[capacity];
+    scratch = new int[capacity];
+  }
+
+  private float[] copyOf(float[] array, int capacity) {
+    float[] copy = new float[capacity];
+    System.arraycopy(array, 0, copy, 0, size);
+    return copy;
+  }
+
+  /**
+   * A method that sorts the commands by their keys with a least significant
+   * digit radix sort. The sort is stable, so commands with equal keys keep the
+   * order they were added in, and a digit shared by every key is skipped.
+   */
+
+  public void sort() {
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+
+    for (int shift = 0; shift < KEYBITS; shift += RADIXBITS) {
+      for (int d = 0; d < RADIXSIZE; d++) {
+        counts[d] = 0;
+      }
+      for (int i = 0; i < size; i++) {
+        counts[(int) (keys[i] >>> shift) & (RADIXSIZE - 1)]++;
+      }
+      if (size == 0 || counts[(int) (keys[0] >>> shift) & (RADIXSIZE - 1)] == size) {
+        continue;
+      }
+
+      int total = 0;
+      for (int d = 0; d < RADIXSIZE; d++) {
+        int count = counts[d];
+        counts[d] = total;
+        total += count;
+      }
+      for (int i = 0; i < size; i++) {
+        int index = order[i];
+        int digit = (int) (keys[index] >>> shift) & (RADIXSIZE - 1);
+        scratch[counts[digit]] = index;
+        counts[digit]++;
+      }
+
+      int[] swap = order;
+      order = scratch;
+      scratch = swap;
+    }
+    sorted = true;
+    cursor = 0;
+  }
+
+  /**
+   * A method that draws every remaining command with a SpriteBatch that has
+   * already begun and empties the buffer. The commands are sorted first if they
+   * have not been already.
+   * 
+   * @param sb The SpriteBatch to draw with.
+   */
+
+  public void submit(SpriteBatch sb) {
+    submitBelow(sb, Integer.MAX_VALUE);
+    clear();
+  }
+
+  /**
+   * A method that draws the remaining commands in layers below a given layer,
+   * so that a renderer drawing by itself at that layer is drawn on top of them.
+   * The tint of the batch is only changed when it differs from the last command.
+   * 
+   * @param sb    The SpriteBatch to draw with, which must have begun.
+   * @param layer The first layer that is not drawn.
+   */
+
+  public void submitBelow(SpriteBatch sb, int layer) {
+    if (!sorted) {
+      sort();
+    }
+    int lastColor = WHITE;
+    for (; cursor < size; cursor++) {
+      int index = order[cursor];
+      if (((keys[index] >>> 44) & 0xFF) >= layer) {
+        break;
+      }
+      int color = colors[index];
+      if (color != lastColor) {
+        sb.setColor(red(color), green(color), blue(color), alpha(color));
+        lastColor = color;
+      }
+      sb.draw(regions[index], xpos[index], ypos[index], widths[index], heights[index]);
+    }
+    if (lastColor != WHITE) {
+      sb.setColor(1, 1, 1, 1);
+    }
+  }
+
+  /**
+   * A method that draws a CommandRenderer straight away, for renderers drawn
+   * outside of a GameRenderList.
+   * 
+   * @param sb       The SpriteBatch to draw with, which must have begun.
+   * @param renderer The renderer to draw.
+   * @param focusx   The x position the view is centered on.
+   * @param focusy   The y position the view is centered on.
+   */
+
+  public static void drawNow(SpriteBatch sb, CommandRenderer renderer, int focusx, int focusy) {
+    immediate.clear();
+    renderer.record(immediate, focusx, focusy);
+    immediate.submit(sb);
+  }
+
+  public void clear() {
+    size = 0;
+    layer = 0;
+    cursor = 0;
+    sorted = false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * A method to get the index of the command drawn at a position once sorted.
+   * 
+   * @param position The position in the sorted order.
+   * @return The index the command was added at.
+   */
+
+  public int getSorted(int position) {
+    return order[position];
+  }
+
+  public TextureRegion getRegion(int index) {
+    return regions[index];
+  }
+
+  public float getX(int index) {
+    return xpos[index];
+  }
+
+  public float getY(int index) {
+    return ypos[index];
+  }
+
+  public float getWidth(int index) {
+    return widths[index];
+  }
+
+  public float getHeight(int index) {
+    return heights[index];
+  }
+
+  public int getColor(int index) {
+    return colors[index];
+  }
+
+  public long getKey(int index) {
+    return keys[index];
+  }
+
+  /**
+   * A method that packs a tint into a single int.
+   * 
+   * @param r The red component, from 0 to 1.
+   * @param g The green component, from 0 to 1.
+   * @param b The blue component, from 0 to 1.
+   * @param a The alpha component, from 0 to 1.
+   * @return The tint packed as RGBA8888.
+   */
+
+  public static int rgba(float r, float g, float b, float a) {
+    return ((int) (r * 255) << 24) | ((int) (g * 255) << 16) | ((int) (b * 255) << 8)
+        | (int) (a * 255);
+  }
+
+  private static float red(int color) {
+    return ((color >>> 24) & 0xFF) / 255f;
+  }
+
+  private static float green(int color) {
+    return ((color >>> 16) & 0xFF) / 255f;
+  }
+
+  private static float blue(int color) {
+    return ((color >>> 8) & 0xFF) / 255f;
+  }
+
+  private static float alpha(int color) {
+    return (color & 0xFF) / 255f;
+  }
+
+}
@@ -0,0 +1,267 @@
+package game.renderer;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import game.Core;
+import game.entities.tiles.VegetationTile;
+import game.model.levels.Level;
+
+import java.util.ArrayList;
+
+/**
+ * The StaticLayerCache holds the level background and vegetation in a
+ * SpriteCache, so the scenery is sent to the graphics card once rather than
+ * drawn tile by tile every frame.
+ * 
+ * <p>
+ * Vegetation is split into square chunks of the level and every chunk is
+ * cached once for each animation frame, so a view only draws the chunks it can
+ * see and the number of draw calls does not grow with the number of tiles. The
+ * cache is shared by every view and is rebuilt when the level is reloaded.
+ * 
+ * @author Brandon Hua
+ */
+
+public class StaticLayerCache {
+
+  private final static int SHEETCOLS = 8;
+  private final static int SHEETROWS = 8;
+  private final static int GRASSFRAMES = 8;
+  private final static int FLOWERFRAMES = 2;
+  private final static int FRAMES = 8; // Lowest common multiple of the tile frames
+  private final static int ANIMRATE = 1000;
+  private final static int CHUNKSIZE = 512;
+
+  private final static String SHEETFILE = "vegetation.png";
+
+  private static int totalRenderCalls;
+
+  private Level level;
+  private boolean animated = true;
+  private SpriteCache cache;
+  private int cacheSize;
+  private int builtVersion = -1;
+
+  private TextureRegion[] grass;
+  private TextureRegion[] flower;
+  private String backgroundFile;
+  private TextureRegion background;
+
+  private int backgroundId;
+  private int[][] chunkIds;
+  private int[] chunkTiles;
+  private int[] chunkLeft;
+  private int[] chunkBottom;
+  private int[] chunkRight;
+  private int[] chunkTop;
+  private int tileCount;
+
+  /**
+   * The StaticLayerCache loads the textures of the scenery. The cache itself is
+   * built when it is first rendered, as it must be created on the render
+   * thread.
+   * 
+   * @param level The level holding the background and vegetation.
+   */
+
+  public StaticLayerCache(Level level) {
+    this.level = level;
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
+    grass = new TextureRegion[GRASSFRAMES];
+    flower = new TextureRegion[FLOWERFRAMES];
+    for (int i = 0; i < GRASSFRAMES; i++) {
+      grass[i] = tmp[0][i];
+    }
+    for (int i = 0; i < FLOWERFRAMES; i++) {
+      flower[i] = tmp[1][i];
+    }
+    backgroundFile = level.getBgFileName();
+    background = AssetRegistry.region(backgroundFile);
+  }
+
+  /**
+   * A method that places the background and every vegetation tile into the
+   * cache, grouping the tiles into chunks by their position.
+   */
+
+  private void build() {
+    ArrayList<VegetationTile> tiles = level.getVtiles();
+    tileCount = tiles.size();
+
+    int left = level.getXPos() - level.getWidth() / 2;
+    int bottom = level.getYPos() - level.getHeight() / 2;
+    int cols = Math.max(1, (level.getWidth() + CHUNKSIZE - 1) / CHUNKSIZE);
+    int rows = Math.max(1, (level.getHeight() + CHUNKSIZE - 1) / CHUNKSIZE);
+    int chunks = cols * rows;
+
+    int[] chunkOf = new int[tileCount];
+    chunkTiles = new int[chunks];
+    chunkLeft = new int[chunks];
+    chunkBottom = new int[chunks];
+    chunkRight = new int[chunks];
+    chunkTop = new int[chunks];
+    for (int c = 0; c < chunks; c++) {
+      chunkLeft[c] = Integer.MAX_VALUE;
+      chunkBottom[c] = Integer.MAX_VALUE;
+      chunkRight[c] = Integer.MIN_VALUE;
+      chunkTop[c] = Integer.MIN_VALUE;
+    }
+
+    for (int i = 0; i < tileCount; i++) {
+      VegetationTile tile = tiles.get(i);
+      int col = Math.min(cols - 1, Math.max(0, (tile.getXpos() - left) / CHUNKSIZE));
+      int row = Math.min(rows - 1, Math.max(0, (tile.getYpos() - bottom) / CHUNKSIZE));
+      int c = row * cols + col;
+      chunkOf[i] = c;
+      chunkTiles[c]++;
+      chunkLeft[c] = Math.min(chunkLeft[c], tile.minX());
+      chunkBottom[c] = Math.min(chunkBottom[c], tile.minY());
+      chunkRight[c] = Math.max(chunkRight[c], tile.maxX());
+      chunkTop[c] = Math.max(chunkTop[c], tile.maxY());
+    }
+
+    // Group the tile indices by chunk so each chunk is cached in one pass.
+    int[] chunkStart = new int[chunks + 1];
+    for (int c = 0; c < chunks; c++) {
+      chunkStart[c + 1] = chunkStart[c] + chunkTiles[c];
+    }
+    int[] grouped = new int[tileCount];
+    int[] filled = new int[chunks];
+    for (int i = 0; i < tileCount; i++) {
+      int c = chunkOf[i];
+      grouped[chunkStart[c] + filled[c]] = i;
+      filled[c]++;
+    }
+
+    int size = 1 + tileCount * FRAMES;
+    if (cache == null || size > cacheSize) {
+      if (cache != null) {
+        cache.dispose();
+      }
+      cacheSize = size;
+      cache = new SpriteCache(cacheSize, false);
+    } else {
+      cache.clear();
+    }
+
+    cache.beginCache();
+    cache.add(background, left, bottom, level.getWidth(), level.getHeight());
+    backgroundId = cache.endCache();
+
+    chunkIds = new int[FRAMES][chunks];
+    for (int f = 0; f < FRAMES; f++) {
+      for (int c = 0; c < chunks; c++) {
+        if (chunkTiles[c] == 0) {
+          chunkIds[f][c] = -1;
+          continue;
+        }
+        cache.beginCache();
+        for (int k = chunkStart[c]; k < chunkStart[c + 1]; k++) {
+          VegetationTile tile = tiles.get(grouped[k]);
+          cache.add(frameOf(tile, f), tile.minX(), tile.minY(), tile.getWidth(),
+              tile.getHeight());
+        }
+        chunkIds[f][c] = cache.endCache();
+      }
+    }
+
+    builtVersion = level.getVersion();
+  }
+
+  /**
+   * A method to get the region a tile shows in an animation frame.
+   * 
+   * @param tile  The tile being cached.
+   * @param frame The animation frame.
+   * @return The region to draw.
+   */
+
+  private TextureRegion frameOf(VegetationTile tile, int frame) {
+    if (tile.getType().equals("grass")) {
+      return grass[frame % GRASSFRAMES];
+    }
+    return flower[frame % FLOWERFRAMES];
+  }
+
+  /**
+   * A method that draws the visible chunks of the scenery for a view. The
+   * SpriteBatch is ended while the cache draws and restarted afterwards.
+   * 
+   * @param sb      The SpriteBatch of the view.
+   * @param frustum The visible area of the view.
+   */
+
+  public void render(SpriteBatch sb, ViewFrustum frustum) {
+    if (cache == null || builtVersion != level.getVersion()) {
+      build();
+    }
+
+    boolean drawing = sb.isDrawing();
+    if (drawing) {
+      sb.end();
+    }
+
+    int frame = animated ? (int) ((Core.time / ANIMRATE) % FRAMES) : 0;
+    int drawn = 0;
+    cache.setProjectionMatrix(frustum.getProjection());
+    cache.begin();
+    cache.draw(backgroundId);
+    for (int c = 0; c < chunkTiles.length; c++) {
+      if (chunkTiles[c] > 0 && chunkLeft[c] < frustum.getRight()
+          && frustum.getLeft() < chunkRight[c] && chunkBottom[c] < frustum.getTop()
+          && frustum.getBottom() < chunkTop[c]) {
+        cache.draw(chunkIds[frame][c]);
+        drawn += chunkTiles[c];
+      }
+    }
+    cache.end();
+    totalRenderCalls += cache.renderCalls;
+
+    if (drawing) {
+      sb.begin();
+    }
+    frustum.count(drawn, tileCount);
+  }
+
+  /**
+   * A method to stop or restart the vegetation animation. A still cache draws
+   * the same chunks every frame.
+   * 
+   * @param animate A boolean for whether the vegetation should animate.
+   */
+
+  public void setAnimated(boolean animate) {
+    animated = animate;
+  }
+
+  public boolean isAnimated() {
+    return animated;
+  }
+
+  /**
+   * A method to get the number of draw calls made by every cache since the
+   * application started.
+   * 
+   * @return The total number of draw calls.
+   */
+
+  public static int getTotalRenderCalls() {
+    return totalRenderCalls;
+  }
+
+  /**
+   * A method that frees the cache and releases the scenery textures.
+   */
+
+  public void dispose() {
+    if (cache != null) {
+      cache.dispose();
+      cache = null;
+    }
+    AssetRegistry.release(SHEETFILE);
+    AssetRegistry.release(backgroundFile);
+  }
+
+}
@@ -0,0 +1,43 @@
+package game.renderer;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * The Renderer for the level background and vegetation of a single view, which
+ * draws the visible part of a StaticLayerCache shared by every view.
+ * 
+ * @author Brandon Hua
+ */
+
+public class StaticLayerRenderer implements Renderer {
+
+  private StaticLayerCache cache;
+  private ViewFrustum frustum;
+
+  /**
+   * The StaticLayerRenderer takes the shared cache and the frustum of its view.
+   * 
+   * @param cache   The cache of the level's scenery.
+   * @param frustum The visible area of the view being rendered.
+   */
+
+  public StaticLayerRenderer(StaticLayerCache cache, ViewFrustum frustum) {
+    this.cache = cache;
+    this.frustum = frustum;
+  }
+
+  @Override
+  public void render(SpriteBatch sb, int playerx, int playery) {
+    cache.render(sb, frustum);
+  }
+
+  /**
+   * The cache is shared between views, so it is disposed by its owner rather
+   * than by each renderer.
+   */
+
+  @Override
+  public void dispose() {
+  }
+
+}
@@ -0,0 +1,244 @@
+package game.renderer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+import error.GlobalErrors;
+import game.entities.structures.Structure;
+import game.entities.structures.buildings.StructLoader;
+import game.entities.structures.buildings.StructLoader.StructAssets;
+
+import java.util.HashMap;
+
+/**
+ * The StructureMesh holds every layer of a structure type in a single vertex
+ * buffer, so a structure is drawn with one submission instead of one draw for
+ * each of its layers.
+ * 
+ * <p>
+ * Each vertex holds the tint and parallax offset of its layer. The position of
+ * the structure and the camera are passed to the shader, which moves each
+ * layer away from the camera by its offset.
+ * 
+ * @author Brandon Hua
+ */
+
+public class StructureMesh {
+
+  private final static float OFFSET = 0.04f;
+  private final static int VERTEXSIZE = 6; // x, y, u, v, tint, offset
+
+  private final static String VERTEXSHADER = "attribute vec2 a_position;\n"
+      + "attribute vec2 a_texCoord0;\n"
+      + "attribute float a_tint;\n"
+      + "attribute float a_offset;\n"
+      + "uniform mat4 u_projTrans;\n"
+      + "uniform vec2 u_center;\n"
+      + "uniform vec2 u_size;\n"
+      + "uniform vec2 u_cam;\n"
+      + "varying vec2 v_texCoord;\n"
+      + "varying float v_tint;\n"
+      + "void main() {\n"
+      + "  v_texCoord = a_texCoord0;\n"
+      + "  v_tint = a_tint;\n"
+      + "  vec2 world = u_center + (u_center - u_cam) * a_offset + a_position * u_size;\n"
+      + "  gl_Position = u_projTrans * vec4(world, 0.0, 1.0);\n"
+      + "}\n";
+
+  private final static String FRAGMENTSHADER = "#ifdef GL_ES\n"
+      + "precision mediump float;\n"
+      + "#endif\n"
+      + "varying vec2 v_texCoord;\n"
+      + "varying float v_tint;\n"
+      + "uniform sampler2D u_texture;\n"
+      + "void main() {\n"
+      + "  vec4 color = texture2D(u_texture, v_texCoord);\n"
+      + "  gl_FragColor = vec4(color.rgb * v_tint, color.a);\n"
+      + "}\n";
+
+  private static HashMap<String, StructureMesh> meshes = new HashMap<String, StructureMesh>();
+  private static StructureMesh[] typeMeshes = new StructureMesh[16];
+  private static ShaderProgram shader;
+
+  private Mesh mesh;
+  private TextureRegion[] regions;
+  private int resolution;
+
+  /**
+   * The StructureMesh builds a quad for every layer of a structure type. Each
+   * layer of the texture is repeated resolution times, each copy a little
+   * brighter and further from the camera than the last.
+   * 
+   * @param assets     The textures and layer count of the structure type.
+   * @param resolution The number of quads drawn for each layer.
+   */
+
+  private StructureMesh(StructAssets assets, int resolution) {
+    regions = assets.getRegions();
+    this.resolution = resolution;
+    int quads = assets.getLayers() * resolution;
+
+    float[] vertices = new float[quads * 4 * VERTEXSIZE];
+    short[] indices = new short[quads * 6];
+    int v = 0;
+    for (int j = 0; j < quads; j++) {
+      TextureRegion region = regions[j / resolution];
+      float tint = Math.min(1, 0.2f + (float) j / quads);
+      float offset = ((float) j * OFFSET) / resolution;
+
+      v = putVertex(vertices, v, -0.5f, -0.5f, region.getU(), region.getV2(), tint, offset);
+      v = putVertex(vertices, v, -0.5f, 0.5f, region.getU(), region.getV(), tint, offset);
+      v = putVertex(vertices, v, 0.5f, 0.5f, region.getU2(), region.getV(), tint, offset);
+      v = putVertex(vertices, v, 0.5f, -0.5f, region.getU2(), region.getV2(), tint, offset);
+
+      int i = j * 6;
+      short first = (short) (j * 4);
+      indices[i] = first;
+      indices[i + 1] = (short) (first + 1);
+      indices[i + 2] = (short) (first + 2);
+      indices[i + 3] = (short) (first + 2);
+      indices[i + 4] = (short) (first + 3);
+      indices[i + 5] = first;
+    }
+
+    mesh = new Mesh(true, quads * 4, quads * 6,
+        new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+        new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"),
+        new VertexAttribute(Usage.Generic, 1, "a_tint"),
+        new VertexAttribute(Usage.Generic, 1, "a_offset"));
+    mesh.setVertices(vertices);
+    mesh.setIndices(indices);
+  }
+
+  private static int putVertex(float[] vertices, int index, float x, float y, float u, float v,
+      float tint, float offset) {
+    vertices[index] = x;
+    vertices[index + 1] = y;
+    vertices[index + 2] = u;
+    vertices[index + 3] = v;
+    vertices[index + 4] = tint;
+    vertices[index + 5] = offset;
+    return index + VERTEXSIZE;
+  }
+
+  /**
+   * A method to get the mesh of a structure type, building it the first time
+   * the type is drawn.
+   * 
+   * @param type       The type of the structure.
+   * @param resolution The number of quads drawn for each layer.
+   * @return The mesh of the type, or null if no structure has that name.
+   */
+
+  public static StructureMesh get(String type, int resolution) {
+    String key = type + " " + resolution;
+    StructureMesh structureMesh = meshes.get(key);
+    if (structureMesh == null) {
+      for (StructAssets assets : StructLoader.getStructs()) {
+        if (assets.getName().equals(type)) {
+          structureMesh = new StructureMesh(assets, resolution);
+          meshes.put(key, structureMesh);
+        }
+      }
+    }
+    return structureMesh;
+  }
+
+  /**
+   * A method to get the mesh of a structure, found by the id of its type. The
+   * mesh of each type is kept in an array, so after the first time a type is
+   * drawn no name is looked up.
+   * 
+   * @param structure  The structure to get the mesh of.
+   * @param resolution The number of quads drawn for each layer.
+   * @return The mesh of the type, or null if no structure has that name.
+   */
+
+  public static StructureMesh get(Structure structure, int resolution) {
+    int typeId = structure.getTypeId();
+    if (typeId < typeMeshes.length) {
+      StructureMesh structureMesh = typeMeshes[typeId];
+      if (structureMesh != null && structureMesh.resolution == resolution) {
+        return structureMesh;
+      }
+    }
+    StructureMesh structureMesh = get(structure.getType(), resolution);
+    if (structureMesh != null) {
+      if (typeId >= typeMeshes.length) {
+        StructureMesh[] newMeshes = new StructureMesh[Math.max(typeId + 1, typeMeshes.length * 2)];
+        System.arraycopy(typeMeshes, 0, newMeshes, 0, typeMeshes.length);
+        typeMeshes = newMeshes;
+      }
+      typeMeshes[typeId] = structureMesh;
+    }
+    return structureMesh;
+  }
+
+  /**
+   * A method that prepares the shader for drawing the structures of a view. It
+   * must be called while no SpriteBatch is drawing.
+   * 
+   * @param frustum The visible area of the view.
+   * @param camx    The x position the view is centered on.
+   * @param camy    The y position the view is centered on.
+   */
+
+  public static void begin(ViewFrustum frustum, int camx, int camy) {
+    if (shader == null) {
+      shader = new ShaderProgram(VERTEXSHADER, FRAGMENTSHADER);
+      if (!shader.isCompiled()) {
+        GlobalErrors.setError("Could not compile structure shader: " + shader.getLog());
+      }
+    }
+    Gdx.gl.glEnable(GL20.GL_BLEND);
+    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    shader.begin();
+    shader.setUniformMatrix("u_projTrans", frustum.getProjection());
+    shader.setUniformf("u_cam", camx, camy);
+    shader.setUniformi("u_texture", 0);
+  }
+
+  /**
+   * A method that draws every layer of a structure.
+   * 
+   * @param structure The structure to draw.
+   */
+
+  public void render(Structure structure) {
+    regions[0].getTexture().bind();
+    shader.setUniformf("u_center", structure.getXpos(), structure.getYpos());
+    shader.setUniformf("u_size", structure.getWidth(), structure.getHeight());
+    mesh.render(shader, GL20.GL_TRIANGLES);
+  }
+
+  /**
+   * A method to finish drawing structures.
+   */
+
+  public static void end() {
+    shader.end();
+    Gdx.gl.glDisable(GL20.GL_BLEND);
+  }
+
+  /**
+   * A method that frees every mesh and the shader.
+   */
+
+  public static void disposeAll() {
+    for (StructureMesh structureMesh : meshes.values()) {
+      structureMesh.mesh.dispose();
+    }
+    meshes.clear();
+    typeMeshes = new StructureMesh[16];
+    if (shader != null) {
+      shader.dispose();
+      shader = null;
+    }
+  }
+
+}
@@ -1,14 +1,11 @@
 package game.renderer;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import game.CameraVariables;
-import game.Core;
 import game.entities.structures.Structure;
-import game.entities.structures.buildings.StructLoader;
+import game.model.levels.Level;
 import java.util.ArrayList;
-import java.util.Collections;
 
 /**
  * The Renderer class for structures.
@@ -16,91 +13,94 @@ import java.util.Collections;
  * @author Brandon Hua
  */
 
-public class StructureRenderer implements Renderer {
+public class StructureRenderer implements PreparedRenderer {
 
-  private TextureRegion[] curRegion;
+  private Level level;
+  private ViewFrustum frustum;
+  private DepthOrder depthOrder = new DepthOrder();
 
-  private ArrayList<Structure> structures;
-
-  private int resolution = CameraVariables.sres;
-
-  private int curLayers;
-  private final float OFFSET = 0.04f;
+  private Structure[] visible = new Structure[0];
+  private int visibleCount;
+  private boolean prepared;
 
   /**
-   * The StructureRenderer initialises the list of structures to be rendered and
-   * the building interfaces used.
+   * The StructureRenderer initialises the level whose structures are rendered
+   * and the building interfaces used. The structures are got from the level
+   * every frame, as its list is replaced when the level is reloaded.
    * 
-   * @param structures The Structures to be rendered.
+   * @param level   The level whose Structures are to be rendered.
+   * @param frustum The visible area of the view being rendered.
    */
 
-  public StructureRenderer(ArrayList<Structure> structures) {
-    this.structures = structures;
+  public StructureRenderer(Level level, ViewFrustum frustum) {
+    this.level = level;
+    this.frustum = frustum;
   }
 
   /**
-   * A method to change the current region being rendered.
-   * 
-   * @param strct The current structure.
+   * A method that sorts the structures from furthest to closest and keeps the
+   * ones that are on screen, ready to be drawn.
    */
 
-  public void changeCurRegion(Structure strct) {
-    for (int i = 0; i < StructLoader.getStructs().size(); i++) {
-      if (strct.getType().equals(StructLoader.getStructs().get(i).getName())) {
-        curRegion = StructLoader.getStructs().get(i).getRegions();
-        curLayers = StructLoader.getStructs().get(i).getLayers();
+  @Override
+  public void prepare(int focusx, int focusy) {
+    ArrayList<Structure> structures = level.getStructures();
+    // The order belongs to this view, the level's list is shared with the other
+    // views and the game threads so it is never sorted in place.
+    int[] order = depthOrder.sort(structures, focusx, focusy);
+
+    if (visible.length < order.length) {
+      visible = new Structure[order.length];
+    }
+    visibleCount = 0;
+    for (int i = 0; i < order.length; i++) {
+      Structure curStruct = structures.get(order[i]);
+      // Parallax only moves the upper layers away from the focus, so a structure
+      // with an off screen base is entirely off screen.
+      if (frustum.contains(curStruct, 0)) {
+        visible[visibleCount] = curStruct;
+        visibleCount++;
       }
     }
+    frustum.count(visibleCount, structures.size());
+    prepared = true;
   }
 
   @Override
   public void render(SpriteBatch sb, int playerx, int playery) {
+    if (!prepared) {
+      prepare(playerx, playery);
+    }
+    prepared = false;
+
+    int resolution = CameraVariables.sres;
 
-    for (int i = 0; i < structures.size(); i++) {
-      structures.get(i).setCenter(playerx, playery);
+    boolean drawing = sb.isDrawing();
+    if (drawing) {
+      sb.end();
     }
-    Collections.sort(structures);
-
-    double xratioInverse = 1 / CameraVariables.xratio;
-    double yratioInverse = 1 / CameraVariables.yratio;
-    int zoom = CameraVariables.zoom;
-
-    for (int i = 0; i < structures.size(); i++) {
-      Structure curStruct = structures.get(i);
-      changeCurRegion(curStruct);
-
-      for (int j = 0; j < curLayers * resolution; j++) {
-
-        float rgb = 0.2f + (float) j / (curLayers * resolution);
-        if (rgb > 1) {
-          rgb = 1;
-        }
-        float adjustx = (curStruct.getXpos() - playerx) * ((((float) j * OFFSET) / resolution));
-        float adjusty = (curStruct.getYpos() - playery) * ((((float) j * OFFSET) / resolution));
-
-        int drawx = (int) (Core.width / 2 - (playerx * zoom * xratioInverse)
-            + ((curStruct.getXpos() + adjustx) * zoom * xratioInverse)
-            - ((curStruct.getWidth()) / 2) * zoom * xratioInverse);
-        int drawy = (int) (Core.height / 2 - (playery * zoom * yratioInverse)
-            + ((curStruct.getYpos() + adjusty) * zoom * yratioInverse)
-            - ((curStruct.getHeight()) / 2) * zoom * yratioInverse);
-        int width = (int) (curStruct.getWidth() * zoom * xratioInverse);
-        int height = (int) (curStruct.getHeight() * zoom * yratioInverse);
-
-        sb.setColor(rgb, rgb, rgb, 1);
-        sb.draw(curRegion[j / resolution], drawx, drawy, width, height);
-        sb.setColor(1, 1, 1, 1);
+    StructureMesh.begin(frustum, playerx, playery);
 
+    for (int i = 0; i < visibleCount; i++) {
+      StructureMesh mesh = StructureMesh.get(visible[i], resolution);
+      if (mesh != null) {
+        mesh.render(visible[i]);
       }
-
     }
 
+    StructureMesh.end();
+    if (drawing) {
+      sb.begin();
+    }
   }
 
+  /**
+   * The meshes are shared by every view, so they are disposed with the other
+   * application wide assets rather than by each renderer.
+   */
+
   @Override
   public void dispose() {
-    // TODO Auto-generated method stub
-
   }
 
 }
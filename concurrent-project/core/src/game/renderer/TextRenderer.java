@@ -1,11 +1,12 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import game.CameraVariables;
 
+import java.util.HashMap;
+
 /**
  * The TextRenderer class is a renderer that allows for custom font to be
  * displayed on screen.
@@ -25,41 +26,102 @@ public class TextRenderer {
   private final static int FULLSTOP = 46;
   private final static int SEMICOLON = 59;
   private final static int COLON = 58;
+  private final static int UNKNOWN = 127;
+  private final static int CACHESIZE = 256;
+  private final static double SPACER = 0.9;
+  private final static int BACKLAYER = 0;
+  private final static int CHARLAYER = 1;
+
+  private final static String WHITEFILE = "font_white.png";
+  private final static String BLACKFILE = "font_black.png";
+  private final static String BACKFILE = "blank.png";
 
-  private static Texture whiteFont;
-  private static Texture blackFont;
-  private static Texture blackBack;
+  private static TextureRegion blackBack;
 
   private static TextureRegion[] blackCharacters;
   private static TextureRegion[] whiteCharacters;
 
+  private static int[] glyphs = createGlyphTable();
+  private static HashMap<String, int[]> codeCache = new HashMap<String, int[]>();
+  private static char[] timeChars = new char[32];
+  private static int[] timeCodes = new int[32];
+  private static RenderCommandBuffer textCommands = new RenderCommandBuffer();
+
   /**
    * The constructor for a text renderer that initialises all the custom fonts in
    * png files.
    */
 
   public static void load() {
-    whiteFont = new Texture("font_white.png");
-    blackFont = new Texture("font_black.png");
-    blackBack = new Texture("blank.png");
+    TextureRegion[][] wtmp = AssetRegistry.split(WHITEFILE, SHEETCOLS, SHEETROWS);
 
-    TextureRegion[][] wtmp = TextureRegion.split(whiteFont, whiteFont.getWidth() / SHEETCOLS,
-        whiteFont.getHeight() / SHEETROWS);
+    TextureRegion[][] btmp = AssetRegistry.split(BLACKFILE, SHEETCOLS, SHEETROWS);
 
-    TextureRegion[][] btmp = TextureRegion.split(blackFont, blackFont.getWidth() / SHEETCOLS,
-        blackFont.getHeight() / SHEETROWS);
-
-    whiteCharacters = new TextureRegion[SHEETCOLS * SHEETROWS];
-    blackCharacters = new TextureRegion[SHEETCOLS * SHEETROWS];
+    TextureRegion[] white = new TextureRegion[SHEETCOLS * SHEETROWS];
+    TextureRegion[] black = new TextureRegion[SHEETCOLS * SHEETROWS];
 
     int counter = 0;
     for (int i = 0; i < SHEETCOLS; i++) {
       for (int j = 0; j < SHEETROWS; j++) {
-        whiteCharacters[counter] = wtmp[i][j];
-        blackCharacters[counter] = btmp[i][j];
+        white[counter] = wtmp[i][j];
+        black[counter] = btmp[i][j];
         counter++;
       }
     }
+    loadRegions(AssetRegistry.region(BACKFILE), white, black);
+  }
+
+  /**
+   * A method that sets the regions text is drawn with. It is used by load, and
+   * lets text be recorded with placeholder regions where there is no graphics
+   * context to load the fonts with.
+   * 
+   * @param back  The region drawn behind characters with a backing.
+   * @param white The regions of the white characters, indexed by offset code.
+   * @param black The regions of the black characters, indexed by offset code.
+   */
+
+  public static void loadRegions(TextureRegion back, TextureRegion[] white,
+      TextureRegion[] black) {
+    blackBack = back;
+    whiteCharacters = white;
+    blackCharacters = black;
+  }
+
+  /**
+   * A method that creates a table of the font region of every character below
+   * 256, so characters can be looked up without checking each Offset.
+   * 
+   * @return The table of region codes.
+   */
+
+  private static int[] createGlyphTable() {
+    int[] table = new int[256];
+    Offset[] offsetList = new Offset[] { new CapitalOffset(), new LowerOffset(), new NumOffset(),
+        new SymOffset() };
+    for (int c = 0; c < table.length; c++) {
+      table[c] = UNKNOWN;
+      for (Offset o : offsetList) {
+        if (o.inRange(c)) {
+          table[c] = o.getOffset(c);
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+   * A method to get the font region of a character.
+   * 
+   * @param charCode The ascii code of the character.
+   * @return The offset code of the character.
+   */
+
+  public static int glyph(int charCode) {
+    if (0 <= charCode && charCode < glyphs.length) {
+      return glyphs[charCode];
+    }
+    return UNKNOWN;
   }
 
   /**
@@ -88,17 +150,8 @@ public class TextRenderer {
 
   public static int[] offsetToRegion(int[] charCodes) {
     int[] offset = new int[charCodes.length];
-    Offset[] offsetList = new Offset[] { new CapitalOffset(), new LowerOffset(), new NumOffset(),
-        new SymOffset() };
     for (int i = 0; i < charCodes.length; i++) {
-      offset[i] = 127;
-
-      for (Offset o : offsetList) {
-        if (o.inRange(charCodes[i])) {
-          offset[i] = o.getOffset(charCodes[i]);
-        }
-      }
-
+      offset[i] = glyph(charCodes[i]);
     }
     return offset;
   }
@@ -231,6 +284,31 @@ public class TextRenderer {
     return offset;
   }
 
+  /**
+   * A method that gets the offset codes of a string from the cache, converting
+   * it the first time it is printed. Strings that change every frame would fill
+   * the cache, so it is emptied once it holds CACHESIZE strings.
+   * 
+   * @param text The string to be translated.
+   * @return The offset character codes of the string, which must not be
+   *         modified.
+   */
+
+  public static int[] cachedCode(String text) {
+    int[] codes = codeCache.get(text);
+    if (codes == null) {
+      if (codeCache.size() >= CACHESIZE) {
+        codeCache.clear();
+      }
+      codes = new int[text.length()];
+      for (int i = 0; i < codes.length; i++) {
+        codes[i] = glyph(text.charAt(i));
+      }
+      codeCache.put(text, codes);
+    }
+    return codes;
+  }
+
   /**
    * A method that sequentially prints out a string on the viewport.
    * 
@@ -245,17 +323,110 @@ public class TextRenderer {
 
   public static void print(SpriteBatch sb, String text, String font, int xpos, int ypos, int width,
       int height) {
+    record(textCommands, text, font, xpos, ypos, width, height);
+    submitText(sb);
+  }
+
+  /**
+   * A method that prints a number held by a HudValue on the viewport.
+   * 
+   * @param sb     The sprite batch used for rendering.
+   * @param value  The number to be printed.
+   * @param font   The style of font to be used.
+   * @param xpos   The x position of the middle of the number on screen.
+   * @param ypos   The y position of the middle of the number on screen.
+   * @param width  The width of the number as a whole.
+   * @param height The height of the number as a whole.
+   */
+
+  public static void print(SpriteBatch sb, HudValue value, String font, int xpos, int ypos,
+      int width, int height) {
+    record(textCommands, value, font, xpos, ypos, width, height);
+    submitText(sb);
+  }
+
+  private static void submitText(SpriteBatch sb) {
+    sb.begin();
+    textCommands.submit(sb);
+    sb.end();
+  }
+
+  /**
+   * A method that records a string into a command buffer rather than drawing it.
+   * 
+   * @param commands The buffer to record into.
+   * @param text     The text to be recorded.
+   * @param font     The style of font to be used.
+   * @param xpos     The x position of the middle of the string on screen.
+   * @param ypos     The y position of the middle of the string on screen.
+   * @param width    The width of the string as a whole.
+   * @param height   The height of the string as a whole.
+   */
+
+  public static void record(RenderCommandBuffer commands, String text, String font, int xpos,
+      int ypos, int width, int height) {
     if (text != null && text.length() > 0) {
-      int[] textCodes = stringToCode(text);
-      double spacer = 0.9;
-      double charWidth = width / textCodes.length;
-      double curX = xpos - ((width*spacer)/2 - charWidth/2);
-      sb.begin();
-      for (int i = 0; i < textCodes.length; i++) {
-        render(sb, textCodes[i], font, (int) curX, ypos - height / 2, (int) charWidth, height);
-        curX = (curX + (charWidth * spacer));
+      int[] textCodes = cachedCode(text);
+      recordCodes(commands, textCodes, textCodes.length, font, xpos, ypos, width, height);
+    }
+  }
+
+  /**
+   * A method that records a number held by a HudValue into a command buffer.
+   * 
+   * @param commands The buffer to record into.
+   * @param value    The number to be recorded.
+   * @param font     The style of font to be used.
+   * @param xpos     The x position of the middle of the number on screen.
+   * @param ypos     The y position of the middle of the number on screen.
+   * @param width    The width of the number as a whole.
+   * @param height   The height of the number as a whole.
+   */
+
+  public static void record(RenderCommandBuffer commands, HudValue value, String font, int xpos,
+      int ypos, int width, int height) {
+    recordCodes(commands, value.getCodes(), value.length(), font, xpos, ypos, width, height);
+  }
+
+  /**
+   * A method that records offset codes, resolving the font style once for the
+   * whole string rather than for each character. Backings are recorded on a
+   * layer below the characters, so one never covers the edge of the character
+   * before it.
+   * 
+   * @param commands The buffer to record into.
+   * @param codes    The offset codes of the characters.
+   * @param length   The number of codes to record.
+   * @param font     The style of font to be used.
+   * @param xpos     The x position of the middle of the string on screen.
+   * @param ypos     The y position of the middle of the string on screen.
+   * @param width    The width of the string as a whole.
+   * @param height   The height of the string as a whole.
+   */
+
+  private static void recordCodes(RenderCommandBuffer commands, int[] codes, int length,
+      String font, int xpos, int ypos, int width, int height) {
+    if (length == 0) {
+      return;
+    }
+    TextureRegion[] curChars = whiteCharacters;
+    if (font.equals("black")) {
+      curChars = blackCharacters;
+    }
+    boolean backing = font.equals("white_back");
+
+    double charWidth = width / length;
+    double curX = xpos - ((width * SPACER) / 2 - charWidth / 2);
+    int drawy = ypos - height / 2;
+    for (int i = 0; i < length; i++) {
+      int drawx = (int) curX - (int) charWidth / 2;
+      if (backing) {
+        commands.setLayer(BACKLAYER);
+        commands.add(blackBack, drawx, drawy, (int) charWidth, height, i);
       }
-      sb.end();
+      commands.setLayer(CHARLAYER);
+      commands.add(curChars[codes[i]], drawx, drawy, (int) charWidth, height, i);
+      curX = (curX + (charWidth * SPACER));
     }
   }
 
@@ -273,24 +444,64 @@ public class TextRenderer {
 
   public static void printTime(SpriteBatch sb, long time, String font, int xpos, int ypos,
       int width, int height) {
-    long mins = time / 60000;
-    double secs = (double) (time - (mins * 60000)) / 1000;
-    String secString = String.valueOf(secs);
-    String[] secSplit = secString.split("\\.");
-    if (secSplit[0].length() < 2) {
-      secString = "0" + secString;
-    }
-    if (secString.length() > 4) {
-      secString = secString.substring(0, 5);
+    recordTime(textCommands, time, font, xpos, ypos, width, height);
+    submitText(sb);
+  }
+
+  /**
+   * A method that records a time into a command buffer rather than drawing it.
+   * 
+   * @param commands The buffer to record into.
+   * @param time     The time to be recorded (in milliseconds).
+   * @param font     The font the time should be displayed in.
+   * @param xpos     The position of the font on the x-axis.
+   * @param ypos     The position of the font on the y-axis.
+   * @param width    The width of the message.
+   * @param height   The height of the message.
+   */
+
+  public static void recordTime(RenderCommandBuffer commands, long time, String font, int xpos,
+      int ypos, int width, int height) {
+    int length = formatTime(time, timeChars);
+    for (int i = 0; i < length; i++) {
+      timeCodes[i] = glyph(timeChars[i]);
     }
-    if (secString.length() < 4) {
-      for (int i = 0; i < (4 - secString.length()); i++) {
-        secString = secString + "0";
-      }
+    recordCodes(commands, timeCodes, length, font, xpos, ypos, width, height);
+  }
 
+  /**
+   * A method that writes a time as minutes, seconds and hundredths of a second,
+   * such as "1m 05.20s", into a character buffer without creating strings.
+   * 
+   * @param time  The time to be written (in milliseconds).
+   * @param chars The buffer to write into.
+   * @return The number of characters written.
+   */
+
+  public static int formatTime(long time, char[] chars) {
+    long mins = time / 60000;
+    int millis = (int) (time - (mins * 60000));
+    int secs = millis / 1000;
+    int hundredths = (millis % 1000) / 10;
+
+    int length = 0;
+    long divisor = 1;
+    while (divisor * 10 <= mins) {
+      divisor *= 10;
+    }
+    while (divisor > 0) {
+      chars[length++] = (char) ('0' + (mins / divisor) % 10);
+      divisor /= 10;
     }
-    String allTime = mins + "m " + secString + "s";
-    print(sb, allTime, font, xpos, ypos, width, height);
+    chars[length++] = 'm';
+    chars[length++] = ' ';
+    chars[length++] = (char) ('0' + secs / 10);
+    chars[length++] = (char) ('0' + secs % 10);
+    chars[length++] = '.';
+    chars[length++] = (char) ('0' + hundredths / 10);
+    chars[length++] = (char) ('0' + hundredths % 10);
+    chars[length++] = 's';
+    return length;
   }
 
   /**
@@ -324,8 +535,9 @@ public class TextRenderer {
   }
 
   public void dispose() {
-    whiteFont.dispose();
-    blackFont.dispose();
+    AssetRegistry.release(WHITEFILE);
+    AssetRegistry.release(BLACKFILE);
+    AssetRegistry.release(BACKFILE);
   }
 
   /**
@@ -0,0 +1,175 @@
+package game.renderer;
+
+import com.badlogic.gdx.math.Matrix4;
+
+import game.CameraVariables;
+import game.Core;
+import game.entities.Entity;
+import game.model.levels.SpatialGrid;
+
+/**
+ * The ViewFrustum holds the area of the level that is visible in a single view,
+ * allowing renderers to skip entities that would be drawn off screen.
+ * 
+ * <p>
+ * The frustum also counts how many entities were drawn against the total
+ * number of entities checked since it was last updated.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ViewFrustum {
+
+  private int left;
+  private int right;
+  private int bottom;
+  private int top;
+
+  private int drawn;
+  private int total;
+  private float alpha = 1;
+
+  private Matrix4 projection = new Matrix4();
+
+  private int[] visible = new int[0];
+  private int queryCount;
+
+  /**
+   * A method that recalculates the visible area around the point the view is
+   * focused on, using the zoom and split screen ratios of the CameraVariables.
+   * 
+   * @param focusx The x position the view is centered on.
+   * @param focusy The y position the view is centered on.
+   */
+
+  public void update(int focusx, int focusy) {
+    int halfWidth = (int) Math.ceil((Core.width / 2.0) * CameraVariables.xratio
+        / CameraVariables.zoom);
+    int halfHeight = (int) Math.ceil((Core.height / 2.0) * CameraVariables.yratio
+        / CameraVariables.zoom);
+    left = focusx - halfWidth;
+    right = focusx + halfWidth;
+    bottom = focusy - halfHeight;
+    top = focusy + halfHeight;
+
+    float width = (float) (Core.width * CameraVariables.xratio / CameraVariables.zoom);
+    float height = (float) (Core.height * CameraVariables.yratio / CameraVariables.zoom);
+    projection.setToOrtho2D(focusx - width / 2, focusy - height / 2, width, height);
+    drawn = 0;
+    total = 0;
+  }
+
+  /**
+   * A method to check if any part of an entity is within the view.
+   * 
+   * @param entity The entity to check.
+   * @param margin The distance outside the entity's bounds that is also drawn.
+   * @return A boolean for whether or not the entity is visible.
+   */
+
+  public boolean contains(Entity entity, int margin) {
+    return entity.minX() - margin < right && left < entity.maxX() + margin
+        && entity.minY() - margin < top && bottom < entity.maxY() + margin;
+  }
+
+  /**
+   * A method to check if any part of a box is within the view.
+   * 
+   * @param x      The x position of the centre of the box.
+   * @param y      The y position of the centre of the box.
+   * @param width  The width of the box.
+   * @param height The height of the box.
+   * @param margin The distance outside the box's bounds that is also drawn.
+   * @return A boolean for whether or not the box is visible.
+   */
+
+  public boolean contains(int x, int y, int width, int height, int margin) {
+    return x - width / 2 - margin < right && left < x + width / 2 + margin
+        && y - height / 2 - margin < top && bottom < y + height / 2 + margin;
+  }
+
+  /**
+   * A method that finds the entities of a SpatialGrid that are within the view.
+   * The returned array is reused by the next query.
+   * 
+   * @param grid The grid to query.
+   * @return The indices of the visible entities, ended by the count given by
+   *         getQueryCount().
+   */
+
+  public int[] query(SpatialGrid grid) {
+    if (visible.length < grid.size()) {
+      visible = new int[grid.size()];
+    }
+    queryCount = grid.query(left, bottom, right, top, visible);
+    count(queryCount, grid.size());
+    return visible;
+  }
+
+  public int getQueryCount() {
+    return queryCount;
+  }
+
+  /**
+   * A method that adds to the drawn and total counts of the view.
+   * 
+   * @param drawnCount The number of entities drawn.
+   * @param totalCount The number of entities checked.
+   */
+
+  public void count(int drawnCount, int totalCount) {
+    drawn += drawnCount;
+    total += totalCount;
+  }
+
+  /**
+   * A method to set how far through the current simulation tick the view is
+   * being drawn, so renderers can interpolate entity positions.
+   * 
+   * @param alpha A value from 0, at the end of the last tick, to 1.
+   */
+
+  public void setAlpha(float alpha) {
+    this.alpha = alpha;
+  }
+
+  public float getAlpha() {
+    return alpha;
+  }
+
+  public int getDrawn() {
+    return drawn;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * A method to get a projection that maps level coordinates onto the view, for
+   * renderers that draw in world space rather than through the SpriteBatch.
+   * 
+   * @return The projection of the view.
+   */
+
+  public Matrix4 getProjection() {
+    return projection;
+  }
+
+  public int getLeft() {
+    return left;
+  }
+
+  public int getRight() {
+    return right;
+  }
+
+  public int getBottom() {
+    return bottom;
+  }
+
+  public int getTop() {
+    return top;
+  }
+
+}
@@ -1,6 +1,5 @@
 package game.renderer;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
@@ -9,7 +8,6 @@ import game.Core;
 import game.entities.Wall;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
 /**
  * A renderer class for the Wall entity.
@@ -18,14 +16,16 @@ import java.util.Collections;
  *
  */
 
-public class WallRenderer implements Renderer {
+public class WallRenderer implements CommandRenderer {
 
   private final int SHEETCOLS = 8;
   private final int SHEETROWS = 8;
 
   private ArrayList<Wall> walls;
+  private ViewFrustum frustum;
+  private DepthOrder depthOrder = new DepthOrder();
 
-  private Texture wallSheet;
+  private final String SHEETFILE = "temp_walls.png";
 
   private TextureRegion[] wallTextures;
 
@@ -33,42 +33,50 @@ public class WallRenderer implements Renderer {
    * The constructor for the wall class that initialses the tile sets of the
    * walls.
    * 
-   * @param walls The list of walls from the game model to be rendered.
+   * @param walls   The list of walls from the game model to be rendered.
+   * @param frustum The visible area of the view being rendered.
    */
 
-  public WallRenderer(ArrayList<Wall> walls) {
+  public WallRenderer(ArrayList<Wall> walls, ViewFrustum frustum) {
     this.walls = walls;
+    this.frustum = frustum;
     wallTextures = new TextureRegion[SHEETCOLS * SHEETROWS];
 
-    wallSheet = new Texture("temp_walls.png");
-    TextureRegion[][] tmp = TextureRegion.split(wallSheet, wallSheet.getWidth() / SHEETCOLS,
-        wallSheet.getHeight() / SHEETROWS);
+    TextureRegion[][] tmp = AssetRegistry.split(SHEETFILE, SHEETCOLS, SHEETROWS);
 
     wallTextures[0] = tmp[0][0];
     wallTextures[1] = tmp[0][1];
   }
 
+  @Override
+  public void render(SpriteBatch sb, int focusx, int focusy) {
+    sb.begin();
+    RenderCommandBuffer.drawNow(sb, this, focusx, focusy);
+    sb.end();
+  }
+
   /**
-   * The render method for a wall that simply draws it's position relative to the
+   * The record method for a wall that simply draws it's position relative to the
    * player's which is assumed to be in the center of the screen.
    */
 
   @Override
-  public void render(SpriteBatch sb, int playerx, int playery) {
+  public void record(RenderCommandBuffer commands, int playerx, int playery) {
 
-    for (int i = 0; i < walls.size(); i++) {
-      walls.get(i).setCenter(playerx, playery);
-    }
-    Collections.sort(walls);
+    int[] order = depthOrder.sort(walls, playerx, playery);
 
     double xratioInverse = 1 / CameraVariables.xratio;
     double yratioInverse = 1 / CameraVariables.yratio;
     int zoom = CameraVariables.zoom;
 
-    sb.begin();
-    for (int i = 0; i < walls.size(); i++) {
+    int drawn = 0;
+    for (int i = 0; i < order.length; i++) {
 
-      Wall curWall = walls.get(i);
+      Wall curWall = walls.get(order[i]);
+      if (!frustum.contains(curWall, 0)) {
+        continue;
+      }
+      drawn++;
 
       for (int j = 0; j < 6; j++) {
         float rgb = 0.5f + (float) j / 12;
@@ -84,16 +92,15 @@ public class WallRenderer implements Renderer {
         int width = (int) (curWall.getWidth() * zoom * xratioInverse);
         int height = (int) (curWall.getHeight() * zoom * yratioInverse);
 
-        sb.setColor(rgb, rgb, rgb, 1);
-        sb.draw(wallTextures[0], drawx, drawy, width, height);
-        sb.setColor(1, 1, 1, 1);
+        commands.add(wallTextures[0], drawx, drawy, width, height,
+            RenderCommandBuffer.rgba(rgb, rgb, rgb, 1), i * 6 + j);
       }
     }
-    sb.end();
+    frustum.count(drawn, walls.size());
   }
 
   public void dispose() {
-    wallSheet.dispose();
+    AssetRegistry.release(SHEETFILE);
   }
 
 }
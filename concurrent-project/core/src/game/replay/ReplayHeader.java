@@ -0,0 +1,221 @@
+package game.replay;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.ecs.EntityWorld;
+import game.model.AiScheduler;
+import game.model.RolloutPlanner;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * The ReplayHeader holds everything about a recorded session that is needed to
+ * set up the same game again before its ticks are played back: the seed of the
+ * session, the level and a hash of its file, the game mode, and the settings
+ * that change how a tick plays out.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ReplayHeader {
+
+  private final static int MAGIC = 0x52504C59; // "RPLY"
+  private final static int VERSION = 1;
+
+  private long seed;
+  private String levelName;
+  private long levelHash;
+  private int playerNum;
+  private String mode;
+  private int width;
+  private int height;
+  private int tickTime;
+  private boolean entityWorld;
+  private boolean aiLod;
+  private int aiBudget;
+  private boolean lineOfSight;
+  private float spawnScale;
+  private long clock;
+  private int keyframeInterval;
+  private boolean rollouts;
+  private int rolloutBudget;
+
+  private ReplayHeader() {
+  }
+
+  /**
+   * A method to get the header of a game that is about to be recorded.
+   * 
+   * @param game             The game being recorded.
+   * @param mode             The name of the game mode.
+   * @param keyframeInterval The number of ticks between keyframes.
+   * @return The header.
+   * @throws IOException If the level file cannot be read.
+   */
+
+  public static ReplayHeader capture(ShooterGame game, String mode, int keyframeInterval)
+      throws IOException {
+    ReplayHeader header = new ReplayHeader();
+    Level level = game.getLevel();
+    header.seed = game.getSeed();
+    header.levelName = level.getFileName();
+    header.levelHash = levelHash(level.getFileName());
+    header.playerNum = game.getGameNum();
+    header.mode = mode;
+    header.width = Core.width;
+    header.height = Core.height;
+    header.tickTime = SimulationVariables.tickTime;
+    header.entityWorld = EntityWorld.isEnabled();
+    header.aiLod = AiScheduler.isEnabled();
+    header.aiBudget = AiScheduler.getBudget();
+    header.lineOfSight = SightGrid.isEnabled();
+    header.spawnScale = game.getSpawnScale();
+    header.clock = game.getTickClock();
+    header.keyframeInterval = keyframeInterval;
+    header.rollouts = RolloutPlanner.isEnabled();
+    header.rolloutBudget = RolloutPlanner.getBudget();
+    return header;
+  }
+
+  /**
+   * A method to get a hash of the file of a level, so a replay can tell if the
+   * level has been edited since it was recorded.
+   * 
+   * @param fileName The name of the level file.
+   * @return The CRC32 of the file.
+   * @throws IOException If the file cannot be read.
+   */
+
+  public static long levelHash(String fileName) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(Files.readAllBytes(Level.getLevelDirectory().resolve(fileName)));
+    return crc.getValue();
+  }
+
+  /**
+   * A method that writes the header to the start of a replay file.
+   * 
+   * @param out The stream to write to.
+   * @throws IOException If the stream cannot be written to.
+   */
+
+  public void write(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(seed);
+    out.writeUTF(levelName);
+    out.writeLong(levelHash);
+    out.writeInt(playerNum);
+    out.writeUTF(mode);
+    out.writeInt(width);
+    out.writeInt(height);
+    out.writeInt(tickTime);
+    out.writeBoolean(entityWorld);
+    out.writeBoolean(aiLod);
+    out.writeInt(aiBudget);
+    out.writeBoolean(lineOfSight);
+    out.writeFloat(spawnScale);
+    out.writeLong(clock);
+    out.writeInt(keyframeInterval);
+    out.writeBoolean(rollouts);
+    out.writeInt(rolloutBudget);
+  }
+
+  /**
+   * A method that reads the header from the start of a replay file.
+   * 
+   * @param in The stream to read from.
+   * @return The header.
+   * @throws IOException If the stream is not a replay this version can play.
+   */
+
+  public static ReplayHeader read(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a replay file");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported replay version " + version);
+    }
+    ReplayHeader header = new ReplayHeader();
+    header.seed = in.readLong();
+    header.levelName = in.readUTF();
+    header.levelHash = in.readLong();
+    header.playerNum = in.readInt();
+    header.mode = in.readUTF();
+    header.width = in.readInt();
+    header.height = in.readInt();
+    header.tickTime = in.readInt();
+    header.entityWorld = in.readBoolean();
+    header.aiLod = in.readBoolean();
+    header.aiBudget = in.readInt();
+    header.lineOfSight = in.readBoolean();
+    header.spawnScale = in.readFloat();
+    header.clock = in.readLong();
+    header.keyframeInterval = in.readInt();
+    header.rollouts = in.readBoolean();
+    header.rolloutBudget = in.readInt();
+    return header;
+  }
+
+  /**
+   * A method that changes the settings that affect a tick to the ones the
+   * replay was recorded with.
+   */
+
+  public void apply() {
+    Core.setWidth(width);
+    Core.setHeight(height);
+    SimulationVariables.tickTime = tickTime;
+    EntityWorld.setEnabled(entityWorld);
+    AiScheduler.setEnabled(aiLod);
+    AiScheduler.setBudget(aiBudget);
+    RolloutPlanner.setEnabled(rollouts);
+    RolloutPlanner.setBudget(rolloutBudget);
+    SightGrid.setEnabled(lineOfSight);
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public String getLevelName() {
+    return levelName;
+  }
+
+  public long getLevelHash() {
+    return levelHash;
+  }
+
+  public int getPlayerNum() {
+    return playerNum;
+  }
+
+  public String getMode() {
+    return mode;
+  }
+
+  public int getTickTime() {
+    return tickTime;
+  }
+
+  public float getSpawnScale() {
+    return spawnScale;
+  }
+
+  public long getClock() {
+    return clock;
+  }
+
+  public int getKeyframeInterval() {
+    return keyframeInterval;
+  }
+
+}
@@ -0,0 +1,364 @@
+package game.replay;
+
+import game.input.PlayerInput;
+import game.input.ShooterGameInputHandler;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.rules.ShooterRules;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The ReplayPlayer plays a replay file back with no window, as fast as the
+ * ticks can be run. The game is made again from the header of the replay and
+ * put into the state of the first keyframe, then each tick is run with the
+ * time and inputs it was recorded with, in the same order as the ShooterThread
+ * runs them.
+ * 
+ * <p>
+ * Every keyframe that is played past is compared with the state of the game at
+ * that point, so a change that makes the game play out differently is found at
+ * the first keyframe after it. Seeking restores the game from the last
+ * keyframe before the tick and plays forward from there.
+ * 
+ * <p>
+ * The settings that change how a tick plays out, such as whether the
+ * EntityWorld is used, are changed to the ones the replay was recorded with.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ReplayPlayer {
+
+  private ReplayHeader header;
+  private Level level;
+  private ShooterGame game;
+  private ShooterRules rules;
+  private ShooterGameInputHandler inputHandler;
+
+  private ByteBuffer records;
+  private int[] keyframeTicks;
+  private int[] keyframePositions;
+  private int totalTicks;
+  private ByteBuffer state = ByteBuffer.allocate(1 << 16);
+
+  private int tick;
+  private boolean ended;
+  private int divergedTick = -1;
+  private int keyframesChecked;
+  private long clock;
+  private long step;
+  private long delta;
+  private PlayerInput input = new PlayerInput();
+
+  /**
+   * The ReplayPlayer reads the whole of a replay file and finds its keyframes,
+   * then makes the game and puts it at the first tick.
+   * 
+   * @param file The replay file to play.
+   * @throws IOException If the file cannot be read, or the level has been
+   *                     changed since the replay was recorded.
+   */
+
+  public ReplayPlayer(Path file) throws IOException {
+    byte[] bytes = Files.readAllBytes(file);
+    ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+    header = ReplayHeader.read(new DataInputStream(stream));
+    if (ReplayHeader.levelHash(header.getLevelName()) != header.getLevelHash()) {
+      throw new IOException("The level " + header.getLevelName()
+          + " has changed since the replay was recorded");
+    }
+    records = ByteBuffer.wrap(inflate(stream));
+    findKeyframes();
+
+    header.apply();
+    level = new Level(header.getLevelName());
+    level.setSpawnScale(header.getSpawnScale());
+    game = new ShooterGame(level, header.getPlayerNum(), false, header.getSeed());
+    game.getAiScheduler().getPlanner().setTimed(false);
+    rules = new ShooterRules(game, header.getMode(), null);
+    inputHandler = new ShooterGameInputHandler(game);
+    seek(0);
+  }
+
+  private static byte[] inflate(InputStream stream) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InflaterInputStream in = new InflaterInputStream(stream)) {
+      byte[] chunk = new byte[1 << 16];
+      int read;
+      while ((read = in.read(chunk)) > 0) {
+        out.write(chunk, 0, read);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * A method that walks every record of the replay once, noting where each
+   * keyframe starts and how many ticks there are. A replay that was cut off
+   * without an end record is played up to its last whole tick.
+   */
+
+  private void findKeyframes() {
+    ArrayList<Integer> ticks = new ArrayList<Integer>();
+    ArrayList<Integer> positions = new ArrayList<Integer>();
+    int count = 0;
+    while (records.hasRemaining()) {
+      int start = records.position();
+      int flags = records.get() & 0xFF;
+      try {
+        if (flags == ReplayRecorder.END) {
+          break;
+        } else if (flags == ReplayRecorder.KEYFRAME) {
+          ticks.add(records.getInt());
+          positions.add(start);
+          records.position(records.position() + 16);
+          int length = records.getInt();
+          records.position(records.position() + length);
+        } else {
+          skipTick(flags);
+          count++;
+        }
+      } catch (RuntimeException e) {
+        records.position(start);
+        records.limit(start);
+        break;
+      }
+    }
+    totalTicks = count;
+    if (ticks.isEmpty()) {
+      throw new IllegalStateException("The replay has no keyframes");
+    }
+    keyframeTicks = new int[ticks.size()];
+    keyframePositions = new int[ticks.size()];
+    for (int i = 0; i < keyframeTicks.length; i++) {
+      keyframeTicks[i] = ticks.get(i);
+      keyframePositions[i] = positions.get(i);
+    }
+  }
+
+  private void skipTick(int flags) {
+    int skip = 0;
+    if ((flags & ReplayRecorder.INPUT) != 0) {
+      skip += 17;
+    }
+    if ((flags & ReplayRecorder.STEP) != 0) {
+      skip += 4;
+    }
+    if ((flags & ReplayRecorder.DELTA) != 0) {
+      skip += 4;
+    }
+    if ((flags & ReplayRecorder.LIMITS) != 0) {
+      skip += 8;
+    }
+    if (records.remaining() < skip) {
+      throw new IllegalStateException("The replay ends part way through a tick");
+    }
+    records.position(records.position() + skip);
+  }
+
+  /**
+   * A method that runs the next tick of the replay, checking any keyframe that
+   * comes before it.
+   * 
+   * @return A boolean for whether or not a tick was run, false once the replay
+   *         has ended.
+   */
+
+  public boolean step() {
+    while (!ended) {
+      if (!records.hasRemaining()) {
+        ended = true;
+        break;
+      }
+      int flags = records.get() & 0xFF;
+      if (flags == ReplayRecorder.END) {
+        ended = true;
+      } else if (flags == ReplayRecorder.KEYFRAME) {
+        readKeyframe(false);
+      } else {
+        runTick(flags);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A method that runs every tick left in the replay.
+   * 
+   * @return The number of ticks run.
+   */
+
+  public int playToEnd() {
+    int run = 0;
+    while (step()) {
+      run++;
+    }
+    return run;
+  }
+
+  /**
+   * A method that puts the game at a tick of the replay, by restoring the last
+   * keyframe at or before it and playing forward from there.
+   * 
+   * @param target The tick to seek to, which is clamped to the length of the
+   *               replay.
+   */
+
+  public void seek(int target) {
+    target = Math.max(0, Math.min(target, totalTicks));
+    int index = 0;
+    for (int i = 0; i < keyframeTicks.length; i++) {
+      if (keyframeTicks[i] <= target) {
+        index = i;
+      }
+    }
+    records.position(keyframePositions[index] + 1);
+    ended = false;
+    readKeyframe(true);
+    while (tick < target && step()) {
+      // played forward to the target
+    }
+  }
+
+  /**
+   * A method that reads a keyframe, either putting the game into its state or
+   * checking that the game is already in it.
+   * 
+   * @param restore Whether to restore the game from the keyframe rather than
+   *                check it.
+   */
+
+  private void readKeyframe(boolean restore) {
+    int keyframeTick = records.getInt();
+    long keyframeClock = records.getLong();
+    float scale = records.getFloat();
+    int limit = records.getInt();
+    int length = records.getInt();
+    int end = records.position() + length;
+
+    if (restore) {
+      ByteBuffer saved = records.duplicate();
+      saved.limit(end);
+      game.readState(saved);
+      rules.readState(saved);
+      tick = keyframeTick;
+    } else if (divergedTick == -1) {
+      writeState();
+      boolean same = state.position() == length;
+      for (int i = 0; same && i < length; i++) {
+        same = state.get(i) == records.get(records.position() + i);
+      }
+      keyframesChecked++;
+      if (!same) {
+        divergedTick = keyframeTick;
+        System.out.println("Replay diverged before tick " + keyframeTick);
+      }
+    }
+    clock = keyframeClock;
+    level.setSpawnScale(scale);
+    game.setEnemyLimit(limit);
+    records.position(end);
+  }
+
+  private void writeState() {
+    while (true) {
+      try {
+        state.clear();
+        game.writeState(state);
+        rules.writeState(state);
+        return;
+      } catch (BufferOverflowException e) {
+        state = ByteBuffer.allocate(state.capacity() * 2);
+      }
+    }
+  }
+
+  /**
+   * A method that reads the rest of a tick record and runs the tick in the same
+   * order as the ShooterThread.
+   * 
+   * @param flags The flags of the tick.
+   */
+
+  private void runTick(int flags) {
+    if ((flags & ReplayRecorder.INPUT) != 0) {
+      input.read(records);
+    }
+    if ((flags & ReplayRecorder.STEP) != 0) {
+      step = records.getInt();
+    }
+    if ((flags & ReplayRecorder.DELTA) != 0) {
+      delta = records.getInt();
+    }
+    if ((flags & ReplayRecorder.LIMITS) != 0) {
+      level.setSpawnScale(records.getFloat());
+      game.setEnemyLimit(records.getInt());
+    }
+    clock += step;
+
+    game.beginTick(clock, delta);
+    if ((flags & ReplayRecorder.TURN) != 0) {
+      inputHandler.handleInputs(input);
+      rules.setAndUpdate(game);
+    }
+    game.update();
+    game.endTick();
+    tick++;
+  }
+
+  public ReplayHeader getHeader() {
+    return header;
+  }
+
+  public ShooterGame getGame() {
+    return game;
+  }
+
+  public ShooterRules getRules() {
+    return rules;
+  }
+
+  public int getTick() {
+    return tick;
+  }
+
+  public int getTotalTicks() {
+    return totalTicks;
+  }
+
+  public int getKeyframeCount() {
+    return keyframeTicks.length;
+  }
+
+  public int getKeyframesChecked() {
+    return keyframesChecked;
+  }
+
+  /**
+   * A method to get the tick before which the game was first found to differ
+   * from a keyframe.
+   * 
+   * @return The tick, or -1 if every keyframe checked has matched.
+   */
+
+  public int getDivergedTick() {
+    return divergedTick;
+  }
+
+  public boolean hasEnded() {
+    return ended;
+  }
+
+}
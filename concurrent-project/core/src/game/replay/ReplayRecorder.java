@@ -0,0 +1,337 @@
+package game.replay;
+
+import game.input.PlayerInput;
+import game.model.RolloutPlanner;
+import game.model.ShooterGame;
+import game.model.rules.ShooterRules;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The ReplayRecorder writes a single player session to a replay file as it is
+ * played. A game is only changed by its seed, the inputs of the player and the
+ * time each tick is given, so those are all that is recorded for each tick,
+ * and only when they differ from the tick before. Every few hundred ticks the
+ * full state of the game is written as a keyframe, which a replay can be
+ * restored from to seek without playing every tick from the start.
+ * 
+ * <p>
+ * After the header the file is compressed, and is made of records that each
+ * start with a byte. A tick record is a byte of the flags below followed by the
+ * values the flags say have changed. A keyframe record holds the tick it was
+ * taken before, the time and governor settings at that point and the state of
+ * the game and rules, and the tick after a keyframe writes all of its values
+ * again, as does the first tick after it that reads inputs, so that playing
+ * can start from any keyframe.
+ * 
+ * <p>
+ * Only single player sessions are recorded. In a local session with more than
+ * one player each player has their own game on its own thread, and the games
+ * share one ShooterRules that the ClockScheduler passes between their threads
+ * by how long each has held it. Which game has the rules on a tick depends on
+ * the timing of the threads, so the inputs of every player would not be enough
+ * to play the session again. Networked games are not recorded either, as the
+ * second player is controlled by the other client, and recording stops if the
+ * level is reloaded as the changes to the level are not recorded.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ReplayRecorder {
+
+  final static int TURN = 1; // the game had the rules this tick and read its inputs
+  final static int INPUT = 2;
+  final static int STEP = 4;
+  final static int DELTA = 8;
+  final static int LIMITS = 16;
+  final static int KEYFRAME = 0x40;
+  final static int END = 0x80;
+
+  private static boolean enabled = false;
+  private static int keyframeInterval = 500;
+
+  private ShooterGame game;
+  private ShooterRules rules;
+  private Path file;
+  private OutputStream out;
+  private ByteBuffer record = ByteBuffer.allocate(64);
+  private ByteBuffer state = ByteBuffer.allocate(1 << 16);
+  private int levelVersion;
+  private boolean closed;
+
+  private int ticks;
+  private int keyframes;
+  private boolean full;
+  private boolean fullInput;
+  private long lastClock;
+  private long lastStep;
+  private long lastDelta;
+  private float lastScale;
+  private int lastLimit;
+  private PlayerInput lastInput = new PlayerInput();
+
+  /**
+   * The ReplayRecorder writes the header of the replay file straight away, and
+   * the first keyframe before the first tick it records.
+   * 
+   * @param game  The game to record.
+   * @param rules The rules the game is played with.
+   * @param mode  The name of the game mode.
+   * @param file  The file to write the replay to.
+   * @throws IOException If the file cannot be written.
+   */
+
+  public ReplayRecorder(ShooterGame game, ShooterRules rules, String mode, Path file)
+      throws IOException {
+    this.game = game;
+    this.rules = rules;
+    this.file = file;
+    // How many moves of a plan fit in the time budget of a tick changes from
+    // run to run, so a recorded game plans every move on the tick it starts.
+    RolloutPlanner planner = game.getAiScheduler().getPlanner();
+    if (planner != null) {
+      planner.setTimed(false);
+    }
+    ReplayHeader header = ReplayHeader.capture(game, mode, keyframeInterval);
+    OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file));
+    DataOutputStream headerOut = new DataOutputStream(stream);
+    header.write(headerOut);
+    headerOut.flush();
+    out = new BufferedOutputStream(new DeflaterOutputStream(stream), 1 << 16);
+    levelVersion = game.getLevel().getVersion();
+    lastClock = header.getClock();
+    lastScale = header.getSpawnScale();
+    lastLimit = game.getEnemyLimit();
+  }
+
+  /**
+   * A method that makes a recorder for a game if recording is turned on and the
+   * game can be recorded. Replays are saved in the replays folder of the working
+   * directory, named after the level and the time recording started.
+   * 
+   * @param game  The game to record.
+   * @param rules The rules the game is played with.
+   * @param mode  The name of the game mode.
+   * @return The recorder, or null if the game is not being recorded.
+   */
+
+  public static ReplayRecorder create(ShooterGame game, ShooterRules rules, String mode) {
+    if (!enabled || game.isNetworked()) {
+      return null;
+    }
+    String name = game.getLevel().getFileName();
+    if (name.lastIndexOf('.') > 0) {
+      name = name.substring(0, name.lastIndexOf('.'));
+    }
+    name = name + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".rpl";
+    try {
+      Files.createDirectories(getReplayDirectory());
+      ReplayRecorder recorder = new ReplayRecorder(game, rules, mode,
+          getReplayDirectory().resolve(name));
+      System.out.println("Recording replay to " + recorder.file);
+      return recorder;
+    } catch (IOException e) {
+      System.out.println("Could not record a replay: " + e.getMessage());
+      return null;
+    }
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setKeyframeInterval(int interval) {
+    keyframeInterval = Math.max(1, interval);
+  }
+
+  public static int getKeyframeInterval() {
+    return keyframeInterval;
+  }
+
+  /**
+   * A method to get the folder replays are saved in.
+   * 
+   * @return The path of the replays folder in the working directory.
+   */
+
+  public static Path getReplayDirectory() {
+    return Paths.get(System.getProperty("user.dir"), "replays");
+  }
+
+  /**
+   * A method called by the thread of the game before each tick, which writes a
+   * keyframe when one is due. Recording is stopped here if the level has been
+   * reloaded.
+   */
+
+  public synchronized void beforeTick() {
+    if (closed) {
+      return;
+    }
+    if (game.getLevel().getVersion() != levelVersion) {
+      System.out.println("Replay stopped at tick " + ticks + " as the level was reloaded");
+      close();
+      return;
+    }
+    if (ticks % keyframeInterval == 0) {
+      try {
+        writeKeyframe();
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+  }
+
+  /**
+   * A method called by the thread of the game after each tick, which writes what
+   * the tick was given.
+   * 
+   * @param turn  Whether or not the game had the rules and read its inputs.
+   * @param input The inputs the game read, if it had the rules.
+   */
+
+  public synchronized void afterTick(boolean turn, PlayerInput input) {
+    if (closed) {
+      return;
+    }
+    long step = game.getTickClock() - lastClock;
+    long delta = game.getTickDelta();
+    float scale = game.getSpawnScale();
+    int limit = game.getVars().getMaxEnemies();
+
+    int flags = turn ? TURN : 0;
+    boolean inputChanged = turn && (fullInput || !input.matches(lastInput));
+    if (inputChanged) {
+      flags |= INPUT;
+    }
+    if (full || step != lastStep) {
+      flags |= STEP;
+    }
+    if (full || delta != lastDelta) {
+      flags |= DELTA;
+    }
+    if (scale != lastScale || limit != lastLimit) {
+      flags |= LIMITS;
+    }
+
+    record.clear();
+    record.put((byte) flags);
+    if (inputChanged) {
+      input.write(record);
+      lastInput.set(input);
+      fullInput = false;
+    }
+    if ((flags & STEP) != 0) {
+      record.putInt((int) step);
+    }
+    if ((flags & DELTA) != 0) {
+      record.putInt((int) delta);
+    }
+    if ((flags & LIMITS) != 0) {
+      record.putFloat(scale);
+      record.putInt(limit);
+    }
+    try {
+      out.write(record.array(), 0, record.position());
+    } catch (IOException e) {
+      fail(e);
+      return;
+    }
+    lastClock += step;
+    lastStep = step;
+    lastDelta = delta;
+    lastScale = scale;
+    lastLimit = limit;
+    full = false;
+    ticks++;
+  }
+
+  /**
+   * A method that writes the state of the game and rules as a keyframe. The
+   * buffer the state is written into is doubled until it fits.
+   * 
+   * @throws IOException If the file cannot be written.
+   */
+
+  private void writeKeyframe() throws IOException {
+    while (true) {
+      try {
+        state.clear();
+        game.writeState(state);
+        rules.writeState(state);
+        break;
+      } catch (BufferOverflowException e) {
+        state = ByteBuffer.allocate(state.capacity() * 2);
+      }
+    }
+    record.clear();
+    record.put((byte) KEYFRAME);
+    record.putInt(ticks);
+    record.putLong(lastClock);
+    record.putFloat(lastScale);
+    record.putInt(lastLimit);
+    record.putInt(state.position());
+    out.write(record.array(), 0, record.position());
+    out.write(state.array(), 0, state.position());
+    full = true;
+    fullInput = true;
+    keyframes++;
+  }
+
+  private void fail(IOException e) {
+    System.out.println("Replay stopped at tick " + ticks + ": " + e.getMessage());
+    closed = true;
+    try {
+      out.close();
+    } catch (IOException e2) {
+      e2.printStackTrace();
+    }
+  }
+
+  /**
+   * A method that ends the replay and closes the file. Nothing more is recorded
+   * after this is called.
+   */
+
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      record.clear();
+      record.put((byte) END);
+      record.putInt(ticks);
+      out.write(record.array(), 0, record.position());
+      out.close();
+      System.out.println("Replay saved to " + file + " (" + ticks + " ticks, " + keyframes
+          + " keyframes, " + Files.size(file) + " bytes)");
+    } catch (IOException e) {
+      System.out.println("Could not finish the replay: " + e.getMessage());
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public int getTicks() {
+    return ticks;
+  }
+
+}
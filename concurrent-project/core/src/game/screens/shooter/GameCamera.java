@@ -55,6 +55,21 @@ public class GameCamera extends Entity {
     setYPos(ypos);
   }
 
+  /**
+   * A method that centres the camera on where a target is drawn between ticks,
+   * so the target does not shake against the rest of the view.
+   * 
+   * @param target The target to follow.
+   * @param alpha  How far the renderer is through the current tick, from 0 to 1.
+   */
+
+  public void interpolatedFollow(Entity target, float alpha) {
+    int xpos = Math.round(target.getDrawX(alpha));
+    int ypos = Math.round(target.getDrawY(alpha));
+    setXPos(stayInBoarderx(xpos));
+    setYPos(stayInBoardery(ypos));
+  }
+
   /**
    * A method to keep the camera within the bounds of the stage on the x-axis.
    * 
@@ -1,19 +1,22 @@
 package game.screens.shooter;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import game.CameraVariables;
 import game.Core;
 import game.input.GlobalInput;
 import game.input.KeyboardInput;
 import game.model.GameModelViewController;
+import game.model.RewindBuffer;
 import game.model.ShooterGame;
 import game.model.rules.ShooterRules;
+import game.renderer.AssetRegistry;
 import game.renderer.ButtonListRenderer;
 import game.renderer.GameRenderList;
 import game.renderer.GameRenderer;
+import game.renderer.HudValue;
 import game.renderer.TextRenderer;
 import game.screens.GameScreenManager;
 import game.screens.Screen;
@@ -45,11 +48,13 @@ public class GameScreen extends Screen {
   private GameModelViewController gmvc;
 
   // UI related variables
+  private TextureRegion blank;
   private ButtonList buttons;
   private ButtonListRenderer buttonRend;
   private GameModeui gmui;
   private boolean startedEndOverlay = false;
   private GameEndOverlay endOverlay;
+  private HudValue rewindText = new HudValue();
 
   private KeyboardInput kinput;
 
@@ -78,7 +83,7 @@ public class GameScreen extends Screen {
     CameraVariables.yratio = ratioOrder[players - 1][1];
     CameraVariables.zoom = CameraVariables.zoomConfig[players - 1];
 
-    background = new Texture("blank.png");
+    blank = AssetRegistry.region("blank.png");
     views = players;
     this.gmvc = new GameModelViewController(gsm, players, gameMode, data, levelFileName);
     initMenu(gameMode);
@@ -105,7 +110,7 @@ public class GameScreen extends Screen {
     CameraVariables.yratio = ratioOrder[0][1];
     CameraVariables.zoom = CameraVariables.zoomConfig[0];
 
-    background = new Texture("blank.png");
+    blank = AssetRegistry.region("blank.png");
     views = 1;
     this.gmvc = new GameModelViewController(gsm, 1, "network", data, levelFileName);
     initMenu("network");
@@ -207,10 +212,12 @@ public class GameScreen extends Screen {
   @Override
   public void render(SpriteBatch sb) {
     sb.begin();
-    sb.draw(background, 0, 0, Core.width, Core.height);
+    sb.draw(blank, 0, 0, Core.width, Core.height);
     sb.end();
 
+    long renderStart = System.nanoTime();
     renderGames(sb);
+    gmvc.recordFrame(System.nanoTime() - renderStart);
 
     Gdx.gl.glViewport(0, 0, Core.width, Core.height);
 
@@ -219,6 +226,7 @@ public class GameScreen extends Screen {
     } else {
       if (!startedEndOverlay) {
         renderPaused(sb);
+        renderRewind(sb);
       }
     }
 
@@ -236,16 +244,18 @@ public class GameScreen extends Screen {
 
   @Override
   public void dispose() {
-    background.dispose();
+    AssetRegistry.release("blank.png");
     thandler.dispose();
     mthread.finish();
     buttonRend.dispose();
     buttons.dispose();
+    gmvc.dispose();
   }
 
   /**
    * A method to take the list of games and renderer them all to screen with the
-   * correct aspect ratios using the ratioOrder Double array.
+   * correct aspect ratios using the ratioOrder Double array. Every view is
+   * prepared before any of them are drawn.
    * 
    * @param sb The SpriteBatch used to draw to screen.
    */
@@ -253,6 +263,7 @@ public class GameScreen extends Screen {
   public void renderGames(SpriteBatch sb) {
     ShooterGame[] games = gmvc.getGames();
     GameRenderList[] renderList = gmvc.getRenderList();
+    gmvc.prepareViews();
     for (int i = 0; i < views; i++) {
       int curView = screenOrder[views - 1][i];
       int viewWidth = (int) ((ratioOrder[views - 1][0] * Core.width));
@@ -260,7 +271,7 @@ public class GameScreen extends Screen {
       int viewx = ((i) % 2) * viewWidth;
       int viewy = ((i) / 2) * viewHeight;
       Gdx.gl.glViewport(viewx, viewy, viewWidth, viewHeight);
-      GameRenderer.render(sb, games[curView - 1], renderList[curView - 1].getRenderArray(),
+      GameRenderer.submit(sb, games[curView - 1], renderList[curView - 1],
           gmvc.getRules().getMode(), i);
     }
   }
@@ -278,6 +289,30 @@ public class GameScreen extends Screen {
     TextRenderer.print(sb, pause, "white_back", Core.width / 2, 4 * Core.height / 6, width, height);
   }
 
+  /**
+   * A method to render how far back the game has been scrubbed and how much
+   * memory the rewind buffer is using, when there is one.
+   * 
+   * @param sb The SpriteBatch used to draw to screen.
+   */
+
+  public void renderRewind(SpriteBatch sb) {
+    RewindBuffer rewind = gmvc.getRewind();
+    if (rewind == null || rewind.getHeldTicks() == 0) {
+      return;
+    }
+    int height = Core.height / 24;
+    TextRenderer.print(sb, "REWIND", "white_back", Core.width / 2, 11 * Core.height / 12,
+        height * 6, height);
+    TextRenderer.printTime(sb, rewind.getTimeBack(), "white_back", Core.width / 2,
+        10 * Core.height / 12, Core.width / 6, Core.height / 16);
+    HudValue used = rewindText.set(rewind.getMemoryUsed() / 1024);
+    TextRenderer.print(sb, used, "white_back", Core.width / 2, 3 * Core.height / 12,
+        height * used.length(), height);
+    TextRenderer.print(sb, "KB KEPT", "white_back", Core.width / 2, 2 * Core.height / 12,
+        height * 7, height);
+  }
+
   /**
    * A button action that sets the GameScreenManager to the main menu.
    * 
@@ -363,6 +398,8 @@ public class GameScreen extends Screen {
 
   public class Timeui implements GameModeui {
 
+    private HudValue countdownText = new HudValue();
+
     @Override
     public String modeName() {
       return "timed";
@@ -375,7 +412,7 @@ public class GameScreen extends Screen {
       long time = Math.abs(rules.getVars().getTimeLimit() - rules.getVars().getTimePassed());
       if (time < 5000) {
         int countdown = (int) ((time / 1000) + 1);
-        TextRenderer.print(sb, String.valueOf(countdown), "white_back", Core.width / 2,
+        TextRenderer.print(sb, countdownText.set(countdown), "white_back", Core.width / 2,
             Core.height / 2, Core.height / 6, Core.height / 6);
       }
       TextRenderer.printTime(sb, time, "white_back", Core.width / 2, 10 * Core.height / 12,
@@ -401,6 +438,8 @@ public class GameScreen extends Screen {
 
   public class Netui implements GameModeui {
 
+    private HudValue countdownText = new HudValue();
+
     @Override
     public String modeName() {
       return "network";
@@ -413,7 +452,7 @@ public class GameScreen extends Screen {
       long time = Math.abs(rules.getVars().getTimeLimit() - rules.getVars().getTimePassed());
       if (time < 5000) {
         int countdown = (int) ((time / 1000) + 1);
-        TextRenderer.print(sb, String.valueOf(countdown), "white_back", Core.width / 2,
+        TextRenderer.print(sb, countdownText.set(countdown), "white_back", Core.width / 2,
             Core.height / 2, Core.height / 6, Core.height / 6);
       }
       TextRenderer.printTime(sb, time, "white_back", Core.width / 2, 10 * Core.height / 12,
@@ -439,6 +478,9 @@ public class GameScreen extends Screen {
 
   public class Stockui implements GameModeui {
 
+    private HudValue remainingText = new HudValue();
+    private HudValue livesText = new HudValue();
+
     @Override
     public String modeName() {
       return "stock";
@@ -449,13 +491,13 @@ public class GameScreen extends Screen {
       ShooterRules rules = gmvc.getRules();
       int remaining = rules.getVars().getDefeatQuota() - rules.getVars().getDefeated();
 
-      String remString = String.valueOf(remaining);
+      HudValue remString = remainingText.set(remaining);
       int height = Core.height / 16;
       int width = height * remString.length();
       TextRenderer.print(sb, remString, "white_back", Core.width / 2, 10 * Core.height / 12, width,
           height);
 
-      String lives = String.valueOf(rules.getVars().getLives());
+      HudValue lives = livesText.set(rules.getVars().getLives());
       width = height * lives.length();
       TextRenderer.print(sb, "LIVES", "white_back", Core.width / 2, 3 * Core.height / 12,
           Core.width / 8, Core.height / 18);
@@ -0,0 +1,126 @@
+package game.screens.threads;
+
+import game.model.levels.Level;
+import game.model.levels.LevelDiff;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LevelWatchThread watches the levels folder for changes to the file of the
+ * level being played. When the file is saved it is re-parsed and the
+ * differences are queued on the live level, which applies them in between
+ * ticks.
+ * 
+ * @author Brandon Hua
+ */
+
+public class LevelWatchThread implements Runnable {
+
+  private static boolean enabled = false;
+
+  private final static int POLLTIME = 100; // milliseconds
+  private final static int SETTLETIME = 50; // milliseconds
+
+  private Thread t;
+  private Level level;
+  private WatchService watcher;
+  private boolean active;
+
+  /**
+   * The LevelWatchThread registers the levels folder with a WatchService and
+   * starts watching it.
+   * 
+   * @param level The level being played.
+   * @throws IOException If the levels folder cannot be watched.
+   */
+
+  public LevelWatchThread(Level level) throws IOException {
+    this.level = level;
+    watcher = FileSystems.getDefault().newWatchService();
+    Level.getLevelDirectory().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_CREATE);
+    active = true;
+    t = new Thread(this);
+    t.setDaemon(true);
+    t.start();
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void run() {
+    while (active) {
+      try {
+        WatchKey key = watcher.poll(POLLTIME, TimeUnit.MILLISECONDS);
+        if (key != null) {
+          boolean changed = false;
+          for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && context.toString().equals(level.getFileName())) {
+              changed = true;
+            }
+          }
+          key.reset();
+          if (changed) {
+            reload(System.nanoTime());
+          }
+        }
+      } catch (InterruptedException e) {
+        System.out.println("Interrupted.");
+      } catch (ClosedWatchServiceException e) {
+        active = false;
+      }
+    }
+  }
+
+  /**
+   * A method that re-parses the level file and queues the differences on the
+   * live level. An editor may still be writing the file when the first event
+   * arrives, so invalid files are reported and skipped until the next save.
+   * 
+   * @param detectedTime The time the change was detected (in nanoseconds).
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+
+  private void reload(long detectedTime) throws InterruptedException {
+    Thread.sleep(SETTLETIME);
+    try {
+      Level reloaded = new Level(level.getFileName());
+      LevelDiff diff = new LevelDiff(level, reloaded, detectedTime);
+      if (diff.hasChanges()) {
+        level.queueReload(diff);
+      }
+    } catch (Exception e) {
+      System.out.println("Could not reload " + level.getFileName() + ": "
+          + e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * A method to stop watching the level folder and terminate the thread.
+   */
+
+  public void finish() {
+    active = false;
+    try {
+      watcher.close();
+    } catch (IOException e) {
+      System.out.println("Could not close the level watcher.");
+    }
+  }
+
+}
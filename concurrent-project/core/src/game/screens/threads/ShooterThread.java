@@ -1,9 +1,12 @@
 package game.screens.threads;
 
 import game.Core;
+import game.SimulationVariables;
 import game.input.ShooterGameInputHandler;
+import game.model.RewindBuffer;
 import game.model.ShooterGame;
 import game.model.rules.ShooterRules;
+import game.replay.ReplayRecorder;
 
 /**
  * The ShooterThread class is specific to the shooter game and manages the rule
@@ -20,6 +23,8 @@ public class ShooterThread implements Runnable {
   private ClockScheduler clock;
   private boolean active;
   private ShooterGameInputHandler inputHandler;
+  private volatile ReplayRecorder recorder;
+  private volatile RewindBuffer rewind;
 
   /**
    * Constructor for the ShooterThreads.
@@ -47,20 +52,56 @@ public class ShooterThread implements Runnable {
   public void run() {
     while (active) {
       try {
-        Thread.sleep(10);
+        Thread.sleep(SimulationVariables.tickTime);
       } catch (InterruptedException e) {
         System.out.println("Interrupted.");
       }
-      
-      if (clock.getCurrentThread().equals(threadName)) {
+
+      ReplayRecorder tickRecorder = recorder;
+      if (tickRecorder != null) {
+        tickRecorder.beforeTick();
+      }
+      game.beginTick();
+      boolean turn = clock.getCurrentThread().equals(threadName);
+      if (turn) {
         inputHandler.handleInputs();
         clock.getRules().setAndUpdate(game);
         clock.cycle();
       } 
       game.update();
+      game.endTick();
+      if (tickRecorder != null) {
+        tickRecorder.afterTick(turn, inputHandler.getInput());
+      }
+      RewindBuffer tickRewind = rewind;
+      if (tickRewind != null) {
+        tickRewind.afterTick();
+      }
     }
   }
 
+  /**
+   * A method to set the recorder that the ticks of the game are recorded with,
+   * which starts recording from the next tick.
+   * 
+   * @param recorder The recorder, or null to stop recording.
+   */
+
+  public void setRecorder(ReplayRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  /**
+   * A method to set the buffer that the last few seconds of the game are kept
+   * in to scrub back through.
+   * 
+   * @param rewind The buffer, or null to stop keeping ticks.
+   */
+
+  public void setRewind(RewindBuffer rewind) {
+    this.rewind = rewind;
+  }
+
   public ShooterGame getGame() {
     return game;
   }
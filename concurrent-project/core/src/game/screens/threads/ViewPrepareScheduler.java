@@ -0,0 +1,102 @@
+package game.screens.threads;
+
+import error.GlobalErrors;
+import game.model.ShooterGame;
+import game.renderer.GameRenderList;
+import game.renderer.GameRenderer;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * The ViewPrepareScheduler prepares the draw lists of every split-screen view
+ * in parallel. The render thread prepares the first view itself while a
+ * ViewPrepareThread prepares each of the others, and every view is ready to be
+ * submitted once prepareAll returns.
+ * 
+ * <p>
+ * Preparing a view only reads the game, so it sees the entity lists while the
+ * ShooterThreads update them just as rendering on one thread did.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ViewPrepareScheduler {
+
+  private static boolean enabled = true;
+
+  private ShooterGame[] games;
+  private GameRenderList[] renderLists;
+  private ViewPrepareThread[] workers;
+  private CyclicBarrier start;
+  private CyclicBarrier end;
+  private boolean active;
+
+  /**
+   * The ViewPrepareScheduler starts a thread for every view after the first.
+   * 
+   * @param games       The games shown in each view.
+   * @param renderLists The GameRenderLists of each view.
+   */
+
+  public ViewPrepareScheduler(ShooterGame[] games, GameRenderList[] renderLists) {
+    this.games = games;
+    this.renderLists = renderLists;
+    start = new CyclicBarrier(games.length);
+    end = new CyclicBarrier(games.length);
+    workers = new ViewPrepareThread[games.length - 1];
+    for (int i = 1; i < games.length; i++) {
+      workers[i - 1] = new ViewPrepareThread(games[i], renderLists[i], start, end);
+    }
+    active = true;
+  }
+
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * A method that prepares every view, returning once all of them are ready. If
+   * the workers have stopped the views are prepared one after another instead.
+   */
+
+  public void prepareAll() {
+    if (active) {
+      try {
+        start.await();
+        try {
+          GameRenderer.prepare(games[0], renderLists[0]);
+        } finally {
+          end.await();
+        }
+        return;
+      } catch (InterruptedException e) {
+        System.out.println("Interrupted.");
+      } catch (BrokenBarrierException e) {
+        GlobalErrors.setError("View preparation stopped unexpectedly.");
+      }
+      finish();
+    }
+    for (int i = 0; i < games.length; i++) {
+      GameRenderer.prepare(games[i], renderLists[i]);
+    }
+  }
+
+  /**
+   * A method to stop every worker thread.
+   */
+
+  public void finish() {
+    active = false;
+    for (ViewPrepareThread worker : workers) {
+      worker.finish();
+    }
+    start.reset();
+    end.reset();
+  }
+
+}
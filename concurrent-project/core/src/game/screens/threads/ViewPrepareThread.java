@@ -0,0 +1,75 @@
+package game.screens.threads;
+
+import error.GlobalErrors;
+import game.model.ShooterGame;
+import game.renderer.GameRenderList;
+import game.renderer.GameRenderer;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * The ViewPrepareThread prepares the draw list of one split-screen view every
+ * frame, at the same time as the other views are prepared.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ViewPrepareThread implements Runnable {
+
+  private Thread t;
+  private ShooterGame game;
+  private GameRenderList renderList;
+  private CyclicBarrier start;
+  private CyclicBarrier end;
+  private boolean active;
+
+  /**
+   * The ViewPrepareThread starts waiting for the first frame to be prepared.
+   * 
+   * @param game       The game shown in the view.
+   * @param renderList The GameRenderList of the view.
+   * @param start      The barrier tripped when a frame should be prepared.
+   * @param end        The barrier tripped when every view has been prepared.
+   */
+
+  public ViewPrepareThread(ShooterGame game, GameRenderList renderList, CyclicBarrier start,
+      CyclicBarrier end) {
+    this.game = game;
+    this.renderList = renderList;
+    this.start = start;
+    this.end = end;
+    active = true;
+    t = new Thread(this, "view-prepare-" + game.getPlayer().getPlayerNum());
+    t.setDaemon(true);
+    t.start();
+  }
+
+  @Override
+  public void run() {
+    while (active) {
+      try {
+        start.await();
+        try {
+          GameRenderer.prepare(game, renderList);
+        } catch (RuntimeException e) {
+          GlobalErrors.setError("Could not prepare view " + t.getName() + ": " + e.getMessage());
+        }
+        end.await();
+      } catch (InterruptedException e) {
+        active = false;
+      } catch (BrokenBarrierException e) {
+        active = false;
+      }
+    }
+  }
+
+  /**
+   * A method to stop the thread once it is next woken.
+   */
+
+  public void finish() {
+    active = false;
+  }
+
+}
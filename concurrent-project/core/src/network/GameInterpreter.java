@@ -1,6 +1,7 @@
 package network;
 
 import error.GlobalErrors;
+import game.entities.Facing;
 import game.model.ShooterGame;
 
 /**
@@ -49,9 +50,9 @@ public class GameInterpreter {
     public void checkStringAction(String[] data, ShooterGame game) {
       if (data[0].equals("pos")) {
         try {
-          String facing = data[1];
-          int xpos = Integer.valueOf(data[2]);
-          int ypos = Integer.valueOf(data[3]);
+          int facing = Facing.fromName(data[1]);
+          int xpos = Integer.parseInt(data[2]);
+          int ypos = Integer.parseInt(data[3]);
           game.getNetPlayer().setFacing(facing);
           game.getNetPlayer().setPos(xpos, ypos);
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package network;
 
+import game.entities.Facing;
 import game.model.ShooterGame;
 
 /**
@@ -21,11 +22,21 @@ public class GameNetworkData {
    */
 
   public static String getClientPosition(ShooterGame game) {
-    String facing = game.getPlayer().getFacing();
-    int[] gamePos = new int[] { game.getPlayer().getXpos(), game.getPlayer().getYpos() };
-    String xy = String.valueOf(gamePos[0]) + " " + String.valueOf(gamePos[1]);
-    String movement = "pos " + facing + " " + xy;
-    return movement;
+    return getClientPosition(game.getPlayer().getFacing(), game.getPlayer().getXpos(),
+        game.getPlayer().getYpos());
+  }
+
+  /**
+   * The position of a character and the direction they're facing.
+   * 
+   * @param facing The direction the character is facing.
+   * @param xpos   The x position of the character.
+   * @param ypos   The y position of the character.
+   * @return A string in the format "pos dir x y".
+   */
+
+  public static String getClientPosition(int facing, int xpos, int ypos) {
+    return "pos " + Facing.getName(facing) + " " + xpos + " " + ypos;
   }
   
   /**
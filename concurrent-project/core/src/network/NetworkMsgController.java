@@ -22,6 +22,13 @@ public class NetworkMsgController extends Thread {
   Interpreter[] interpreters;
   private boolean finished = false;
 
+  private int lastFacing = -1;
+  private int lastX;
+  private int lastY;
+  private String lastPos;
+  private String lastInput;
+  private String[] lastData;
+
   /**
    * The NetworkMsgController initialises a local GameModelViewController to get
    * the game being played.
@@ -45,19 +52,38 @@ public class NetworkMsgController extends Thread {
    * string accordingly.
    * 
    * <p>This method also interprets the incoming data and applies them to the game.
+   * The position message is only rebuilt when the player has moved or turned, and
+   * the incoming data is only split again when it has changed, as this is called
+   * every 10 milliseconds.
    */
 
   public void update() {
     ShooterGame game = gmvc.getGames()[0];
     if (!game.isFinished()) {
-      String pos = GameNetworkData.getClientPosition(game);
-      nthread.setOutputString(pos);
+      nthread.setOutputString(getClientPosition(game));
     } else {
       String finish = GameNetworkData.getFinalScore(game);
       nthread.setOutputString(finish);
     }
-    String[] data = nthread.getInputString().split(" ");
-    interpret(data, game);
+    String input = nthread.getInputString();
+    if (!input.equals(lastInput)) {
+      lastData = input.split(" ");
+      lastInput = input;
+    }
+    interpret(lastData, game);
+  }
+
+  private String getClientPosition(ShooterGame game) {
+    int facing = game.getPlayer().getFacing();
+    int xpos = game.getPlayer().getXpos();
+    int ypos = game.getPlayer().getYpos();
+    if (lastPos == null || facing != lastFacing || xpos != lastX || ypos != lastY) {
+      lastPos = GameNetworkData.getClientPosition(facing, xpos, ypos);
+      lastFacing = facing;
+      lastX = xpos;
+      lastY = ypos;
+    }
+    return lastPos;
   }
 
   /**
@@ -69,8 +95,8 @@ public class NetworkMsgController extends Thread {
    */
 
   public void interpret(String[] data, ShooterGame game) {
-    for (Interpreter i : interpreters) {
-      i.checkStringAction(data, game);
+    for (int i = 0; i < interpreters.length; i++) {
+      interpreters[i].checkStringAction(data, game);
     }
   }
 
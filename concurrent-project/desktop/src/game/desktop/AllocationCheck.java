@@ -0,0 +1,334 @@
+package game.desktop;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.sun.management.ThreadMXBean;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.ecs.EntityWorld;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.ParallelPhases;
+import game.model.SessionSnapshot;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+import game.renderer.AssetRegistry;
+import game.renderer.GameRenderList;
+import game.renderer.GameRenderer;
+import game.renderer.HudValue;
+import game.renderer.RenderCommandBuffer;
+import game.renderer.TextRenderer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The AllocationCheck class runs a standard game with no window and fails if a
+ * tick allocates any memory once the game has warmed up. It is run from the
+ * desktop directory, so the levels folder can be found, and exits with a status
+ * of 1 if a check fails.
+ * 
+ * <p>
+ * Two games are checked, with chasing and shooting enemies placed and the
+ * player shooting the whole time. The first uses Enemy and Bullet objects,
+ * where removed bullets are kept to be fired again, and the second uses the
+ * EntityWorld, where entities are rows of reused columns. Both games are then
+ * checked again with a snapshot of the session taken and restored around every
+ * tick, as a snapshot is meant to be cheap enough to take every frame.
+ * 
+ * <p>
+ * Preparing a view of each game is checked next, recording and sorting the
+ * enemies, bullets and structures with placeholder regions from the
+ * AssetRegistry, as there is no graphics context to load the textures with.
+ * The scenery, players and health bars are left out for the same reason. The
+ * text of the HUD is checked last, with numbers that change every frame.
+ * 
+ * @author Brandon Hua
+ */
+
+public class AllocationCheck {
+
+  private final static String LEVEL = "town.lvl";
+  private final static int ENEMIES = 100;
+  private final static int WARMUP = 6000;
+  private final static int TICKS = 3000;
+
+  /**
+   * The main method runs each check and prints the bytes allocated per tick.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    boolean passed = true;
+    passed &= check("objects", false, true, new String[] { "chase", "shoot" }, false);
+    passed &= check("entity world", true, true, new String[] { "chase", "shoot" }, false);
+    passed &= check("objects with snapshots", false, true, new String[] { "chase", "shoot" },
+        true);
+    passed &= check("entity world with snapshots", true, true,
+        new String[] { "chase", "shoot" }, true);
+    passed &= checkRender("objects", false);
+    passed &= checkRender("entity world", true);
+    passed &= checkText();
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * A method that runs one game for the warm-up and measured ticks, and prints
+   * the memory allocated during the measured ticks.
+   * 
+   * @param name       The name of the check.
+   * @param world      Whether or not the game uses the EntityWorld.
+   * @param shoot      Whether or not the player shoots.
+   * @param enemyTypes The types of enemy to place, placed in turn.
+   * @param snapshots  Whether or not to take and restore a snapshot every tick.
+   * @return A boolean for whether or not no memory was allocated.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static boolean check(String name, boolean world, boolean shoot, String[] enemyTypes,
+      boolean snapshots) throws IOException {
+    EntityWorld.setEnabled(world);
+    Core.deltaTime = SimulationVariables.tickTime;
+
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+    ShooterRules rules = new ShooterRules(game, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler inputHandler = new ShooterGameInputHandler(game);
+    placeEnemies(game, enemyTypes);
+    SessionSnapshot snapshot = snapshots ? new SessionSnapshot() : null;
+
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    int tick = 0;
+    for (; tick < WARMUP; tick++) {
+      tick(game, rules, inputHandler, tick, shoot, snapshot, threads);
+    }
+
+    long[] ids = tickThreads();
+    long before = workerBytes(threads, ids);
+    long allocated = 0;
+    for (; tick < WARMUP + TICKS; tick++) {
+      allocated += tick(game, rules, inputHandler, tick, shoot, snapshot, threads);
+    }
+    allocated += workerBytes(threads, ids) - before;
+
+    GlobalInput.playerShoot[0] = false;
+    EntityWorld.setEnabled(false);
+    System.out.println(name + ": " + ((float) allocated / TICKS) + " bytes per tick with "
+        + game.getVars().getCurrentEnemies() + " enemies");
+    if (allocated > 0) {
+      System.out.println(name + ": FAILED, " + allocated + " bytes allocated over " + TICKS
+          + " ticks");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * A method that runs one tick in the same order as the ShooterThread, with the
+   * player walking in a square. Only the calls into the game are measured, as the
+   * JVM now and then allocates a little on the current thread when compiled code
+   * is swapped in for the loop around them, which is not memory the game uses.
+   * 
+   * @param game         The game to update.
+   * @param rules        The rules of the game.
+   * @param inputHandler The input handler of the game.
+   * @param tick         The number of the tick.
+   * @param shoot        Whether or not the player shoots.
+   * @param snapshot     The snapshot to take and restore before the tick, if
+   *                     any.
+   * @param threads      The bean to read the memory of the current thread from.
+   * @return The memory allocated by the current thread during the tick (in
+   *         bytes).
+   */
+
+  private static long tick(ShooterGame game, ShooterRules rules,
+      ShooterGameInputHandler inputHandler, int tick, boolean shoot, SessionSnapshot snapshot,
+      ThreadMXBean threads) {
+    GlobalInput.playerRight[0] = (tick / 100) % 2;
+    GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+    GlobalInput.playerUp[0] = (tick / 150) % 2;
+    GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+    GlobalInput.playerShoot[0] = shoot;
+
+    long id = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(id);
+    if (snapshot != null) {
+      snapshot.capture(game, rules);
+      snapshot.restore(game, rules);
+    }
+    game.beginTick();
+    inputHandler.handleInputs();
+    rules.setAndUpdate(game);
+    game.update();
+    game.endTick();
+    return threads.getThreadAllocatedBytes(id) - before;
+  }
+
+  /**
+   * A method that runs one game, preparing a view of it after every tick, and
+   * prints the memory allocated while preparing once the game has warmed up.
+   * 
+   * @param name  The name of the game checked.
+   * @param world Whether or not the game uses the EntityWorld.
+   * @return A boolean for whether or not no memory was allocated.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static boolean checkRender(String name, boolean world) throws IOException {
+    EntityWorld.setEnabled(world);
+    Core.deltaTime = SimulationVariables.tickTime;
+
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+    ShooterRules rules = new ShooterRules(game, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler inputHandler = new ShooterGameInputHandler(game);
+    placeEnemies(game, new String[] { "chase", "shoot" });
+    AssetRegistry.setPlaceholders(true);
+    GameRenderList renderList = new GameRenderList(game);
+
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long id = Thread.currentThread().getId();
+    int tick = 0;
+    for (; tick < WARMUP; tick++) {
+      tick(game, rules, inputHandler, tick, true, null, threads);
+      GameRenderer.prepare(game, renderList);
+    }
+    long allocated = 0;
+    for (; tick < WARMUP + TICKS; tick++) {
+      tick(game, rules, inputHandler, tick, true, null, threads);
+      long before = threads.getThreadAllocatedBytes(id);
+      GameRenderer.prepare(game, renderList);
+      allocated += threads.getThreadAllocatedBytes(id) - before;
+    }
+
+    renderList.dispose();
+    AssetRegistry.setPlaceholders(false);
+    GlobalInput.playerShoot[0] = false;
+    EntityWorld.setEnabled(false);
+    System.out.println("render " + name + ": " + ((float) allocated / TICKS)
+        + " bytes per frame with " + renderList.getCommands().size() + " commands");
+    if (allocated > 0) {
+      System.out.println("render " + name + ": FAILED, " + allocated + " bytes allocated over "
+          + TICKS + " frames");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * A method that records the text of the HUD every frame, with a score, count
+   * down and time that change every frame, and prints the memory allocated per
+   * frame once the text has warmed up.
+   * 
+   * @return A boolean for whether or not no memory was allocated.
+   */
+
+  private static boolean checkText() {
+    TextureRegion[] characters = new TextureRegion[256];
+    for (int i = 0; i < characters.length; i++) {
+      characters[i] = new TextureRegion();
+    }
+    TextRenderer.loadRegions(new TextureRegion(), characters, characters);
+    RenderCommandBuffer commands = new RenderCommandBuffer();
+    HudValue score = new HudValue();
+    HudValue countdown = new HudValue();
+    HudValue lives = new HudValue();
+
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long id = Thread.currentThread().getId();
+    int frame = 0;
+    for (; frame < WARMUP; frame++) {
+      recordText(commands, frame, score, countdown, lives);
+    }
+    long allocated = 0;
+    for (; frame < WARMUP + TICKS; frame++) {
+      long before = threads.getThreadAllocatedBytes(id);
+      recordText(commands, frame, score, countdown, lives);
+      allocated += threads.getThreadAllocatedBytes(id) - before;
+    }
+
+    System.out.println("text: " + ((float) allocated / TICKS) + " bytes per frame with "
+        + commands.size() + " commands");
+    if (allocated > 0) {
+      System.out.println("text: FAILED, " + allocated + " bytes allocated over " + TICKS
+          + " frames");
+      return false;
+    }
+    return true;
+  }
+
+  private static void recordText(RenderCommandBuffer commands, int frame, HudValue score,
+      HudValue countdown, HudValue lives) {
+    commands.clear();
+    TextRenderer.record(commands, "SCORE", "white_back", 400, 560, 120, 24);
+    TextRenderer.record(commands, score.set(frame * 37 - 50000), "white_back", 400, 524, 168,
+        24);
+    TextRenderer.record(commands, "TIME REMAINING", "white_back", 400, 30, 336, 24);
+    TextRenderer.recordTime(commands, 300000L - frame * 17L, "white_back", 400, 60, 160, 36);
+    TextRenderer.record(commands, countdown.set(5 - (frame % 6)), "white_back", 400, 300, 96,
+        96);
+    TextRenderer.record(commands, "LIVES", "white", 400, 100, 120, 24);
+    TextRenderer.record(commands, lives.set(frame % 12), "black", 400, 70, 48, 24);
+    commands.sort();
+  }
+
+  private static void placeEnemies(ShooterGame game, String[] enemyTypes) {
+    int[] bounds = game.getLevel().getBounds();
+    SightGrid sight = game.getSight();
+    Random random = new Random(ENEMIES);
+    int placed = 0;
+    while (placed < ENEMIES) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (!sight.isOccupied(sight.cellOf(x, y))) {
+        game.addEnemy(x, y, 32, 32, enemyTypes[placed % enemyTypes.length]);
+        placed++;
+      }
+    }
+  }
+
+  /**
+   * A method to get the threads a tick runs on, which are the current thread and
+   * the workers of the pool that the parallel phases are split across.
+   * 
+   * @return The ids of the threads, starting with the current thread.
+   */
+
+  private static long[] tickThreads() {
+    ArrayList<Long> found = new ArrayList<Long>();
+    found.add(Thread.currentThread().getId());
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread instanceof ForkJoinWorkerThread
+          && ((ForkJoinWorkerThread) thread).getPool() == ParallelPhases.getPool()) {
+        found.add(thread.getId());
+      }
+    }
+    long[] ids = new long[found.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = found.get(i);
+    }
+    return ids;
+  }
+
+  private static long workerBytes(ThreadMXBean threads, long[] ids) {
+    long total = 0;
+    for (int i = 1; i < ids.length; i++) {
+      total += threads.getThreadAllocatedBytes(ids[i]);
+    }
+    return total;
+  }
+
+}
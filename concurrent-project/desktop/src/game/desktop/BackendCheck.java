@@ -0,0 +1,209 @@
+package game.desktop;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.Bullet;
+import game.entities.Enemy;
+import game.entities.PlayerCharacter;
+import game.entities.ecs.Archetype;
+import game.entities.ecs.EntityWorld;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.AiScheduler;
+import game.model.ParallelPhases;
+import game.model.RolloutPlanner;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The BackendCheck runs the same game on Enemy and Bullet objects and on an
+ * EntityWorld side by side, with no window, and fails if the state of the two
+ * ever differs. Every tick the player, the score and every enemy and bullet
+ * are compared, including their velocities, so a rule such as knock-back that
+ * only one of the two follows is found on the tick it first happens. It is run
+ * from the desktop directory and exits with a status of 1 if a check fails.
+ * 
+ * <p>
+ * The options that do not apply to an EntityWorld are turned off for both
+ * games, the same as the ConfigLoader does.
+ * 
+ * @author Brandon Hua
+ */
+
+public class BackendCheck {
+
+  private final static String LEVEL = "town.lvl";
+  private final static long SEED = 43;
+  private final static int TICKS = 3000;
+
+  /**
+   * The main method runs each check and prints whether the two games matched.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    AiScheduler.setEnabled(false);
+    ParallelPhases.setEnabled(false);
+    RolloutPlanner.setEnabled(false);
+    Core.deltaTime = SimulationVariables.tickTime;
+
+    boolean passed = true;
+    passed &= check("chasers", new String[] { "chase" }, 50);
+    passed &= check("chasers and shooters", new String[] { "chase", "shoot" }, 300);
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * A method that runs a game on each backend, ticking them in turn with the
+   * same input, and compares them after every tick.
+   * 
+   * @param name       The name of the check.
+   * @param enemyTypes The types of enemy to place, placed in turn.
+   * @param enemies    The number of enemies to place.
+   * @return A boolean for whether or not the games matched on every tick.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static boolean check(String name, String[] enemyTypes, int enemies)
+      throws IOException {
+    ShooterGame objects = createGame(false, enemyTypes, enemies);
+    ShooterGame world = createGame(true, enemyTypes, enemies);
+    ShooterRules objectRules = new ShooterRules(objects, "timed", Long.MAX_VALUE);
+    ShooterRules worldRules = new ShooterRules(world, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler objectInput = new ShooterGameInputHandler(objects);
+    ShooterGameInputHandler worldInput = new ShooterGameInputHandler(world);
+
+    for (int tick = 0; tick < TICKS; tick++) {
+      GlobalInput.playerRight[0] = (tick / 100) % 2;
+      GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+      GlobalInput.playerUp[0] = (tick / 150) % 2;
+      GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+      GlobalInput.playerShoot[0] = true;
+
+      tick(objects, objectRules, objectInput);
+      tick(world, worldRules, worldInput);
+
+      String difference = compare(objects, world);
+      if (difference != null) {
+        GlobalInput.playerShoot[0] = false;
+        System.out.println(name + ": FAILED on tick " + tick + ", " + difference);
+        return false;
+      }
+    }
+    GlobalInput.playerShoot[0] = false;
+    System.out.println(name + ": matched for " + TICKS + " ticks, "
+        + objects.getVars().getDefeated() + " enemies defeated");
+    return true;
+  }
+
+  /**
+   * A method that creates a game on one of the backends, with enemies placed
+   * the same way on both.
+   * 
+   * @param entityWorld Whether or not the game uses the EntityWorld.
+   * @param enemyTypes  The types of enemy to place, placed in turn.
+   * @param enemies     The number of enemies to place.
+   * @return The game.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static ShooterGame createGame(boolean entityWorld, String[] enemyTypes, int enemies)
+      throws IOException {
+    EntityWorld.setEnabled(entityWorld);
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false, SEED);
+    EntityWorld.setEnabled(false);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+
+    int[] bounds = level.getBounds();
+    SightGrid sight = game.getSight();
+    Random random = new Random(SEED);
+    int placed = 0;
+    while (placed < enemies) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (!sight.isOccupied(sight.cellOf(x, y))) {
+        game.addEnemy(x, y, 32, 32, enemyTypes[placed % enemyTypes.length]);
+        placed++;
+      }
+    }
+    return game;
+  }
+
+  private static void tick(ShooterGame game, ShooterRules rules,
+      ShooterGameInputHandler inputHandler) {
+    game.beginTick();
+    inputHandler.handleInputs();
+    rules.setAndUpdate(game);
+    game.update();
+    game.endTick();
+  }
+
+  /**
+   * A method that compares the state of a game of objects with a game using an
+   * EntityWorld.
+   * 
+   * @param objects The game of Enemy and Bullet objects.
+   * @param world   The game using an EntityWorld.
+   * @return A description of the first difference found, or null if there is
+   *         none.
+   */
+
+  private static String compare(ShooterGame objects, ShooterGame world) {
+    PlayerCharacter objectPlayer = objects.getPlayer();
+    PlayerCharacter worldPlayer = world.getPlayer();
+    if (objectPlayer.getXpos() != worldPlayer.getXpos()
+        || objectPlayer.getYpos() != worldPlayer.getYpos()
+        || objectPlayer.getHealth() != worldPlayer.getHealth()) {
+      return "player at " + objectPlayer.getXpos() + "," + objectPlayer.getYpos() + " against "
+          + worldPlayer.getXpos() + "," + worldPlayer.getYpos();
+    }
+    if (objects.getVars().getScore() != world.getVars().getScore()) {
+      return "score " + objects.getVars().getScore() + " against " + world.getVars().getScore();
+    }
+
+    ArrayList<Enemy> enemies = objects.getEnemies();
+    Archetype rows = world.getWorld().getEnemies();
+    if (enemies.size() != rows.getCount()) {
+      return enemies.size() + " enemies against " + rows.getCount();
+    }
+    for (int i = 0; i < enemies.size(); i++) {
+      Enemy enemy = enemies.get(i);
+      if (enemy.getXpos() != rows.getX()[i] || enemy.getYpos() != rows.getY()[i]
+          || enemy.getXVel() != rows.getXVel()[i] || enemy.getYVel() != rows.getYVel()[i]
+          || enemy.getHealth() != rows.getHealth()[i]) {
+        return "enemy " + i + " at " + enemy.getXpos() + "," + enemy.getYpos() + " moving "
+            + enemy.getXVel() + "," + enemy.getYVel() + " against " + rows.getX()[i] + ","
+            + rows.getY()[i] + " moving " + rows.getXVel()[i] + "," + rows.getYVel()[i];
+      }
+    }
+
+    ArrayList<Bullet> bullets = objects.getBullets();
+    rows = world.getWorld().getBullets();
+    if (bullets.size() != rows.getCount()) {
+      return bullets.size() + " bullets against " + rows.getCount();
+    }
+    for (int i = 0; i < bullets.size(); i++) {
+      Bullet bullet = bullets.get(i);
+      if (bullet.getXpos() != rows.getX()[i] || bullet.getYpos() != rows.getY()[i]
+          || bullet.getXVel() != rows.getXVel()[i] || bullet.getYVel() != rows.getYVel()[i]
+          || bullet.isFriendly() != rows.getFriendly()[i]) {
+        return "bullet " + i + " at " + bullet.getXpos() + "," + bullet.getYpos() + " against "
+            + rows.getX()[i] + "," + rows.getY()[i];
+      }
+    }
+    return null;
+  }
+
+}
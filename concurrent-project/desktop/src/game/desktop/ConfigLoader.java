@@ -2,6 +2,19 @@ package game.desktop;
 
 import game.CameraVariables;
 import game.Core;
+import game.SimulationVariables;
+import game.entities.ecs.EntityWorld;
+import game.model.AiScheduler;
+import game.model.GameRandom;
+import game.model.ParallelPhases;
+import game.model.PerformanceGovernor;
+import game.model.RewindBuffer;
+import game.model.RolloutPlanner;
+import game.model.levels.SightGrid;
+import game.renderer.AssetRegistry;
+import game.replay.ReplayRecorder;
+import game.screens.threads.LevelWatchThread;
+import game.screens.threads.ViewPrepareScheduler;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -27,7 +40,12 @@ public class ConfigLoader {
 
   public ConfigLoader() {
     rules = new StringRule[] { new WidthRule(), new HeightRule(), new ZoomRule(),
-        new StructResRule() };
+        new StructResRule(), new LevelWatchRule(), new CullStatsRule(),
+        new TextureAtlasRule(), new ParallelViewsRule(), new TickTimeRule(),
+        new GovernorRule(), new FrameBudgetRule(), new AiLodRule(), new AiBudgetRule(),
+        new LineOfSightRule(), new ParallelPhasesRule(),
+        new EntityWorldRule(), new SeedRule(), new ReplayRule(),
+        new RewindRule(), new RolloutRule() };
   }
 
   /**
@@ -51,6 +69,33 @@ public class ConfigLoader {
       createConfig(workingDir);
       loadConfig(fileName);
     }
+    refuseEntityWorldCombinations();
+  }
+
+  /**
+   * A method that turns off the options that only work on Enemy and Bullet
+   * objects when the entity world is used. Enemies in an EntityWorld all act
+   * every tick as one pass over their columns, so the AiScheduler tiers and
+   * budget, the split of the AI and collisions into parallel phases and the
+   * RolloutPlanner would otherwise be left on while doing nothing.
+   */
+
+  public void refuseEntityWorldCombinations() {
+    if (!EntityWorld.isEnabled()) {
+      return;
+    }
+    if (AiScheduler.isEnabled()) {
+      System.out.println("ai_lod does not apply to entity_world, turning it off");
+      AiScheduler.setEnabled(false);
+    }
+    if (ParallelPhases.isEnabled()) {
+      System.out.println("parallel_phases does not apply to entity_world, turning it off");
+      ParallelPhases.setEnabled(false);
+    }
+    if (RolloutPlanner.isEnabled()) {
+      System.out.println("rollout does not apply to entity_world, turning it off");
+      RolloutPlanner.setEnabled(false);
+    }
   }
 
   /**
@@ -71,6 +116,22 @@ public class ConfigLoader {
       writer.write("window_height\t600\n");
       writer.write("zoom\t2\t1\t1\t1\n");
       writer.write("s_res\t1\n");
+      writer.write("level_watch\t0\n");
+      writer.write("cull_stats\t0\n");
+      writer.write("texture_atlas\t1\n");
+      writer.write("parallel_views\t1\n");
+      writer.write("tick_time\t10\n");
+      writer.write("governor\t1\n");
+      writer.write("frame_budget\t12\n");
+      writer.write("ai_lod\t1\n");
+      writer.write("ai_budget\t1024\n");
+      writer.write("line_of_sight\t1\n");
+      writer.write("parallel_phases\t0\t2048\t0\n");
+      writer.write("entity_world\t0\n");
+      writer.write("seed\t0\n");
+      writer.write("replay\t0\t500\n");
+      writer.write("rewind\t0\t10\t16384\n");
+      writer.write("rollout\t1\t1\t1000\n");
       writer.close();
       return true;
     } else {
@@ -213,4 +274,343 @@ public class ConfigLoader {
 
   }
 
+  /**
+   * A StringRule that enables reloading levels when their files are edited.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class LevelWatchRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("level_watch");
+    }
+
+    @Override
+    public void action(String[] data) {
+      LevelWatchThread.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that displays how many entities are drawn in each view.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class CullStatsRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("cull_stats");
+    }
+
+    @Override
+    public void action(String[] data) {
+      CameraVariables.cullStats = Integer.valueOf(data[1]) == 1;
+    }
+
+  }
+
+  /**
+   * A StringRule that packs the sprite sheets into a texture atlas on start up.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class TextureAtlasRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("texture_atlas");
+    }
+
+    @Override
+    public void action(String[] data) {
+      AssetRegistry.setAtlasEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that prepares split-screen views on separate threads.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class ParallelViewsRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("parallel_views");
+    }
+
+    @Override
+    public void action(String[] data) {
+      ViewPrepareScheduler.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that sets how long the game models wait between ticks, in
+   * milliseconds.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class TickTimeRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("tick_time");
+    }
+
+    @Override
+    public void action(String[] data) {
+      SimulationVariables.tickTime = Math.max(1, Integer.valueOf(data[1]));
+    }
+
+  }
+
+  /**
+   * A StringRule that lets the game reduce detail when it runs over budget.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class GovernorRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("governor");
+    }
+
+    @Override
+    public void action(String[] data) {
+      PerformanceGovernor.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that sets how long rendering a frame should take, in
+   * milliseconds.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class FrameBudgetRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("frame_budget");
+    }
+
+    @Override
+    public void action(String[] data) {
+      PerformanceGovernor.setFrameBudget(Math.max(1, Integer.valueOf(data[1])));
+    }
+
+  }
+
+  /**
+   * A StringRule that lets enemies far from the player think less often.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class AiLodRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("ai_lod");
+    }
+
+    @Override
+    public void action(String[] data) {
+      AiScheduler.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that sets the most enemies that think each tick in a game.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class AiBudgetRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("ai_budget");
+    }
+
+    @Override
+    public void action(String[] data) {
+      AiScheduler.setBudget(Math.max(1, Integer.valueOf(data[1])));
+    }
+
+  }
+
+  /**
+   * A StringRule that stops enemies firing through structures.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class LineOfSightRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("line_of_sight");
+    }
+
+    @Override
+    public void action(String[] data) {
+      SightGrid.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that splits the work of each tick across threads once there
+   * is enough of it, followed by the amount of work needed and the number of
+   * threads to use (0 for one per processor).
+   * 
+   * @author Brandon Hua
+   */
+
+  public class ParallelPhasesRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("parallel_phases");
+    }
+
+    @Override
+    public void action(String[] data) {
+      ParallelPhases.setEnabled(Integer.valueOf(data[1]) == 1);
+      ParallelPhases.setThreshold(Math.max(1, Integer.valueOf(data[2])));
+      ParallelPhases.setWorkers(Math.max(0, Integer.valueOf(data[3])));
+    }
+
+  }
+
+  /**
+   * A StringRule that keeps the enemies and bullets of each game as columns of
+   * components instead of as objects. The options that only apply to objects
+   * are turned off once the whole file is loaded.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class EntityWorldRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("entity_world");
+    }
+
+    @Override
+    public void action(String[] data) {
+      EntityWorld.setEnabled(Integer.valueOf(data[1]) == 1);
+    }
+
+  }
+
+  /**
+   * A StringRule that sets the seed of the random numbers of every session, so
+   * sessions can be played out again. A seed of 0 picks a new one each session.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class SeedRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("seed");
+    }
+
+    @Override
+    public void action(String[] data) {
+      GameRandom.setSeed(Long.parseLong(data[1]));
+    }
+
+  }
+
+  /**
+   * A StringRule that records every single player session to the replays
+   * folder, followed by the number of ticks between keyframes.
+   * 
+   * @author Brandon Hua
+   */
+
+  public class ReplayRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("replay");
+    }
+
+    @Override
+    public void action(String[] data) {
+      ReplayRecorder.setEnabled(Integer.valueOf(data[1]) == 1);
+      ReplayRecorder.setKeyframeInterval(Integer.valueOf(data[2]));
+    }
+
+  }
+
+  /**
+   * A StringRule that keeps the last few seconds of a single player session to
+   * scrub back through, followed by the number of seconds to keep and the most
+   * memory to keep them in (in kilobytes).
+   * 
+   * @author Brandon Hua
+   */
+
+  public class RewindRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("rewind");
+    }
+
+    @Override
+    public void action(String[] data) {
+      RewindBuffer.setEnabled(Integer.valueOf(data[1]) == 1);
+      RewindBuffer.setSeconds(Integer.valueOf(data[2]));
+      RewindBuffer.setBudget(Integer.valueOf(data[3]) * 1024);
+    }
+
+  }
+
+  /**
+   * A StringRule that lets enemies that look ahead plan their moves, followed
+   * by the most enemies that can start a plan on each tick and the time they
+   * can spend planning each tick (in microseconds).
+   * 
+   * @author Brandon Hua
+   */
+
+  public class RolloutRule implements StringRule {
+
+    @Override
+    public boolean ruleCondition(String comparison) {
+      return comparison.equals("rollout");
+    }
+
+    @Override
+    public void action(String[] data) {
+      RolloutPlanner.setEnabled(Integer.valueOf(data[1]) == 1);
+      RolloutPlanner.setBudget(Integer.valueOf(data[2]));
+      RolloutPlanner.setTimeBudget(Integer.valueOf(data[3]));
+    }
+
+  }
+
 }
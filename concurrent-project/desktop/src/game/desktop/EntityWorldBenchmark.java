@@ -0,0 +1,235 @@
+package game.desktop;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.Enemy;
+import game.entities.ecs.Archetype;
+import game.entities.ecs.EntityWorld;
+import game.entities.ecs.MovementSystem;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.AiScheduler;
+import game.model.ParallelPhases;
+import game.model.RolloutPlanner;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The EntityWorldBenchmark measures the memory each enemy takes up and how
+ * quickly enemies are moved, as Enemy objects and as rows of an EntityWorld,
+ * and then times whole games on each with no window. It is run from the
+ * desktop directory, so the levels folder can be found.
+ * 
+ * <p>
+ * The memory is measured as the growth of the heap after collecting garbage,
+ * so it is only a guide and should be run with nothing else in the heap. The
+ * games are played with the options that do not apply to an EntityWorld
+ * turned off for both, the same as the ConfigLoader does.
+ * 
+ * @author Brandon Hua
+ */
+
+public class EntityWorldBenchmark {
+
+  private final static String LEVEL = "town.lvl";
+  private final static int ENTITIES = 200000;
+  private final static int PASSES = 100;
+  private final static int ROUNDS = 3;
+  private final static int GAMEROUNDS = 2;
+  private final static int TICKS = 1500;
+  private final static int[] GAMEENEMIES = { 50, 300 };
+
+  private static Object kept;
+
+  /**
+   * The main method runs the measurements in turn.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    Core.deltaTime = SimulationVariables.tickTime;
+    AiScheduler.setEnabled(false);
+    ParallelPhases.setEnabled(false);
+    RolloutPlanner.setEnabled(false);
+
+    ArrayList<Enemy> enemies = createEnemies();
+    EntityWorld world = createWorld();
+    timeMovement(enemies, world);
+    enemies = null;
+    world = null;
+
+    for (int i = 0; i < GAMEENEMIES.length; i++) {
+      for (int round = 0; round < GAMEROUNDS; round++) {
+        float objects = timeGame(false, GAMEENEMIES[i]);
+        float rows = timeGame(true, GAMEENEMIES[i]);
+        System.out.println(GAMEENEMIES[i] + " enemies: objects " + objects
+            + " ms per tick, entity world " + rows + " ms per tick");
+      }
+    }
+  }
+
+  /**
+   * A method that creates enemy objects and prints the memory each one takes.
+   * 
+   * @return The enemies.
+   */
+
+  private static ArrayList<Enemy> createEnemies() {
+    long before = usedMemory();
+    ArrayList<Enemy> enemies = new ArrayList<Enemy>(ENTITIES);
+    for (int i = 0; i < ENTITIES; i++) {
+      enemies.add(new Enemy(i % 1000, i / 1000, 32, 32, type(i)));
+    }
+    kept = enemies;
+    System.out.println("Enemy objects: " + ((usedMemory() - before) / ENTITIES)
+        + " bytes per enemy");
+    kept = null;
+    return enemies;
+  }
+
+  /**
+   * A method that adds enemies to an EntityWorld and prints the memory each one
+   * takes, both as measured and as the size of its columns.
+   * 
+   * @return The world.
+   */
+
+  private static EntityWorld createWorld() {
+    long before = usedMemory();
+    EntityWorld world = new EntityWorld();
+    for (int i = 0; i < ENTITIES; i++) {
+      world.addEnemy(i % 1000, i / 1000, 32, 32, type(i));
+    }
+    kept = world;
+    Archetype rows = world.getEnemies();
+    System.out.println("Entity world: " + ((usedMemory() - before) / ENTITIES)
+        + " bytes per enemy, " + (rows.getColumnBytes() / rows.getCapacity())
+        + " bytes per row of columns, " + rows.getCapacity() + " rows allocated");
+    kept = null;
+    return world;
+  }
+
+  /**
+   * A method that times accelerating and moving every enemy, which is the same
+   * work for both, over a number of passes.
+   * 
+   * @param enemies The enemy objects.
+   * @param world   The world holding the same number of enemies.
+   */
+
+  private static void timeMovement(ArrayList<Enemy> enemies, EntityWorld world) {
+    for (int i = 0; i < enemies.size(); i++) {
+      enemies.get(i).setXDir(1);
+      enemies.get(i).setYDir(-1);
+    }
+    Archetype rows = world.getEnemies();
+    MovementSystem movement = world.getMovement();
+    for (int row = 0; row < rows.getCount(); row++) {
+      rows.getXDir()[row] = 1;
+      rows.getYDir()[row] = -1;
+    }
+
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int pass = 0; pass < PASSES; pass++) {
+        for (int i = 0; i < enemies.size(); i++) {
+          enemies.get(i).accelDecel(1);
+          enemies.get(i).update(1);
+        }
+      }
+      long objects = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int pass = 0; pass < PASSES; pass++) {
+        movement.accelerate(rows, 1);
+        movement.integrate(rows, 1);
+      }
+      long columns = System.nanoTime() - start;
+      System.out.println("Moving " + ENTITIES + " enemies: objects "
+          + ((float) objects / PASSES / 1000000) + " ms per pass, entity world "
+          + ((float) columns / PASSES / 1000000) + " ms per pass");
+    }
+
+    long objectSum = 0;
+    for (int i = 0; i < enemies.size(); i++) {
+      objectSum += enemies.get(i).getXpos() + enemies.get(i).getYpos();
+    }
+    long rowSum = 0;
+    for (int row = 0; row < rows.getCount(); row++) {
+      rowSum += rows.getX()[row] + rows.getY()[row];
+    }
+    System.out.println("Positions after moving match: " + (objectSum == rowSum));
+  }
+
+  /**
+   * A method that plays a game with enemies of both types placed around the
+   * level and a player that walks in a square and shoots the whole time.
+   * 
+   * @param entityWorld Whether or not the game uses the EntityWorld.
+   * @param enemies     The number of enemies to place.
+   * @return The average time of a tick (in milliseconds).
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static float timeGame(boolean entityWorld, int enemies) throws IOException {
+    EntityWorld.setEnabled(entityWorld);
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false, enemies);
+    EntityWorld.setEnabled(false);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+    ShooterRules rules = new ShooterRules(game, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler inputHandler = new ShooterGameInputHandler(game);
+
+    int[] bounds = level.getBounds();
+    SightGrid sight = game.getSight();
+    Random random = new Random(enemies);
+    int placed = 0;
+    while (placed < enemies) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (!sight.isOccupied(sight.cellOf(x, y))) {
+        game.addEnemy(x, y, 32, 32, type(placed));
+        placed++;
+      }
+    }
+
+    long total = 0;
+    for (int tick = 0; tick < TICKS; tick++) {
+      GlobalInput.playerRight[0] = (tick / 100) % 2;
+      GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+      GlobalInput.playerUp[0] = (tick / 150) % 2;
+      GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+      GlobalInput.playerShoot[0] = true;
+      long start = System.nanoTime();
+      game.beginTick();
+      inputHandler.handleInputs();
+      rules.setAndUpdate(game);
+      game.update();
+      game.endTick();
+      total += System.nanoTime() - start;
+    }
+    GlobalInput.playerShoot[0] = false;
+    return (float) total / TICKS / 1000000;
+  }
+
+  private static String type(int index) {
+    return index % 2 == 0 ? "chase" : "shoot";
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
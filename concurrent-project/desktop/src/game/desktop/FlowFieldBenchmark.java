@@ -0,0 +1,147 @@
+package game.desktop;
+
+import game.entities.Enemy;
+import game.entities.PlayerCharacter;
+import game.model.levels.FlowField;
+import game.model.levels.Level;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The FlowFieldBenchmark times enemies reading their direction from a
+ * FlowField against facing straight towards the target, for crowds of
+ * thousands of enemies, and times recalculating the whole field. It is run
+ * from the desktop directory, so the levels folder can be found.
+ * 
+ * @author Brandon Hua
+ */
+
+public class FlowFieldBenchmark {
+
+  private final static String LEVEL = "town.lvl";
+  private final static long SEED = 39;
+  private final static int[] ENEMIES = { 1000, 5000, 20000 };
+  private final static int PASSES = 2000;
+  private final static int ROUNDS = 3;
+  private final static int RECALCULATIONS = 2000;
+
+  private static long kept;
+
+  /**
+   * The main method runs the timings in turn.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    Level level = new Level(LEVEL);
+    FlowField field = new FlowField(level);
+    PlayerCharacter target = new PlayerCharacter(0, 0, 32, 64, 1);
+    field.update(target);
+    System.out.println(LEVEL + ": " + field.getCols() + "x" + field.getRows() + " cells");
+
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int i = 0; i < ENEMIES.length; i++) {
+        timeLookups(level, field, target, ENEMIES[i]);
+      }
+    }
+    for (int round = 0; round < ROUNDS; round++) {
+      timeRecalculation(level, field, target);
+    }
+    System.out.println("Checksum of the directions found: " + kept);
+  }
+
+  /**
+   * A method that places enemies on open ground and times every one of them
+   * turning towards the target, once with the field and once straight towards
+   * it.
+   * 
+   * @param level   The level the enemies are in.
+   * @param field   The field leading to the target.
+   * @param target  The target.
+   * @param enemies The number of enemies.
+   */
+
+  private static void timeLookups(Level level, FlowField field, PlayerCharacter target,
+      int enemies) {
+    ArrayList<Enemy> crowd = createEnemies(level, field, enemies);
+
+    long start = System.nanoTime();
+    for (int pass = 0; pass < PASSES; pass++) {
+      for (int i = 0; i < crowd.size(); i++) {
+        crowd.get(i).navigateTowards(target, field);
+      }
+    }
+    long lookups = System.nanoTime() - start;
+    kept += checksum(crowd);
+
+    start = System.nanoTime();
+    for (int pass = 0; pass < PASSES; pass++) {
+      for (int i = 0; i < crowd.size(); i++) {
+        crowd.get(i).faceTowards(target);
+      }
+    }
+    long facing = System.nanoTime() - start;
+    kept += checksum(crowd);
+
+    System.out.println(enemies + " enemies: field lookups " + toMillis(lookups / PASSES)
+        + " ms per tick (faceTowards " + toMillis(facing / PASSES) + " ms)");
+  }
+
+  /**
+   * A method that moves the target between the cells of the level and times
+   * finding the whole field again each time.
+   * 
+   * @param level  The level.
+   * @param field  The field to recalculate.
+   * @param target The target, which is moved.
+   */
+
+  private static void timeRecalculation(Level level, FlowField field, PlayerCharacter target) {
+    int[] bounds = level.getBounds();
+    Random random = new Random(SEED);
+    int before = field.getRecalculations();
+    long start = System.nanoTime();
+    for (int i = 0; i < RECALCULATIONS; i++) {
+      target.setPos(bounds[0] + random.nextInt(bounds[1] - bounds[0]),
+          bounds[2] + random.nextInt(bounds[3] - bounds[2]));
+      do {
+        field.update(target);
+      } while (field.isSearching());
+    }
+    long time = System.nanoTime() - start;
+    int recalculations = field.getRecalculations() - before;
+    System.out.println("Full recalculation: " + toMillis(time / Math.max(1, recalculations))
+        + " ms over " + recalculations + " recalculations");
+  }
+
+  private static ArrayList<Enemy> createEnemies(Level level, FlowField field, int enemies) {
+    int[] bounds = level.getBounds();
+    Random random = new Random(SEED);
+    ArrayList<Enemy> crowd = new ArrayList<Enemy>(enemies);
+    while (crowd.size() < enemies) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (field.getDistance(x, y) != Integer.MAX_VALUE) {
+        crowd.add(new Enemy(x, y, 32, 32, crowd.size() % 2 == 0 ? "chase" : "shoot"));
+      }
+    }
+    return crowd;
+  }
+
+  private static long checksum(ArrayList<Enemy> crowd) {
+    long sum = 0;
+    for (int i = 0; i < crowd.size(); i++) {
+      sum += (long) (crowd.get(i).getXDir() * 1000) + (long) (crowd.get(i).getYDir() * 1000);
+    }
+    return sum;
+  }
+
+  private static String toMillis(long nanos) {
+    return String.valueOf(nanos / 1000000.0);
+  }
+
+}
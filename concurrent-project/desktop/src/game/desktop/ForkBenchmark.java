@@ -0,0 +1,307 @@
+package game.desktop;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.Enemy;
+import game.entities.Facing;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.ForkRunner;
+import game.model.RolloutPlanner;
+import game.model.SessionSnapshot;
+import game.model.SessionFork;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The ForkBenchmark times forking a game and stepping the forks with no
+ * window, and then plays games with and without enemies planning, to see how
+ * often the enemies that dodge are hit and what planning costs. It is run from
+ * the desktop directory, so the levels folder can be found.
+ * 
+ * <p>
+ * The forks are timed in a game with enemies placed around the player, half of
+ * them shooters and half dodgers, while the player walks in a square and
+ * shoots the whole time. The hits are counted in duels, where the player
+ * stands still and shoots at one enemy in front of them.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ForkBenchmark {
+
+  private final static String LEVEL = "town.lvl";
+  private final static int ENEMIES = 60;
+  private final static int SPREAD = 400;
+  private final static int WARMUP = 1000;
+  private final static int FORKS = 2000000;
+  private final static int STEPS = 2000;
+  private final static int DUEL = 3000;
+  private final static int DISTANCE = 240;
+  private final static int OFFSET = 16;
+
+  /**
+   * The main method runs the timings and then the games.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    Core.deltaTime = SimulationVariables.tickTime;
+    timeForks();
+    duel("dodge", true);
+    duel("dodge", false);
+    duel("shoot", false);
+    crowd(true, true);
+    crowd(true, false);
+    crowd(false, true);
+    RolloutPlanner.setEnabled(true);
+  }
+
+  /**
+   * A method that times making forks, reading them into the scratch game and
+   * stepping them.
+   * 
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static void timeForks() throws IOException {
+    RolloutPlanner.setEnabled(false);
+    Session session = new Session();
+    for (int tick = 0; tick < WARMUP; tick++) {
+      session.tick();
+    }
+    ShooterGame game = session.game;
+    ForkRunner runner = new ForkRunner(game, session.rules);
+    SessionFork root = runner.root(game, session.rules);
+    System.out.println(game.getEnemies().size() + " enemies, " + game.getBullets().size()
+        + " bullets, " + root.getSize() + " bytes of state read in for every fork stepped");
+
+    long start = System.nanoTime();
+    for (int i = 0; i < STEPS; i++) {
+      root = runner.root(game, session.rules);
+    }
+    report("root (snapshot of the game)", STEPS, System.nanoTime() - start);
+
+    for (int round = 0; round < 2; round++) {
+      start = System.nanoTime();
+      for (int i = 0; i < FORKS; i++) {
+        root.fork().discard();
+      }
+      report("fork that is never stepped (shares the state)", FORKS,
+          System.nanoTime() - start);
+    }
+
+    start = System.nanoTime();
+    for (int i = 0; i < STEPS; i++) {
+      SessionFork fork = root.fork();
+      fork.getGame();
+      fork.discard();
+    }
+    report("fork and read into a game", STEPS, System.nanoTime() - start);
+
+    int[] ticks = { 1, 16 };
+    for (int t = 0; t < ticks.length; t++) {
+      start = System.nanoTime();
+      for (int i = 0; i < STEPS; i++) {
+        SessionFork fork = root.fork();
+        fork.step(ticks[t]);
+        fork.discard();
+      }
+      report("fork and step " + ticks[t] + " ticks", STEPS, System.nanoTime() - start);
+    }
+
+    start = System.nanoTime();
+    SessionFork parent = root.fork();
+    for (int i = 0; i < STEPS; i++) {
+      SessionFork child = parent.fork();
+      child.step(1);
+      parent = child;
+    }
+    report("fork of a stepped fork and step 1 tick", STEPS, System.nanoTime() - start);
+
+    SessionSnapshot before = new SessionSnapshot();
+    before.capture(game, session.rules);
+    SessionFork a = root.fork();
+    SessionFork b = root.fork();
+    a.step(50);
+    b.step(50);
+    SessionSnapshot first = new SessionSnapshot();
+    first.capture(a.getGame(), a.getRules());
+    SessionSnapshot second = new SessionSnapshot();
+    second.capture(b.getGame(), b.getRules());
+    SessionSnapshot after = new SessionSnapshot();
+    after.capture(game, session.rules);
+    System.out.println("Two forks stepped 50 ticks apart match: " + first.matches(second)
+        + ", game forked from unchanged: " + before.matches(after));
+    System.out.println("Restores " + runner.getRestores() + ", written out "
+        + runner.getFreezes() + ", ticks stepped " + runner.getTicks());
+  }
+
+  /**
+   * A method that plays a duel for each of a few starting positions, and counts
+   * how often the enemy is hit by the player.
+   * 
+   * @param type The type of the enemy.
+   * @param plan Whether or not the enemy plans.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static void duel(String type, boolean plan) throws IOException {
+    RolloutPlanner.setEnabled(plan);
+    int hits = 0;
+    int duels = 0;
+    long plans = 0;
+    long planTime = 0;
+    long tickTime = 0;
+    for (int offset = -OFFSET; offset <= OFFSET; offset += OFFSET / 2) {
+      Session session = new Session(type, offset);
+      Enemy enemy = session.game.getEnemies().get(0);
+      for (int tick = 0; tick < DUEL; tick++) {
+        long start = System.nanoTime();
+        session.tick();
+        tickTime += System.nanoTime() - start;
+      }
+      hits += Integer.MAX_VALUE - enemy.getHealth();
+      duels++;
+      RolloutPlanner planner = session.game.getAiScheduler().getPlanner();
+      plans += planner.getPlans();
+      planTime += planner.getPlanTime();
+    }
+    System.out.println(type + (plan ? " planning: " : " not planning: ") + "hit " + hits
+        + " times in " + duels + " duels, " + plans + " plans, "
+        + (tickTime / duels / DUEL / 1000) + " us per tick, "
+        + (plans == 0 ? 0 : planTime / plans / 1000) + " us per plan");
+  }
+
+  /**
+   * A method that plays the game with enemies around the player, to see what
+   * planning costs when the forks have many enemies and bullets to step, and
+   * how much of it the time budget holds off the longest tick.
+   * 
+   * @param plan  Whether or not the enemies that dodge plan.
+   * @param timed Whether or not the planner keeps to the time budget.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static void crowd(boolean plan, boolean timed) throws IOException {
+    RolloutPlanner.setEnabled(plan);
+    Session session = new Session();
+    RolloutPlanner planner = session.game.getAiScheduler().getPlanner();
+    planner.setTimed(timed);
+    long tickTime = 0;
+    long longest = 0;
+    for (int tick = 0; tick < WARMUP; tick++) {
+      long start = System.nanoTime();
+      session.tick();
+      long time = System.nanoTime() - start;
+      tickTime += time;
+      longest = Math.max(longest, time);
+    }
+    System.out.println("Crowd " + (plan ? (timed ? "planning in " + RolloutPlanner.getTimeBudget()
+        + " us: " : "planning untimed: ") : "not planning: ") + planner.getPlans() + " plans, "
+        + planner.getCarried() + " ticks carrying a plan over, " + (tickTime / WARMUP / 1000)
+        + " us per tick, longest tick " + (longest / 1000) + " us, "
+        + (planner.getPlans() == 0 ? 0 : planner.getPlanTime() / planner.getPlans() / 1000)
+        + " us per plan");
+  }
+
+  private static void report(String name, int count, long nanos) {
+    System.out.println(name + ": " + (long) (count * 1e9 / Math.max(1, nanos)) + " per second, "
+        + ((float) nanos / count / 1000) + " us each");
+  }
+
+  /**
+   * A game with no spawners, played by a player that shoots the whole time.
+   * 
+   * @author Brandon Hua
+   */
+
+  private static class Session {
+
+    private ShooterGame game;
+    private ShooterRules rules;
+    private ShooterGameInputHandler inputHandler;
+    private boolean walk;
+    private int tick;
+
+    /**
+     * A constructor for a game with enemies of both types placed around the
+     * player, who walks in a square.
+     * 
+     * @throws IOException If the level cannot be loaded.
+     */
+
+    private Session() throws IOException {
+      start();
+      walk = true;
+      SightGrid sight = game.getSight();
+      Random random = new Random(ENEMIES);
+      int placed = 0;
+      while (placed < ENEMIES) {
+        int x = game.getPlayer().getXpos() + random.nextInt(SPREAD * 2) - SPREAD;
+        int y = game.getPlayer().getYpos() + random.nextInt(SPREAD * 2) - SPREAD;
+        if (!sight.isOccupied(sight.cellOf(x, y))) {
+          game.addEnemy(x, y, 32, 32, placed % 2 == 0 ? "shoot" : "dodge");
+          placed++;
+        }
+      }
+    }
+
+    /**
+     * A constructor for a duel between the player, who stands still and shoots
+     * in the direction they face, and one enemy in front of them that cannot
+     * be killed.
+     * 
+     * @param type   The type of the enemy.
+     * @param offset How far to the side of the line of fire the enemy starts.
+     * @throws IOException If the level cannot be loaded.
+     */
+
+    private Session(String type, int offset) throws IOException {
+      start();
+      game.getPlayer().setFacing(Facing.RIGHT);
+      game.addEnemy(game.getPlayer().getXpos() + DISTANCE, game.getPlayer().getYpos() + offset,
+          32, 32, type);
+      game.getEnemies().get(0).setHealth(Integer.MAX_VALUE);
+    }
+
+    private void start() throws IOException {
+      Level level = new Level(LEVEL);
+      level.getSpawners().clear();
+      game = new ShooterGame(level, 1, false, 42);
+      game.getPlayer().setHealth(Integer.MAX_VALUE);
+      rules = new ShooterRules(game, "timed", Long.MAX_VALUE);
+      inputHandler = new ShooterGameInputHandler(game);
+    }
+
+    private void tick() {
+      if (walk) {
+        GlobalInput.playerRight[0] = (tick / 100) % 2;
+        GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+        GlobalInput.playerUp[0] = (tick / 150) % 2;
+        GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+      } else {
+        GlobalInput.playerRight[0] = 0;
+        GlobalInput.playerLeft[0] = 0;
+        GlobalInput.playerUp[0] = 0;
+        GlobalInput.playerDown[0] = 0;
+      }
+      GlobalInput.playerShoot[0] = true;
+      game.beginTick();
+      inputHandler.handleInputs();
+      rules.setAndUpdate(game);
+      game.update();
+      game.endTick();
+      tick++;
+    }
+
+  }
+
+}
@@ -0,0 +1,180 @@
+package game.desktop;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.Enemy;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.AiScheduler;
+import game.model.ParallelPhases;
+import game.model.RolloutPlanner;
+import game.model.SessionSnapshot;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The ParallelCheck runs the same game on one thread and with every phase
+ * split across the workers of ParallelPhases side by side, with no window,
+ * and fails if the state of the two ever differs. The threshold is set to 1
+ * so every phase with more than one entity is split, and a snapshot of each
+ * game is taken every tick and compared byte for byte. It is run from the
+ * desktop directory and exits with a status of 1 if a check fails.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ParallelCheck {
+
+  private final static String LEVEL = "town.lvl";
+  private final static long SEED = 45;
+  private final static int TICKS = 3000;
+  private final static int WORKERS = 4;
+
+  /**
+   * The main method runs each check and prints whether the two games matched.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    RolloutPlanner.setEnabled(false);
+    ParallelPhases.setThreshold(1);
+    ParallelPhases.setWorkers(WORKERS);
+    Core.deltaTime = SimulationVariables.tickTime;
+
+    boolean passed = true;
+    AiScheduler.setEnabled(false);
+    passed &= check("chasers and shooters", new String[] { "chase", "shoot" }, 300);
+    AiScheduler.setEnabled(true);
+    passed &= check("chasers and shooters with ai_lod", new String[] { "chase", "shoot" }, 300);
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * A method that runs a game on one thread and a game split across the
+   * workers, ticking them in turn with the same input, and compares them after
+   * every tick.
+   * 
+   * @param name       The name of the check.
+   * @param enemyTypes The types of enemy to place, placed in turn.
+   * @param enemies    The number of enemies to place.
+   * @return A boolean for whether or not the games matched on every tick.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static boolean check(String name, String[] enemyTypes, int enemies)
+      throws IOException {
+    ShooterGame serial = createGame(enemyTypes, enemies);
+    ShooterGame parallel = createGame(enemyTypes, enemies);
+    ShooterRules serialRules = new ShooterRules(serial, "timed", Long.MAX_VALUE);
+    ShooterRules parallelRules = new ShooterRules(parallel, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler serialInput = new ShooterGameInputHandler(serial);
+    ShooterGameInputHandler parallelInput = new ShooterGameInputHandler(parallel);
+    SessionSnapshot serialState = new SessionSnapshot();
+    SessionSnapshot parallelState = new SessionSnapshot();
+
+    for (int tick = 0; tick < TICKS; tick++) {
+      GlobalInput.playerRight[0] = (tick / 100) % 2;
+      GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+      GlobalInput.playerUp[0] = (tick / 150) % 2;
+      GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+      GlobalInput.playerShoot[0] = true;
+
+      ParallelPhases.setEnabled(false);
+      tick(serial, serialRules, serialInput);
+      ParallelPhases.setEnabled(true);
+      tick(parallel, parallelRules, parallelInput);
+
+      serialState.capture(serial, serialRules);
+      parallelState.capture(parallel, parallelRules);
+      if (!serialState.matches(parallelState)) {
+        GlobalInput.playerShoot[0] = false;
+        System.out.println(name + ": FAILED on tick " + tick + ", " + describe(serial, parallel));
+        return false;
+      }
+    }
+    GlobalInput.playerShoot[0] = false;
+    System.out.println(name + ": matched for " + TICKS + " ticks, "
+        + parallel.getPhases().getParallelRuns() + " phases split across " + WORKERS
+        + " workers, " + serial.getVars().getDefeated() + " enemies defeated");
+    return true;
+  }
+
+  /**
+   * A method that creates a game with enemies placed the same way every time.
+   * 
+   * @param enemyTypes The types of enemy to place, placed in turn.
+   * @param enemies    The number of enemies to place.
+   * @return The game.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static ShooterGame createGame(String[] enemyTypes, int enemies) throws IOException {
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false, SEED);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+
+    int[] bounds = level.getBounds();
+    SightGrid sight = game.getSight();
+    Random random = new Random(SEED);
+    int placed = 0;
+    while (placed < enemies) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (!sight.isOccupied(sight.cellOf(x, y))) {
+        game.addEnemy(x, y, 32, 32, enemyTypes[placed % enemyTypes.length]);
+        placed++;
+      }
+    }
+    return game;
+  }
+
+  private static void tick(ShooterGame game, ShooterRules rules,
+      ShooterGameInputHandler inputHandler) {
+    game.beginTick();
+    inputHandler.handleInputs();
+    rules.setAndUpdate(game);
+    game.update();
+    game.endTick();
+  }
+
+  /**
+   * A method that looks for the first enemy that differs between the games, to
+   * say where the snapshots differ.
+   * 
+   * @param serial   The game run on one thread.
+   * @param parallel The game split across the workers.
+   * @return A description of the difference.
+   */
+
+  private static String describe(ShooterGame serial, ShooterGame parallel) {
+    ArrayList<Enemy> serialEnemies = serial.getEnemies();
+    ArrayList<Enemy> parallelEnemies = parallel.getEnemies();
+    if (serialEnemies.size() != parallelEnemies.size()) {
+      return serialEnemies.size() + " enemies against " + parallelEnemies.size();
+    }
+    for (int i = 0; i < serialEnemies.size(); i++) {
+      Enemy a = serialEnemies.get(i);
+      Enemy b = parallelEnemies.get(i);
+      if (a.getXpos() != b.getXpos() || a.getYpos() != b.getYpos()
+          || a.getXVel() != b.getXVel() || a.getYVel() != b.getYVel()
+          || a.getHealth() != b.getHealth()) {
+        return "enemy " + i + " at " + a.getXpos() + "," + a.getYpos() + " moving "
+            + a.getXVel() + "," + a.getYVel() + " against " + b.getXpos() + "," + b.getYpos()
+            + " moving " + b.getXVel() + "," + b.getYVel();
+      }
+    }
+    return "the snapshots differ outside the enemies";
+  }
+
+}
@@ -0,0 +1,90 @@
+package game.desktop;
+
+import game.replay.ReplayHeader;
+import game.replay.ReplayPlayer;
+import game.replay.ReplayRecorder;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The ReplayRunner plays a replay with no window as fast as it can, checking
+ * every keyframe on the way, and then times seeking to a few ticks. It is run
+ * from the desktop directory, so the levels folder can be found, and exits
+ * with a status of 1 if the replay no longer plays out the way it was
+ * recorded, so recorded sessions can be kept and played again after a change.
+ * 
+ * @author Brandon Hua
+ */
+
+public class ReplayRunner {
+
+  private final static float[] SEEKS = { 0.1f, 0.5f, 0.9f, 1f };
+
+  /**
+   * The main method plays the replay given, or the newest in the replays folder.
+   * 
+   * @param args The path of the replay file, if any.
+   * @throws IOException If the replay or its level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    Path file = args.length > 0 ? Paths.get(args[0]) : newestReplay();
+    if (file == null) {
+      System.out.println("No replay given and none found in "
+          + ReplayRecorder.getReplayDirectory());
+      System.exit(1);
+    }
+
+    ReplayPlayer player = new ReplayPlayer(file);
+    ReplayHeader header = player.getHeader();
+    System.out.println(file + ": " + header.getLevelName() + ", " + header.getMode()
+        + " mode, seed " + header.getSeed() + ", " + player.getTotalTicks() + " ticks, "
+        + player.getKeyframeCount() + " keyframes");
+
+    long start = System.nanoTime();
+    int ticks = player.playToEnd();
+    long nanos = System.nanoTime() - start;
+    float minutes = (player.getGame().getTickClock() - header.getClock()) / 60000f;
+    System.out.println("Played " + ticks + " ticks in " + (nanos / 1000000) + " ms ("
+        + (int) (ticks * 1e9 / Math.max(1, nanos)) + " ticks per second)");
+    if (minutes > 0) {
+      System.out.println((int) (Files.size(file) / minutes) + " bytes per minute recorded");
+    }
+
+    for (int i = 0; i < SEEKS.length; i++) {
+      int target = (int) (player.getTotalTicks() * SEEKS[i]);
+      start = System.nanoTime();
+      player.seek(target);
+      nanos = System.nanoTime() - start;
+      System.out.println("Seek to tick " + target + " took " + (nanos / 1000) + " us");
+    }
+
+    if (player.getDivergedTick() != -1) {
+      System.out.println("FAILED, the replay diverged before tick " + player.getDivergedTick());
+      System.exit(1);
+    }
+    System.out.println("All " + player.getKeyframesChecked() + " keyframes checked matched");
+  }
+
+  private static Path newestReplay() throws IOException {
+    Path directory = ReplayRecorder.getReplayDirectory();
+    if (!Files.isDirectory(directory)) {
+      return null;
+    }
+    Path newest = null;
+    try (DirectoryStream<Path> replays = Files.newDirectoryStream(directory, "*.rpl")) {
+      for (Path replay : replays) {
+        if (newest == null || Files.getLastModifiedTime(replay)
+            .compareTo(Files.getLastModifiedTime(newest)) > 0) {
+          newest = replay;
+        }
+      }
+    }
+    return newest;
+  }
+
+}
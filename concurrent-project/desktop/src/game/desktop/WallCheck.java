@@ -0,0 +1,185 @@
+package game.desktop;
+
+import game.Core;
+import game.SimulationVariables;
+import game.entities.Enemy;
+import game.entities.PlayerCharacter;
+import game.entities.ecs.Archetype;
+import game.entities.ecs.EntityWorld;
+import game.entities.structures.Structure;
+import game.input.GlobalInput;
+import game.input.ShooterGameInputHandler;
+import game.model.AiScheduler;
+import game.model.ParallelPhases;
+import game.model.RolloutPlanner;
+import game.model.ShooterGame;
+import game.model.levels.Level;
+import game.model.levels.SightGrid;
+import game.model.rules.ShooterRules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The WallCheck plays games at a longer tick time than the base one, with no
+ * window, and fails if the player or an enemy ever overlaps a wall it should
+ * be stopped by. It is run from the desktop directory and exits with a status
+ * of 1 if a check fails.
+ * 
+ * @author Brandon Hua
+ */
+
+public class WallCheck {
+
+  private final static String LEVEL = "town.lvl";
+  private final static long SEED = 44;
+  private final static int TICKS = 3000;
+  private final static int ENEMIES = 200;
+  private final static int[] TICKTIMES = { SimulationVariables.BASETICKTIME, 20 };
+
+  /**
+   * The main method runs the check on each backend at each tick time.
+   * 
+   * @param args Unused.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  public static void main(String[] args) throws IOException {
+    AiScheduler.setEnabled(false);
+    ParallelPhases.setEnabled(false);
+    RolloutPlanner.setEnabled(false);
+
+    boolean passed = true;
+    for (int i = 0; i < TICKTIMES.length; i++) {
+      SimulationVariables.tickTime = TICKTIMES[i];
+      Core.deltaTime = SimulationVariables.tickTime;
+      passed &= check(false);
+      passed &= check(true);
+    }
+    SimulationVariables.tickTime = SimulationVariables.BASETICKTIME;
+    if (!passed) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * A method that plays a game with chasers placed around the level and a
+   * player that walks in a square and shoots the whole time, checking the
+   * walls after every tick.
+   * 
+   * @param entityWorld Whether or not the game uses the EntityWorld.
+   * @return A boolean for whether or not nothing overlapped a wall.
+   * @throws IOException If the level cannot be loaded.
+   */
+
+  private static boolean check(boolean entityWorld) throws IOException {
+    String name = (entityWorld ? "entity world" : "objects") + " at tick_time "
+        + SimulationVariables.tickTime;
+    EntityWorld.setEnabled(entityWorld);
+    Level level = new Level(LEVEL);
+    level.getSpawners().clear();
+    ShooterGame game = new ShooterGame(level, 1, false, SEED);
+    EntityWorld.setEnabled(false);
+    game.getPlayer().setHealth(Integer.MAX_VALUE);
+    ShooterRules rules = new ShooterRules(game, "timed", Long.MAX_VALUE);
+    ShooterGameInputHandler inputHandler = new ShooterGameInputHandler(game);
+
+    int[] bounds = level.getBounds();
+    SightGrid sight = game.getSight();
+    Random random = new Random(SEED);
+    int placed = 0;
+    while (placed < ENEMIES) {
+      int x = bounds[0] + random.nextInt(bounds[1] - bounds[0]);
+      int y = bounds[2] + random.nextInt(bounds[3] - bounds[2]);
+      if (!sight.isOccupied(sight.cellOf(x, y)) && !insideWall(level, x, y, 32, 32)) {
+        game.addEnemy(x, y, 32, 32, "chase");
+        placed++;
+      }
+    }
+
+    for (int tick = 0; tick < TICKS; tick++) {
+      GlobalInput.playerRight[0] = (tick / 100) % 2;
+      GlobalInput.playerLeft[0] = 1 - GlobalInput.playerRight[0];
+      GlobalInput.playerUp[0] = (tick / 150) % 2;
+      GlobalInput.playerDown[0] = 1 - GlobalInput.playerUp[0];
+      GlobalInput.playerShoot[0] = true;
+      game.beginTick();
+      inputHandler.handleInputs();
+      rules.setAndUpdate(game);
+      game.update();
+      game.endTick();
+
+      String overlap = findOverlap(game);
+      if (overlap != null) {
+        GlobalInput.playerShoot[0] = false;
+        System.out.println(name + ": FAILED on tick " + tick + ", " + overlap);
+        return false;
+      }
+    }
+    GlobalInput.playerShoot[0] = false;
+    System.out.println(name + ": nothing overlapped a wall for " + TICKS + " ticks");
+    return true;
+  }
+
+  /**
+   * A method that looks for the player or an enemy inside a wall. Enemies are
+   * only checked against the walls that stop enemies.
+   * 
+   * @param game The game to check.
+   * @return A description of the first overlap found, or null if there is none.
+   */
+
+  private static String findOverlap(ShooterGame game) {
+    ArrayList<Structure> walls = game.getLevel().getStructures();
+    PlayerCharacter player = game.getPlayer();
+    for (int w = 0; w < walls.size(); w++) {
+      Structure wall = walls.get(w);
+      if (overlaps(wall, player.getXpos(), player.getYpos(), player.getWidth(),
+          player.getHeight())) {
+        return "player at " + player.getXpos() + "," + player.getYpos() + " inside the wall at "
+            + wall.getXpos() + "," + wall.getYpos();
+      }
+      if (!wall.getEnemyCol()) {
+        continue;
+      }
+      if (game.getWorld() != null) {
+        Archetype rows = game.getWorld().getEnemies();
+        for (int row = 0; row < rows.getCount(); row++) {
+          if (overlaps(wall, rows.getX()[row], rows.getY()[row], rows.getWidth()[row],
+              rows.getHeight()[row])) {
+            return "enemy " + row + " at " + rows.getX()[row] + "," + rows.getY()[row]
+                + " inside the wall at " + wall.getXpos() + "," + wall.getYpos();
+          }
+        }
+      } else {
+        ArrayList<Enemy> enemies = game.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+          Enemy enemy = enemies.get(i);
+          if (overlaps(wall, enemy.getXpos(), enemy.getYpos(), enemy.getWidth(),
+              enemy.getHeight())) {
+            return "enemy " + i + " at " + enemy.getXpos() + "," + enemy.getYpos()
+                + " inside the wall at " + wall.getXpos() + "," + wall.getYpos();
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean insideWall(Level level, int x, int y, int width, int height) {
+    ArrayList<Structure> walls = level.getStructures();
+    for (int w = 0; w < walls.size(); w++) {
+      if (overlaps(walls.get(w), x, y, width, height)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean overlaps(Structure wall, int x, int y, int width, int height) {
+    return x - width / 2 < wall.maxX() && wall.minX() < x + width / 2
+        && y - height / 2 < wall.maxY() && wall.minY() < y + height / 2;
+  }
+
+}